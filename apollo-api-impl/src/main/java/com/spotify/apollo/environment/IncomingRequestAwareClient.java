@@ -21,8 +21,10 @@ package com.spotify.apollo.environment;
 
 import com.spotify.apollo.Client;
 import com.spotify.apollo.Request;
+import com.spotify.apollo.RequestMetadata;
 import com.spotify.apollo.Response;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 
@@ -69,4 +71,18 @@ public interface IncomingRequestAwareClient {
   default Client wrapRequest(Request request) {
     return new RequestScopedClient(this, request);
   }
+
+  /**
+   * Wraps a request that arrived at the given time and returns a {@link Client} where all calls
+   * use the wrapped request for the incoming argument. If the wrapped request has a ttl, outgoing
+   * requests get no more than the time it has left, and fail without being sent once it has
+   * expired.
+   *
+   * @param request      The request to wrap
+   * @param arrivalTime  When the wrapped request arrived, see {@link RequestMetadata#arrivalTime()}
+   * @return A client scoped to the wrapped request
+   */
+  default Client wrapRequest(Request request, Instant arrivalTime) {
+    return new RequestScopedClient(this, request, arrivalTime);
+  }
 }
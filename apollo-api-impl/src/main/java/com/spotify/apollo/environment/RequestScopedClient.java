@@ -19,27 +19,84 @@
  */
 package com.spotify.apollo.environment;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import com.spotify.apollo.Client;
 import com.spotify.apollo.Request;
 import com.spotify.apollo.Response;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeoutException;
 
 import okio.ByteString;
 
+/**
+ * A {@link Client} for calls made while handling an incoming request.
+ *
+ * If the incoming request has a ttl, the time it has left is propagated to every outgoing
+ * request, both as its {@link Request#ttl()} and in the {@link #TTL_HEADER} header, unless the
+ * outgoing request already has a shorter ttl. Once the incoming request has run out of time,
+ * calls fail immediately with a {@link TimeoutException} instead of being sent.
+ */
 class RequestScopedClient implements Client {
 
+  /**
+   * The header carrying the remaining ttl of a request, in milliseconds.
+   */
+  static final String TTL_HEADER = "X-Apollo-Ttl-Millis";
+
   private final IncomingRequestAwareClient delegate;
   private final Request origin;
+  private final Optional<Instant> deadline;
+  private final Clock clock;
 
   RequestScopedClient(IncomingRequestAwareClient delegate, Request origin) {
+    this(delegate, origin, Optional.empty(), Clock.systemUTC());
+  }
+
+  RequestScopedClient(IncomingRequestAwareClient delegate, Request origin, Instant arrivalTime) {
+    this(delegate, origin, origin.ttl().map(arrivalTime::plus), Clock.systemUTC());
+  }
+
+  @VisibleForTesting
+  RequestScopedClient(IncomingRequestAwareClient delegate,
+                      Request origin,
+                      Optional<Instant> deadline,
+                      Clock clock) {
     this.delegate = delegate;
     this.origin = origin;
+    this.deadline = deadline;
+    this.clock = clock;
   }
 
   @Override
   public CompletionStage<Response<ByteString>> send(Request request) {
-    return delegate.send(request, Optional.of(origin));
+    if (!deadline.isPresent()) {
+      return delegate.send(request, Optional.of(origin));
+    }
+
+    final Duration remaining = Duration.between(clock.instant(), deadline.get());
+    if (remaining.isNegative() || remaining.isZero()) {
+      final CompletableFuture<Response<ByteString>> future = new CompletableFuture<>();
+      future.completeExceptionally(new TimeoutException(
+          "Deadline of incoming request " + origin.uri() + " exceeded, not sending request to "
+          + request.uri()));
+      return future;
+    }
+
+    final Duration ttl = request.ttl()
+        .filter(requested -> requested.compareTo(remaining) < 0)
+        .orElse(remaining);
+    final Request bounded = request.toBuilder()
+        .ttl(ttl)
+        .header(TTL_HEADER, String.valueOf(ttl.toMillis()))
+        .build();
+
+    return delegate.send(bounded, Optional.of(origin));
   }
 }
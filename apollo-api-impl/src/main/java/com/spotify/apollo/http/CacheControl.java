@@ -0,0 +1,133 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Implementations
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * The directives of a {@code Cache-Control} header that matter to caches of responses, such as
+ * the response cache middleware of apollo-extra or the caching http client.
+ *
+ * <p>Both are shared by many callers, so {@code s-maxage} is preferred over {@code max-age}.
+ */
+public final class CacheControl {
+
+  public static final CacheControl NONE = new CacheControl(false, false, false, -1, -1);
+
+  private final boolean noStore;
+  private final boolean noCache;
+  private final boolean isPrivate;
+  private final long maxAgeSeconds;
+  private final long staleWhileRevalidateSeconds;
+
+  private CacheControl(boolean noStore,
+                       boolean noCache,
+                       boolean isPrivate,
+                       long maxAgeSeconds,
+                       long staleWhileRevalidateSeconds) {
+    this.noStore = noStore;
+    this.noCache = noCache;
+    this.isPrivate = isPrivate;
+    this.maxAgeSeconds = maxAgeSeconds;
+    this.staleWhileRevalidateSeconds = staleWhileRevalidateSeconds;
+  }
+
+  public static CacheControl parse(Optional<String> header) {
+    return header.map(CacheControl::parse).orElse(NONE);
+  }
+
+  public static CacheControl parse(String header) {
+    boolean noStore = false;
+    boolean noCache = false;
+    boolean isPrivate = false;
+    long maxAge = -1;
+    long sharedMaxAge = -1;
+    long staleWhileRevalidate = -1;
+
+    for (String directive : header.split(",")) {
+      final int equals = directive.indexOf('=');
+      final String name = (equals < 0 ? directive : directive.substring(0, equals))
+          .trim().toLowerCase(Locale.ROOT);
+      final String value = equals < 0 ? "" : directive.substring(equals + 1).trim();
+
+      switch (name) {
+        case "no-store":
+          noStore = true;
+          break;
+        case "no-cache":
+          noCache = true;
+          break;
+        case "private":
+          isPrivate = true;
+          break;
+        case "max-age":
+          maxAge = seconds(value);
+          break;
+        case "s-maxage":
+          sharedMaxAge = seconds(value);
+          break;
+        case "stale-while-revalidate":
+          staleWhileRevalidate = seconds(value);
+          break;
+        default:
+          // not relevant to caching responses
+      }
+    }
+
+    return new CacheControl(noStore, noCache, isPrivate,
+                            sharedMaxAge >= 0 ? sharedMaxAge : maxAge,
+                            staleWhileRevalidate);
+  }
+
+  private static long seconds(String value) {
+    try {
+      return Long.parseLong(value.startsWith("\"") ? value.replace("\"", "") : value);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  public boolean noStore() {
+    return noStore;
+  }
+
+  public boolean noCache() {
+    return noCache;
+  }
+
+  public boolean isPrivate() {
+    return isPrivate;
+  }
+
+  /**
+   * The {@code s-maxage} or {@code max-age} directive, or -1 if there is none.
+   */
+  public long maxAgeSeconds() {
+    return maxAgeSeconds;
+  }
+
+  /**
+   * The {@code stale-while-revalidate} directive, or -1 if there is none.
+   */
+  public long staleWhileRevalidateSeconds() {
+    return staleWhileRevalidateSeconds;
+  }
+}
@@ -0,0 +1,50 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Implementations
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http;
+
+import com.spotify.apollo.Response;
+
+import java.util.Map;
+
+import okio.ByteString;
+
+/**
+ * Estimates how much memory a cached response takes up, for caches that are bounded in bytes.
+ */
+public final class ResponseWeigher {
+
+  // rough cost of the cache entry, key and header objects besides their contents, in bytes
+  private static final int ENTRY_OVERHEAD = 256;
+
+  private ResponseWeigher() {
+  }
+
+  /**
+   * The approximate number of bytes held by a cache entry for the response: its payload, its
+   * headers as Java strings and a fixed overhead.
+   */
+  public static int weigh(Response<ByteString> response) {
+    long weight = ENTRY_OVERHEAD + response.payload().map(ByteString::size).orElse(0);
+    for (Map.Entry<String, String> header : response.headerEntries()) {
+      weight += 2 * (header.getKey().length() + header.getValue().length());
+    }
+    return (int) Math.min(Integer.MAX_VALUE, weight);
+  }
+}
@@ -24,12 +24,12 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 
 import com.spotify.apollo.Request;
+import com.spotify.apollo.RequestUri;
 import com.spotify.apollo.route.ApplicationRouter;
 import com.spotify.apollo.route.InvalidUriException;
+import com.spotify.apollo.route.RoutingResult;
 import com.spotify.apollo.route.RuleMatch;
 
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -49,23 +49,34 @@ public class ApplicationOrMetaRouter<E> implements ApplicationRouter<E> {
 
   @Override
   public Optional<RuleMatch<E>> match(Request message) throws InvalidUriException {
-    final String uri = message.uri();
-    if (isMeta(uri)) {
+    if (isMeta(RequestUri.of(message))) {
       return metaRouter.match(message);
     } else {
       return applicationRouter.match(message);
     }
   }
 
+  /**
+   * Routes the request with either the meta router or the application router. Unlike
+   * {@link #getMethodsForValidRules(Request)}, the allowed methods of a miss only come from the
+   * router that the request was sent to, as the other one could never have matched it.
+   */
+  @Override
+  public RoutingResult<E> route(Request message) throws InvalidUriException {
+    if (isMeta(RequestUri.of(message))) {
+      return metaRouter.route(message);
+    } else {
+      return applicationRouter.route(message);
+    }
+  }
+
   @VisibleForTesting
   static boolean isMeta(final String uriString) {
-    final URI uri;
-    try {
-      uri = new URI(uriString);
-    } catch (URISyntaxException e) {
-      return false;
-    }
-    return uri.getPath().startsWith(META);
+    return isMeta(RequestUri.parse(uriString));
+  }
+
+  private static boolean isMeta(final RequestUri uri) {
+    return uri.isValid() && uri.rawPathStartsWith(META);
   }
 
   @Override
@@ -24,6 +24,7 @@ import com.spotify.apollo.RequestMetadata;
 import com.spotify.apollo.Response;
 
 import java.util.Objects;
+import java.util.OptionalLong;
 
 import okio.ByteString;
 
@@ -58,6 +59,21 @@ public abstract class ForwardingOngoingRequest implements OngoingRequest {
     return delegate.isExpired();
   }
 
+  @Override
+  public boolean onReplyWritten(Runnable listener) {
+    return delegate.onReplyWritten(listener);
+  }
+
+  @Override
+  public OptionalLong deadlineNanos() {
+    return delegate.deadlineNanos();
+  }
+
+  @Override
+  public OptionalLong dispatchTimeNanos() {
+    return delegate.dispatchTimeNanos();
+  }
+
   @Override
   public ServerInfo serverInfo() {
     return delegate.serverInfo();
@@ -0,0 +1,46 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Implementations
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.request;
+
+import com.spotify.apollo.RequestContext;
+
+/**
+ * Implemented by a {@link RequestContext} that wants to know when the handler of its request has
+ * produced a response, so that the time spent in the handler can be told apart from the time
+ * spent serializing the response. Middlewares that serialize responses report it through
+ * {@link #handlerCompleted(RequestContext)} before they serialize.
+ */
+public interface HandlerCompletionListener {
+
+  /**
+   * Called when the handler has produced a response that is about to be serialized. May be called
+   * more than once if several middlewares serialize.
+   */
+  void handlerCompleted();
+
+  /**
+   * Tells the request context that the handler has completed, if it wants to know.
+   */
+  static void handlerCompleted(RequestContext requestContext) {
+    if (requestContext instanceof HandlerCompletionListener) {
+      ((HandlerCompletionListener) requestContext).handlerCompleted();
+    }
+  }
+}
@@ -24,8 +24,10 @@ import com.spotify.apollo.RequestMetadata;
 import com.spotify.apollo.Response;
 
 import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import okio.ByteString;
 
@@ -66,6 +68,42 @@ public interface OngoingRequest {
 
   boolean isExpired();
 
+  /**
+   * Asks for {@code listener} to be run once the reply has been written to the client, and
+   * returns whether it will be. It must be called before {@link #reply(Response)}. Servers that
+   * don't know when a reply has been written return {@code false} and never run the listener,
+   * which is also not run for dropped requests or replies that failed to be written.
+   *
+   * <p>The listener may be run on a thread that does I/O for the server, so it must not block.
+   */
+  default boolean onReplyWritten(Runnable listener) {
+    return false;
+  }
+
+  /**
+   * Returns the {@link System#nanoTime()} after which this request expires, if it is known.
+   * This lets expiry checks be scheduled for when they are due instead of polling
+   * {@link #isExpired()}, which remains the authority on whether the request has expired.
+   *
+   * <p>By default, the deadline is the {@link Request#ttl() ttl} of the request after its
+   * {@link #arrivalTimeNanos() arrival}, and unknown for requests without a ttl.
+   */
+  default OptionalLong deadlineNanos() {
+    final Optional<Duration> ttl = request().ttl();
+    return ttl.isPresent()
+           ? OptionalLong.of(arrivalTimeNanos() + ttl.get().toNanos())
+           : OptionalLong.empty();
+  }
+
+  /**
+   * Returns the {@link System#nanoTime()} at which a thread started handling this request, if it
+   * is known. Until then, the request was waiting for a thread since
+   * {@link #arrivalTimeNanos()}.
+   */
+  default OptionalLong dispatchTimeNanos() {
+    return OptionalLong.empty();
+  }
+
   /**
    * Get the arrival time of the incoming request in nanoseconds. Note that this is not
    * unix epoch as the time is provided by {@link System#nanoTime()}. To get unix epoch
@@ -83,7 +83,7 @@ class RequestHandlerImpl implements RequestHandler {
   private void handleEndpointMatch(OngoingRequest request, RuleMatch<Endpoint> match) {
     final Endpoint endpoint = match.getRule().getTarget();
     final Map<String, String> parsedPathArguments = match.parsedPathArguments();
-    final Client requestScopedClient = client.wrapRequest(request.request());
+    final Client requestScopedClient = client.wrapRequest(request.request(), request.metadata().arrivalTime());
     final RequestContext requestContext =
         RequestContexts.create(request.request(),
                                requestScopedClient,
@@ -28,6 +28,7 @@ import com.spotify.apollo.StatusType;
 import com.spotify.apollo.dispatch.Endpoint;
 import com.spotify.apollo.route.ApplicationRouter;
 import com.spotify.apollo.route.InvalidUriException;
+import com.spotify.apollo.route.RoutingResult;
 import com.spotify.apollo.route.RuleMatch;
 
 import org.slf4j.Logger;
@@ -77,18 +78,19 @@ class RequestRunnableImpl implements RequestRunnable {
 
   private void matchAndRun(BiConsumer<OngoingRequest, RuleMatch<Endpoint>> matchContinuation) {
     final Request request = ongoingRequest.request();
-    final Optional<RuleMatch<Endpoint>> match;
+    final RoutingResult<Endpoint> result;
 
     try {
-      match = applicationRouter.match(request);
+      result = applicationRouter.route(request);
     } catch (InvalidUriException e) {
       LOG.warn("bad uri {} {} {}", request.method(), request.uri(), BAD_REQUEST, e);
       ongoingRequest.reply(forStatus(BAD_REQUEST));
       return;
     }
 
+    final Optional<RuleMatch<Endpoint>> match = result.getMatch();
     if (!match.isPresent()) {
-      Collection<String> methods = applicationRouter.getMethodsForValidRules(request);
+      Collection<String> methods = result.getAllowedMethods();
       if (methods.isEmpty()) {
         LOG.warn("not found {} {} {}", request.method(), request.uri(), NOT_FOUND);
         ongoingRequest.reply(forStatus(NOT_FOUND));
@@ -30,16 +30,32 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
+import java.util.OptionalLong;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 import static com.google.common.util.concurrent.Futures.getUnchecked;
 
+/**
+ * Drops outstanding requests once they expire, and fails the remaining ones with
+ * {@link Status#SERVICE_UNAVAILABLE} when closed.
+ *
+ * <p>Requests are kept in a hashed timing wheel with {@value #TICK_MILLIS} ms ticks, placed in
+ * the bucket of their {@link OngoingRequest#deadlineNanos() deadline}. Each tick only visits the
+ * requests in its bucket, so registering and removing a request is constant time and the cost
+ * of reaping does not grow with the number of outstanding requests. Requests without a known
+ * deadline, and requests that are not yet {@link OngoingRequest#isExpired() expired} once their
+ * deadline has passed, are checked every time the reaper runs, like all requests used to be.
+ */
 @Deprecated
 public class RequestTracker implements Closeable {
 
@@ -52,22 +68,84 @@ public class RequestTracker implements Closeable {
               .setNameFormat("apollo-request-reaper")
               .build());
 
-  private final Set<OngoingRequest> outstanding = ConcurrentHashMap.newKeySet();
+  static final long TICK_MILLIS = 10;
+  private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(TICK_MILLIS);
+
+  // 512 ticks of 10 ms, so one turn of the wheel is a little over 5 seconds
+  private static final int WHEEL_SIZE = 512;
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+  // all trackers are reaped by the same thread, so it is its lag that matters
+  private static volatile long reaperLagNanos;
+
+  private final ConcurrentMap<OngoingRequest, Entry> outstanding = new ConcurrentHashMap<>();
+
+  // registered requests waiting to be placed in the wheel by the reaper
+  private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+
+  // only accessed while holding the lock of this tracker, i.e. from reap()
+  private final Entry[] wheel = new Entry[WHEEL_SIZE];
+  private Entry due;
+  private long processedTick;
+
+  private final LongSupplier nanoTime;
+  private final long startNanos;
+  private long lastReapNanos;
+  private volatile long lagNanos;
 
   private final ScheduledFuture<?> future;
 
   public RequestTracker() {
-    // As the number of outstanding requests is relatively small, it is cheaper to simply
-    // regularly iterate over all outstanding requests instead of scheduling callbacks.
-    this.future = TRACKER_EXECUTOR.scheduleWithFixedDelay(this::reap, 10, 10, TimeUnit.MILLISECONDS);
+    this(System::nanoTime);
+  }
+
+  @VisibleForTesting
+  RequestTracker(LongSupplier nanoTime) {
+    this.nanoTime = nanoTime;
+    this.startNanos = nanoTime.getAsLong();
+    this.lastReapNanos = startNanos;
+    this.future = TRACKER_EXECUTOR.scheduleWithFixedDelay(
+        this::reap, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
   }
 
   public void register(OngoingRequest request) {
-    outstanding.add(request);
+    final OptionalLong deadlineNanos = request.deadlineNanos();
+    // round up, so that requests are not checked before their deadline
+    final long deadlineTick = deadlineNanos.isPresent()
+                              ? tickOf(deadlineNanos.getAsLong() + TICK_NANOS - 1)
+                              : Long.MIN_VALUE;
+
+    final Entry entry = new Entry(request, deadlineTick);
+    final Entry previous = outstanding.put(request, entry);
+    if (previous != null) {
+      previous.request = null;
+    }
+    pending.add(entry);
   }
 
   public boolean remove(OngoingRequest request) {
-    return this.outstanding.remove(request);
+    final Entry entry = outstanding.remove(request);
+    if (entry == null) {
+      return false;
+    }
+    entry.request = null;
+    return true;
+  }
+
+  /**
+   * Returns how far behind its schedule the reaper was the last time it ran, including the time
+   * it took to visit its buckets. Steadily growing values mean expired requests are dropped late.
+   */
+  public long lagNanos() {
+    return lagNanos;
+  }
+
+  /**
+   * Returns the {@link #lagNanos() lag} of the most recent run of any tracker in this JVM. All
+   * trackers share one reaper thread, so this is the lag to register as a gauge.
+   */
+  public static long reaperLagNanos() {
+    return reaperLagNanos;
   }
 
   @Override
@@ -82,28 +160,118 @@ public class RequestTracker implements Closeable {
     failRequests();
   }
 
+  /**
+   * Visits the buckets of the ticks that have passed since the last run, and checks the requests
+   * that are due.
+   */
   @VisibleForTesting
-  void reap() {
-    outstanding.stream()
+  synchronized void reap() {
+    final long startedNanos = nanoTime.getAsLong();
+    final long nowTick = Math.max(tickOf(startedNanos), processedTick);
+
+    for (Entry entry; (entry = pending.poll()) != null; ) {
+      if (entry.request != null) {
+        schedule(entry, processedTick);
+      }
+    }
+
+    // after a long pause, every bucket is visited once
+    final long firstTick = Math.max(processedTick + 1, nowTick - WHEEL_MASK);
+    for (long tick = firstTick; tick <= nowTick; tick++) {
+      advance(tick);
+    }
+    processedTick = nowTick;
+
+    reapDue();
+
+    final long finishedNanos = nanoTime.getAsLong();
+    lagNanos = Math.max(0, finishedNanos - (lastReapNanos + TICK_NANOS));
+    reaperLagNanos = lagNanos;
+    lastReapNanos = finishedNanos;
+  }
+
+  private void advance(long tick) {
+    final int bucket = (int) (tick & WHEEL_MASK);
+    Entry entry = wheel[bucket];
+    wheel[bucket] = null;
+
+    while (entry != null) {
+      final Entry next = entry.next;
+      if (entry.request != null) {
+        schedule(entry, tick);
+      }
+      entry = next;
+    }
+  }
+
+  private void reapDue() {
+    Entry entry = due;
+    due = null;
+
+    while (entry != null) {
+      final Entry next = entry.next;
+      final OngoingRequest request = entry.request;
+
+      if (request == null) {
+        // replied to or dropped; forget about it
+      } else if (request.isExpired()) {
         // Drop expired requests
-        .filter(OngoingRequest::isExpired)
-        .forEach(
-            request -> {
-              LOG.warn("Dropping expired request: {}", request);
-              request.drop();
-            });
+        LOG.warn("Dropping expired request: {}", request);
+        request.drop();
+      } else {
+        // not known or not yet expired, check again on the next run
+        entry.next = due;
+        due = entry;
+      }
+
+      entry = next;
+    }
+  }
+
+  /**
+   * Puts the entry in the bucket of its deadline, or in the list of due requests if its deadline
+   * is unknown or not after the given tick.
+   */
+  private void schedule(Entry entry, long tick) {
+    if (entry.deadlineTick > tick) {
+      final int bucket = (int) (entry.deadlineTick & WHEEL_MASK);
+      entry.next = wheel[bucket];
+      wheel[bucket] = entry;
+    } else {
+      entry.next = due;
+      due = entry;
+    }
+  }
+
+  private long tickOf(long nanos) {
+    final long elapsed = Math.max(0, nanos - startNanos);
+    return elapsed / TICK_NANOS;
   }
 
   /**
    * Fail all outstanding requests.
    */
   private void failRequests() {
-    final Set<OngoingRequest> requests = ImmutableSet.copyOf(outstanding);
+    final Set<OngoingRequest> requests = ImmutableSet.copyOf(outstanding.keySet());
     for (OngoingRequest id : requests) {
-      final boolean removed = outstanding.remove(id);
+      final boolean removed = remove(id);
       if (removed) {
         id.reply(Response.forStatus(Status.SERVICE_UNAVAILABLE));
       }
     }
   }
+
+  private static final class Entry {
+
+    // cleared when the request is removed, so that it can be collected before its bucket is due
+    volatile OngoingRequest request;
+    long deadlineTick;
+
+    Entry next;
+
+    Entry(OngoingRequest request, long deadlineTick) {
+      this.request = request;
+      this.deadlineTick = deadlineTick;
+    }
+  }
 }
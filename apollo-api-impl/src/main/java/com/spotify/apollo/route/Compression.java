@@ -0,0 +1,395 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Implementations
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.route;
+
+import com.google.common.collect.ImmutableList;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import okio.Buffer;
+import okio.ByteString;
+
+/**
+ * Middleware that compresses response payloads with gzip or deflate, as accepted by the
+ * {@code Accept-Encoding} header of the request. It is meant to be applied to serialized
+ * responses, after {@link Middlewares#apolloDefaults()} or
+ * {@link Middlewares#httpPayloadSemantics(AsyncHandler)}, and keeps the {@code Content-Length}
+ * header they set in line with the compressed payload.
+ *
+ * <p>Only payloads of at least a minimum size and of an allowed content type are compressed;
+ * others are not worth the CPU. {@link Deflater}s hold native memory that is only released when
+ * they are ended, so they are pooled and reused rather than created for every response.
+ *
+ * <pre>
+ * Route.sync("GET", "/albums", handler)
+ *     .withMiddleware(Middlewares::apolloDefaults)
+ *     .withMiddleware(Compression.builder().minimumSize(512).build())
+ * </pre>
+ */
+public final class Compression
+    implements Middleware<AsyncHandler<Response<ByteString>>, AsyncHandler<Response<ByteString>>> {
+
+  static final int DEFAULT_MINIMUM_SIZE = 1024;
+  static final List<String> DEFAULT_CONTENT_TYPES = ImmutableList.of(
+      "text/*",
+      "application/json",
+      "application/javascript",
+      "application/xml",
+      "image/svg+xml");
+
+  private static final String ACCEPT_ENCODING = "Accept-Encoding";
+  private static final String CONTENT_ENCODING = "Content-Encoding";
+  private static final String CONTENT_LENGTH = "Content-Length";
+  private static final String CONTENT_TYPE = "Content-Type";
+  private static final String VARY = "Vary";
+
+  private static final String GZIP = "gzip";
+  private static final String DEFLATE = "deflate";
+
+  private static final int GZIP_MAGIC = 0x8b1f;
+
+  private final int minimumSize;
+  private final List<String> contentTypes;
+  private final Pool gzipPool;
+  private final Pool deflatePool;
+
+  private Compression(Builder builder) {
+    this.minimumSize = builder.minimumSize;
+    this.contentTypes = builder.contentTypes;
+    this.gzipPool = new Pool(builder.level, true, builder.poolSize);
+    this.deflatePool = new Pool(builder.level, false, builder.poolSize);
+  }
+
+  /**
+   * Returns a compression middleware with the default settings.
+   */
+  public static Compression create() {
+    return builder().build();
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public AsyncHandler<Response<ByteString>> apply(AsyncHandler<Response<ByteString>> inner) {
+    return requestContext -> inner.invoke(requestContext)
+        .thenApply(response -> compress(requestContext.request(), response));
+  }
+
+  Response<ByteString> compress(Request request, Response<ByteString> response) {
+    if (!response.payload().isPresent()
+        || response.payload().get().size() < minimumSize
+        || response.header(CONTENT_ENCODING).isPresent()
+        || !isAllowedContentType(response.header(CONTENT_TYPE))) {
+      return response;
+    }
+
+    // whether this response is compressed depends on the request from here on
+    final Response.Builder<ByteString> builder = response.toBuilder();
+    builder.header(VARY, vary(response.header(VARY)));
+
+    final Optional<String> encoding = negotiate(request.header(ACCEPT_ENCODING));
+    if (!encoding.isPresent()) {
+      return builder.build();
+    }
+
+    final ByteString payload = response.payload().get();
+    final ByteString compressed = GZIP.equals(encoding.get())
+                                  ? gzipPool.compress(payload)
+                                  : deflatePool.compress(payload);
+    if (compressed.size() >= payload.size()) {
+      return builder.build();
+    }
+
+    builder.header(CONTENT_ENCODING, encoding.get());
+    if (response.header(CONTENT_LENGTH).isPresent()) {
+      builder.header(CONTENT_LENGTH, String.valueOf(compressed.size()));
+    }
+    return builder.payload(compressed).build();
+  }
+
+  private boolean isAllowedContentType(Optional<String> contentType) {
+    if (!contentType.isPresent()) {
+      return false;
+    }
+
+    final String value = contentType.get();
+    final int parameters = value.indexOf(';');
+    final String mediaType =
+        (parameters < 0 ? value : value.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+
+    for (String allowed : contentTypes) {
+      if (allowed.endsWith("/*")
+          ? mediaType.startsWith(allowed.substring(0, allowed.length() - 1))
+          : mediaType.equals(allowed)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String vary(Optional<String> vary) {
+    if (!vary.isPresent()) {
+      return ACCEPT_ENCODING;
+    }
+    for (String header : vary.get().split(",")) {
+      final String name = header.trim();
+      if (name.equals("*") || name.equalsIgnoreCase(ACCEPT_ENCODING)) {
+        return vary.get();
+      }
+    }
+    return vary.get() + ", " + ACCEPT_ENCODING;
+  }
+
+  /**
+   * Picks gzip over deflate when both are accepted, see
+   * https://tools.ietf.org/html/rfc7231#section-5.3.4
+   */
+  static Optional<String> negotiate(Optional<String> acceptEncoding) {
+    if (!acceptEncoding.isPresent()) {
+      return Optional.empty();
+    }
+
+    double gzip = -1;
+    double deflate = -1;
+    double any = -1;
+    for (String coding : acceptEncoding.get().split(",")) {
+      final int parameters = coding.indexOf(';');
+      final String name =
+          (parameters < 0 ? coding : coding.substring(0, parameters)).trim()
+              .toLowerCase(Locale.ROOT);
+      final double quality = parameters < 0 ? 1 : quality(coding.substring(parameters + 1));
+
+      switch (name) {
+        case GZIP:
+        case "x-gzip":
+          gzip = quality;
+          break;
+        case DEFLATE:
+          deflate = quality;
+          break;
+        case "*":
+          any = quality;
+          break;
+        default:
+          // not supported
+      }
+    }
+
+    if (gzip < 0) {
+      gzip = any;
+    }
+    if (deflate < 0) {
+      deflate = any;
+    }
+
+    if (gzip > 0 && gzip >= deflate) {
+      return Optional.of(GZIP);
+    }
+    if (deflate > 0) {
+      return Optional.of(DEFLATE);
+    }
+    return Optional.empty();
+  }
+
+  private static double quality(String parameters) {
+    for (String parameter : parameters.split(";")) {
+      final String trimmed = parameter.trim();
+      if (trimmed.startsWith("q=") || trimmed.startsWith("Q=")) {
+        try {
+          return Double.parseDouble(trimmed.substring(2));
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  /**
+   * A bounded pool of compressors for one encoding and level. When it is empty a new
+   * compressor is made, and when it is full a returned compressor is ended.
+   */
+  private static final class Pool {
+
+    private final int level;
+    private final boolean gzip;
+    private final BlockingQueue<Compressor> compressors;
+
+    Pool(int level, boolean gzip, int size) {
+      this.level = level;
+      this.gzip = gzip;
+      this.compressors = new ArrayBlockingQueue<>(size);
+    }
+
+    ByteString compress(ByteString payload) {
+      Compressor compressor = compressors.poll();
+      if (compressor == null) {
+        compressor = new Compressor(level, gzip);
+      }
+
+      try {
+        return compressor.compress(payload);
+      } finally {
+        compressor.reset();
+        if (!compressors.offer(compressor)) {
+          compressor.end();
+        }
+      }
+    }
+  }
+
+  private static final class Compressor {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final boolean gzip;
+    // gzip is a header and trailer around raw deflate data, while http deflate is zlib data
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] inputChunk = new byte[CHUNK_SIZE];
+    private final byte[] outputChunk = new byte[CHUNK_SIZE];
+
+    Compressor(int level, boolean gzip) {
+      this.gzip = gzip;
+      this.deflater = new Deflater(level, gzip);
+    }
+
+    ByteString compress(ByteString payload) {
+      // Deflater only takes a ByteBuffer from Java 11 on, so the payload is fed to it through a
+      // reused chunk rather than copied into an array of its full size
+      final ByteBuffer input = payload.asByteBuffer();
+      final Buffer output = new Buffer();
+
+      if (gzip) {
+        output.writeShortLe(GZIP_MAGIC)
+            .writeByte(Deflater.DEFLATED)
+            // no flags, modification time, extra flags or operating system
+            .writeByte(0)
+            .writeIntLe(0)
+            .writeByte(0)
+            .writeByte(0);
+        crc.update(input.duplicate());
+      }
+
+      while (input.hasRemaining()) {
+        final int length = Math.min(inputChunk.length, input.remaining());
+        input.get(inputChunk, 0, length);
+        deflater.setInput(inputChunk, 0, length);
+        while (!deflater.needsInput()) {
+          output.write(outputChunk, 0, deflater.deflate(outputChunk));
+        }
+      }
+
+      deflater.finish();
+      while (!deflater.finished()) {
+        output.write(outputChunk, 0, deflater.deflate(outputChunk));
+      }
+
+      if (gzip) {
+        output.writeIntLe((int) crc.getValue())
+            .writeIntLe(payload.size());
+      }
+
+      return output.readByteString();
+    }
+
+    void reset() {
+      deflater.reset();
+      crc.reset();
+    }
+
+    void end() {
+      deflater.end();
+    }
+  }
+
+  public static final class Builder {
+
+    private int minimumSize = DEFAULT_MINIMUM_SIZE;
+    private List<String> contentTypes = DEFAULT_CONTENT_TYPES;
+    private int level = Deflater.DEFAULT_COMPRESSION;
+    private int poolSize = 2 * Runtime.getRuntime().availableProcessors();
+
+    private Builder() {
+    }
+
+    /**
+     * Payloads smaller than this many bytes are sent as they are; defaults to 1024.
+     */
+    public Builder minimumSize(int minimumSize) {
+      this.minimumSize = minimumSize;
+      return this;
+    }
+
+    /**
+     * The media types to compress, such as {@code application/json} or {@code text/*}; defaults
+     * to text, JSON, JavaScript, XML and SVG.
+     */
+    public Builder contentTypes(List<String> contentTypes) {
+      final ImmutableList.Builder<String> lowerCase = ImmutableList.builder();
+      for (String contentType : contentTypes) {
+        lowerCase.add(contentType.toLowerCase(Locale.ROOT));
+      }
+      this.contentTypes = lowerCase.build();
+      return this;
+    }
+
+    /**
+     * The compression level, from 0 (no compression, only framing) through 1 (fastest) to 9
+     * (smallest); defaults to {@link Deflater#DEFAULT_COMPRESSION}.
+     */
+    public Builder level(int level) {
+      if (level != Deflater.DEFAULT_COMPRESSION
+          && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+        throw new IllegalArgumentException("level must be between 0 and 9, got " + level);
+      }
+      this.level = level;
+      return this;
+    }
+
+    /**
+     * The number of idle compressors kept per encoding; defaults to twice the number of
+     * processors.
+     */
+    public Builder poolSize(int poolSize) {
+      if (poolSize < 1) {
+        throw new IllegalArgumentException("poolSize must be positive, got " + poolSize);
+      }
+      this.poolSize = poolSize;
+      return this;
+    }
+
+    public Compression build() {
+      return new Compression(this);
+    }
+  }
+}
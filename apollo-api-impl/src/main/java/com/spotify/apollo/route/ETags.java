@@ -0,0 +1,192 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Implementations
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.route;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+
+import java.util.Map;
+import java.util.Optional;
+
+import okio.ByteString;
+
+/**
+ * Middleware that answers conditional GET and HEAD requests. Successful responses get an
+ * {@code ETag} header, and requests whose {@code If-None-Match} header matches it get a
+ * {@code 304 Not Modified} response without a payload instead.
+ *
+ * <p>If the handler sets an {@code ETag} header itself, for instance from the version of the data
+ * it serves with {@link #forVersion(String)}, that is used as it is. Otherwise a weak ETag is
+ * computed from a fast, non-cryptographic hash of the serialized payload. The computed ETags are
+ * weak since they stay the same if the payload is compressed later on.
+ *
+ * <p>It is meant to be applied to serialized responses, after {@link Middlewares#apolloDefaults()}
+ * or {@link Middlewares#httpPayloadSemantics(AsyncHandler)}. Since those drop the payload of
+ * responses to HEAD requests, only handlers that set an {@code ETag} themselves support
+ * conditional HEAD requests.
+ *
+ * <pre>
+ * Route.sync("GET", "/config", handler)
+ *     .withMiddleware(Middlewares::apolloDefaults)
+ *     .withMiddleware(ETags.create())
+ * </pre>
+ *
+ * <p>Handlers that can tell the version of what they would return before doing the expensive work
+ * of building it can skip that work by checking {@link #matches(Request, String)} first:
+ *
+ * <pre>
+ * final String etag = ETags.forVersion(store.version());
+ * if (ETags.matches(requestContext.request(), etag)) {
+ *   return ETags.notModified(etag);
+ * }
+ * return Response.forPayload(store.load()).withHeader("ETag", etag);
+ * </pre>
+ */
+public final class ETags
+    implements Middleware<AsyncHandler<Response<ByteString>>, AsyncHandler<Response<ByteString>>> {
+
+  private static final String ETAG = "ETag";
+  private static final String IF_NONE_MATCH = "If-None-Match";
+  private static final String CONTENT_LENGTH = "Content-Length";
+  private static final String CONTENT_TYPE = "Content-Type";
+
+  private static final String WEAK_PREFIX = "W/";
+
+  private static final HashFunction HASH = Hashing.farmHashFingerprint64();
+
+  private ETags() {
+  }
+
+  public static ETags create() {
+    return new ETags();
+  }
+
+  @Override
+  public AsyncHandler<Response<ByteString>> apply(AsyncHandler<Response<ByteString>> inner) {
+    return requestContext -> inner.invoke(requestContext)
+        .thenApply(response -> conditional(requestContext.request(), response));
+  }
+
+  Response<ByteString> conditional(Request request, Response<ByteString> response) {
+    if (!isConditionalMethod(request.method())
+        || response.status().code() != Status.OK.code()) {
+      return response;
+    }
+
+    final Optional<String> existing = response.header(ETAG);
+    final String etag;
+    final Response<ByteString> tagged;
+    if (existing.isPresent()) {
+      etag = existing.get();
+      tagged = response;
+    } else if (response.payload().isPresent()) {
+      etag = forPayload(response.payload().get());
+      tagged = response.withHeader(ETAG, etag);
+    } else {
+      return response;
+    }
+
+    return matches(request, etag) ? notModified(tagged) : tagged;
+  }
+
+  /**
+   * Returns a strong ETag for a version of a resource, such as a revision number or a timestamp.
+   *
+   * @throws IllegalArgumentException if the version contains characters not allowed in an ETag
+   */
+  public static String forVersion(String version) {
+    for (int i = 0; i < version.length(); i++) {
+      final char c = version.charAt(i);
+      // see https://tools.ietf.org/html/rfc7232#section-2.3
+      if (c <= 0x20 || c == '"' || c == 0x7f) {
+        throw new IllegalArgumentException("invalid character in version: " + version);
+      }
+    }
+    return '"' + version + '"';
+  }
+
+  /**
+   * Returns a weak ETag computed from a hash of a serialized payload.
+   */
+  public static String forPayload(ByteString payload) {
+    return WEAK_PREFIX + '"' + HASH.hashBytes(payload.asByteBuffer()) + '"';
+  }
+
+  /**
+   * Returns true if {@code request} is a GET or HEAD request whose {@code If-None-Match} header
+   * matches {@code etag}, so that it can be answered with {@link #notModified(String)}.
+   */
+  public static boolean matches(Request request, String etag) {
+    if (!isConditionalMethod(request.method())) {
+      return false;
+    }
+
+    final Optional<String> ifNoneMatch = request.header(IF_NONE_MATCH);
+    if (!ifNoneMatch.isPresent()) {
+      return false;
+    }
+
+    // If-None-Match uses the weak comparison, see
+    // https://tools.ietf.org/html/rfc7232#section-3.2
+    final String opaqueTag = opaqueTag(etag);
+    for (String candidate : ifNoneMatch.get().split(",")) {
+      final String trimmed = candidate.trim();
+      if (trimmed.equals("*") || opaqueTag(trimmed).equals(opaqueTag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns a {@code 304 Not Modified} response for a resource with the given ETag.
+   */
+  public static <T> Response<T> notModified(String etag) {
+    return Response.<T>forStatus(Status.NOT_MODIFIED).withHeader(ETAG, etag);
+  }
+
+  /**
+   * Keeps the headers that describe the response, such as {@code ETag}, {@code Cache-Control} and
+   * {@code Vary}, but not those that describe the payload that is left out.
+   */
+  private static Response<ByteString> notModified(Response<ByteString> response) {
+    Response.Builder<ByteString> builder =
+        Response.<ByteString>forStatus(Status.NOT_MODIFIED).toBuilder();
+    for (Map.Entry<String, String> header : response.headerEntries()) {
+      if (!header.getKey().equalsIgnoreCase(CONTENT_LENGTH)
+          && !header.getKey().equalsIgnoreCase(CONTENT_TYPE)) {
+        builder = builder.header(header.getKey(), header.getValue());
+      }
+    }
+    return builder.build();
+  }
+
+  private static String opaqueTag(String etag) {
+    return etag.startsWith(WEAK_PREFIX) ? etag.substring(WEAK_PREFIX.length()) : etag;
+  }
+
+  private static boolean isConditionalMethod(String method) {
+    return "GET".equalsIgnoreCase(method) || "HEAD".equalsIgnoreCase(method);
+  }
+}
@@ -24,6 +24,7 @@ import com.spotify.apollo.Response;
 import com.spotify.apollo.Serializer;
 import com.spotify.apollo.Status;
 import com.spotify.apollo.StatusType;
+import com.spotify.apollo.request.HandlerCompletionListener;
 import com.spotify.apollo.serialization.AutoSerializer;
 
 import java.util.Optional;
@@ -91,31 +92,50 @@ public final class Middlewares {
 
     return inner -> inner
         .map(Middlewares::ensureResponse)
-        .flatMapSync(resp -> ctx -> serializePayload(serializer, ctx.request(), resp));
+        .flatMapSync(resp -> ctx -> {
+          HandlerCompletionListener.handlerCompleted(ctx);
+          return serializePayload(serializer, ctx.request(), resp);
+        });
   }
 
   /**
    * Returns the default middlewares applied by Apollo to routes supplied by a {@link RouteProvider}.
    */
   public static Middleware<AsyncHandler<?>, AsyncHandler<Response<ByteString>>> apolloDefaults() {
-    return serialize(new AutoSerializer()).and(Middlewares::httpPayloadSemantics);
+    final Serializer serializer = new AutoSerializer();
+
+    // equivalent to serialize(serializer).and(Middlewares::httpPayloadSemantics)
+    return inner -> inner
+        .map(Middlewares::ensureResponse)
+        .flatMapSync(resp -> ctx -> {
+          HandlerCompletionListener.handlerCompleted(ctx);
+          return serializeWithHttpPayloadSemantics(serializer, ctx.request(), resp);
+        });
   }
 
   private static Response<ByteString> applyHttpPayloadSemantics(
       Request request, Response<ByteString> response) {
-    Response<ByteString> result = response;
-    Optional<ByteString> payload = response.payload();
-    if (setContentLengthForStatus(response.status())) {
+    return applyHttpPayloadSemantics(
+        request, response.status(), response.payload(), response.toBuilder())
+        .build();
+  }
+
+  private static Response.Builder<ByteString> applyHttpPayloadSemantics(
+      Request request,
+      StatusType status,
+      Optional<ByteString> payload,
+      Response.Builder<ByteString> builder) {
+    if (setContentLengthForStatus(status)) {
       int payloadSize = payload.isPresent() ? payload.get().size() : 0;
-      result = result.withHeader("Content-Length", String.valueOf(payloadSize));
+      builder = builder.header("Content-Length", String.valueOf(payloadSize));
     }
 
     if (!setPayloadForMethod(request.method()) ||
-        !setPayloadForStatus(response.status())) {
-      result = result.withPayload(null);
+        !setPayloadForStatus(status)) {
+      builder = builder.<ByteString>payload(null);
     }
 
-    return result;
+    return builder;
   }
 
   // see http://www.w3.org/Protocols/rfc2616/rfc2616-sec4.html#sec4.3
@@ -143,15 +163,42 @@ public final class Middlewares {
       return (Response<ByteString>) response;
     }
 
-    final T payloadObject = response.payload().get();
     final Serializer.Payload payload =
-        serializer.serialize(request, payloadObject);
+        serializer.serialize(request, response.payload().get());
+
+    return serializePayload(payload, response.toBuilder()).build();
+  }
+
+  private static <T> Response.Builder<ByteString> serializePayload(
+      Serializer.Payload payload, Response.Builder<T> builder) {
 
     if (payload.contentType().isPresent()) {
-      response = response.withHeader(CONTENT_TYPE, payload.contentType().get());
+      builder = builder.header(CONTENT_TYPE, payload.contentType().get());
     }
 
-    return response.withPayload(payload.byteString());
+    return builder.payload(payload.byteString());
+  }
+
+  /**
+   * Serializes the payload and applies the HTTP payload semantics to the response in one go, so
+   * that the headers are only copied once.
+   */
+  private static <T> Response<ByteString> serializeWithHttpPayloadSemantics(
+      Serializer serializer, Request request, Response<T> response) {
+
+    if (!response.payload().isPresent()) {
+      // no payload, so this cast is safe to do
+      //noinspection unchecked
+      return applyHttpPayloadSemantics(request, (Response<ByteString>) response);
+    }
+
+    final Serializer.Payload payload =
+        serializer.serialize(request, response.payload().get());
+
+    final Response.Builder<ByteString> builder = serializePayload(payload, response.toBuilder());
+    return applyHttpPayloadSemantics(
+        request, response.status(), Optional.of(payload.byteString()), builder)
+        .build();
   }
 
   private static <T> Response<T> ensureResponse(T t) {
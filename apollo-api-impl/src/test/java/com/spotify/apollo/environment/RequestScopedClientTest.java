@@ -0,0 +1,128 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Implementations
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.environment;
+
+import com.spotify.apollo.Client;
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RequestScopedClientTest {
+
+  private static final Instant ARRIVAL = Instant.ofEpochSecond(4711L);
+
+  private List<Request> sent;
+  private List<Optional<Request>> incoming;
+  private IncomingRequestAwareClient delegate;
+
+  @Before
+  public void setUp() throws Exception {
+    sent = new ArrayList<>();
+    incoming = new ArrayList<>();
+    delegate = (request, origin) -> {
+      sent.add(request);
+      incoming.add(origin);
+      return CompletableFuture.completedFuture(Response.ok());
+    };
+  }
+
+  @Test
+  public void shouldSendUnchangedWithoutIncomingTtl() throws Exception {
+    final Request origin = Request.forUri("http://origin");
+    final Request request = Request.forUri("http://downstream");
+
+    client(origin, Duration.ofMillis(100)).send(request);
+
+    assertThat(sent.get(0), is(request));
+    assertThat(incoming.get(0), is(Optional.of(origin)));
+  }
+
+  @Test
+  public void shouldPropagateRemainingTtl() throws Exception {
+    final Request origin = Request.forUri("http://origin").withTtl(Duration.ofMillis(500));
+
+    client(origin, Duration.ofMillis(200)).send(Request.forUri("http://downstream"));
+
+    assertThat(sent.get(0).ttl(), is(Optional.of(Duration.ofMillis(300))));
+    assertThat(sent.get(0).header(RequestScopedClient.TTL_HEADER), is(Optional.of("300")));
+  }
+
+  @Test
+  public void shouldKeepShorterTtlOfOutgoingRequest() throws Exception {
+    final Request origin = Request.forUri("http://origin").withTtl(Duration.ofMillis(500));
+
+    client(origin, Duration.ofMillis(200))
+        .send(Request.forUri("http://downstream").withTtl(Duration.ofMillis(50)));
+
+    assertThat(sent.get(0).ttl(), is(Optional.of(Duration.ofMillis(50))));
+    assertThat(sent.get(0).header(RequestScopedClient.TTL_HEADER), is(Optional.of("50")));
+  }
+
+  @Test
+  public void shouldCapLongerTtlOfOutgoingRequest() throws Exception {
+    final Request origin = Request.forUri("http://origin").withTtl(Duration.ofMillis(500));
+
+    client(origin, Duration.ofMillis(200))
+        .send(Request.forUri("http://downstream").withTtl(Duration.ofSeconds(10)));
+
+    assertThat(sent.get(0).ttl(), is(Optional.of(Duration.ofMillis(300))));
+  }
+
+  @Test
+  public void shouldFailFastWhenDeadlineHasPassed() throws Exception {
+    final Request origin = Request.forUri("http://origin").withTtl(Duration.ofMillis(500));
+
+    final CompletableFuture<?> future = client(origin, Duration.ofMillis(500))
+        .send(Request.forUri("http://downstream"))
+        .toCompletableFuture();
+
+    assertTrue(sent.isEmpty());
+    try {
+      future.get();
+      fail("expected the call to fail");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(TimeoutException.class));
+    }
+  }
+
+  private Client client(Request origin, Duration elapsed) {
+    final Clock clock = Clock.fixed(ARRIVAL.plus(elapsed), ZoneOffset.UTC);
+    return new RequestScopedClient(delegate, origin, origin.ttl().map(ARRIVAL::plus), clock);
+  }
+}
@@ -0,0 +1,53 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Implementations
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http;
+
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CacheControlTest {
+
+  @Test
+  public void shouldParseDirectives() throws Exception {
+    final CacheControl cacheControl =
+        CacheControl.parse("Private, NO-CACHE, max-age=\"60\", stale-while-revalidate=30");
+
+    assertThat(cacheControl.isPrivate(), is(true));
+    assertThat(cacheControl.noCache(), is(true));
+    assertThat(cacheControl.noStore(), is(false));
+    assertThat(cacheControl.maxAgeSeconds(), is(60L));
+    assertThat(cacheControl.staleWhileRevalidateSeconds(), is(30L));
+  }
+
+  @Test
+  public void shouldPreferSharedMaxAge() throws Exception {
+    assertThat(CacheControl.parse("s-maxage=10, max-age=60").maxAgeSeconds(), is(10L));
+  }
+
+  @Test
+  public void shouldIgnoreMissingAndMalformedValues() throws Exception {
+    assertThat(CacheControl.parse(Optional.empty()).maxAgeSeconds(), is(-1L));
+    assertThat(CacheControl.parse("max-age=soon").maxAgeSeconds(), is(-1L));
+  }
+}
@@ -19,9 +19,18 @@
  */
 package com.spotify.apollo.meta;
 
+import com.google.common.collect.ImmutableList;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.route.RoutingResult;
+import com.spotify.apollo.route.Rule;
+import com.spotify.apollo.route.RuleRouter;
+
 import org.junit.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.core.Is.is;
 
 public class ApplicationOrMetaRouterTest {
@@ -30,4 +39,32 @@ public class ApplicationOrMetaRouterTest {
     String uri = "gopher://au.th/_meta/0/info";
     assertThat(ApplicationOrMetaRouter.isMeta(uri), is(true));
   }
+
+  @Test
+  public void shouldRouteToMetaOrApplication() throws Exception {
+    ApplicationOrMetaRouter<String> router = new ApplicationOrMetaRouter<>(
+        RuleRouter.of(ImmutableList.of(Rule.fromUri("/foo", "POST", "app"))),
+        RuleRouter.of(ImmutableList.of(Rule.fromUri("/_meta/0/info", "GET", "meta"))));
+
+    RoutingResult<String> meta = router.route(Request.forUri("http://host/_meta/0/info"));
+    RoutingResult<String> app = router.route(Request.forUri("http://host/foo", "POST"));
+    RoutingResult<String> miss = router.route(Request.forUri("http://host/foo", "GET"));
+
+    assertThat(meta.getMatch().get().getRule().getTarget(), is("meta"));
+    assertThat(app.getMatch().get().getRule().getTarget(), is("app"));
+    assertThat(miss.isMatch(), is(false));
+    assertThat(miss.getAllowedMethods(), contains("POST"));
+  }
+
+  @Test
+  public void shouldRouteUnknownPathToNotFound() throws Exception {
+    ApplicationOrMetaRouter<String> router = new ApplicationOrMetaRouter<>(
+        RuleRouter.of(ImmutableList.of(Rule.fromUri("/foo", "POST", "app"))),
+        RuleRouter.of(ImmutableList.of(Rule.fromUri("/_meta/0/info", "GET", "meta"))));
+
+    RoutingResult<String> result = router.route(Request.forUri("http://host/bar"));
+
+    assertThat(result.isMatch(), is(false));
+    assertThat(result.getAllowedMethods(), is(empty()));
+  }
 }
@@ -25,6 +25,7 @@ import com.spotify.apollo.Status;
 import com.spotify.apollo.dispatch.Endpoint;
 import com.spotify.apollo.dispatch.EndpointInfo;
 import com.spotify.apollo.route.ApplicationRouter;
+import com.spotify.apollo.route.RoutingResult;
 import com.spotify.apollo.route.RuleMatch;
 
 import org.junit.Before;
@@ -37,7 +38,6 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Collections;
-import java.util.Optional;
 import java.util.function.BiConsumer;
 
 import okio.ByteString;
@@ -52,6 +52,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -71,7 +72,7 @@ public class RequestRunnableImplTest {
 
   @Before
   public void setUp() throws Exception {
-    when(applicationRouter.match(any(Request.class))).thenReturn(Optional.of(match));
+    when(applicationRouter.route(any(Request.class))).thenReturn(RoutingResult.match(match));
     when(ongoingRequest.request()).thenReturn(message);
 
     requestRunnable = new RequestRunnableImpl(ongoingRequest, applicationRouter);
@@ -85,9 +86,7 @@ public class RequestRunnableImplTest {
 
   @Test
   public void testMatchingFails() throws Exception {
-    when(applicationRouter.match(any(Request.class))).thenReturn(Optional.empty());
-    when(applicationRouter.getMethodsForValidRules(any(Request.class)))
-        .thenReturn(Collections.emptyList());
+    when(applicationRouter.route(any(Request.class))).thenReturn(RoutingResult.notFound());
 
     requestRunnable.run(matchContinuation);
 
@@ -96,9 +95,8 @@ public class RequestRunnableImplTest {
 
   @Test
   public void testWrongMethod() throws Exception {
-    when(applicationRouter.match(any(Request.class))).thenReturn(Optional.empty());
-    when(applicationRouter.getMethodsForValidRules(any(Request.class)))
-        .thenReturn(Collections.singleton("POST"));
+    when(applicationRouter.route(any(Request.class)))
+        .thenReturn(RoutingResult.miss(Collections.singleton("POST")));
     when(message.method()).thenReturn("GET");
 
     requestRunnable.run(matchContinuation);
@@ -112,9 +110,8 @@ public class RequestRunnableImplTest {
 
   @Test
   public void testWithMethodOptions() throws Exception {
-    when(applicationRouter.match(any(Request.class))).thenReturn(Optional.empty());
-    when(applicationRouter.getMethodsForValidRules(any(Request.class)))
-        .thenReturn(Collections.singleton("POST"));
+    when(applicationRouter.route(any(Request.class)))
+        .thenReturn(RoutingResult.miss(Collections.singleton("POST")));
     when(message.method()).thenReturn("OPTIONS");
 
     requestRunnable.run(matchContinuation);
@@ -127,8 +124,8 @@ public class RequestRunnableImplTest {
   }
 
   @Test
-  public void shouldReply500IfApplicationRouterMatchThrows() throws Exception {
-    when(applicationRouter.match(any(Request.class))).thenThrow(new RuntimeException("expected"));
+  public void shouldReply500IfApplicationRouterThrows() throws Exception {
+    when(applicationRouter.route(any(Request.class))).thenThrow(new RuntimeException("expected"));
 
     requestRunnable.run(matchContinuation);
 
@@ -136,13 +133,14 @@ public class RequestRunnableImplTest {
   }
 
   @Test
-  public void shouldReply500IfApplicationRouterValidMethodsThrows() throws Exception {
-    when(applicationRouter.match(any(Request.class))).thenReturn(Optional.empty());
-    when(applicationRouter.getMethodsForValidRules(any(Request.class)))
-        .thenThrow(new RuntimeException("expected"));
+  public void shouldRouteOnlyOnceForUnmatchedRequest() throws Exception {
+    when(applicationRouter.route(any(Request.class)))
+        .thenReturn(RoutingResult.miss(Collections.singleton("POST")));
+    when(message.method()).thenReturn("GET");
 
     requestRunnable.run(matchContinuation);
 
-    verify(ongoingRequest).reply(forStatus(INTERNAL_SERVER_ERROR));
+    verify(applicationRouter).route(message);
+    verifyNoMoreInteractions(applicationRouter);
   }
 }
@@ -0,0 +1,146 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Implementations
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.request;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+import okio.ByteString;
+
+/**
+ * Measures the cost of a reaper run and of registering and removing a request with many
+ * outstanding long-lived requests, compared with scanning all of them like the reaper used to.
+ * Lives in the same package as {@link RequestTracker} to be able to call {@code reap()}.
+ */
+@State(Scope.Benchmark)
+public class RequestTrackerBenchmark {
+
+  private static final Request REQUEST = Request.forUri("http://service/long-poll");
+
+  @Param({"100000"})
+  public int outstanding;
+
+  private RequestTracker tracker;
+  private List<OngoingRequest> requests;
+
+  public static void main(String... args) throws IOException, RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(RequestTrackerBenchmark.class.getSimpleName())
+        .warmupIterations(5)
+        .measurementIterations(10)
+        .threads(1)
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() {
+    tracker = new RequestTracker();
+    requests = new ArrayList<>(outstanding);
+    for (int i = 0; i < outstanding; i++) {
+      final OngoingRequest request = new LongPollRequest(TimeUnit.SECONDS.toNanos(30 + i % 30));
+      requests.add(request);
+      tracker.register(request);
+    }
+    tracker.reap();
+  }
+
+  @TearDown
+  public void tearDown() {
+    tracker.close();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  public void reap() {
+    tracker.reap();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  public void fullScan(Blackhole blackhole) {
+    for (OngoingRequest request : requests) {
+      blackhole.consume(request.isExpired());
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  public boolean registerAndRemove() {
+    final OngoingRequest request = new LongPollRequest(TimeUnit.SECONDS.toNanos(30));
+    tracker.register(request);
+    return tracker.remove(request);
+  }
+
+  private static final class LongPollRequest implements OngoingRequest {
+
+    private final long arrivalTimeNanos = System.nanoTime();
+    private final long ttlNanos;
+
+    LongPollRequest(long ttlNanos) {
+      this.ttlNanos = ttlNanos;
+    }
+
+    @Override
+    public Request request() {
+      return REQUEST;
+    }
+
+    @Override
+    public void reply(Response<ByteString> response) {
+    }
+
+    @Override
+    public void drop() {
+    }
+
+    @Override
+    public boolean isExpired() {
+      return System.nanoTime() - arrivalTimeNanos > ttlNanos;
+    }
+
+    @Override
+    public OptionalLong deadlineNanos() {
+      return OptionalLong.of(arrivalTimeNanos + ttlNanos);
+    }
+  }
+}
@@ -29,11 +29,20 @@ import org.hamcrest.Matcher;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
 import okio.ByteString;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.hamcrest.MockitoHamcrest.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -41,6 +50,8 @@ public class RequestTrackerTest {
 
   private RequestTracker tracker;
 
+  private final AtomicLong clock = new AtomicLong(1234567890L);
+
   @Before
   public void setUp() {
     tracker = new RequestTracker();
@@ -72,6 +83,143 @@ public class RequestTrackerTest {
     verify(ongoingRequest).reply(argThat(hasStatus(Status.SERVICE_UNAVAILABLE)));
   }
 
+  @Test
+  public void shouldNotCheckRequestsBeforeTheirDeadline() {
+    OngoingRequest ongoingRequest = requestWithDeadline(SECONDS.toNanos(1));
+    RequestTracker tracker = new RequestTracker(clock::get);
+
+    tracker.register(ongoingRequest);
+    clock.addAndGet(MILLISECONDS.toNanos(990));
+    tracker.reap();
+
+    verify(ongoingRequest, never()).isExpired();
+    verify(ongoingRequest, never()).drop();
+  }
+
+  @Test
+  public void shouldDropRequestsAfterTheirDeadline() {
+    OngoingRequest ongoingRequest = requestWithDeadline(SECONDS.toNanos(1));
+    when(ongoingRequest.isExpired()).thenReturn(true);
+    RequestTracker tracker = new RequestTracker(clock::get);
+
+    tracker.register(ongoingRequest);
+    clock.addAndGet(SECONDS.toNanos(1));
+    tracker.reap();
+
+    verify(ongoingRequest).drop();
+  }
+
+  @Test
+  public void shouldDropRequestsWithDeadlinesBeyondOneTurnOfTheWheel() {
+    OngoingRequest ongoingRequest = requestWithDeadline(SECONDS.toNanos(60));
+    when(ongoingRequest.isExpired()).thenReturn(true);
+    RequestTracker tracker = new RequestTracker(clock::get);
+
+    tracker.register(ongoingRequest);
+    clock.addAndGet(SECONDS.toNanos(30));
+    tracker.reap();
+
+    verify(ongoingRequest, never()).drop();
+
+    clock.addAndGet(SECONDS.toNanos(30));
+    tracker.reap();
+
+    verify(ongoingRequest).drop();
+  }
+
+  @Test
+  public void shouldKeepCheckingRequestsThatAreNotExpiredAtTheirDeadline() {
+    AtomicBoolean expired = new AtomicBoolean();
+    OngoingRequest ongoingRequest = requestWithDeadline(SECONDS.toNanos(1));
+    when(ongoingRequest.isExpired()).thenAnswer(invocation -> expired.get());
+    RequestTracker tracker = new RequestTracker(clock::get);
+
+    tracker.register(ongoingRequest);
+    clock.addAndGet(SECONDS.toNanos(1));
+    tracker.reap();
+
+    verify(ongoingRequest, never()).drop();
+
+    expired.set(true);
+    tracker.reap();
+
+    verify(ongoingRequest).drop();
+  }
+
+  @Test
+  public void shouldNotCheckRemovedRequests() {
+    OngoingRequest ongoingRequest = requestWithDeadline(SECONDS.toNanos(1));
+    RequestTracker tracker = new RequestTracker(clock::get);
+
+    tracker.register(ongoingRequest);
+    tracker.remove(ongoingRequest);
+    clock.addAndGet(SECONDS.toNanos(2));
+    tracker.reap();
+
+    verify(ongoingRequest, never()).isExpired();
+    verify(ongoingRequest, never()).drop();
+  }
+
+  @Test
+  public void shouldReportLag() {
+    RequestTracker tracker = new RequestTracker(clock::get);
+
+    tracker.reap();
+    clock.addAndGet(MILLISECONDS.toNanos(50));
+    tracker.reap();
+
+    assertThat(tracker.lagNanos(), is(MILLISECONDS.toNanos(40)));
+  }
+
+  @Test
+  public void shouldDeriveDeadlineFromTtlByDefault() {
+    Request request = Request.forUri("http://service/path").withTtl(Duration.ofSeconds(2));
+
+    assertThat(requestArrivedAt(1000L, request).deadlineNanos(),
+               is(OptionalLong.of(1000L + SECONDS.toNanos(2))));
+  }
+
+  @Test
+  public void shouldNotKnowDeadlineWithoutTtlByDefault() {
+    Request request = Request.forUri("http://service/path");
+
+    assertThat(requestArrivedAt(1000L, request).deadlineNanos(), is(OptionalLong.empty()));
+  }
+
+  private static OngoingRequest requestArrivedAt(long arrivalTimeNanos, Request request) {
+    return new OngoingRequest() {
+      @Override
+      public Request request() {
+        return request;
+      }
+
+      @Override
+      public void reply(Response<ByteString> response) {
+      }
+
+      @Override
+      public void drop() {
+      }
+
+      @Override
+      public boolean isExpired() {
+        return false;
+      }
+
+      @Override
+      public long arrivalTimeNanos() {
+        return arrivalTimeNanos;
+      }
+    };
+  }
+
+  private OngoingRequest requestWithDeadline(long ttlNanos) {
+    OngoingRequest ongoingRequest = mock(OngoingRequest.class);
+    when(ongoingRequest.request()).thenReturn(Request.forUri("http://service/path"));
+    when(ongoingRequest.deadlineNanos()).thenReturn(OptionalLong.of(clock.get() + ttlNanos));
+    return ongoingRequest;
+  }
+
   private Matcher<Response<ByteString>> hasStatus(StatusType status) {
     return new FeatureMatcher<Response<ByteString>, Integer>(
         is(status.code()), "status matches", "status") {
@@ -0,0 +1,122 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Implementations
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.route;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import okio.ByteString;
+
+/**
+ * Measures the time to gzip JSON-like payloads of a few sizes at a few compression levels; divide
+ * by {@code size / 1024} for the cost per KB. {@code unpooled} compresses with a new
+ * {@link GZIPOutputStream}, and so a new {@link java.util.zip.Deflater}, for every payload, like
+ * a middleware without a pool would.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompressionBenchmark {
+
+  private static final Request REQUEST =
+      Request.forUri("/albums").withHeader("Accept-Encoding", "gzip");
+
+  @Param({"1", "6", "9"})
+  public int level;
+
+  @Param({"1024", "16384", "131072"})
+  public int size;
+
+  private Compression compression;
+  private Response<ByteString> response;
+
+  public static void main(String... args) throws IOException, RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(CompressionBenchmark.class.getSimpleName())
+        .warmupIterations(5)
+        .measurementIterations(10)
+        .threads(1)
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() {
+    compression = Compression.builder().level(level).build();
+    response = Response.forPayload(ByteString.encodeUtf8(json(size)))
+        .withHeader("Content-Type", "application/json");
+  }
+
+  @Benchmark
+  public Response<ByteString> pooled() {
+    return compression.compress(REQUEST, response);
+  }
+
+  @Benchmark
+  public byte[] unpooled() throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new LeveledGZIPOutputStream(bytes, level)) {
+      response.payload().get().write(gzip);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static String json(int size) {
+    final Random random = new Random(4711);
+    final StringBuilder json = new StringBuilder("[");
+    while (json.length() < size - 1) {
+      json.append("{\"id\":").append(random.nextInt(1_000_000))
+          .append(",\"name\":\"album ").append(random.nextInt(1000))
+          .append("\",\"year\":").append(1950 + random.nextInt(70))
+          .append("},");
+    }
+    json.setLength(size - 1);
+    return json.append(']').toString();
+  }
+
+  private static final class LeveledGZIPOutputStream extends GZIPOutputStream {
+
+    LeveledGZIPOutputStream(ByteArrayOutputStream out, int level) throws IOException {
+      super(out);
+      def.setLevel(level);
+    }
+  }
+}
@@ -0,0 +1,245 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Implementations
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.route;
+
+import com.google.common.collect.ImmutableList;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.RequestContext;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import okio.ByteString;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CompressionTest {
+
+  private static final String JSON = repeat("{\"album\":\"Abbey Road\",\"year\":1969}", 100);
+
+  private final Compression compression = Compression.create();
+
+  @Test
+  public void shouldGzipWhenAccepted() throws Exception {
+    final Response<ByteString> response =
+        compression.compress(request("gzip, deflate"), json(JSON));
+
+    assertThat(response.header("Content-Encoding"), is(Optional.of("gzip")));
+    assertThat(gunzip(response.payload().get()), is(JSON));
+  }
+
+  @Test
+  public void shouldDeflateWhenOnlyDeflateIsAccepted() throws Exception {
+    final Response<ByteString> response = compression.compress(request("deflate"), json(JSON));
+
+    assertThat(response.header("Content-Encoding"), is(Optional.of("deflate")));
+    assertThat(inflate(response.payload().get()), is(JSON));
+  }
+
+  @Test
+  public void shouldReuseCompressors() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      final String payload = JSON + i;
+      final Response<ByteString> response = compression.compress(request("gzip"), json(payload));
+
+      assertThat(gunzip(response.payload().get()), is(payload));
+    }
+  }
+
+  @Test
+  public void shouldUpdateContentLength() throws Exception {
+    final Response<ByteString> response = compression.compress(
+        request("gzip"), json(JSON).withHeader("Content-Length", String.valueOf(JSON.length())));
+
+    assertThat(response.header("Content-Length"),
+               is(Optional.of(String.valueOf(response.payload().get().size()))));
+  }
+
+  @Test
+  public void shouldAddVary() throws Exception {
+    final Response<ByteString> response = compression.compress(
+        request("gzip"), json(JSON).withHeader("Vary", "Accept-Language"));
+
+    assertThat(response.header("Vary"), is(Optional.of("Accept-Language, Accept-Encoding")));
+  }
+
+  @Test
+  public void shouldAddVaryWhenNotAccepted() throws Exception {
+    final Response<ByteString> response = compression.compress(request(null), json(JSON));
+
+    assertThat(response.header("Content-Encoding"), is(Optional.empty()));
+    assertThat(response.header("Vary"), is(Optional.of("Accept-Encoding")));
+    assertThat(response.payload().get().utf8(), is(JSON));
+  }
+
+  @Test
+  public void shouldNotUseRefusedEncodings() throws Exception {
+    final Response<ByteString> response =
+        compression.compress(request("gzip;q=0, deflate;q=0.5"), json(JSON));
+
+    assertThat(response.header("Content-Encoding"), is(Optional.of("deflate")));
+  }
+
+  @Test
+  public void shouldNotCompressSmallPayloads() throws Exception {
+    final Response<ByteString> response = compression.compress(request("gzip"), json("{}"));
+
+    assertThat(response.header("Content-Encoding"), is(Optional.empty()));
+    assertThat(response.header("Vary"), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldNotCompressOtherContentTypes() throws Exception {
+    final Response<ByteString> response = compression.compress(
+        request("gzip"), json(JSON).withHeader("Content-Type", "image/png"));
+
+    assertThat(response.header("Content-Encoding"), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldMatchContentTypeWildcards() throws Exception {
+    final Compression html = Compression.builder()
+        .contentTypes(ImmutableList.of("Text/*"))
+        .build();
+
+    final Response<ByteString> response = html.compress(
+        request("gzip"), json(JSON).withHeader("Content-Type", "text/html; charset=UTF-8"));
+
+    assertThat(response.header("Content-Encoding"), is(Optional.of("gzip")));
+  }
+
+  @Test
+  public void shouldNotCompressEncodedPayloads() throws Exception {
+    final Response<ByteString> response = compression.compress(
+        request("gzip"), json(JSON).withHeader("Content-Encoding", "br"));
+
+    assertThat(response.payload().get().utf8(), is(JSON));
+  }
+
+  @Test
+  public void shouldNotCompressWhenItDoesNotHelp() throws Exception {
+    final Compression small = Compression.builder().minimumSize(1).build();
+
+    final Response<ByteString> response = small.compress(request("gzip"), json("{}"));
+
+    assertThat(response.header("Content-Encoding"), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldCompressAsMiddleware() throws Exception {
+    final RequestContext requestContext = mock(RequestContext.class);
+    when(requestContext.request()).thenReturn(request("gzip"));
+
+    final Response<ByteString> response = compression
+        .apply(ctx -> CompletableFuture.completedFuture(json(JSON)))
+        .invoke(requestContext)
+        .toCompletableFuture().get();
+
+    assertThat(response.status(), is(Status.OK));
+    assertThat(gunzip(response.payload().get()), is(JSON));
+  }
+
+  @Test
+  public void shouldCompressPayloadsLargerThanOneChunk() throws Exception {
+    final String payload = repeat(JSON, 10);
+
+    assertThat(gunzip(compression.compress(request("gzip"), json(payload)).payload().get()),
+               is(payload));
+    assertThat(inflate(compression.compress(request("deflate"), json(payload)).payload().get()),
+               is(payload));
+  }
+
+  @Test
+  public void shouldAcceptLevelZero() throws Exception {
+    final Response<ByteString> response =
+        Compression.builder().level(0).build().compress(request("gzip"), json(JSON));
+
+    // stored blocks are larger than the payload itself, so it is sent as it is
+    assertThat(response.header("Content-Encoding"), is(Optional.empty()));
+    assertThat(response.payload().get().utf8(), is(JSON));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectLevelsAboveNine() throws Exception {
+    Compression.builder().level(10);
+  }
+
+  @Test
+  public void shouldNegotiateEncodings() throws Exception {
+    assertThat(Compression.negotiate(Optional.empty()), is(Optional.empty()));
+    assertThat(Compression.negotiate(Optional.of("identity")), is(Optional.empty()));
+    assertThat(Compression.negotiate(Optional.of("*")), is(Optional.of("gzip")));
+    assertThat(Compression.negotiate(Optional.of("br, deflate")), is(Optional.of("deflate")));
+    assertThat(Compression.negotiate(Optional.of("deflate, gzip;q=0.8")),
+               is(Optional.of("deflate")));
+    assertThat(Compression.negotiate(Optional.of("*;q=0")), is(Optional.empty()));
+    assertThat(Compression.negotiate(Optional.of("GZIP")), is(Optional.of("gzip")));
+  }
+
+  private static Request request(String acceptEncoding) {
+    final Request request = Request.forUri("/albums");
+    return acceptEncoding == null ? request : request.withHeader("Accept-Encoding", acceptEncoding);
+  }
+
+  private static Response<ByteString> json(String payload) {
+    return Response.forPayload(ByteString.encodeUtf8(payload))
+        .withHeader("Content-Type", "application/json; charset=UTF-8");
+  }
+
+  private static String gunzip(ByteString payload) throws IOException {
+    return read(new GZIPInputStream(new ByteArrayInputStream(payload.toByteArray())));
+  }
+
+  private static String inflate(ByteString payload) throws IOException {
+    return read(new InflaterInputStream(new ByteArrayInputStream(payload.toByteArray())));
+  }
+
+  private static String read(InputStream in) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[1024];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toString("UTF-8");
+  }
+
+  private static String repeat(String value, int times) {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < times; i++) {
+      builder.append(value);
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,166 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Implementations
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.route;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+
+import org.junit.Test;
+
+import java.util.Optional;
+
+import okio.ByteString;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+public class ETagsTest {
+
+  private static final ByteString CONFIG = ByteString.encodeUtf8("{\"timeout\":1000}");
+
+  private final ETags eTags = ETags.create();
+
+  @Test
+  public void shouldAddWeakETag() throws Exception {
+    final Response<ByteString> response = eTags.conditional(get(), json(CONFIG));
+
+    assertThat(response.status(), is(Status.OK));
+    assertThat(response.header("ETag").get(), startsWith("W/\""));
+    assertThat(response.payload(), is(Optional.of(CONFIG)));
+  }
+
+  @Test
+  public void shouldComputeSameETagForSamePayload() throws Exception {
+    assertThat(ETags.forPayload(CONFIG),
+               is(ETags.forPayload(ByteString.encodeUtf8("{\"timeout\":1000}"))));
+    assertThat(ETags.forPayload(CONFIG),
+               is(not(ETags.forPayload(ByteString.encodeUtf8("{\"timeout\":2000}")))));
+  }
+
+  @Test
+  public void shouldReplyNotModifiedOnMatch() throws Exception {
+    final String etag = ETags.forPayload(CONFIG);
+
+    final Response<ByteString> response = eTags.conditional(
+        get().withHeader("If-None-Match", etag),
+        json(CONFIG).withHeader("Content-Length", String.valueOf(CONFIG.size()))
+            .withHeader("Cache-Control", "max-age=60"));
+
+    assertThat(response.status(), is(Status.NOT_MODIFIED));
+    assertThat(response.payload(), is(Optional.empty()));
+    assertThat(response.header("ETag"), is(Optional.of(etag)));
+    assertThat(response.header("Cache-Control"), is(Optional.of("max-age=60")));
+    assertThat(response.header("Content-Length"), is(Optional.empty()));
+    assertThat(response.header("Content-Type"), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldReplyInFullOnMismatch() throws Exception {
+    final Response<ByteString> response = eTags.conditional(
+        get().withHeader("If-None-Match", "W/\"stale\""), json(CONFIG));
+
+    assertThat(response.status(), is(Status.OK));
+    assertThat(response.payload(), is(Optional.of(CONFIG)));
+  }
+
+  @Test
+  public void shouldMatchAnyOfSeveralETags() throws Exception {
+    final Response<ByteString> response = eTags.conditional(
+        get().withHeader("If-None-Match", "\"a\", " + ETags.forPayload(CONFIG) + ", \"b\""),
+        json(CONFIG));
+
+    assertThat(response.status(), is(Status.NOT_MODIFIED));
+  }
+
+  @Test
+  public void shouldMatchWildcard() throws Exception {
+    final Response<ByteString> response =
+        eTags.conditional(get().withHeader("If-None-Match", "*"), json(CONFIG));
+
+    assertThat(response.status(), is(Status.NOT_MODIFIED));
+  }
+
+  @Test
+  public void shouldUseETagSetByHandler() throws Exception {
+    final Response<ByteString> response = eTags.conditional(
+        get().withHeader("If-None-Match", "W/\"42\""),
+        json(CONFIG).withHeader("ETag", ETags.forVersion("42")));
+
+    assertThat(response.status(), is(Status.NOT_MODIFIED));
+    assertThat(response.header("ETag"), is(Optional.of("\"42\"")));
+  }
+
+  @Test
+  public void shouldSupportHeadWithETagSetByHandler() throws Exception {
+    final Response<ByteString> response = eTags.conditional(
+        Request.forUri("/config", "HEAD").withHeader("If-None-Match", "\"42\""),
+        Response.<ByteString>ok().withHeader("ETag", "\"42\""));
+
+    assertThat(response.status(), is(Status.NOT_MODIFIED));
+  }
+
+  @Test
+  public void shouldIgnoreOtherMethods() throws Exception {
+    final Response<ByteString> response = eTags.conditional(
+        Request.forUri("/config", "PUT").withHeader("If-None-Match", "*"), json(CONFIG));
+
+    assertThat(response.status(), is(Status.OK));
+    assertThat(response.header("ETag"), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldIgnoreUnsuccessfulResponses() throws Exception {
+    final Response<ByteString> response = eTags.conditional(
+        get().withHeader("If-None-Match", "*"),
+        Response.forStatus(Status.NOT_FOUND).withPayload(CONFIG));
+
+    assertThat(response.status(), is(Status.NOT_FOUND));
+    assertThat(response.header("ETag"), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldValidateVersionsBeforeDoingWork() throws Exception {
+    final String etag = ETags.forVersion("2021-05-01T12:00:00Z");
+
+    assertThat(ETags.matches(get().withHeader("If-None-Match", etag), etag), is(true));
+    assertThat(ETags.matches(get().withHeader("If-None-Match", "\"1\""), etag), is(false));
+    assertThat(ETags.matches(get(), etag), is(false));
+
+    final Response<Object> notModified = ETags.notModified(etag);
+    assertThat(notModified.status(), is(Status.NOT_MODIFIED));
+    assertThat(notModified.header("ETag"), is(Optional.of(etag)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectInvalidVersions() throws Exception {
+    ETags.forVersion("not \"quoted\"");
+  }
+
+  private static Request get() {
+    return Request.forUri("/config");
+  }
+
+  private static Response<ByteString> json(ByteString payload) {
+    return Response.forPayload(payload).withHeader("Content-Type", "application/json");
+  }
+}
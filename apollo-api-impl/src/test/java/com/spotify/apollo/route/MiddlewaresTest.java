@@ -28,6 +28,7 @@ import com.spotify.apollo.Response;
 import com.spotify.apollo.Serializer;
 import com.spotify.apollo.Status;
 import com.spotify.apollo.StatusType;
+import com.spotify.apollo.request.HandlerCompletionListener;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -52,9 +53,11 @@ import static org.hamcrest.Matchers.equalToIgnoringWhiteSpace;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 public class MiddlewaresTest {
 
@@ -334,11 +337,76 @@ public class MiddlewaresTest {
     verify(serializer, never()).serialize(any(Request.class), any());
   }
 
+  @Test
+  public void apolloDefaultsShouldSerializeAndSetContentHeaders() throws Exception {
+    serializationFuture.complete(Response.forPayload("hi there").withHeader("X-Trace", "1"));
+
+    Response<ByteString> response =
+        getResult(Middlewares.apolloDefaults().apply(serializationDelegate));
+
+    assertThat(response.payload(), equalTo(Optional.of(ByteString.encodeUtf8("hi there"))));
+    assertThat(response.header("Content-Length"), equalTo(Optional.of("8")));
+    assertThat(response.header("X-Trace"), equalTo(Optional.of("1")));
+  }
+
+  @Test
+  public void apolloDefaultsShouldRemovePayloadForHeadRequests() throws Exception {
+    when(request.method()).thenReturn("HEAD");
+    serializationFuture.complete("hi there");
+
+    Response<ByteString> response =
+        getResult(Middlewares.apolloDefaults().apply(serializationDelegate));
+
+    assertThat(response.payload(), is(Optional.empty()));
+    assertThat(response.header("Content-Length"), equalTo(Optional.of("8")));
+  }
+
+  @Test
+  public void apolloDefaultsShouldSetZeroContentLengthWithoutPayload() throws Exception {
+    serializationFuture.complete(Response.forStatus(CREATED));
+
+    Response<ByteString> response =
+        getResult(Middlewares.apolloDefaults().apply(serializationDelegate));
+
+    assertThat(response.status(), equalTo(CREATED));
+    assertThat(response.header("Content-Length"), equalTo(Optional.of("0")));
+  }
+
   private <T> AsyncHandler<T> serializationDelegate() {
     //noinspection unchecked
     return (AsyncHandler<T>) serializationDelegate;
   }
 
+  @Test
+  public void serializeShouldReportHandlerCompletion() throws Exception {
+    RequestContext listeningContext = listeningRequestContext();
+    serializationFuture.complete("hi there");
+
+    Middlewares.serialize(serializer).apply(serializationDelegate)
+        .invoke(listeningContext).toCompletableFuture().get();
+
+    verify((HandlerCompletionListener) listeningContext).handlerCompleted();
+  }
+
+  @Test
+  public void apolloDefaultsShouldReportHandlerCompletion() throws Exception {
+    RequestContext listeningContext = listeningRequestContext();
+    serializationFuture.complete("hi there");
+
+    Middlewares.apolloDefaults().apply(serializationDelegate)
+        .invoke(listeningContext).toCompletableFuture().get();
+
+    verify((HandlerCompletionListener) listeningContext).handlerCompleted();
+  }
+
+  private RequestContext listeningRequestContext() {
+    RequestContext listeningContext =
+        mock(RequestContext.class, withSettings().extraInterfaces(HandlerCompletionListener.class));
+    when(listeningContext.request()).thenReturn(request);
+    when(serializer.serialize(any(), any())).thenReturn(Payloads.create(ByteString.EMPTY));
+    return listeningContext;
+  }
+
   private <T> T getResult(AsyncHandler<T> handler) throws InterruptedException, ExecutionException {
     CompletionStage<T> completionStage = handler.invoke(requestContext);
     CompletableFuture<T> completableFuture = completionStage.toCompletableFuture();
@@ -19,64 +19,274 @@
  */
 package com.spotify.apollo;
 
-import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 
 import java.util.AbstractMap.SimpleImmutableEntry;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
-@AutoValue
-abstract class Headers {
+/**
+ * Immutable, case-insensitive collection of headers that keeps insertion order.
+ *
+ * <p>Names and values are stored in a flat array of alternating name/value pairs, indexed by an
+ * open addressing hash table keyed on the case-folded name. That makes {@link #get(String)} a
+ * constant time operation and {@link #create(Map)} linear in the number of headers, without
+ * allocating lower-cased copies of the names.
+ *
+ * <p>Use a {@link Builder} to apply several changes to an existing instance with at most one copy.
+ */
+final class Headers {
+
+  private static final int[] NO_SLOTS = new int[1];
 
   static Headers EMPTY = create(Collections.emptyMap());
 
+  // name at 2 * i, value at 2 * i + 1
+  private final String[] namesAndValues;
+  private final int[] hashes;
+  private final int size;
+
+  // entry index + 1 per slot, 0 means empty; length is always a power of two
+  private final int[] slots;
+
+  // lazily computed views; racy but idempotent
+  private ImmutableList<Map.Entry<String, String>> entries;
+  private ImmutableMap<String, String> map;
+
+  private Headers(String[] namesAndValues, int[] hashes, int size, int[] slots) {
+    this.namesAndValues = namesAndValues;
+    this.hashes = hashes;
+    this.size = size;
+    this.slots = slots;
+  }
+
   static Headers create(Map<String, String> headers) {
-    final List<Map.Entry<String, String>> headersList = new ArrayList<>(headers.size());
-    headers.entrySet().forEach(h -> insertOrReplace(headersList, h));
-    return new AutoValue_Headers(ImmutableList.copyOf(headersList));
+    return new Builder(headers.size()).putAll(headers).build();
   }
 
   public Optional<String> get(String name) {
     Objects.requireNonNull(name, "Header names cannot be null");
 
-    for (int i = 0; i < entries().size(); i++) {
-      final Map.Entry<String, String> headerEntry = entries().get(i);
-      if (name.equalsIgnoreCase(headerEntry.getKey())) {
-        return Optional.ofNullable(headerEntry.getValue());
+    if (size == 0) {
+      return Optional.empty();
+    }
+
+    final int hash = caseInsensitiveHash(name);
+    final int mask = slots.length - 1;
+    int slot = hash & mask;
+    int index;
+    while ((index = slots[slot] - 1) >= 0) {
+      if (hashes[index] == hash && name.equalsIgnoreCase(namesAndValues[index * 2])) {
+        return Optional.ofNullable(namesAndValues[index * 2 + 1]);
       }
+      slot = (slot + 1) & mask;
     }
 
     return Optional.empty();
   }
 
   public Map<String, String> asMap() {
-    ImmutableMap.Builder<String, String> headers = ImmutableMap.builder();
-    entries().forEach(headers::put);
-    return headers.build();
+    ImmutableMap<String, String> map = this.map;
+    if (map == null) {
+      ImmutableMap.Builder<String, String> headers = ImmutableMap.builderWithExpectedSize(size);
+      for (int i = 0; i < size; i++) {
+        headers.put(namesAndValues[i * 2], namesAndValues[i * 2 + 1]);
+      }
+      this.map = map = headers.build();
+    }
+    return map;
   }
 
-  public abstract ImmutableList<Map.Entry<String, String>> entries();
-
-  private static void insertOrReplace(List<Map.Entry<String, String>> headerList,
-                                      Map.Entry<String, String> newHeader) {
+  public ImmutableList<Map.Entry<String, String>> entries() {
+    ImmutableList<Map.Entry<String, String>> entries = this.entries;
+    if (entries == null) {
+      ImmutableList.Builder<Map.Entry<String, String>> list =
+          ImmutableList.builderWithExpectedSize(size);
+      for (int i = 0; i < size; i++) {
+        list.add(new SimpleImmutableEntry<>(namesAndValues[i * 2], namesAndValues[i * 2 + 1]));
+      }
+      this.entries = entries = list.build();
+    }
+    return entries;
+  }
 
-    // Replace existing header with new key (letter case can be overwritten) and value
-    for (int i = 0; i < headerList.size(); i++) {
-      Map.Entry<String, String> currentHeader = headerList.get(i);
-      if (currentHeader.getKey().equalsIgnoreCase(newHeader.getKey())) {
-        headerList.set(i, new SimpleImmutableEntry<>(newHeader));
-        return;
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Headers)) {
+      return false;
+    }
+    final Headers that = (Headers) o;
+    if (size != that.size) {
+      return false;
+    }
+    for (int i = 0; i < size * 2; i++) {
+      if (!Objects.equals(namesAndValues[i], that.namesAndValues[i])) {
+        return false;
       }
     }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = 0; i < size * 2; i++) {
+      result = 31 * result + Objects.hashCode(namesAndValues[i]);
+    }
+    return result;
+  }
 
-    // No matching entry present, add new entry
-    headerList.add(new SimpleImmutableEntry<>(newHeader));
+  @Override
+  public String toString() {
+    return "Headers{entries=" + entries() + "}";
   }
 
+  /**
+   * Hashes the name so that any two names that are {@link String#equalsIgnoreCase(String)}
+   * equal get the same hash.
+   */
+  static int caseInsensitiveHash(String name) {
+    int hash = 0;
+    for (int i = 0; i < name.length(); i++) {
+      hash = 31 * hash + foldCase(name.charAt(i));
+    }
+    // spread the high bits, since the table is indexed by the low ones
+    return hash ^ (hash >>> 16);
+  }
+
+  private static char foldCase(char c) {
+    if (c < 0x80) {
+      return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+    // same folding as String.equalsIgnoreCase
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+  private static int tableSize(int capacity) {
+    // keep the load factor at or below 0.5
+    return capacity == 0 ? 1 : Integer.highestOneBit(capacity * 2 - 1) << 1;
+  }
+
+  /**
+   * Accumulates header changes on top of an existing {@link Headers} instance. The arrays of the
+   * source instance are shared until the first change, so building without changes is free,
+   * and any number of changes cost a single copy.
+   */
+  static final class Builder {
+
+    // non-null while the arrays are shared with an immutable instance
+    private Headers source;
+
+    private String[] namesAndValues;
+    private int[] hashes;
+    private int size;
+    private int[] slots;
+
+    Builder(Headers headers) {
+      share(headers);
+    }
+
+    Builder(int expectedSize) {
+      this.namesAndValues = new String[expectedSize * 2];
+      this.hashes = new int[expectedSize];
+      this.slots = expectedSize == 0 ? NO_SLOTS : new int[tableSize(expectedSize)];
+    }
+
+    /**
+     * Adds a header, replacing the name and value of an existing header with the same name in
+     * any letter case, but keeping its position.
+     */
+    Builder put(String name, String value) {
+      Objects.requireNonNull(name, "Header names cannot be null");
+      ensureWritable(size + 1);
+
+      final int hash = caseInsensitiveHash(name);
+      final int mask = slots.length - 1;
+      int slot = hash & mask;
+      while (true) {
+        final int index = slots[slot] - 1;
+        if (index < 0) {
+          namesAndValues[size * 2] = name;
+          namesAndValues[size * 2 + 1] = value;
+          hashes[size] = hash;
+          slots[slot] = ++size;
+          return this;
+        }
+        if (hashes[index] == hash && name.equalsIgnoreCase(namesAndValues[index * 2])) {
+          namesAndValues[index * 2] = name;
+          namesAndValues[index * 2 + 1] = value;
+          return this;
+        }
+        slot = (slot + 1) & mask;
+      }
+    }
+
+    Builder putAll(Map<String, String> headers) {
+      for (Map.Entry<String, String> header : headers.entrySet()) {
+        put(header.getKey(), header.getValue());
+      }
+      return this;
+    }
+
+    Builder clear() {
+      share(EMPTY);
+      return this;
+    }
+
+    Headers build() {
+      if (source == null) {
+        share(new Headers(namesAndValues, hashes, size, slots));
+      }
+      return source;
+    }
+
+    private void share(Headers headers) {
+      this.source = headers;
+      this.namesAndValues = headers.namesAndValues;
+      this.hashes = headers.hashes;
+      this.size = headers.size;
+      this.slots = headers.slots;
+    }
+
+    private void ensureWritable(int minCapacity) {
+      int capacity = hashes.length;
+      if (capacity < minCapacity) {
+        capacity = Math.max(minCapacity, capacity * 2);
+      }
+
+      if (source != null || capacity != hashes.length) {
+        namesAndValues = Arrays.copyOf(namesAndValues, capacity * 2);
+        hashes = Arrays.copyOf(hashes, capacity);
+      }
+
+      final int tableSize = tableSize(capacity);
+      if (tableSize != slots.length) {
+        rehash(tableSize);
+      } else if (source != null) {
+        slots = slots.clone();
+      }
+
+      source = null;
+    }
+
+    private void rehash(int tableSize) {
+      final int[] newSlots = new int[tableSize];
+      final int mask = tableSize - 1;
+      for (int i = 0; i < size; i++) {
+        int slot = hashes[i] & mask;
+        while (newSlots[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        newSlots[slot] = i + 1;
+      }
+      slots = newSlots;
+    }
+  }
 }
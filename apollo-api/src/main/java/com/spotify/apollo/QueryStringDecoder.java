@@ -255,6 +255,75 @@ class QueryStringDecoder {
     }
   }
 
+  /**
+   * Returns the first value of the named parameter in a query string without a path, or
+   * {@code null} if there is no such parameter. This gives the same result as looking the
+   * parameter up in {@link #parameters()}, but only decodes the names it needs to compare and
+   * the value it returns.
+   */
+  static String firstValue(String s, String name) {
+    int nParams = 0;
+    int nameStart = -1; // Beginning of the name of the current param, if an `=' has been seen
+    int nameEnd = -1;
+    int pos = 0; // Beginning of the unprocessed region
+    int i;       // End of the unprocessed region
+    char c;  // Current character
+    for (i = 0; i < s.length(); i++) {
+      c = s.charAt(i);
+      if (c == '=' && nameStart < 0) {
+        if (pos != i) {
+          nameStart = pos;
+          nameEnd = i;
+        }
+        pos = i + 1;
+      } else if (c == '&' || c == ';') {
+        if (nameStart < 0 && pos != i) {
+          if (nParams++ >= DEFAULT_MAX_PARAMS) {
+            return null;
+          }
+          if (nameMatches(s, pos, i, name)) {
+            return "";
+          }
+        } else if (nameStart >= 0) {
+          if (nParams++ >= DEFAULT_MAX_PARAMS) {
+            return null;
+          }
+          if (nameMatches(s, nameStart, nameEnd, name)) {
+            return decodeComponent(s.substring(pos, i), DEFAULT_CHARSET);
+          }
+          nameStart = -1;
+        }
+        pos = i + 1;
+      }
+    }
+
+    if (nParams >= DEFAULT_MAX_PARAMS) {
+      return null;
+    }
+    if (pos != i) {
+      if (nameStart < 0) {
+        return nameMatches(s, pos, i, name) ? "" : null;
+      } else {
+        return nameMatches(s, nameStart, nameEnd, name)
+               ? decodeComponent(s.substring(pos, i), DEFAULT_CHARSET)
+               : null;
+      }
+    } else if (nameStart >= 0) {
+      return nameMatches(s, nameStart, nameEnd, name) ? "" : null;
+    }
+    return null;
+  }
+
+  private static boolean nameMatches(String s, int start, int end, String name) {
+    for (int i = start; i < end; i++) {
+      final char c = s.charAt(i);
+      if (c == '%' || c == '+') {
+        return decodeComponent(s.substring(start, end), DEFAULT_CHARSET).equals(name);
+      }
+    }
+    return end - start == name.length() && s.regionMatches(start, name, 0, name.length());
+  }
+
   private boolean addParam(Map<String, List<String>> params, String name, String value) {
     if (nParams >= maxParams) {
       return false;
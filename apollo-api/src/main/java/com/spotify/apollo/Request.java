@@ -168,6 +168,17 @@ public interface Request {
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Creates a {@link Builder} initialized with the data of this request. Unlike chained
+   * 'withXXX' calls, which copy the request every time, the builder applies all its changes
+   * when {@link Builder#build()} is called.
+   *
+   * @return A builder based on this request
+   */
+  default Builder toBuilder() {
+    return RequestValue.builder(this);
+  }
+
   /**
    * Creates a {@link Request} for the given uri and method.
    *
@@ -188,4 +199,55 @@ public interface Request {
   static Request forUri(String uri) {
     return RequestValue.create(uri);
   }
+
+  /**
+   * Accumulates changes to a {@link Request}. Builders are not thread safe.
+   */
+  interface Builder {
+
+    /**
+     * Sets the uri of the request.
+     */
+    Builder uri(String uri);
+
+    /**
+     * Sets the calling service of the request.
+     */
+    Builder service(String service);
+
+    /**
+     * Adds a header, overriding the value of any header with the same name.
+     *
+     * @param name  Header name to add
+     * @param value  Header value
+     */
+    Builder header(String name, String value);
+
+    /**
+     * Adds headers, overriding the values of any headers with the same names.
+     *
+     * @param headers map of headers to add
+     */
+    Builder headers(Map<String, String> headers);
+
+    /**
+     * Removes all headers added so far, including those of the original request.
+     */
+    Builder clearHeaders();
+
+    /**
+     * Sets the payload of the request.
+     */
+    Builder payload(ByteString payload);
+
+    /**
+     * Sets the ttl of the request.
+     */
+    Builder ttl(Duration ttl);
+
+    /**
+     * Creates a {@link Request} from the current state of this builder.
+     */
+    Request build();
+  }
 }
@@ -0,0 +1,325 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Interfaces
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo;
+
+import java.nio.CharBuffer;
+
+/**
+ * A lightweight view of the raw path and query of a request URI.
+ *
+ * <p>The URI is scanned once, recording offsets instead of building a {@link java.net.URI}, and
+ * checked against the same character rules that {@link java.net.URI} applies to hierarchical
+ * URIs. For requests created through {@link Request#forUri(String, String)}, the view is cached
+ * on the request, so that meta routing, routing and query parameter parsing share a single scan.
+ */
+public final class RequestUri {
+
+  // RFC 2396 character classes, as used by java.net.URI
+  private static final String MARK = "-_.!~*'()";
+  private static final String PATH_PUNCT = ";/:@&=+$,";
+  private static final String QUERY_PUNCT = ";/?:@&=+$,[]";
+  private static final String AUTHORITY_PUNCT = ";:@&=+$,";
+
+  private final String uri;
+  private final int pathStart;
+  private final int pathEnd;
+  private final int queryStart;
+  private final int queryEnd;
+  private final boolean valid;
+
+  private RequestUri(String uri,
+                     int pathStart,
+                     int pathEnd,
+                     int queryStart,
+                     int queryEnd,
+                     boolean valid) {
+    this.uri = uri;
+    this.pathStart = pathStart;
+    this.pathEnd = pathEnd;
+    this.queryStart = queryStart;
+    this.queryEnd = queryEnd;
+    this.valid = valid;
+  }
+
+  /**
+   * Returns the view for the URI of a request, reusing the one cached on the request if there
+   * is one.
+   */
+  public static RequestUri of(Request request) {
+    if (request instanceof RequestValue) {
+      return ((RequestValue) request).requestUri();
+    }
+    return parse(request.uri());
+  }
+
+  /**
+   * Scans a URI. Never throws; use {@link #isValid()} to find out whether the URI can be routed.
+   */
+  public static RequestUri parse(String uri) {
+    final int length = uri.length();
+
+    // find the end of the first segment to tell a scheme from a relative path
+    int i = 0;
+    while (i < length && ":/?#".indexOf(uri.charAt(i)) < 0) {
+      i++;
+    }
+
+    boolean valid = true;
+    int pathStart = 0;
+    if (i < length && uri.charAt(i) == ':') {
+      valid = isScheme(uri, i);
+      pathStart = i + 1;
+      if (pathStart == length || uri.charAt(pathStart) != '/') {
+        // opaque, like mailto:someone, which has no path to route on
+        valid = false;
+      }
+    }
+
+    if (uri.startsWith("//", pathStart)) {
+      final int authorityStart = pathStart + 2;
+      int authorityEnd = authorityStart;
+      while (authorityEnd < length && "/?#".indexOf(uri.charAt(authorityEnd)) < 0) {
+        authorityEnd++;
+      }
+      // an empty authority is only allowed before a path, query or fragment, like file:///tmp
+      valid &= authorityEnd < length || authorityEnd > authorityStart;
+      valid &= isValidAuthority(uri, authorityStart, authorityEnd);
+      pathStart = authorityEnd;
+    }
+
+    int pathEnd = pathStart;
+    while (pathEnd < length && uri.charAt(pathEnd) != '?' && uri.charAt(pathEnd) != '#') {
+      pathEnd++;
+    }
+    valid &= isValid(uri, pathStart, pathEnd, PATH_PUNCT);
+
+    int queryStart = -1;
+    int queryEnd = pathEnd;
+    if (pathEnd < length && uri.charAt(pathEnd) == '?') {
+      queryStart = pathEnd + 1;
+      queryEnd = uri.indexOf('#', queryStart);
+      if (queryEnd < 0) {
+        queryEnd = length;
+      }
+      valid &= isValid(uri, queryStart, queryEnd, QUERY_PUNCT);
+    }
+
+    if (queryEnd < length) {
+      // fragment; a second '#' is not allowed
+      valid &= isValid(uri, queryEnd + 1, length, QUERY_PUNCT);
+    }
+
+    return new RequestUri(uri, pathStart, pathEnd, queryStart, queryEnd, valid);
+  }
+
+  /**
+   * The full URI, as given.
+   */
+  public String uri() {
+    return uri;
+  }
+
+  /**
+   * Whether the URI is a well-formed, hierarchical URI. An invalid URI still has a path and
+   * query, as a best effort, but should not be routed.
+   */
+  public boolean isValid() {
+    return valid;
+  }
+
+  /**
+   * The raw (not percent-decoded) path, as a view into the URI. Empty if the URI has no path.
+   */
+  public CharSequence rawPath() {
+    if (pathStart == 0 && pathEnd == uri.length()) {
+      return uri;
+    }
+    return CharBuffer.wrap(uri, pathStart, pathEnd);
+  }
+
+  /**
+   * Checks whether the raw path starts with {@code prefix}, without allocating.
+   */
+  public boolean rawPathStartsWith(String prefix) {
+    return pathEnd - pathStart >= prefix.length()
+           && uri.regionMatches(pathStart, prefix, 0, prefix.length());
+  }
+
+  public boolean hasQuery() {
+    return queryStart >= 0;
+  }
+
+  /**
+   * The raw query, without the leading '?'. Empty if there is no query.
+   */
+  public String rawQuery() {
+    return queryStart < 0 ? "" : uri.substring(queryStart, queryEnd);
+  }
+
+  private static boolean isScheme(String uri, int end) {
+    if (end == 0 || !isAlpha(uri.charAt(0))) {
+      return false;
+    }
+    for (int i = 1; i < end; i++) {
+      final char c = uri.charAt(i);
+      if (!isAlpha(c) && !isDigit(c) && c != '+' && c != '-' && c != '.') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isValidAuthority(String uri, int start, int end) {
+    final int open = uri.indexOf('[', start);
+    if (open < 0 || open >= end) {
+      return isValid(uri, start, end, AUTHORITY_PUNCT);
+    }
+
+    // brackets are only allowed around an IPv6 literal: [userinfo@][address][:port]
+    if (open > start && uri.charAt(open - 1) != '@') {
+      return false;
+    }
+    final int close = uri.indexOf(']', open);
+    if (close < 0 || close >= end || close == open + 1
+        || !isValid(uri, start, Math.max(start, open - 1), AUTHORITY_PUNCT)) {
+      return false;
+    }
+    if (!isIpv6Address(uri, open + 1, close)) {
+      return false;
+    }
+    if (close + 1 == end) {
+      return true;
+    }
+    if (uri.charAt(close + 1) != ':') {
+      return false;
+    }
+    for (int i = close + 2; i < end; i++) {
+      if (!isDigit(uri.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // RFC 2373: eight hex groups, where one run of zero groups may be written as '::', and the
+  // last two groups may be written as an IPv4 address
+  private static boolean isIpv6Address(String uri, int start, int end) {
+    int groups = 0;
+    boolean compressed = false;
+    int i = start;
+    if (uri.startsWith("::", i)) {
+      compressed = true;
+      i += 2;
+    }
+    while (i < end) {
+      int j = i;
+      while (j < end && j - i < 4 && isHex(uri.charAt(j))) {
+        j++;
+      }
+      if (j < end && uri.charAt(j) == '.') {
+        // trailing IPv4 address
+        return isIpv4Address(uri, i, end) && groups + 2 <= (compressed ? 7 : 8)
+               && (compressed || groups + 2 == 8);
+      }
+      if (j == i) {
+        return false;
+      }
+      groups++;
+      if (j == end) {
+        break;
+      }
+      if (uri.charAt(j) != ':') {
+        return false;
+      }
+      if (uri.startsWith("::", j)) {
+        if (compressed) {
+          return false;
+        }
+        compressed = true;
+        i = j + 2;
+      } else {
+        i = j + 1;
+        if (i == end) {
+          return false;
+        }
+      }
+    }
+    return compressed ? groups <= 7 : groups == 8;
+  }
+
+  private static boolean isIpv4Address(String uri, int start, int end) {
+    int octets = 0;
+    int i = start;
+    while (i < end) {
+      int j = i;
+      int value = 0;
+      while (j < end && j - i < 3 && isDigit(uri.charAt(j))) {
+        value = value * 10 + (uri.charAt(j) - '0');
+        j++;
+      }
+      if (j == i || value > 255) {
+        return false;
+      }
+      octets++;
+      if (j == end) {
+        break;
+      }
+      if (uri.charAt(j) != '.' || j + 1 == end) {
+        return false;
+      }
+      i = j + 1;
+    }
+    return octets == 4;
+  }
+
+  private static boolean isValid(String uri, int start, int end, String punct) {
+    for (int i = start; i < end; i++) {
+      final char c = uri.charAt(i);
+      if (isAlpha(c) || isDigit(c) || MARK.indexOf(c) >= 0 || punct.indexOf(c) >= 0) {
+        continue;
+      }
+      if (c == '%') {
+        if (i + 2 >= end || !isHex(uri.charAt(i + 1)) || !isHex(uri.charAt(i + 2))) {
+          return false;
+        }
+        i += 2;
+        continue;
+      }
+      if (c > 0x7f && !Character.isSpaceChar(c) && !Character.isISOControl(c)) {
+        // java.net.URI calls these 'other' characters and lets them through
+        continue;
+      }
+      return false;
+    }
+    return true;
+  }
+
+  private static boolean isAlpha(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isHex(char c) {
+    return isDigit(c) || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+  }
+}
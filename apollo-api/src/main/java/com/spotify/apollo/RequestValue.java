@@ -23,11 +23,14 @@ import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableMap;
 
 import java.time.Duration;
-import java.util.LinkedHashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
+import javax.annotation.Nullable;
+
 import okio.ByteString;
 
 import static java.util.Optional.empty;
@@ -46,24 +49,70 @@ abstract class RequestValue implements Request {
   }
 
   public static Request create(String uri, String method) {
-    return create(method, uri, parseParameters(uri), Headers.EMPTY, empty(), empty(), empty());
+    return create(method, uri, null, null, Headers.EMPTY, empty(), empty(), empty());
   }
 
+  /**
+   * The scanned uri and decoded parameters are derived from the uri and may be passed on from
+   * a request with the same uri, or be null to have them computed on first use.
+   */
   private static Request create(
       String method,
       String uri,
-      Map<String, List<String>> parameters,
+      @Nullable RequestUri requestUri,
+      @Nullable Map<String, List<String>> parameters,
       Headers headers,
       Optional<String> service,
       Optional<ByteString> payload,
       Optional<Duration> ttl) {
-    return new AutoValue_RequestValue(
+    final RequestValue request = new AutoValue_RequestValue(
         method, uri,
-        ImmutableMap.copyOf(parameters),
         service,
         payload,
         headers,
         ttl);
+    request.requestUri = requestUri;
+    request.parameters = parameters;
+    return request;
+  }
+
+  // not properties; racy, idempotent caches of the scanned uri and the decoded parameters
+  private RequestUri requestUri;
+  private Map<String, List<String>> parameters;
+
+  RequestUri requestUri() {
+    RequestUri requestUri = this.requestUri;
+    if (requestUri == null) {
+      requestUri = RequestUri.parse(uri());
+      this.requestUri = requestUri;
+    }
+    return requestUri;
+  }
+
+  @Override
+  public Map<String, List<String>> parameters() {
+    Map<String, List<String>> parameters = this.parameters;
+    if (parameters == null) {
+      parameters = ImmutableMap.copyOf(parseParameters(requestUri()));
+      this.parameters = parameters;
+    }
+    return parameters;
+  }
+
+  @Override
+  public Optional<String> parameter(String parameter) {
+    final Map<String, List<String>> parameters = this.parameters;
+    if (parameters != null) {
+      final List<String> values = parameters.get(parameter);
+      return values != null ? Optional.ofNullable(values.get(0)) : empty();
+    }
+
+    // look up a single parameter without decoding all of them
+    final RequestUri requestUri = requestUri();
+    if (!requestUri.hasQuery()) {
+      return empty();
+    }
+    return Optional.ofNullable(QueryStringDecoder.firstValue(requestUri.rawQuery(), parameter));
   }
 
   // TODO Make it @Memoized once we upgrade to auto-value 1.4+
@@ -90,42 +139,145 @@ abstract class RequestValue implements Request {
 
   @Override
   public Request withUri(String uri) {
-    return create(method(), uri, parameters(), internalHeadersImpl(), service(), payload(), ttl());
+    return create(method(), uri, null, null, internalHeadersImpl(), service(), payload(), ttl());
   }
 
   @Override
   public Request withService(String service) {
-    return create(method(), uri(), parameters(), internalHeadersImpl(), of(service), payload(), ttl());
+    return create(method(), uri(), requestUri, parameters, internalHeadersImpl(), of(service), payload(), ttl());
   }
 
   @Override
   public Request withHeader(String name, String value) {
-    return withHeaders(ImmutableMap.of(name, value));
+    Objects.requireNonNull(value);
+    Headers headers = new Headers.Builder(internalHeadersImpl()).put(name, value).build();
+    return create(method(), uri(), requestUri, parameters, headers, service(), payload(), ttl());
   }
 
   @Override
   public Request withHeaders(Map<String, String> additionalHeaders) {
-    Map<String, String> headers = new LinkedHashMap<>(internalHeadersImpl().asMap());
-    headers.putAll(additionalHeaders);
-    return create(method(), uri(), parameters(), Headers.create(headers), service(), payload(), ttl());
+    Headers headers = new Headers.Builder(internalHeadersImpl()).putAll(additionalHeaders).build();
+    return create(method(), uri(), requestUri, parameters, headers, service(), payload(), ttl());
   }
 
   @Override
   public Request clearHeaders() {
-    return create(method(), uri(), parameters(), Headers.EMPTY, service(), payload(), ttl());
+    return create(method(), uri(), requestUri, parameters, Headers.EMPTY, service(), payload(), ttl());
   }
 
   @Override
   public Request withPayload(ByteString payload) {
-    return create(method(), uri(), parameters(), internalHeadersImpl(), service(), of(payload), ttl());
+    return create(method(), uri(), requestUri, parameters, internalHeadersImpl(), service(), of(payload), ttl());
   }
 
   @Override
   public Request withTtl(final Duration duration) {
-    return create(method(), uri(), parameters(), internalHeadersImpl(), service(), payload(), of(duration));
+    return create(method(), uri(), requestUri, parameters, internalHeadersImpl(), service(), payload(), of(duration));
+  }
+
+  @Override
+  public Builder toBuilder() {
+    return new BuilderImpl(
+        method(), uri(), requestUri, parameters, new Headers.Builder(internalHeadersImpl()),
+        service(), payload(), ttl());
   }
 
-  private static Map<String, List<String>> parseParameters(String uri) {
-    return new QueryStringDecoder(uri).parameters();
+  static Builder builder(Request request) {
+    final Headers.Builder headers = new Headers.Builder(request.headerEntries().size());
+    for (Map.Entry<String, String> header : request.headerEntries()) {
+      headers.put(header.getKey(), header.getValue());
+    }
+    return new BuilderImpl(
+        request.method(), request.uri(), null, null, headers,
+        request.service(), request.payload(), request.ttl());
+  }
+
+  private static Map<String, List<String>> parseParameters(RequestUri requestUri) {
+    if (!requestUri.hasQuery()) {
+      return Collections.emptyMap();
+    }
+    return new QueryStringDecoder(requestUri.rawQuery(), false).parameters();
+  }
+
+  private static final class BuilderImpl implements Builder {
+
+    private final String method;
+    private String uri;
+    private RequestUri requestUri;
+    private Map<String, List<String>> parameters;
+    private final Headers.Builder headers;
+    private Optional<String> service;
+    private Optional<ByteString> payload;
+    private Optional<Duration> ttl;
+
+    private BuilderImpl(
+        String method,
+        String uri,
+        RequestUri requestUri,
+        Map<String, List<String>> parameters,
+        Headers.Builder headers,
+        Optional<String> service,
+        Optional<ByteString> payload,
+        Optional<Duration> ttl) {
+      this.method = method;
+      this.uri = uri;
+      this.requestUri = requestUri;
+      this.parameters = parameters;
+      this.headers = headers;
+      this.service = service;
+      this.payload = payload;
+      this.ttl = ttl;
+    }
+
+    @Override
+    public Builder uri(String uri) {
+      if (!uri.equals(this.uri)) {
+        this.uri = uri;
+        this.requestUri = null;
+        this.parameters = null;
+      }
+      return this;
+    }
+
+    @Override
+    public Builder service(String service) {
+      this.service = of(service);
+      return this;
+    }
+
+    @Override
+    public Builder header(String name, String value) {
+      headers.put(name, Objects.requireNonNull(value));
+      return this;
+    }
+
+    @Override
+    public Builder headers(Map<String, String> headers) {
+      this.headers.putAll(headers);
+      return this;
+    }
+
+    @Override
+    public Builder clearHeaders() {
+      headers.clear();
+      return this;
+    }
+
+    @Override
+    public Builder payload(ByteString payload) {
+      this.payload = of(payload);
+      return this;
+    }
+
+    @Override
+    public Builder ttl(Duration ttl) {
+      this.ttl = of(ttl);
+      return this;
+    }
+
+    @Override
+    public Request build() {
+      return create(method, uri, requestUri, parameters, headers.build(), service, payload, ttl);
+    }
   }
 }
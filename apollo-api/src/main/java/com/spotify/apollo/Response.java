@@ -98,6 +98,17 @@ public interface Response<T> {
    */
   <P> Response<P> withPayload(@Nullable P newPayload);
 
+  /**
+   * Creates a {@link Builder} initialized with the status, headers and payload of this response.
+   * Unlike chained 'withXXX' calls, which copy the response every time, the builder applies all
+   * its changes when {@link Builder#build()} is called.
+   *
+   * @return A builder based on this response
+   */
+  default Builder<T> toBuilder() {
+    return ResponseImpl.builder(this);
+  }
+
   /**
    * Returns a typed 200 OK {@link Response}.
    *
@@ -144,4 +155,44 @@ public interface Response<T> {
   static <T> Response<T> of(StatusType statusCode, T payload) {
     return ResponseImpl.create(statusCode, payload);
   }
+
+  /**
+   * Accumulates changes to a {@link Response}. Builders are not thread safe.
+   *
+   * @param <T>  The response payload type
+   */
+  interface Builder<T> {
+
+    /**
+     * Sets the status of the response.
+     */
+    Builder<T> status(StatusType status);
+
+    /**
+     * Adds a header, overriding the value of any header with the same name.
+     *
+     * @param name   Header name to add
+     * @param value  Header value
+     */
+    Builder<T> header(String name, String value);
+
+    /**
+     * Adds headers, overriding the values of any headers with the same names.
+     *
+     * @param headers  Map of header name-values to add
+     */
+    Builder<T> headers(Map<String, String> headers);
+
+    /**
+     * Sets the payload of the response. To clear out the payload, one can pass in {@code null}.
+     *
+     * @param payload  The new payload
+     */
+    <P> Builder<P> payload(@Nullable P payload);
+
+    /**
+     * Creates a {@link Response} from the current state of this builder.
+     */
+    Response<T> build();
+  }
 }
@@ -21,7 +21,6 @@ package com.spotify.apollo;
 
 import com.google.auto.value.AutoValue;
 
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -32,6 +31,7 @@ import javax.annotation.Nullable;
 /**
  * An immutable response. Each invocation of a 'withXXX' method returns a new instance,
  * making it safe to share instances between threads, at the cost of some efficiency.
+ * Use {@link #toBuilder()} to apply several changes with a single copy.
  */
 @AutoValue
 abstract class ResponseImpl<T> implements Response<T> {
@@ -60,21 +60,15 @@ abstract class ResponseImpl<T> implements Response<T> {
   @Override
   public Response<T> withHeader(String header, String value) {
     // Allow overriding values
-    final Map<String, String> newHeaders = new LinkedHashMap<>();
-    newHeaders.putAll(headers());
-    newHeaders.put(header, value);
-
-    return createInternal(status(), Headers.create(newHeaders), payload());
+    return createInternal(
+        status(), new Headers.Builder(internalHeadersImpl()).put(header, value).build(), payload());
   }
 
   @Override
   public Response<T> withHeaders(Map<String, String> headers) {
     // Allow overriding values
-    final Map<String, String> newHeaders = new LinkedHashMap<>();
-    newHeaders.putAll(headers());
-    newHeaders.putAll(headers);
-
-    return createInternal(status(), Headers.create(newHeaders), payload());
+    return createInternal(
+        status(), new Headers.Builder(internalHeadersImpl()).putAll(headers).build(), payload());
   }
 
   @Override
@@ -82,6 +76,19 @@ abstract class ResponseImpl<T> implements Response<T> {
     return createInternal(status(), internalHeadersImpl(), Optional.ofNullable(newPayload));
   }
 
+  @Override
+  public Builder<T> toBuilder() {
+    return new BuilderImpl<>(status(), new Headers.Builder(internalHeadersImpl()), payload());
+  }
+
+  static <T> Builder<T> builder(Response<T> response) {
+    final Headers.Builder headers = new Headers.Builder(response.headerEntries().size());
+    for (Map.Entry<String, String> header : response.headerEntries()) {
+      headers.put(header.getKey(), header.getValue());
+    }
+    return new BuilderImpl<>(response.status(), headers, response.payload());
+  }
+
   static <T> Response<T> create(StatusType statusCode) {
     Objects.requireNonNull(statusCode);
 
@@ -116,4 +123,49 @@ abstract class ResponseImpl<T> implements Response<T> {
         payload,
         headers);
   }
+
+  private static final class BuilderImpl<T> implements Builder<T> {
+
+    private StatusType status;
+    private final Headers.Builder headers;
+    private Optional<T> payload;
+
+    private BuilderImpl(StatusType status, Headers.Builder headers, Optional<T> payload) {
+      this.status = status;
+      this.headers = headers;
+      this.payload = payload;
+    }
+
+    @Override
+    public Builder<T> status(StatusType status) {
+      this.status = Objects.requireNonNull(status);
+      return this;
+    }
+
+    @Override
+    public Builder<T> header(String name, String value) {
+      headers.put(name, value);
+      return this;
+    }
+
+    @Override
+    public Builder<T> headers(Map<String, String> headers) {
+      this.headers.putAll(headers);
+      return this;
+    }
+
+    @Override
+    public <P> Builder<P> payload(@Nullable P payload) {
+      // the payload is the only thing that depends on the type parameter
+      //noinspection unchecked
+      final BuilderImpl<P> builder = (BuilderImpl<P>) this;
+      builder.payload = Optional.ofNullable(payload);
+      return builder;
+    }
+
+    @Override
+    public Response<T> build() {
+      return createInternal(status, headers.build(), payload);
+    }
+  }
 }
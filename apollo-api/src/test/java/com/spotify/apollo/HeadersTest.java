@@ -155,4 +155,48 @@ public class HeadersTest {
     assertThat(headers.asMap().size(), is(0));
     assertThat(headers.get("non-existent"), is(Optional.empty()));
   }
+
+  @Test
+  public void testGetFindsEveryHeaderInBigMap() {
+    Headers headers = Headers.create(TEST_BIG_MAP);
+
+    for (String name : TEST_BIG_MAP.keySet()) {
+      assertThat(headers.get(name), is(Optional.of(name)));
+    }
+    assertThat(headers.get("100"), is(Optional.empty()));
+  }
+
+  @Test
+  public void testGetIsCaseInsensitiveForOverwrittenKeys() {
+    Headers headers = Headers.create(TEST_MAP_DUPLICATE_KEYS);
+
+    assertThat(headers.get("first-key"), is(Optional.of("value2")));
+    assertThat(headers.get("FIRST-KEY"), is(Optional.of("value2")));
+    assertThat(headers.get("Second-Key"), is(Optional.of("other-value")));
+  }
+
+  @Test
+  public void testGetIsCaseInsensitiveForNonAsciiNames() {
+    Map<String, String> map = Collections.singletonMap("x-\u00e4\u00f6", "value");
+    Headers headers = Headers.create(map);
+
+    assertThat(headers.get("X-\u00c4\u00d6"), is(Optional.of("value")));
+  }
+
+  @Test
+  public void testEqualsComparesEntriesInOrder() {
+    Map<String, String> reversed = new LinkedHashMap<>();
+    reversed.put("second-key", "other-value");
+    reversed.put("FirST-KEy", "value2");
+
+    Map<String, String> same = new LinkedHashMap<>();
+    same.put("FirST-KEy", "value2");
+    same.put("second-key", "other-value");
+
+    Headers headers = Headers.create(TEST_MAP_DUPLICATE_KEYS);
+
+    assertThat(headers.equals(Headers.create(same)), is(true));
+    assertThat(headers.hashCode(), is(Headers.create(same).hashCode()));
+    assertThat(headers.equals(Headers.create(reversed)), is(false));
+  }
 }
@@ -76,6 +76,43 @@ public class RequestTest {
                is(ImmutableList.of("value1", "value2")));
   }
 
+  @Test
+  public void shouldReturnDecodedParameterValue() throws Exception {
+    Request request = request("/foo?other=%zz&a%20b=c+d&;empty&novalue=");
+
+    assertThat(request.parameter("a b"), is(Optional.of("c d")));
+    assertThat(request.parameter("empty"), is(Optional.of("")));
+    assertThat(request.parameter("novalue"), is(Optional.of("")));
+    assertThat(request.parameter("a%20b"), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldReturnSameParameterValueBeforeAndAfterDecodingAll() throws Exception {
+    Request request = request("/foo?a=1&b=2&a=3#b=4");
+
+    assertThat(request.parameter("b"), is(Optional.of("2")));
+    assertThat(request.parameters(), is(ImmutableMap.of("a", ImmutableList.of("1", "3"),
+                                                        "b", ImmutableList.of("2"))));
+    assertThat(request.parameter("b"), is(Optional.of("2")));
+  }
+
+  @Test
+  public void shouldNotDecodeParametersOnCreation() throws Exception {
+    Request request = request("/foo?a=%zz");
+
+    assertThat(request.uri(), is("/foo?a=%zz"));
+  }
+
+  @Test
+  public void shouldReturnParametersOfNewUri() throws Exception {
+    Request request = request("/foo?a=1");
+    request.parameters();
+
+    assertThat(request.withUri("/foo?b=2").parameters(),
+               is(ImmutableMap.of("b", ImmutableList.of("2"))));
+    assertThat(request.withUri("/foo?b=2").parameter("a"), is(Optional.empty()));
+  }
+
   @Test
   public void shouldReturnNullForMissingHeaderWithDefaultMethod() throws Exception {
     assertThat(request("/foo").header("missing"), is(Optional.empty()));
@@ -165,4 +202,44 @@ public class RequestTest {
   public void shouldSetTtl() throws Exception {
     assertThat(request("/foo").withTtl(Duration.ofSeconds(1)).ttl().get(), is(Duration.ofSeconds(1)));
   }
+
+  @Test
+  public void builderShouldApplyAllChanges() throws Exception {
+    Request request = requestWithHeader("/foo?a=1", "old", "value")
+        .toBuilder()
+        .uri("/bar?b=2")
+        .service("caller")
+        .header("OLD", "value2")
+        .headers(ImmutableMap.of("newHeader", "value1"))
+        .payload(ByteString.encodeUtf8("hello"))
+        .ttl(Duration.ofSeconds(1))
+        .build();
+
+    assertThat(request.method(), is("GET"));
+    assertThat(request.uri(), is("/bar?b=2"));
+    assertThat(request.parameters(), is(ImmutableMap.of("b", ImmutableList.of("2"))));
+    assertThat(request.service(), is(Optional.of("caller")));
+    assertThat(request.headers(), is(ImmutableMap.of("OLD", "value2", "newHeader", "value1")));
+    assertThat(request.payload(), is(Optional.of(ByteString.encodeUtf8("hello"))));
+    assertThat(request.ttl(), is(Optional.of(Duration.ofSeconds(1))));
+  }
+
+  @Test
+  public void builderShouldClearHeaders() throws Exception {
+    Request request = requestWithHeader("/foo", "old", "value")
+        .toBuilder()
+        .clearHeaders()
+        .header("new", "value")
+        .build();
+
+    assertThat(request.headers(), is(ImmutableMap.of("new", "value")));
+  }
+
+  @Test
+  public void builderWithoutChangesShouldBuildEqualRequest() throws Exception {
+    Request request = requestWithPayload("/foo?a=1", ByteString.encodeUtf8("hello"))
+        .withHeader("old", "value");
+
+    assertThat(request.toBuilder().build(), is(request));
+  }
 }
@@ -0,0 +1,107 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Interfaces
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo;
+
+import org.junit.Test;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RequestUriTest {
+
+  @Test
+  public void shouldExtractPathAndQuery() throws Exception {
+    RequestUri uri = RequestUri.parse("http://host:8080/foo/bar?a=1&b=2#fragment");
+
+    assertThat(uri.isValid(), is(true));
+    assertThat(uri.rawPath().toString(), is("/foo/bar"));
+    assertThat(uri.hasQuery(), is(true));
+    assertThat(uri.rawQuery(), is("a=1&b=2"));
+  }
+
+  @Test
+  public void shouldHandleRelativeUri() throws Exception {
+    RequestUri uri = RequestUri.parse("/foo");
+
+    assertThat(uri.isValid(), is(true));
+    assertThat(uri.rawPath().toString(), is("/foo"));
+    assertThat(uri.hasQuery(), is(false));
+    assertThat(uri.rawQuery(), is(""));
+  }
+
+  @Test
+  public void shouldNotDecodePath() throws Exception {
+    assertThat(RequestUri.parse("http://host/a%2Fb").rawPath().toString(), is("/a%2Fb"));
+  }
+
+  @Test
+  public void shouldCheckPathPrefix() throws Exception {
+    RequestUri uri = RequestUri.parse("gopher://au.th/_meta/0/info");
+
+    assertThat(uri.rawPathStartsWith("/_meta/"), is(true));
+    assertThat(uri.rawPathStartsWith("/_meta/0/info/more"), is(false));
+    assertThat(uri.rawPathStartsWith("/foo"), is(false));
+  }
+
+  @Test
+  public void shouldReuseUriCachedOnRequest() throws Exception {
+    Request request = Request.forUri("http://host/foo?a=b");
+
+    assertThat(RequestUri.of(request), is(sameInstance(RequestUri.of(request))));
+    assertThat(RequestUri.of(request.withHeader("foo", "bar")),
+               is(sameInstance(RequestUri.of(request))));
+    assertThat(RequestUri.of(request.withUri("/bar")).rawPath().toString(), is("/bar"));
+  }
+
+  @Test
+  public void shouldAgreeWithJavaNetUri() throws Exception {
+    String[] uris = {
+        "", "/", "http://host", "http://host/", "http://host?q", "file:///tmp", "//host/path",
+        "http://user@host:80/p;x?q=1&r=[]#f", "http://[::1]:8080/p", "http://[::ffff:1.2.3.4]/",
+        "/%41%42", "/\u00e4/\u00f6", "foo/bar",
+        // invalid
+        "mailto:someone", "1abc:foo", "http://", "/a b", "/a[b", "/%zz", "/%4", "/p|", "/p\\",
+        "/p^", "/p`", "/p{}", "/p?q#f#g", "http://h h/p", "http://[1::2::3]/", "http://[]/",
+        "/p\n",
+    };
+
+    for (String uri : uris) {
+      RequestUri requestUri = RequestUri.parse(uri);
+      String expected = javaNetRawPath(uri);
+
+      assertThat(uri, requestUri.isValid(), is(expected != null));
+      if (expected != null) {
+        assertThat(uri, requestUri.rawPath().toString(), is(expected));
+      }
+    }
+  }
+
+  private static String javaNetRawPath(String uri) {
+    try {
+      return new URI(uri).getRawPath();
+    } catch (URISyntaxException e) {
+      return null;
+    }
+  }
+}
@@ -108,6 +108,47 @@ public class ResponseTest {
     assertNotSame(ok1, ok2);
   }
 
+  @Test
+  public void builderShouldApplyAllChanges() throws Exception {
+    Response<String> response = Response.forPayload(1)
+        .withHeader("Content-Type", "application/json")
+        .toBuilder()
+        .status(Status.CREATED)
+        .header("content-type", "text/plain")
+        .headers(ImmutableMap.of("X-Trace", "abc", "Content-Length", "5"))
+        .payload("hello")
+        .build();
+
+    assertThat(response.status(), is(Status.CREATED));
+    assertThat(response.payload(), is(Optional.of("hello")));
+    assertThat(response.headers(), is(ImmutableMap.of(
+        "content-type", "text/plain",
+        "X-Trace", "abc",
+        "Content-Length", "5")));
+  }
+
+  @Test
+  public void builderShouldNotChangeOriginalResponse() throws Exception {
+    Response<String> original = Response.forPayload("hello").withHeader("X-Trace", "abc");
+
+    Response.Builder<String> builder = original.toBuilder();
+    Response<String> first = builder.header("X-Trace", "def").build();
+    Response<?> second = builder.header("X-Other", "ghi").payload(null).build();
+
+    assertThat(original.headers(), is(ImmutableMap.of("X-Trace", "abc")));
+    assertThat(original.payload(), is(Optional.of("hello")));
+    assertThat(first.headers(), is(ImmutableMap.of("X-Trace", "def")));
+    assertThat(second.headers(), is(ImmutableMap.of("X-Trace", "def", "X-Other", "ghi")));
+    assertThat(second.payload(), is(Optional.empty()));
+  }
+
+  @Test
+  public void builderWithoutChangesShouldBuildEqualResponse() throws Exception {
+    Response<String> original = Response.of(Status.ACCEPTED, "hello").withHeader("X-Trace", "abc");
+
+    assertEquals(original, original.toBuilder().build());
+  }
+
   static class CustomOK implements StatusType {
 
     @Override
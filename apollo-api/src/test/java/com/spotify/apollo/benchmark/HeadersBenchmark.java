@@ -0,0 +1,90 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Interfaces
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.benchmark;
+
+import com.spotify.apollo.Request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures building the headers of a request and looking headers up in it, for header counts
+ * in the range seen behind edge proxies.
+ */
+@State(Scope.Benchmark)
+public class HeadersBenchmark {
+
+  @Param({"5", "50"})
+  public int headerCount;
+
+  private Map<String, String> headers;
+  private Request request;
+  private String lastHeader;
+
+  public static void main(String... args) throws IOException, RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(HeadersBenchmark.class.getSimpleName())
+        .warmupIterations(5)
+        .measurementIterations(10)
+        .threads(1)
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() {
+    headers = new LinkedHashMap<>();
+    for (int i = 0; i < headerCount; i++) {
+      headers.put("X-Forwarded-Header-" + i, "value-" + i);
+    }
+    request = Request.forUri("/ping").withHeaders(headers);
+    // looked up in a different letter case than it was added with
+    lastHeader = ("X-Forwarded-Header-" + (headerCount - 1)).toLowerCase();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  public Request create() {
+    return Request.forUri("/ping").withHeaders(headers);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  public void lookup(Blackhole blackhole) {
+    blackhole.consume(request.header(lastHeader));
+    blackhole.consume(request.header("Authorization"));
+  }
+}
@@ -0,0 +1,78 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Interfaces
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.benchmark;
+
+import com.spotify.apollo.Request;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Measures creating requests and reading their query parameters, either not at all, one at a
+ * time or all of them.
+ */
+@State(Scope.Benchmark)
+public class RequestParametersBenchmark {
+
+  private static final String URI =
+      "http://localhost:8080/users/alice/playlists?limit=10&offset=20&market=SE&fields=name%2Cid";
+
+  public static void main(String... args) throws IOException, RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(RequestParametersBenchmark.class.getSimpleName())
+        .warmupIterations(5)
+        .measurementIterations(10)
+        .threads(1)
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  public Request createOnly() {
+    return Request.forUri(URI).withHeader("X-Forwarded-For", "10.0.0.1");
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  public Optional<String> singleParameter() {
+    return Request.forUri(URI).parameter("market");
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  public Map<String, List<String>> allParameters() {
+    return Request.forUri(URI).parameters();
+  }
+}
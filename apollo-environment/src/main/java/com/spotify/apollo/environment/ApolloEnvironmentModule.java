@@ -19,6 +19,7 @@
  */
 package com.spotify.apollo.environment;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.io.Closer;
 import com.google.inject.Inject;
@@ -84,6 +85,7 @@ public class ApolloEnvironmentModule extends AbstractApolloModule {
     Multibinder.newSetBinder(binder(), ClientDecorator.class);
     Multibinder.newSetBinder(binder(), RequestRunnableFactoryDecorator.class);
     Multibinder.newSetBinder(binder(), EndpointRunnableFactoryDecorator.class);
+    Multibinder.newSetBinder(binder(), MetaRouteProvider.class);
 
     bind(ApolloConfig.class).in(Singleton.class); // used by most sub-modules
     bind(ApolloEnvironment.class).to(ApolloEnvironmentImpl.class).in(Singleton.class);
@@ -121,6 +123,7 @@ public class ApolloEnvironmentModule extends AbstractApolloModule {
      */
     private final Set<RequestRunnableFactoryDecorator> rrfDecorators;
     private final Set<EndpointRunnableFactoryDecorator> erfDecorators;
+    private final Set<MetaRouteProvider> metaRouteProviders;
 
     @Inject
     private ApolloEnvironmentImpl(
@@ -132,6 +135,7 @@ public class ApolloEnvironmentModule extends AbstractApolloModule {
         MetaInfoTracker metaInfoTracker,
         Set<RequestRunnableFactoryDecorator> rrfDecorators,
         Set<EndpointRunnableFactoryDecorator> erfDecorators,
+        Set<MetaRouteProvider> metaRouteProviders,
         ApolloConfig apolloConfig) {
       this.closer = closer;
       this.configNode = configNode;
@@ -141,6 +145,7 @@ public class ApolloEnvironmentModule extends AbstractApolloModule {
       this.metaInfoTracker = metaInfoTracker;
       this.rrfDecorators = rrfDecorators;
       this.erfDecorators = erfDecorators;
+      this.metaRouteProviders = metaRouteProviders;
       this.apolloConfig = apolloConfig;
     }
 
@@ -164,8 +169,12 @@ public class ApolloEnvironmentModule extends AbstractApolloModule {
 
       metaInfoTracker.gatherEndpoints(applicationRouter.getRuleTargets());
 
-      final ApplicationRouter<Endpoint> metaRouter =
-          Routers.newRouterFromInspecting(new MetaApplication(gatherer));
+      final Object[] meta = Iterables.toArray(
+          Iterables.concat(
+              ImmutableList.of(new MetaApplication(gatherer)),
+              metaRouteProviders),
+          Object.class);
+      final ApplicationRouter<Endpoint> metaRouter = Routers.newRouterFromInspecting(meta);
 
       final ApplicationRouter<Endpoint> endpointApplicationOrMetaRouter =
           apolloConfig.enableMetaApi()
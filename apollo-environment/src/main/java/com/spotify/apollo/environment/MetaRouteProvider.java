@@ -0,0 +1,31 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Environment
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.environment;
+
+import com.spotify.apollo.route.RouteProvider;
+
+/**
+ * Routes that a module adds to the meta api, next to the built-in ones under {@code /_meta/0}.
+ * The uris of the routes must start with {@code /_meta/}, and like the rest of the meta api
+ * they are only served when it is enabled.
+ */
+public interface MetaRouteProvider extends RouteProvider {
+
+}
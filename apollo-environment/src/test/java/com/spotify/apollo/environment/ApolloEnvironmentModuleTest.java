@@ -208,6 +208,29 @@ public class ApolloEnvironmentModuleTest {
     }
   }
 
+  @Test
+  public void shouldServeMetaRouteProviders() throws Exception {
+    final Service service = this.service
+        .withModule(new MetaRoutesModule())
+        .build();
+
+    try (Service.Instance i = service.start()) {
+      final ApolloEnvironment environment = ApolloEnvironmentModule.environment(i);
+      final RequestHandler handler = environment.initialize(
+          env -> {
+          });
+      assertNotNull(handler);
+
+      final FakeOngoingRequest ongoingRequest = ongoingRequest("http://foo/_meta/0/ping");
+
+      handler.handle(ongoingRequest);
+      assertThat(ongoingRequest.getReply(), hasStatus(Status.OK));
+      assertEquals("pong", ongoingRequest.getReply().payload().get().utf8());
+    } catch (IOException e) {
+      fail(e.getMessage());
+    }
+  }
+
   Matcher<Response<ByteString>> hasStatus(Status statusCode) {
     return new TypeSafeMatcher<Response<ByteString>>() {
       @Override
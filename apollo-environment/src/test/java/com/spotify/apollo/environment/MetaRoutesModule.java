@@ -0,0 +1,50 @@
+/*-
+ * -\-\-
+ * Spotify Apollo API Environment
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.environment;
+
+import com.google.inject.multibindings.Multibinder;
+
+import com.spotify.apollo.module.AbstractApolloModule;
+import com.spotify.apollo.route.AsyncHandler;
+import com.spotify.apollo.route.Route;
+
+import java.util.stream.Stream;
+
+/**
+ * A module used for testing. It adds a route to the meta api.
+ */
+class MetaRoutesModule extends AbstractApolloModule implements MetaRouteProvider {
+
+  @Override
+  protected void configure() {
+    Multibinder.newSetBinder(binder(), MetaRouteProvider.class)
+        .addBinding().toInstance(this);
+  }
+
+  @Override
+  public String getId() {
+    return "meta-routes";
+  }
+
+  @Override
+  public Stream<Route<? extends AsyncHandler<?>>> routes() {
+    return Stream.of(Route.sync("GET", "/_meta/0/ping", ctx -> "pong"));
+  }
+}
@@ -0,0 +1,128 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Extra
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.spotify.apollo.Request;
+import com.spotify.apollo.RequestContext;
+
+import java.util.List;
+
+/**
+ * Describes which parts of a request identify its response for a {@link ResponseCache}: path
+ * arguments, query parameters and headers. Requests that agree on all of them are served the
+ * same cached response, so every part that the response depends on must be included. Responses
+ * that {@code Vary} on a header that is not part of the key are not cached.
+ *
+ * <pre>
+ * CacheKey.create()
+ *     .withPathArgs("id")
+ *     .withQueryParameters("market")
+ *     .withHeaders("Accept-Language")
+ * </pre>
+ */
+public final class CacheKey {
+
+  private static final CacheKey EMPTY =
+      new CacheKey(ImmutableList.of(), ImmutableList.of(), ImmutableList.of());
+
+  private final ImmutableList<String> pathArgs;
+  private final ImmutableList<String> queryParameters;
+  private final ImmutableList<String> headers;
+
+  private CacheKey(ImmutableList<String> pathArgs,
+                   ImmutableList<String> queryParameters,
+                   ImmutableList<String> headers) {
+    this.pathArgs = pathArgs;
+    this.queryParameters = queryParameters;
+    this.headers = headers;
+  }
+
+  /**
+   * A key with no parts, under which all requests to an endpoint share one response.
+   */
+  public static CacheKey create() {
+    return EMPTY;
+  }
+
+  public CacheKey withPathArgs(String... names) {
+    return new CacheKey(append(pathArgs, names), queryParameters, headers);
+  }
+
+  public CacheKey withQueryParameters(String... names) {
+    return new CacheKey(pathArgs, append(queryParameters, names), headers);
+  }
+
+  public CacheKey withHeaders(String... names) {
+    return new CacheKey(pathArgs, queryParameters, append(headers, names));
+  }
+
+  String keyFor(String endpoint, RequestContext requestContext) {
+    final Request request = requestContext.request();
+    final StringBuilder key = new StringBuilder(endpoint);
+
+    for (String name : pathArgs) {
+      appendValue(key, requestContext.pathArgs().get(name));
+    }
+    for (String name : queryParameters) {
+      appendValues(key, request.parameters().get(name));
+    }
+    for (String name : headers) {
+      appendValue(key, request.header(name).orElse(null));
+    }
+
+    return key.toString();
+  }
+
+  private static void appendValue(StringBuilder key, String value) {
+    // values are prefixed with their length so that no combination of them can be mistaken for
+    // another, whatever characters they contain
+    if (value == null) {
+      key.append("|-");
+    } else {
+      key.append('|').append(value.length()).append(':').append(value);
+    }
+  }
+
+  private static void appendValues(StringBuilder key, List<String> values) {
+    // the number of values goes first, so that ?a=1,2 and ?a=1&a=2 are told apart
+    if (values == null) {
+      key.append("|-");
+    } else {
+      key.append('|').append(values.size()).append('#');
+      for (String value : values) {
+        appendValue(key, value);
+      }
+    }
+  }
+
+  boolean coversHeader(String name) {
+    for (String header : headers) {
+      if (header.equalsIgnoreCase(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static ImmutableList<String> append(ImmutableList<String> list, String... names) {
+    return ImmutableList.<String>builder().addAll(list).add(names).build();
+  }
+}
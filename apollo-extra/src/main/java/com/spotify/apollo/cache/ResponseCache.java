@@ -0,0 +1,366 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Extra
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.cache;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.spotify.apollo.Request;
+import com.spotify.apollo.RequestContext;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+import com.spotify.apollo.http.CacheControl;
+import com.spotify.apollo.http.ResponseWeigher;
+import com.spotify.apollo.route.AsyncHandler;
+import com.spotify.apollo.route.Middleware;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import okio.ByteString;
+
+/**
+ * An in-memory cache of serialized responses, shared by the endpoints it is applied to with
+ * {@link #middleware(String, CacheKey)}.
+ *
+ * <p>Successful responses to GET requests are kept for the configured ttl, or the
+ * {@code max-age} of their {@code Cache-Control} header. Responses marked {@code no-store},
+ * {@code no-cache} or {@code private} are not kept, nor are responses that {@code Vary} on
+ * {@code *} or on a header that the {@link CacheKey} does not include. Once a response is older
+ * than its ttl it is still served for the {@code stale-while-revalidate} period, while a single
+ * request refreshes it in the background, on the
+ * {@link Builder#refreshExecutor(Executor) refresh executor}. Requests with {@code Cache-Control: no-cache} skip the
+ * cache but update it.
+ *
+ * <p>The cache is bounded by the size of the responses it holds, evicting the least recently
+ * used ones first.
+ *
+ * <pre>
+ * ResponseCache cache = ResponseCache.builder()
+ *     .maxBytes(64 * 1024 * 1024)
+ *     .ttl(Duration.ofSeconds(30))
+ *     .build();
+ *
+ * Route.async("GET", "/albums/&lt;id&gt;", handler)
+ *     .withMiddleware(Middlewares::autoSerialize)
+ *     .withMiddleware(cache.middleware("albums", CacheKey.create().withPathArgs("id")))
+ * </pre>
+ */
+public final class ResponseCache {
+
+  private static final String CACHE_CONTROL = "Cache-Control";
+  private static final String VARY = "Vary";
+
+  private final Cache<String, Entry> entries;
+  private final long defaultTtlNanos;
+  private final long defaultStaleNanos;
+  private final Listener listener;
+  private final Executor refreshExecutor;
+  private final LongSupplier nanoTime;
+
+  private ResponseCache(Builder builder) {
+    this.defaultTtlNanos = builder.ttl.toNanos();
+    this.defaultStaleNanos = builder.staleWhileRevalidate.toNanos();
+    this.listener = builder.listener;
+    this.refreshExecutor = builder.refreshExecutor;
+    this.nanoTime = builder.nanoTime;
+    // a single segment keeps the size limit and the eviction order exact across all entries;
+    // its lock is taken when storing responses, while lookups mostly go without
+    this.entries = CacheBuilder.newBuilder()
+        .concurrencyLevel(1)
+        .maximumWeight(builder.maxBytes)
+        .weigher((String key, Entry entry) -> entry.weight)
+        .removalListener(this::onRemoval)
+        .build();
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns a middleware that caches the responses of an endpoint, identified by the given name
+   * in the cache and to the {@link Listener}.
+   */
+  public Middleware<AsyncHandler<Response<ByteString>>, AsyncHandler<Response<ByteString>>>
+  middleware(String endpoint, CacheKey cacheKey) {
+    return inner -> requestContext -> invoke(endpoint, cacheKey, inner, requestContext);
+  }
+
+  /**
+   * The number of bytes currently taken up by cached responses, as estimated for the limit.
+   */
+  public long sizeBytes() {
+    long size = 0;
+    for (Entry entry : entries.asMap().values()) {
+      size += entry.weight;
+    }
+    return size;
+  }
+
+  private CompletionStage<Response<ByteString>> invoke(
+      String endpoint,
+      CacheKey cacheKey,
+      AsyncHandler<Response<ByteString>> inner,
+      RequestContext requestContext) {
+    final Request request = requestContext.request();
+    if (!"GET".equals(request.method())) {
+      return inner.invoke(requestContext);
+    }
+
+    final CacheControl requestCacheControl = CacheControl.parse(request.header(CACHE_CONTROL));
+    if (requestCacheControl.noStore()) {
+      return inner.invoke(requestContext);
+    }
+
+    final String key = cacheKey.keyFor(endpoint, requestContext);
+
+    if (!requestCacheControl.noCache()) {
+      final Entry entry = entries.getIfPresent(key);
+      if (entry != null) {
+        final long now = nanoTime.getAsLong();
+        if (now - entry.freshUntilNanos < 0) {
+          listener.hit(endpoint);
+          return CompletableFuture.completedFuture(entry.response);
+        }
+        if (now - entry.staleUntilNanos < 0) {
+          listener.staleHit(endpoint);
+          if (entry.refreshing.compareAndSet(false, true)) {
+            try {
+              refreshExecutor.execute(
+                  () -> refresh(endpoint, cacheKey, key, entry, inner, requestContext));
+            } catch (RejectedExecutionException e) {
+              entry.refreshing.set(false);
+            }
+          }
+          return CompletableFuture.completedFuture(entry.response);
+        }
+        entries.asMap().remove(key, entry);
+      }
+    }
+
+    listener.miss(endpoint);
+    return inner.invoke(requestContext).thenApply(response -> {
+      store(endpoint, cacheKey, key, response);
+      return response;
+    });
+  }
+
+  private void refresh(String endpoint,
+                       CacheKey cacheKey,
+                       String key,
+                       Entry stale,
+                       AsyncHandler<Response<ByteString>> inner,
+                       RequestContext requestContext) {
+    final CompletionStage<Response<ByteString>> refreshed;
+    try {
+      refreshed = inner.invoke(requestContext);
+    } catch (RuntimeException e) {
+      stale.refreshing.set(false);
+      return;
+    }
+
+    refreshed.whenComplete((response, throwable) -> {
+      if (throwable != null) {
+        // keep serving the stale response, and let a later request try again
+        stale.refreshing.set(false);
+      } else if (!store(endpoint, cacheKey, key, response)) {
+        entries.asMap().remove(key, stale);
+      }
+    });
+  }
+
+  /**
+   * Keeps the response if it may be cached, and returns whether it was.
+   */
+  private boolean store(String endpoint, CacheKey cacheKey, String key,
+                        Response<ByteString> response) {
+    if (response.status().code() != Status.OK.code()
+        || !isVaryCovered(response.header(VARY), cacheKey)) {
+      return false;
+    }
+
+    final CacheControl cacheControl = CacheControl.parse(response.header(CACHE_CONTROL));
+    if (cacheControl.noStore() || cacheControl.noCache() || cacheControl.isPrivate()) {
+      return false;
+    }
+
+    final long ttlNanos = cacheControl.maxAgeSeconds() >= 0
+                          ? TimeUnit.SECONDS.toNanos(cacheControl.maxAgeSeconds())
+                          : defaultTtlNanos;
+    final long staleNanos = cacheControl.staleWhileRevalidateSeconds() >= 0
+                            ? TimeUnit.SECONDS.toNanos(cacheControl.staleWhileRevalidateSeconds())
+                            : defaultStaleNanos;
+    if (ttlNanos <= 0 && staleNanos <= 0) {
+      return false;
+    }
+
+    final long now = nanoTime.getAsLong();
+    entries.put(key, new Entry(endpoint, response, now + ttlNanos, now + ttlNanos + staleNanos));
+    return true;
+  }
+
+  /**
+   * Whether the key tells apart all requests that the response may differ between.
+   */
+  private static boolean isVaryCovered(Optional<String> vary, CacheKey cacheKey) {
+    if (!vary.isPresent()) {
+      return true;
+    }
+    for (String name : vary.get().split(",")) {
+      final String header = name.trim();
+      if (header.equals("*") || (!header.isEmpty() && !cacheKey.coversHeader(header))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void onRemoval(RemovalNotification<String, Entry> notification) {
+    if (notification.wasEvicted()) {
+      listener.eviction(notification.getValue().endpoint);
+    }
+  }
+
+  private static final class Entry {
+
+    private final String endpoint;
+    private final Response<ByteString> response;
+    private final long freshUntilNanos;
+    private final long staleUntilNanos;
+    private final int weight;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    Entry(String endpoint, Response<ByteString> response, long freshUntilNanos,
+          long staleUntilNanos) {
+      this.endpoint = endpoint;
+      this.response = response;
+      this.freshUntilNanos = freshUntilNanos;
+      this.staleUntilNanos = staleUntilNanos;
+      this.weight = ResponseWeigher.weigh(response);
+    }
+  }
+
+  /**
+   * Notified of how requests are served from the cache, for instance to keep metrics per
+   * endpoint. Methods are called on request threads and should return quickly.
+   */
+  public interface Listener {
+
+    /** A request was served a fresh response from the cache. */
+    default void hit(String endpoint) {
+    }
+
+    /** A request was served a stale response from the cache while it is being refreshed. */
+    default void staleHit(String endpoint) {
+    }
+
+    /** A request was not in the cache and was passed on to the endpoint. */
+    default void miss(String endpoint) {
+    }
+
+    /** A response was evicted to stay within the size limit. */
+    default void eviction(String endpoint) {
+    }
+  }
+
+  public static final class Builder {
+
+    private static final Listener NO_LISTENER = new Listener() { };
+
+    private static final Executor DEFAULT_REFRESH_EXECUTOR = Executors.newCachedThreadPool(
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("apollo-response-cache-refresh-%d")
+            .build());
+
+    private long maxBytes = 32 * 1024 * 1024;
+    private Duration ttl = Duration.ofSeconds(10);
+    private Duration staleWhileRevalidate = Duration.ZERO;
+    private Listener listener = NO_LISTENER;
+    private Executor refreshExecutor = DEFAULT_REFRESH_EXECUTOR;
+    private LongSupplier nanoTime = System::nanoTime;
+
+    private Builder() {
+    }
+
+    /**
+     * The approximate number of bytes that cached responses may take up; defaults to 32 MiB.
+     */
+    public Builder maxBytes(long maxBytes) {
+      this.maxBytes = maxBytes;
+      return this;
+    }
+
+    /**
+     * How long responses without a {@code max-age} are served from the cache; defaults to 10
+     * seconds.
+     */
+    public Builder ttl(Duration ttl) {
+      this.ttl = ttl;
+      return this;
+    }
+
+    /**
+     * How long responses without a {@code stale-while-revalidate} directive are served after
+     * their ttl while being refreshed; defaults to zero.
+     */
+    public Builder staleWhileRevalidate(Duration staleWhileRevalidate) {
+      this.staleWhileRevalidate = staleWhileRevalidate;
+      return this;
+    }
+
+    public Builder listener(Listener listener) {
+      this.listener = listener;
+      return this;
+    }
+
+    /**
+     * Where stale responses are refreshed, so that the request that finds a response stale is
+     * answered right away even if the endpoint blocks; defaults to a pool of daemon threads shared
+     * by all caches. The refresh is handled with the context of that request, so calls made
+     * through its request-scoped client are bounded by its deadline, as they would be on a miss.
+     */
+    public Builder refreshExecutor(Executor refreshExecutor) {
+      this.refreshExecutor = refreshExecutor;
+      return this;
+    }
+
+    @VisibleForTesting
+    Builder nanoTime(LongSupplier nanoTime) {
+      this.nanoTime = nanoTime;
+      return this;
+    }
+
+    public ResponseCache build() {
+      return new ResponseCache(this);
+    }
+  }
+}
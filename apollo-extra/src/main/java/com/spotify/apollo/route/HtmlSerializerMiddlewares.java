@@ -22,6 +22,7 @@ package com.spotify.apollo.route;
 import com.google.common.base.Throwables;
 
 import com.spotify.apollo.Response;
+import com.spotify.apollo.request.HandlerCompletionListener;
 
 import freemarker.template.Configuration;
 import freemarker.template.Template;
@@ -84,9 +85,12 @@ public class HtmlSerializerMiddlewares {
       final String templateName) {
     return handler ->
         requestContext -> handler.invoke(requestContext)
-            .thenApply(result -> Response
-                .forPayload(serialize(templateName, result))
-                .withHeader(CONTENT_TYPE, HTML));
+            .thenApply(result -> {
+              HandlerCompletionListener.handlerCompleted(requestContext);
+              return Response
+                  .forPayload(serialize(templateName, result))
+                  .withHeader(CONTENT_TYPE, HTML);
+            });
   }
 
   /**
@@ -100,9 +104,12 @@ public class HtmlSerializerMiddlewares {
   htmlSerializeResponse(final String templateName) {
     return handler ->
         requestContext -> handler.invoke(requestContext)
-            .thenApply(response -> response
-                .withPayload(serialize(templateName, response.payload().orElse(null)))
-                .withHeader(CONTENT_TYPE, HTML));
+            .thenApply(response -> {
+              HandlerCompletionListener.handlerCompleted(requestContext);
+              return response
+                  .withPayload(serialize(templateName, response.payload().orElse(null)))
+                  .withHeader(CONTENT_TYPE, HTML);
+            });
   }
 
   /**
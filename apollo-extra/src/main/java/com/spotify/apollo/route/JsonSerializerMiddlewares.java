@@ -24,6 +24,7 @@ import com.google.common.base.Throwables;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.spotify.apollo.Response;
+import com.spotify.apollo.request.HandlerCompletionListener;
 
 import okio.ByteString;
 
@@ -62,9 +63,12 @@ public class JsonSerializerMiddlewares {
   jsonSerialize(ObjectWriter objectWriter) {
    return handler ->
        requestContext -> handler.invoke(requestContext)
-           .thenApply(result -> Response
-               .forPayload(serialize(objectWriter, result))
-               .withHeader(CONTENT_TYPE, JSON));
+           .thenApply(result -> {
+             HandlerCompletionListener.handlerCompleted(requestContext);
+             return Response
+                 .forPayload(serialize(objectWriter, result))
+                 .withHeader(CONTENT_TYPE, JSON);
+           });
   }
 
   /**
@@ -75,8 +79,11 @@ public class JsonSerializerMiddlewares {
   jsonSerializeResponse(ObjectWriter objectWriter) {
    return handler ->
        requestContext -> handler.invoke(requestContext)
-           .thenApply(response -> serialize(objectWriter, response)
-               .withHeader(CONTENT_TYPE, JSON));
+           .thenApply(response -> {
+             HandlerCompletionListener.handlerCompleted(requestContext);
+             return serialize(objectWriter, response)
+                 .withHeader(CONTENT_TYPE, JSON);
+           });
   }
 
   public static <T> Middleware<SyncHandler<T>, AsyncHandler<Response<ByteString>>>
@@ -0,0 +1,390 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Extra
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.cache;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.spotify.apollo.Client;
+import com.spotify.apollo.Request;
+import com.spotify.apollo.RequestContext;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+import com.spotify.apollo.route.AsyncHandler;
+import com.spotify.apollo.route.Compression;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import okio.ByteString;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ResponseCacheTest {
+
+  private long nanoTime = 0;
+  private int invocations = 0;
+  private Response<ByteString> nextResponse = null;
+  private CompletableFuture<Response<ByteString>> pendingResponse = null;
+
+  private final List<String> events = new ArrayList<>();
+
+  private final ResponseCache cache = ResponseCache.builder()
+      .ttl(Duration.ofSeconds(10))
+      .staleWhileRevalidate(Duration.ofSeconds(5))
+      .listener(new ResponseCache.Listener() {
+        @Override
+        public void hit(String endpoint) {
+          events.add("hit " + endpoint);
+        }
+
+        @Override
+        public void staleHit(String endpoint) {
+          events.add("stale " + endpoint);
+        }
+
+        @Override
+        public void miss(String endpoint) {
+          events.add("miss " + endpoint);
+        }
+
+        @Override
+        public void eviction(String endpoint) {
+          events.add("evicted " + endpoint);
+        }
+      })
+      .refreshExecutor(Runnable::run)
+      .nanoTime(() -> nanoTime)
+      .build();
+
+  private final AsyncHandler<Response<ByteString>> handler = requestContext -> {
+    invocations++;
+    if (pendingResponse != null) {
+      return pendingResponse;
+    }
+    return CompletableFuture.completedFuture(
+        nextResponse != null
+        ? nextResponse
+        : Response.forPayload(ByteString.encodeUtf8(
+            "response " + invocations + " for " + requestContext.request().uri())));
+  };
+
+  private final AsyncHandler<Response<ByteString>> albums =
+      cache.middleware("albums", CacheKey.create().withPathArgs("id")).apply(handler);
+
+  @Test
+  public void shouldServeRepeatedRequestsFromCache() throws Exception {
+    assertThat(get(albums, "/albums/1", "1"), is("response 1 for /albums/1"));
+    assertThat(get(albums, "/albums/1", "1"), is("response 1 for /albums/1"));
+
+    assertThat(invocations, is(1));
+    assertThat(events, is(asList("miss albums", "hit albums")));
+  }
+
+  @Test
+  public void shouldKeyOnSelectedParts() throws Exception {
+    final AsyncHandler<Response<ByteString>> tracks = cache.middleware(
+        "tracks",
+        CacheKey.create().withPathArgs("id").withQueryParameters("market").withHeaders("Accept"))
+        .apply(handler);
+
+    get(tracks, "/tracks/1?market=SE", "1");
+    get(tracks, "/tracks/1?market=SE&unrelated=1", "1");
+    get(tracks, "/tracks/1?market=US", "1");
+    get(tracks, "/tracks/2?market=SE", "2");
+    invoke(tracks, Request.forUri("/tracks/1?market=SE").withHeader("Accept", "text/html"), "1");
+
+    assertThat(invocations, is(4));
+  }
+
+  @Test
+  public void shouldNotConfuseCommaSeparatedAndRepeatedParameters() throws Exception {
+    final AsyncHandler<Response<ByteString>> search = cache.middleware(
+        "search", CacheKey.create().withQueryParameters("a")).apply(handler);
+
+    assertThat(get(search, "/search?a=1,2", "-"), is("response 1 for /search?a=1,2"));
+    assertThat(get(search, "/search?a=1&a=2", "-"), is("response 2 for /search?a=1&a=2"));
+    assertThat(invocations, is(2));
+  }
+
+  @Test
+  public void shouldKeepEndpointsApart() throws Exception {
+    final AsyncHandler<Response<ByteString>> artists =
+        cache.middleware("artists", CacheKey.create().withPathArgs("id")).apply(handler);
+
+    get(albums, "/albums/1", "1");
+    get(artists, "/artists/1", "1");
+
+    assertThat(invocations, is(2));
+  }
+
+  @Test
+  public void shouldExpireAfterTtlAndStalePeriod() throws Exception {
+    get(albums, "/albums/1", "1");
+    nanoTime += TimeUnit.SECONDS.toNanos(16);
+
+    assertThat(get(albums, "/albums/1", "1"), is("response 2 for /albums/1"));
+  }
+
+  @Test
+  public void shouldServeStaleWhileRefreshingOnce() throws Exception {
+    get(albums, "/albums/1", "1");
+    nanoTime += TimeUnit.SECONDS.toNanos(11);
+
+    pendingResponse = new CompletableFuture<>();
+    assertThat(get(albums, "/albums/1", "1"), is("response 1 for /albums/1"));
+    assertThat(get(albums, "/albums/1", "1"), is("response 1 for /albums/1"));
+    assertThat(invocations, is(2));
+
+    pendingResponse.complete(Response.forPayload(ByteString.encodeUtf8("refreshed")));
+    pendingResponse = null;
+
+    assertThat(get(albums, "/albums/1", "1"), is("refreshed"));
+    assertThat(events, is(asList("miss albums", "stale albums", "stale albums", "hit albums")));
+  }
+
+  @Test
+  public void shouldNotWaitForBlockingRefresh() throws Exception {
+    final CountDownLatch release = new CountDownLatch(1);
+    final AsyncHandler<Response<ByteString>> blocking = requestContext -> {
+      invocations++;
+      if (invocations > 1) {
+        // a sync handler that blocks until the test lets it go
+        Uninterruptibles.awaitUninterruptibly(release);
+      }
+      return CompletableFuture.completedFuture(
+          Response.forPayload(ByteString.encodeUtf8("response " + invocations)));
+    };
+    final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+    final AsyncHandler<Response<ByteString>> cached = ResponseCache.builder()
+        .ttl(Duration.ofSeconds(10))
+        .staleWhileRevalidate(Duration.ofSeconds(5))
+        .refreshExecutor(refreshExecutor)
+        .nanoTime(() -> nanoTime)
+        .build()
+        .middleware("albums", CacheKey.create().withPathArgs("id"))
+        .apply(blocking);
+
+    try {
+      get(cached, "/albums/1", "1");
+      nanoTime += TimeUnit.SECONDS.toNanos(11);
+
+      final CompletableFuture<Response<ByteString>> stale = cached
+          .invoke(new TestRequestContext(Request.forUri("/albums/1"), ImmutableMap.of("id", "1")))
+          .toCompletableFuture();
+
+      assertThat(stale.isDone(), is(true));
+      assertThat(stale.get().payload().map(ByteString::utf8).orElse(""), is("response 1"));
+    } finally {
+      release.countDown();
+      refreshExecutor.shutdown();
+    }
+    assertThat(refreshExecutor.awaitTermination(1, TimeUnit.SECONDS), is(true));
+    assertThat(get(cached, "/albums/1", "1"), is("response 2"));
+  }
+
+  @Test
+  public void shouldUseMaxAgeOfResponse() throws Exception {
+    nextResponse = Response.forPayload(ByteString.encodeUtf8("short"))
+        .withHeader("Cache-Control", "public, max-age=1");
+
+    get(albums, "/albums/1", "1");
+    nanoTime += TimeUnit.SECONDS.toNanos(7);
+    get(albums, "/albums/1", "1");
+
+    assertThat(invocations, is(2));
+  }
+
+  @Test
+  public void shouldNotCacheResponsesMarkedNoStore() throws Exception {
+    nextResponse = Response.forPayload(ByteString.encodeUtf8("secret"))
+        .withHeader("Cache-Control", "no-store");
+
+    get(albums, "/albums/1", "1");
+    get(albums, "/albums/1", "1");
+
+    assertThat(invocations, is(2));
+  }
+
+  @Test
+  public void shouldNotCacheResponsesVaryingOnHeadersOutsideKey() throws Exception {
+    final AsyncHandler<Response<ByteString>> compressed =
+        cache.middleware("albums", CacheKey.create().withPathArgs("id"))
+            .apply(Compression.create().apply(handler));
+    nextResponse = json();
+
+    final Request request = Request.forUri("/albums/1");
+    assertThat(invokeForResponse(compressed, request.withHeader("Accept-Encoding", "gzip"), "1")
+                   .header("Content-Encoding"), is(Optional.of("gzip")));
+    assertThat(invokeForResponse(compressed, request, "1").header("Content-Encoding"),
+               is(Optional.empty()));
+
+    assertThat(invocations, is(2));
+  }
+
+  @Test
+  public void shouldCacheResponsesVaryingOnHeadersInKey() throws Exception {
+    final CacheKey cacheKey = CacheKey.create().withPathArgs("id").withHeaders("Accept-Encoding");
+    final AsyncHandler<Response<ByteString>> compressed =
+        cache.middleware("albums", cacheKey).apply(Compression.create().apply(handler));
+    nextResponse = json();
+
+    final Request request = Request.forUri("/albums/1");
+    final Request gzip = request.withHeader("Accept-Encoding", "gzip");
+    assertThat(invokeForResponse(compressed, gzip, "1").header("Content-Encoding"),
+               is(Optional.of("gzip")));
+    assertThat(invokeForResponse(compressed, request, "1").header("Content-Encoding"),
+               is(Optional.empty()));
+    assertThat(invokeForResponse(compressed, gzip, "1").header("Content-Encoding"),
+               is(Optional.of("gzip")));
+
+    assertThat(invocations, is(2));
+  }
+
+  @Test
+  public void shouldNotCacheResponsesVaryingOnEverything() throws Exception {
+    final AsyncHandler<Response<ByteString>> cached =
+        cache.middleware("albums", CacheKey.create().withPathArgs("id").withHeaders("Accept"))
+            .apply(handler);
+    nextResponse = Response.forPayload(ByteString.encodeUtf8("varies")).withHeader("Vary", "*");
+
+    get(cached, "/albums/1", "1");
+    get(cached, "/albums/1", "1");
+
+    assertThat(invocations, is(2));
+  }
+
+  @Test
+  public void shouldNotCacheErrors() throws Exception {
+    nextResponse = Response.forStatus(Status.SERVICE_UNAVAILABLE);
+
+    get(albums, "/albums/1", "1");
+    get(albums, "/albums/1", "1");
+
+    assertThat(invocations, is(2));
+  }
+
+  @Test
+  public void shouldNotCacheOtherMethods() throws Exception {
+    invoke(albums, Request.forUri("/albums/1", "POST"), "1");
+    invoke(albums, Request.forUri("/albums/1", "POST"), "1");
+
+    assertThat(invocations, is(2));
+  }
+
+  @Test
+  public void shouldBypassButUpdateCacheForNoCacheRequests() throws Exception {
+    get(albums, "/albums/1", "1");
+    invoke(albums, Request.forUri("/albums/1").withHeader("Cache-Control", "no-cache"), "1");
+
+    assertThat(get(albums, "/albums/1", "1"), is("response 2 for /albums/1"));
+    assertThat(invocations, is(2));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedBeyondSizeLimit() throws Exception {
+    final ResponseCache small = ResponseCache.builder()
+        .maxBytes(3000)
+        .listener(new ResponseCache.Listener() {
+          @Override
+          public void eviction(String endpoint) {
+            events.add("evicted " + endpoint);
+          }
+        })
+        .build();
+    final AsyncHandler<Response<ByteString>> cached =
+        small.middleware("albums", CacheKey.create().withPathArgs("id")).apply(handler);
+    nextResponse = Response.forPayload(ByteString.of(new byte[1000]));
+
+    get(cached, "/albums/1", "1");
+    get(cached, "/albums/2", "2");
+    get(cached, "/albums/1", "1");
+    get(cached, "/albums/3", "3");
+
+    assertThat(events, is(asList("evicted albums")));
+    assertThat(small.sizeBytes() <= 3000, is(true));
+
+    get(cached, "/albums/1", "1");
+    assertThat(invocations, is(3));
+  }
+
+  private String get(AsyncHandler<Response<ByteString>> handler, String uri, String id)
+      throws Exception {
+    return invoke(handler, Request.forUri(uri), id);
+  }
+
+  private static String invoke(AsyncHandler<Response<ByteString>> handler, Request request,
+                               String id) throws Exception {
+    return invokeForResponse(handler, request, id).payload().map(ByteString::utf8).orElse("");
+  }
+
+  private static Response<ByteString> invokeForResponse(
+      AsyncHandler<Response<ByteString>> handler, Request request, String id) throws Exception {
+    return handler
+        .invoke(new TestRequestContext(request, ImmutableMap.of("id", id)))
+        .toCompletableFuture().get();
+  }
+
+  private static Response<ByteString> json() {
+    final StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < 200; i++) {
+      json.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append('}');
+    }
+    return Response.forPayload(ByteString.encodeUtf8(json.append(']').toString()))
+        .withHeader("Content-Type", "application/json");
+  }
+
+  private static class TestRequestContext implements RequestContext {
+
+    private final Request request;
+    private final Map<String, String> pathArgs;
+
+    TestRequestContext(Request request, Map<String, String> pathArgs) {
+      this.request = request;
+      this.pathArgs = pathArgs;
+    }
+
+    @Override
+    public Request request() {
+      return request;
+    }
+
+    @Override
+    public Client requestScopedClient() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<String, String> pathArgs() {
+      return pathArgs;
+    }
+  }
+}
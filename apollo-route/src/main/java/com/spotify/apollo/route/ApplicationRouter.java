@@ -37,10 +37,31 @@ public interface ApplicationRouter<T> {
    */
   Optional<RuleMatch<T>> match(Request message) throws InvalidUriException;
 
+  /**
+   * Match a request to a configured entity, and if there is no match, collect the methods that
+   * are valid for its URI.
+   *
+   * Throws InvalidUriException if the URI of the request is badly formated. Implementations
+   * should override this to do a single routing pass; the default falls back to
+   * {@link #match(Request)} followed by {@link #getMethodsForValidRules(Request)}.
+   *
+   * @param message The message to find the entity for
+   */
+  default RoutingResult<T> route(Request message) throws InvalidUriException {
+    final Optional<RuleMatch<T>> match = match(message);
+    if (match.isPresent()) {
+      return RoutingResult.match(match.get());
+    }
+    return RoutingResult.miss(getMethodsForValidRules(message));
+  }
+
   /**
    * Returns a collection of valid methods (such as GET and POST) for the URI of the provided
    * request. Will return an empty collection if nothing match the URI.
    *
+   * Prefer {@link #route(Request)} when the request has not been matched yet, as it avoids
+   * routing twice.
+   *
    * @param message The message to find the methods for
    */
   Collection<String> getMethodsForValidRules(Request message);
@@ -0,0 +1,113 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Route
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.route;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map of path arguments, backed by the extraction names of a {@link Rule} and an
+ * array of values in the same order. Lookups scan the names, which for the handful of
+ * arguments a route has is faster than hashing, and nothing but the values is allocated per
+ * request.
+ */
+final class PathArguments extends AbstractMap<String, String> {
+
+  private final String[] names;
+  private final String[] values;
+
+  private Set<Entry<String, String>> entrySet;
+
+  PathArguments(String[] names, String[] values) {
+    this.names = names;
+    this.values = values;
+  }
+
+  @Override
+  public int size() {
+    return names.length;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return names.length == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public String get(Object key) {
+    final int i = indexOf(key);
+    return i < 0 ? null : values[i];
+  }
+
+  @Override
+  public Set<Entry<String, String>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new EntrySet();
+    }
+    return entrySet;
+  }
+
+  private int indexOf(Object key) {
+    for (int i = 0; i < names.length; i++) {
+      if (names[i].equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private final class EntrySet extends AbstractSet<Entry<String, String>> {
+
+    @Override
+    public int size() {
+      return names.length;
+    }
+
+    @Override
+    public Iterator<Entry<String, String>> iterator() {
+      return new Iterator<Entry<String, String>>() {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return next < names.length;
+        }
+
+        @Override
+        public Entry<String, String> next() {
+          if (next >= names.length) {
+            throw new NoSuchElementException();
+          }
+          final int i = next++;
+          return new SimpleImmutableEntry<>(names[i], values[i]);
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Route
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.route;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * The outcome of routing a request: either a {@link RuleMatch}, or a miss carrying the methods
+ * that would have matched the path of the request.
+ *
+ * @param <T> target type of the rule
+ */
+public final class RoutingResult<T> {
+
+  private static final RoutingResult<?> NOT_FOUND =
+      new RoutingResult<>(null, Collections.emptyList());
+
+  private final RuleMatch<T> match;
+  private final Collection<String> allowedMethods;
+
+  private RoutingResult(RuleMatch<T> match, Collection<String> allowedMethods) {
+    this.match = match;
+    this.allowedMethods = allowedMethods;
+  }
+
+  public static <T> RoutingResult<T> match(RuleMatch<T> match) {
+    return new RoutingResult<>(match, Collections.emptyList());
+  }
+
+  /**
+   * A miss. If {@code allowedMethods} is empty, no rule matches the path of the request.
+   */
+  public static <T> RoutingResult<T> miss(Collection<String> allowedMethods) {
+    if (allowedMethods.isEmpty()) {
+      return notFound();
+    }
+    return new RoutingResult<>(null, allowedMethods);
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> RoutingResult<T> notFound() {
+    return (RoutingResult<T>) NOT_FOUND;
+  }
+
+  public boolean isMatch() {
+    return match != null;
+  }
+
+  public Optional<RuleMatch<T>> getMatch() {
+    return Optional.ofNullable(match);
+  }
+
+  /**
+   * Returns the methods (such as GET and POST) that have rules for the path of the request.
+   * Always empty for a match, and for a miss where no rule matches the path.
+   */
+  public Collection<String> getAllowedMethods() {
+    return allowedMethods;
+  }
+}
@@ -40,7 +40,7 @@ public class Rule<T> {
   private final List<String> methods;
   private final String path;
   private final T target;
-  private final int extractionCount;
+  private final String[] extractionNames;
 
   /**
    * Create a new rule
@@ -68,7 +68,9 @@ public class Rule<T> {
       throw new IllegalArgumentException(
           "duplicate extraction names: " + Joiner.on(',').join(duplicateNames));
     }
-    this.extractionCount = route.captureNames().size();
+    this.extractionNames = route.captureNames().stream()
+        .map(String::intern)
+        .toArray(String[]::new);
   }
 
   public List<String> getMethods() {
@@ -107,7 +109,15 @@ public class Rule<T> {
   }
 
   public int getExtractionCount() {
-    return extractionCount;
+    return extractionNames.length;
+  }
+
+  /**
+   * The names of the path arguments of this rule, in the order they appear in the path. The
+   * array is shared and must not be modified.
+   */
+  String[] getExtractionNames() {
+    return extractionNames;
   }
 
   private static Set<String> duplicates(final List<String> strings) {
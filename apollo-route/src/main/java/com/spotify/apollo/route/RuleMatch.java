@@ -29,8 +29,8 @@ import java.util.Map;
 public class RuleMatch<T> {
 
   private final Rule<T> rule;
-  private final Map<String, String> pathArguments;
   private final String[] param;
+  private Map<String, String> pathArguments;
 
   public RuleMatch(final Rule<T> rule, final Map<String, String> pathArguments) {
     this.rule = rule;
@@ -38,6 +38,15 @@ public class RuleMatch<T> {
     this.param = pathArguments.values().toArray(new String[pathArguments.size()]);
   }
 
+  /**
+   * Create a match from the extracted values of a rule, in the order of
+   * {@link Rule#getExtractionNames()}. The argument map is only built if asked for.
+   */
+  RuleMatch(final Rule<T> rule, final String[] values) {
+    this.rule = rule;
+    this.param = values;
+  }
+
   public Rule<T> getRule() {
     return rule;
   }
@@ -47,6 +56,9 @@ public class RuleMatch<T> {
   }
 
   public Map<String, String> parsedPathArguments() {
+    if (pathArguments == null) {
+      pathArguments = new PathArguments(rule.getExtractionNames(), param);
+    }
     return pathArguments;
   }
 }
@@ -20,16 +20,14 @@
 package com.spotify.apollo.route;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 
 import com.spotify.apollo.Request;
+import com.spotify.apollo.RequestUri;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -41,6 +39,8 @@ public class RuleRouter<T> implements ApplicationRouter<T> {
 
   private static final Logger LOG = LoggerFactory.getLogger(RuleRouter.class);
 
+  private static final String[] NO_VALUES = new String[0];
+
   private final List<Rule<T>> rules;
   private final Router<Rule<T>> router;
 
@@ -51,8 +51,33 @@ public class RuleRouter<T> implements ApplicationRouter<T> {
 
   @Override
   public Optional<RuleMatch<T>> match(Request message) throws InvalidUriException {
+    final Router.Result<Rule<T>> result = routeInternal(message);
+
+    if (!result.isSuccess()) {
+      return Optional.empty();
+    }
+
+    return Optional.of(ruleMatch(result));
+  }
+
+  @Override
+  public RoutingResult<T> route(Request message) throws InvalidUriException {
+    final Router.Result<Rule<T>> result = routeInternal(message);
+
+    if (result.isSuccess()) {
+      return RoutingResult.match(ruleMatch(result));
+    }
+
+    if (result.status() == Router.Status.NOT_FOUND) {
+      return RoutingResult.notFound();
+    }
+
+    return RoutingResult.miss(result.allowedMethods());
+  }
+
+  private Router.Result<Rule<T>> routeInternal(Request message) throws InvalidUriException {
     final String method = message.method();
-    final String path = getPath(message);
+    final CharSequence path = getPath(message);
 
     if (method == null) {
       LOG.warn("Invalid request for {} sent without method by service {}",
@@ -67,19 +92,22 @@ public class RuleRouter<T> implements ApplicationRouter<T> {
 
     final Router.Result<Rule<T>> result = router.result();
     router.route(method, path, result);
+    return result;
+  }
 
-    if (!result.isSuccess()) {
-      return Optional.empty();
-    }
-
+  private RuleMatch<T> ruleMatch(Router.Result<Rule<T>> result) throws InvalidUriException {
     final Rule<T> rule = result.target();
-    final ImmutableMap.Builder<String, String> pathArgs = ImmutableMap.builder();
+    final int params = result.params();
+    if (params == 0) {
+      return new RuleMatch<T>(rule, NO_VALUES);
+    }
 
-    for (int i = 0; i < result.params(); i++) {
-      pathArgs.put(result.paramName(i), readParameterValue(result, i));
+    final String[] values = new String[params];
+    for (int i = 0; i < params; i++) {
+      values[i] = readParameterValue(result, i);
     }
 
-    return Optional.of(new RuleMatch<T>(rule, pathArgs.build()));
+    return new RuleMatch<T>(rule, values);
   }
 
   private String readParameterValue(Router.Result<Rule<T>> result, int i)
@@ -105,9 +133,11 @@ public class RuleRouter<T> implements ApplicationRouter<T> {
 
   @Override
   public Collection<String> getMethodsForValidRules(final Request message) {
-    // TODO (dano): Ideally match() should return the result so that we don't have to route twice.
+    final CharSequence path = getPath(message);
+    if (path == null) {
+      return Collections.emptyList();
+    }
 
-    final String path = getPath(message);
     final Router.Result<Rule<T>> result = router.result();
     router.route(message.method(), path, result);
 
@@ -127,15 +157,14 @@ public class RuleRouter<T> implements ApplicationRouter<T> {
     return targets;
   }
 
-  private String getPath(final Request message) {
-    try {
-      final URI uri = new URI(message.uri());
-      return uri.getRawPath();
-    } catch (URISyntaxException e) {
+  private CharSequence getPath(final Request message) {
+    final RequestUri uri = RequestUri.of(message);
+    if (!uri.isValid()) {
       LOG.warn("Invalid URI sent {} {} by service {}",
-               message.method(), message.uri(), message.service().orElse("<unknown>"), e);
+               message.method(), message.uri(), message.service().orElse("<unknown>"));
       return null;
     }
+    return uri.rawPath();
   }
 
   /**
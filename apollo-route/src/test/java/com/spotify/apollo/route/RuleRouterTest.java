@@ -21,6 +21,7 @@ package com.spotify.apollo.route;
 
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 
 import com.spotify.apollo.Request;
@@ -30,11 +31,13 @@ import org.junit.rules.ExpectedException;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -155,6 +158,38 @@ public class RuleRouterTest {
     assertThat(match.get().extract(3), is("d"));
   }
 
+  @Test
+  public void testPathArgumentsBehaveLikeMap() {
+    Rule<Integer> rule = Rule.fromUri("/<d>/<c>/<b>/<a>", "GET", TARGET);
+    Optional<RuleMatch<Integer>> match = route(rule, "GET", "/a/b/c/d");
+    assertTrue(match.isPresent());
+
+    Map<String, String> expected = ImmutableMap.of("d", "a", "c", "b", "b", "c", "a", "d");
+    Map<String, String> pathArguments = match.get().parsedPathArguments();
+    assertEquals(expected, pathArguments);
+    assertEquals(pathArguments, expected);
+    assertThat(pathArguments.hashCode(), is(expected.hashCode()));
+    assertThat(ImmutableList.copyOf(pathArguments.keySet()),
+               is(ImmutableList.of("d", "c", "b", "a")));
+    assertFalse(pathArguments.containsKey("e"));
+  }
+
+  @Test
+  public void testNoPathArguments() {
+    Rule<Integer> rule = Rule.fromUri("/foo", "GET", TARGET);
+    Optional<RuleMatch<Integer>> match = route(rule, "GET", "/foo");
+    assertTrue(match.isPresent());
+    assertTrue(match.get().parsedPathArguments().isEmpty());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testPathArgumentsAreImmutable() {
+    Rule<Integer> rule = Rule.fromUri("/<a>", "GET", TARGET);
+    Optional<RuleMatch<Integer>> match = route(rule, "GET", "/b");
+    assertTrue(match.isPresent());
+    match.get().parsedPathArguments().put("a", "c");
+  }
+
   @Test
   public void testMatchPath() {
     Rule<Integer> rule = Rule.fromUri("/bar/<rest:path>", "GET", TARGET);
@@ -347,6 +382,53 @@ public class RuleRouterTest {
     router.match(message);
   }
 
+  @Test
+  public void shouldRouteToMatch() throws Exception {
+    Rule<Integer> rule = Rule.fromUri("/foo/<bar>", "GET", TARGET);
+    final RuleRouter<Integer> router = RuleRouter.of(ImmutableList.of(rule));
+
+    final RoutingResult<Integer> result = router.route(Request.forUri("/foo/baz", "GET"));
+
+    assertTrue(result.isMatch());
+    assertThat(result.getMatch().get().getRule(), is(rule));
+    assertThat(result.getMatch().get().extract(0), is("baz"));
+    assertTrue(result.getAllowedMethods().isEmpty());
+  }
+
+  @Test
+  public void shouldRouteToNotFound() throws Exception {
+    Rule<Integer> rule = Rule.fromUri("/foo/bar", "GET", TARGET);
+    final RuleRouter<Integer> router = RuleRouter.of(ImmutableList.of(rule));
+
+    final RoutingResult<Integer> result = router.route(Request.forUri("/foo/notbar", "GET"));
+
+    assertFalse(result.isMatch());
+    assertTrue(result.getAllowedMethods().isEmpty());
+  }
+
+  @Test
+  public void shouldRouteToMissWithAllowedMethods() throws Exception {
+    List<Rule<Integer>> rules = ImmutableList.of(Rule.fromUri("/foo/bar", "GET", TARGET),
+                                                 Rule.fromUri("/foo/bar", "PUT", TARGET));
+    final RuleRouter<Integer> router = RuleRouter.of(rules);
+
+    final RoutingResult<Integer> result = router.route(Request.forUri("/foo/bar", "POST"));
+
+    assertFalse(result.isMatch());
+    assertThat(result.getAllowedMethods(), hasItem("GET"));
+    assertThat(result.getAllowedMethods(), hasItem("HEAD"));
+    assertThat(result.getAllowedMethods(), hasItem("PUT"));
+  }
+
+  @Test
+  public void shouldThrowInvalidUriExceptionWhenRoutingBadUri() throws Exception {
+    Rule<Integer> rule = Rule.fromUri("/bar/<baz>", "GET", TARGET);
+    final RuleRouter<Integer> router = RuleRouter.of(ImmutableList.of(rule));
+
+    thrown.expect(InvalidUriException.class);
+    router.route(Request.forUri("/bar/c%F6", "GET"));
+  }
+
   /**
    * Build a router with a single rule and route a message with it.
    */
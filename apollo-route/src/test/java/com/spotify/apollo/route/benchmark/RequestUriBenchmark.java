@@ -0,0 +1,82 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Route
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.route.benchmark;
+
+import com.spotify.apollo.RequestUri;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * Compares extracting the path for the meta check and routing by parsing a {@link URI} twice,
+ * as was done before, with a single {@link RequestUri} scan.
+ */
+@State(Scope.Benchmark)
+public class RequestUriBenchmark {
+
+  private static final String META = "/_meta/";
+
+  @Param({
+      "/ping",
+      "http://localhost:8080/users/alice/playlists/1?limit=10&offset=20",
+      "http://[::1]:8080/search/some%20query?market=SE"
+  })
+  public String uri;
+
+  public static void main(String... args) throws IOException, RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(RequestUriBenchmark.class.getSimpleName())
+        .warmupIterations(5)
+        .measurementIterations(10)
+        .threads(1)
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  public void javaNetUri(Blackhole blackhole) throws URISyntaxException {
+    blackhole.consume(new URI(uri).getPath().startsWith(META));
+    blackhole.consume(new URI(uri).getRawPath());
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  public void requestUri(Blackhole blackhole) {
+    final RequestUri requestUri = RequestUri.parse(uri);
+    blackhole.consume(requestUri.isValid() && requestUri.rawPathStartsWith(META));
+    blackhole.consume(requestUri.rawPath());
+  }
+}
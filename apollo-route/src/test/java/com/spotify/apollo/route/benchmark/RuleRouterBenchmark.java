@@ -0,0 +1,119 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Route
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.route.benchmark;
+
+import com.google.common.collect.ImmutableList;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.route.InvalidUriException;
+import com.spotify.apollo.route.RoutingResult;
+import com.spotify.apollo.route.Rule;
+import com.spotify.apollo.route.RuleMatch;
+import com.spotify.apollo.route.RuleRouter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Compares routing a request the old way, with {@link RuleRouter#match(Request)} followed by
+ * {@link RuleRouter#getMethodsForValidRules(Request)} on a miss, to a single
+ * {@link RuleRouter#route(Request)} pass, for matching, unknown (404) and wrong-method (405)
+ * requests.
+ */
+@State(Scope.Benchmark)
+public class RuleRouterBenchmark {
+
+  @Param({"hit", "notFound", "methodNotAllowed"})
+  public String outcome;
+
+  private RuleRouter<String> router;
+  private Request request;
+
+  @Setup
+  public void setUp() {
+    router = RuleRouter.of(ImmutableList.of(
+        Rule.fromUri("/ping", "GET", "ping"),
+        Rule.fromUri("/users/<user>", "GET", "getUser"),
+        Rule.fromUri("/users/<user>", "PUT", "putUser"),
+        Rule.fromUri("/users/<user>/playlists/<playlist>", "GET", "getPlaylist"),
+        Rule.fromUri("/search/<query:path>", "GET", "search")));
+
+    switch (outcome) {
+      case "hit":
+        request = Request.forUri("http://host/users/alice/playlists/1?limit=10", "GET");
+        break;
+      case "notFound":
+        request = Request.forUri("http://host/wp-admin/setup-config.php", "GET");
+        break;
+      case "methodNotAllowed":
+        request = Request.forUri("http://host/users/alice", "DELETE");
+        break;
+      default:
+        throw new IllegalArgumentException(outcome);
+    }
+  }
+
+  public static void main(String... args) throws IOException, RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(RuleRouterBenchmark.class.getSimpleName())
+        .warmupIterations(5)
+        .measurementIterations(10)
+        .threads(1)
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  public void matchThenMethods(Blackhole blackhole) throws InvalidUriException {
+    final Optional<RuleMatch<String>> match = router.match(request);
+    if (match.isPresent()) {
+      blackhole.consume(match.get());
+    } else {
+      blackhole.consume(router.getMethodsForValidRules(request));
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  public void route(Blackhole blackhole) throws InvalidUriException {
+    final RoutingResult<String> result = router.route(request);
+    if (result.isMatch()) {
+      blackhole.consume(result.getMatch().get());
+    } else {
+      blackhole.consume(result.getAllowedMethods());
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Concurrency Limit Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.concurrency;
+
+import com.google.inject.Inject;
+import com.typesafe.config.Config;
+
+import java.util.Locale;
+
+import static com.spotify.apollo.environment.ConfigUtil.optionalDouble;
+import static com.spotify.apollo.environment.ConfigUtil.optionalInt;
+import static com.spotify.apollo.environment.ConfigUtil.optionalString;
+
+/**
+ * Reads the {@code concurrency.limit} configuration keys.
+ */
+class ConcurrencyLimitConfig {
+
+  static final int DEFAULT_INITIAL_LIMIT = 20;
+  static final int DEFAULT_MIN_LIMIT = 1;
+  static final int DEFAULT_MAX_LIMIT = 1000;
+  static final double DEFAULT_TOLERANCE = 1.5;
+  static final double DEFAULT_SMOOTHING = 0.2;
+  static final int DEFAULT_WINDOW = 600;
+  static final int DEFAULT_MAX_PARTITIONS = 100;
+
+  /**
+   * How requests are grouped when applying the limit.
+   */
+  enum Partitioning {
+    /** A single limit for all requests. */
+    NONE,
+    /** One limit per endpoint, as named by {@code EndpointInfo#getName()}. */
+    ENDPOINT,
+    /**
+     * One limit per calling service, as given by {@code Request#service()}. Only transports that
+     * carry the name of the caller set it; the HTTP server does not, so all of its requests share
+     * a single {@code unknown} partition. Since the value is chosen by the caller, the number of
+     * partitions is capped by {@code concurrency.limit.maxPartitions}.
+     */
+    SERVICE
+  }
+
+  private final int initialLimit;
+  private final int minLimit;
+  private final int maxLimit;
+  private final double tolerance;
+  private final double smoothing;
+  private final int window;
+  private final Partitioning partitioning;
+  private final int maxPartitions;
+
+  @Inject
+  ConcurrencyLimitConfig(Config config) {
+    initialLimit = optionalInt(config, "concurrency.limit.initial").orElse(DEFAULT_INITIAL_LIMIT);
+    minLimit = optionalInt(config, "concurrency.limit.min").orElse(DEFAULT_MIN_LIMIT);
+    maxLimit = optionalInt(config, "concurrency.limit.max").orElse(DEFAULT_MAX_LIMIT);
+    tolerance = optionalDouble(config, "concurrency.limit.tolerance").orElse(DEFAULT_TOLERANCE);
+    smoothing = optionalDouble(config, "concurrency.limit.smoothing").orElse(DEFAULT_SMOOTHING);
+    window = optionalInt(config, "concurrency.limit.window").orElse(DEFAULT_WINDOW);
+    partitioning = optionalString(config, "concurrency.limit.partition")
+        .map(value -> Partitioning.valueOf(value.toUpperCase(Locale.ROOT)))
+        .orElse(Partitioning.NONE);
+    maxPartitions = optionalInt(config, "concurrency.limit.maxPartitions")
+        .orElse(DEFAULT_MAX_PARTITIONS);
+
+    if (minLimit < 1 || maxLimit < minLimit) {
+      throw new IllegalArgumentException(
+          "concurrency.limit.min must be positive and not larger than concurrency.limit.max");
+    }
+    if (smoothing <= 0 || smoothing > 1) {
+      throw new IllegalArgumentException("concurrency.limit.smoothing must be in (0, 1]");
+    }
+    if (window < 1) {
+      throw new IllegalArgumentException("concurrency.limit.window must be positive");
+    }
+    if (maxPartitions < 1) {
+      throw new IllegalArgumentException("concurrency.limit.maxPartitions must be positive");
+    }
+  }
+
+  int initialLimit() {
+    return initialLimit;
+  }
+
+  int minLimit() {
+    return minLimit;
+  }
+
+  int maxLimit() {
+    return maxLimit;
+  }
+
+  double tolerance() {
+    return tolerance;
+  }
+
+  double smoothing() {
+    return smoothing;
+  }
+
+  int window() {
+    return window;
+  }
+
+  Partitioning partitioning() {
+    return partitioning;
+  }
+
+  int maxPartitions() {
+    return maxPartitions;
+  }
+}
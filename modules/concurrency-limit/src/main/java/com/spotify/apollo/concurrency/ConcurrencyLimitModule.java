@@ -0,0 +1,62 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Concurrency Limit Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.concurrency;
+
+import com.google.auto.service.AutoService;
+import com.google.inject.multibindings.Multibinder;
+
+import com.spotify.apollo.environment.RequestRunnableFactoryDecorator;
+import com.spotify.apollo.module.AbstractApolloModule;
+import com.spotify.apollo.module.ApolloModule;
+
+/**
+ * Limits the number of requests a service handles concurrently, adapting the limit to the
+ * observed latency of replies. Requests over the limit are rejected with
+ * {@code 503 Service Unavailable} before reaching any endpoint.
+ *
+ * This module publishes its metrics through the {@code SemanticMetricRegistry} bound by the
+ * metrics module, which therefore needs to be installed as well.
+ */
+@AutoService(ApolloModule.class)
+public class ConcurrencyLimitModule extends AbstractApolloModule {
+
+  // Should not be used, only here to be visible for SPI support.
+  public ConcurrencyLimitModule() {
+  }
+
+  public static ConcurrencyLimitModule create() {
+    return new ConcurrencyLimitModule();
+  }
+
+  @Override
+  protected void configure() {
+    bind(ConcurrencyLimitConfig.class);
+
+    Multibinder
+        .newSetBinder(binder(), RequestRunnableFactoryDecorator.class)
+        .addBinding()
+        .to(ConcurrencyLimitingDecorator.class);
+  }
+
+  @Override
+  public String getId() {
+    return "concurrency.limit";
+  }
+}
@@ -0,0 +1,190 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Concurrency Limit Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.concurrency;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+
+import com.codahale.metrics.Gauge;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.core.Services;
+import com.spotify.apollo.dispatch.Endpoint;
+import com.spotify.apollo.environment.RequestRunnableFactoryDecorator;
+import com.spotify.apollo.request.ForwardingOngoingRequest;
+import com.spotify.apollo.request.OngoingRequest;
+import com.spotify.apollo.request.RequestRunnableFactory;
+import com.spotify.apollo.route.RuleMatch;
+import com.spotify.metrics.core.MetricId;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import okio.ByteString;
+
+import static com.spotify.apollo.Status.SERVICE_UNAVAILABLE;
+
+/**
+ * A {@link RequestRunnableFactoryDecorator} that bounds the number of requests being handled
+ * concurrently by an adaptive {@link GradientLimit}.
+ *
+ * <p>Admission happens once a request has been routed, so that limits can be kept per endpoint.
+ * Requests over the limit are immediately replied to with {@code 503 Service Unavailable}. The
+ * round trip time of every admitted request, measured from admission until the reply, feeds back
+ * into the limit.
+ *
+ * <p>At most {@link ConcurrencyLimitConfig#maxPartitions()} partitions get a limit of their own;
+ * requests for any further partition share a single {@code other} limit.
+ */
+class ConcurrencyLimitingDecorator implements RequestRunnableFactoryDecorator {
+
+  private static final String GLOBAL_PARTITION = "all";
+  private static final String UNKNOWN_SERVICE = "unknown";
+  private static final String OVERFLOW_PARTITION = "other";
+
+  private final ConcurrencyLimitConfig config;
+  private final SemanticMetricRegistry metricRegistry;
+  private final MetricId metricId;
+  private final LongSupplier nanoTime;
+  private final ConcurrentMap<String, Limiter> limiters = new ConcurrentHashMap<>();
+  private final Function<String, Limiter> newLimiter = this::newLimiter;
+
+  @Inject
+  ConcurrencyLimitingDecorator(ConcurrencyLimitConfig config,
+                               SemanticMetricRegistry metricRegistry,
+                               @Named(Services.INJECT_SERVICE_NAME) String serviceName) {
+    this(config, metricRegistry, serviceName, System::nanoTime);
+  }
+
+  @VisibleForTesting
+  ConcurrencyLimitingDecorator(ConcurrencyLimitConfig config,
+                               SemanticMetricRegistry metricRegistry,
+                               String serviceName,
+                               LongSupplier nanoTime) {
+    this.config = config;
+    this.metricRegistry = metricRegistry;
+    this.metricId = MetricId.build().tagged("service", serviceName);
+    this.nanoTime = nanoTime;
+  }
+
+  @Override
+  public RequestRunnableFactory apply(RequestRunnableFactory delegate) {
+    return ongoingRequest -> continuation -> delegate.create(ongoingRequest).run(
+        (request, match) -> {
+          final Limiter limiter = limiter(partition(request, match));
+          if (!limiter.tryAcquire()) {
+            request.reply(Response.forStatus(SERVICE_UNAVAILABLE));
+            return;
+          }
+          continuation.accept(new LimitedOngoingRequest(request, limiter), match);
+        });
+  }
+
+  @VisibleForTesting
+  int limit(String partition) {
+    final Limiter limiter = limiters.get(partition);
+    return limiter != null ? limiter.limit.limit() : config.initialLimit();
+  }
+
+  private Limiter limiter(String partition) {
+    final Limiter limiter = limiters.get(partition);
+    if (limiter != null) {
+      return limiter;
+    }
+
+    // the lock keeps concurrent new partitions from exceeding the cap; once it is reached,
+    // requests for unseen partitions go straight to the shared limiter without taking it
+    if (limiters.size() < config.maxPartitions()) {
+      synchronized (limiters) {
+        if (limiters.size() < config.maxPartitions()) {
+          return limiters.computeIfAbsent(partition, newLimiter);
+        }
+      }
+    }
+    return limiters.computeIfAbsent(OVERFLOW_PARTITION, newLimiter);
+  }
+
+  private String partition(OngoingRequest request, RuleMatch<Endpoint> match) {
+    switch (config.partitioning()) {
+      case ENDPOINT:
+        return match.getRule().getTarget().info().getName();
+      case SERVICE:
+        return request.request().service().orElse(UNKNOWN_SERVICE);
+      default:
+        return GLOBAL_PARTITION;
+    }
+  }
+
+  private Limiter newLimiter(String partition) {
+    final MetricId id;
+    switch (config.partitioning()) {
+      case ENDPOINT:
+        id = metricId.tagged("endpoint", partition);
+        break;
+      case SERVICE:
+        id = metricId.tagged("calling-service", partition);
+        break;
+      default:
+        id = metricId;
+    }
+
+    final Limiter limiter = new Limiter(
+        new GradientLimit(config),
+        metricRegistry.meter(id.tagged("what", "concurrency-limit-rejected-rate",
+                                       "unit", "request")));
+
+    metricRegistry.register(id.tagged("what", "concurrency-limit", "unit", "request"),
+                            (Gauge<Integer>) limiter.limit::limit);
+    return limiter;
+  }
+
+  private class LimitedOngoingRequest extends ForwardingOngoingRequest {
+
+    private final Limiter limiter;
+    private final long startNanos;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    LimitedOngoingRequest(OngoingRequest delegate, Limiter limiter) {
+      super(delegate);
+      this.limiter = limiter;
+      this.startNanos = nanoTime.getAsLong();
+    }
+
+    @Override
+    public void reply(Response<ByteString> response) {
+      if (released.compareAndSet(false, true)) {
+        limiter.release(nanoTime.getAsLong() - startNanos);
+      }
+      super.reply(response);
+    }
+
+    @Override
+    public void drop() {
+      if (released.compareAndSet(false, true)) {
+        limiter.releaseDropped();
+      }
+      super.drop();
+    }
+  }
+}
@@ -0,0 +1,118 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Concurrency Limit Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.concurrency;
+
+/**
+ * A concurrency limit that adapts to the observed round trip time of requests.
+ *
+ * <p>The limit is moved towards {@code limit * gradient + sqrt(limit)}, where the gradient is
+ * the ratio between a long-term average of the round trip time and the latest sample. While
+ * latency is stable the gradient is 1 and the limit grows by the square root term, which acts as
+ * the allowed queue. When latency increases the gradient drops below 1 and the limit shrinks.
+ * Dropped requests back off the limit multiplicatively.
+ */
+class GradientLimit {
+
+  private static final double MIN_GRADIENT = 0.5;
+  private static final double DROP_BACKOFF = 0.9;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double tolerance;
+  private final double smoothing;
+  private final int window;
+
+  private volatile int limit;
+
+  // guarded by this
+  private double estimatedLimit;
+  private double longRttNanos;
+  private long samples;
+
+  GradientLimit(ConcurrencyLimitConfig config) {
+    this(config.initialLimit(), config.minLimit(), config.maxLimit(),
+         config.tolerance(), config.smoothing(), config.window());
+  }
+
+  GradientLimit(int initialLimit, int minLimit, int maxLimit,
+                double tolerance, double smoothing, int window) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.tolerance = tolerance;
+    this.smoothing = smoothing;
+    this.window = window;
+    this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    this.limit = (int) estimatedLimit;
+  }
+
+  /**
+   * The number of requests currently allowed to be in flight.
+   */
+  int limit() {
+    return limit;
+  }
+
+  /**
+   * Update the limit with the round trip time of a request that completed while {@code inflight}
+   * requests, including itself, were outstanding.
+   */
+  synchronized void onSample(long rttNanos, int inflight) {
+    if (rttNanos <= 0) {
+      return;
+    }
+
+    final double shortRtt = rttNanos;
+    if (samples < window) {
+      samples++;
+      longRttNanos += (shortRtt - longRttNanos) / samples;
+    } else {
+      longRttNanos += (shortRtt - longRttNanos) * 2 / (window + 1);
+    }
+
+    // when latency has recovered a lot, let the long-term average catch up faster so that the
+    // limit doesn't keep growing on the strength of an old, bad period
+    if (longRttNanos / shortRtt > 2) {
+      longRttNanos *= 0.95;
+    }
+
+    // an under-utilised limit says nothing about how much more the service can take
+    if (inflight < estimatedLimit / 2) {
+      return;
+    }
+
+    final double gradient =
+        Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / shortRtt));
+    final double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+
+    update(estimatedLimit * (1 - smoothing) + target * smoothing);
+  }
+
+  /**
+   * Back off after a request was dropped, typically because it expired.
+   */
+  synchronized void onDrop() {
+    update(estimatedLimit * DROP_BACKOFF);
+  }
+
+  private void update(double newLimit) {
+    estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    limit = (int) estimatedLimit;
+  }
+}
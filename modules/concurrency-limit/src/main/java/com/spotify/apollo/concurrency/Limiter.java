@@ -0,0 +1,61 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Concurrency Limit Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.concurrency;
+
+import com.codahale.metrics.Meter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the requests in flight for one partition and admits new ones while below the limit.
+ */
+class Limiter {
+
+  final GradientLimit limit;
+  private final Meter rejected;
+  private final AtomicInteger inflight = new AtomicInteger();
+
+  Limiter(GradientLimit limit, Meter rejected) {
+    this.limit = limit;
+    this.rejected = rejected;
+  }
+
+  boolean tryAcquire() {
+    while (true) {
+      final int current = inflight.get();
+      if (current >= limit.limit()) {
+        rejected.mark();
+        return false;
+      }
+      if (inflight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  void release(long rttNanos) {
+    limit.onSample(rttNanos, inflight.getAndDecrement());
+  }
+
+  void releaseDropped() {
+    inflight.decrementAndGet();
+    limit.onDrop();
+  }
+}
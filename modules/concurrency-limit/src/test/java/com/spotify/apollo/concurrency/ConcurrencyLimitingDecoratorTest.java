@@ -0,0 +1,243 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Concurrency Limit Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.concurrency;
+
+import com.google.common.collect.ImmutableMap;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+import com.spotify.apollo.dispatch.Endpoint;
+import com.spotify.apollo.dispatch.EndpointInfo;
+import com.spotify.apollo.request.OngoingRequest;
+import com.spotify.apollo.request.RequestRunnableFactory;
+import com.spotify.apollo.route.Rule;
+import com.spotify.apollo.route.RuleMatch;
+import com.spotify.metrics.core.MetricId;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+import com.typesafe.config.ConfigFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConcurrencyLimitingDecoratorTest {
+
+  private SemanticMetricRegistry metricRegistry;
+  private long now;
+  private List<OngoingRequest> admitted;
+
+  private Endpoint foo;
+  private Endpoint bar;
+
+  @Before
+  public void setUp() throws Exception {
+    metricRegistry = new SemanticMetricRegistry();
+    admitted = new ArrayList<>();
+
+    foo = endpoint("GET:/foo");
+    bar = endpoint("GET:/bar");
+  }
+
+  @Test
+  public void shouldRejectRequestsOverTheLimit() throws Exception {
+    final RequestRunnableFactory factory = decorate(decorator("none"), foo);
+
+    final OngoingRequest first = run(factory, Request.forUri("/foo"));
+    final OngoingRequest second = run(factory, Request.forUri("/foo"));
+    final OngoingRequest third = run(factory, Request.forUri("/foo"));
+
+    assertThat(admitted, hasSize(2));
+    verify(first, never()).reply(any());
+    verify(second, never()).reply(any());
+    verify(third).reply(argThat(response -> response.status() == Status.SERVICE_UNAVAILABLE));
+  }
+
+  @Test
+  public void shouldAdmitAgainAfterReply() throws Exception {
+    final RequestRunnableFactory factory = decorate(decorator("none"), foo);
+
+    final OngoingRequest first = run(factory, Request.forUri("/foo"));
+    run(factory, Request.forUri("/foo"));
+    admitted.get(0).reply(Response.ok());
+    final OngoingRequest third = run(factory, Request.forUri("/foo"));
+
+    assertThat(admitted, hasSize(3));
+    verify(first).reply(Response.ok());
+    verify(third, never()).reply(any());
+  }
+
+  @Test
+  public void shouldReleaseAndBackOffOnDrop() throws Exception {
+    final ConcurrencyLimitingDecorator decorator = decorator("none");
+    final RequestRunnableFactory factory = decorate(decorator, foo);
+
+    final OngoingRequest first = run(factory, Request.forUri("/foo"));
+    run(factory, Request.forUri("/foo"));
+    admitted.get(0).drop();
+
+    verify(first).drop();
+    assertThat(decorator.limit("all"), is(1));
+
+    run(factory, Request.forUri("/foo"));
+    assertThat(admitted, hasSize(2));
+
+    admitted.get(1).reply(Response.ok());
+    run(factory, Request.forUri("/foo"));
+    assertThat(admitted, hasSize(3));
+  }
+
+  @Test
+  public void shouldReleaseOnlyOnce() throws Exception {
+    final RequestRunnableFactory factory = decorate(decorator("none"), foo);
+
+    run(factory, Request.forUri("/foo"));
+    run(factory, Request.forUri("/foo"));
+    admitted.get(0).reply(Response.ok());
+    admitted.get(0).reply(Response.ok());
+    run(factory, Request.forUri("/foo"));
+    run(factory, Request.forUri("/foo"));
+
+    assertThat(admitted, hasSize(3));
+  }
+
+  @Test
+  public void shouldLimitEachEndpointSeparately() throws Exception {
+    final ConcurrencyLimitingDecorator decorator = decorator("endpoint");
+    final RequestRunnableFactory fooFactory = decorate(decorator, foo);
+    final RequestRunnableFactory barFactory = decorate(decorator, bar);
+
+    run(fooFactory, Request.forUri("/foo"));
+    run(fooFactory, Request.forUri("/foo"));
+    run(fooFactory, Request.forUri("/foo"));
+    run(barFactory, Request.forUri("/bar"));
+    run(barFactory, Request.forUri("/bar"));
+
+    assertThat(admitted, hasSize(4));
+  }
+
+  @Test
+  public void shouldLimitEachCallingServiceSeparately() throws Exception {
+    final RequestRunnableFactory factory = decorate(decorator("service"), foo);
+
+    run(factory, Request.forUri("/foo").withService("a"));
+    run(factory, Request.forUri("/foo").withService("a"));
+    run(factory, Request.forUri("/foo").withService("a"));
+    run(factory, Request.forUri("/foo").withService("b"));
+    run(factory, Request.forUri("/foo").withService("b"));
+
+    assertThat(admitted, hasSize(4));
+  }
+
+  @Test
+  public void shouldShareOneLimitBeyondMaxPartitions() throws Exception {
+    final RequestRunnableFactory factory = decorate(decorator("service", 1), foo);
+
+    run(factory, Request.forUri("/foo").withService("a"));
+    run(factory, Request.forUri("/foo").withService("b"));
+    run(factory, Request.forUri("/foo").withService("c"));
+    run(factory, Request.forUri("/foo").withService("d"));
+
+    assertThat(admitted, hasSize(3));
+    assertThat(metricRegistry.getGauges().keySet(), hasSize(2));
+    assertThat(
+        metricRegistry.getMeters()
+            .get(MetricId.build().tagged(
+                "service", "test",
+                "calling-service", "other",
+                "what", "concurrency-limit-rejected-rate",
+                "unit", "request"))
+            .getCount(),
+        is(1L));
+  }
+
+  @Test
+  public void shouldPublishLimitAndRejections() throws Exception {
+    final RequestRunnableFactory factory = decorate(decorator("endpoint"), foo);
+
+    run(factory, Request.forUri("/foo"));
+    run(factory, Request.forUri("/foo"));
+    run(factory, Request.forUri("/foo"));
+
+    final MetricId id = MetricId.build().tagged("service", "test", "endpoint", "GET:/foo");
+    assertEquals(
+        2,
+        metricRegistry.getGauges()
+            .get(id.tagged("what", "concurrency-limit", "unit", "request"))
+            .getValue());
+    assertThat(
+        metricRegistry.getMeters()
+            .get(id.tagged("what", "concurrency-limit-rejected-rate", "unit", "request"))
+            .getCount(),
+        is(1L));
+  }
+
+  private ConcurrencyLimitingDecorator decorator(String partition) {
+    return decorator(partition, ConcurrencyLimitConfig.DEFAULT_MAX_PARTITIONS);
+  }
+
+  private ConcurrencyLimitingDecorator decorator(String partition, int maxPartitions) {
+    final ConcurrencyLimitConfig config =
+        new ConcurrencyLimitConfig(ConfigFactory.parseMap(ImmutableMap.of(
+            "concurrency.limit.initial", 2,
+            "concurrency.limit.partition", partition,
+            "concurrency.limit.maxPartitions", maxPartitions)));
+    return new ConcurrencyLimitingDecorator(config, metricRegistry, "test", () -> now);
+  }
+
+  private static RequestRunnableFactory decorate(ConcurrencyLimitingDecorator decorator,
+                                                 Endpoint endpoint) {
+    final RuleMatch<Endpoint> match =
+        new RuleMatch<>(Rule.fromUri("/", "GET", endpoint), Collections.emptyMap());
+    return decorator.apply(
+        ongoingRequest -> continuation -> continuation.accept(ongoingRequest, match));
+  }
+
+  private OngoingRequest run(RequestRunnableFactory factory, Request request) {
+    final OngoingRequest ongoingRequest = mock(OngoingRequest.class);
+    when(ongoingRequest.request()).thenReturn(request);
+
+    factory.create(ongoingRequest).run((admittedRequest, match) -> admitted.add(admittedRequest));
+    now += 1_000_000;
+    return ongoingRequest;
+  }
+
+  private static Endpoint endpoint(String name) {
+    final Endpoint endpoint = mock(Endpoint.class);
+    final EndpointInfo info = mock(EndpointInfo.class);
+    when(endpoint.info()).thenReturn(info);
+    when(info.getName()).thenReturn(name);
+    return endpoint;
+  }
+}
@@ -0,0 +1,86 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Concurrency Limit Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.concurrency;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+public class GradientLimitTest {
+
+  private static final long MILLIS = 1_000_000;
+
+  private final GradientLimit limit = new GradientLimit(20, 1, 100, 1.5, 0.2, 10);
+
+  @Test
+  public void shouldGrowWhileLatencyIsStable() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      limit.onSample(10 * MILLIS, limit.limit());
+    }
+
+    assertThat(limit.limit(), is(greaterThan(20)));
+  }
+
+  @Test
+  public void shouldShrinkWhenLatencyIncreases() throws Exception {
+    for (int i = 0; i < 20; i++) {
+      limit.onSample(10 * MILLIS, limit.limit());
+    }
+    final int before = limit.limit();
+
+    for (int i = 0; i < 5; i++) {
+      limit.onSample(100 * MILLIS, limit.limit());
+    }
+
+    assertThat(limit.limit(), is(lessThan(before)));
+  }
+
+  @Test
+  public void shouldNotGrowWhenUnderutilised() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      limit.onSample(10 * MILLIS, 1);
+    }
+
+    assertThat(limit.limit(), is(20));
+  }
+
+  @Test
+  public void shouldBackOffOnDrop() throws Exception {
+    limit.onDrop();
+
+    assertThat(limit.limit(), is(18));
+  }
+
+  @Test
+  public void shouldStayWithinBounds() throws Exception {
+    for (int i = 0; i < 1000; i++) {
+      limit.onSample(10 * MILLIS, limit.limit());
+    }
+    assertThat(limit.limit(), is(100));
+
+    for (int i = 0; i < 1000; i++) {
+      limit.onDrop();
+    }
+    assertThat(limit.limit(), is(1));
+  }
+}
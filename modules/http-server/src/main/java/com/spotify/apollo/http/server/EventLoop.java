@@ -0,0 +1,180 @@
+/*-
+ * -\-\-
+ * Spotify Apollo HTTP Server Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.server;
+
+import com.spotify.apollo.request.RequestHandler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A selector thread that owns a set of connections. Everything that touches a connection runs on
+ * this thread; other threads submit work through {@link #execute(Runnable)}.
+ */
+class EventLoop implements Runnable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(EventLoop.class);
+
+  private static final long SELECT_TIMEOUT_MILLIS = 1000;
+  private static final long IDLE_CHECK_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final Selector selector;
+  private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+  private final HttpServerConfig config;
+  private final RequestHandler requestHandler;
+  private final Executor dispatcher;
+
+  private volatile Thread thread;
+  private volatile boolean running = true;
+  private long lastIdleCheckNanos = System.nanoTime();
+
+  EventLoop(HttpServerConfig config,
+            RequestHandler requestHandler,
+            Executor dispatcher) throws IOException {
+    this.selector = Selector.open();
+    this.config = config;
+    this.requestHandler = requestHandler;
+    this.dispatcher = dispatcher;
+  }
+
+  boolean inLoop() {
+    return Thread.currentThread() == thread;
+  }
+
+  void execute(Runnable task) {
+    tasks.add(task);
+    if (!inLoop()) {
+      selector.wakeup();
+    }
+  }
+
+  /**
+   * Hands a newly accepted channel over to this loop.
+   */
+  void register(SocketChannel channel) {
+    execute(() -> {
+      try {
+        channel.configureBlocking(false);
+        final SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new HttpConnection(this, key, channel, config, requestHandler, dispatcher));
+      } catch (IOException e) {
+        LOG.warn("Failed to register {}", channel, e);
+        closeQuietly(channel);
+      }
+    });
+  }
+
+  @Override
+  public void run() {
+    thread = Thread.currentThread();
+    try {
+      while (running) {
+        selector.select(SELECT_TIMEOUT_MILLIS);
+        processSelectedKeys();
+        runTasks();
+        checkIdle();
+      }
+    } catch (IOException e) {
+      LOG.error("Event loop failed", e);
+    } finally {
+      for (SelectionKey key : selector.keys()) {
+        final HttpConnection connection = (HttpConnection) key.attachment();
+        if (connection != null) {
+          connection.close();
+        }
+      }
+      try {
+        selector.close();
+      } catch (IOException e) {
+        LOG.debug("Failed to close selector", e);
+      }
+    }
+  }
+
+  void shutdown() {
+    running = false;
+    selector.wakeup();
+  }
+
+  private void processSelectedKeys() {
+    final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+    while (keys.hasNext()) {
+      final SelectionKey key = keys.next();
+      keys.remove();
+
+      final HttpConnection connection = (HttpConnection) key.attachment();
+      try {
+        if (key.isValid() && key.isWritable()) {
+          connection.onWritable();
+        }
+        if (key.isValid() && key.isReadable()) {
+          connection.onReadable();
+        }
+      } catch (RuntimeException e) {
+        LOG.error("Unexpected failure on {}, closing connection", key.channel(), e);
+        connection.close();
+      }
+    }
+  }
+
+  private void runTasks() {
+    Runnable task;
+    while ((task = tasks.poll()) != null) {
+      try {
+        task.run();
+      } catch (RuntimeException e) {
+        LOG.error("Event loop task failed", e);
+      }
+    }
+  }
+
+  private void checkIdle() {
+    final long now = System.nanoTime();
+    if (now - lastIdleCheckNanos < IDLE_CHECK_INTERVAL_NANOS) {
+      return;
+    }
+    lastIdleCheckNanos = now;
+
+    for (SelectionKey key : selector.keys()) {
+      final HttpConnection connection = (HttpConnection) key.attachment();
+      if (connection != null) {
+        connection.checkIdle(now);
+      }
+    }
+  }
+
+  private static void closeQuietly(SocketChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      LOG.debug("Failed to close {}", channel, e);
+    }
+  }
+}
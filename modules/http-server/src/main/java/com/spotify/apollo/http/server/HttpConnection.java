@@ -0,0 +1,491 @@
+/*-
+ * -\-\-
+ * Spotify Apollo HTTP Server Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.server;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.RequestMetadata;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+import com.spotify.apollo.request.RequestHandler;
+import com.spotify.apollo.request.RequestMetadataImpl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import okio.ByteString;
+
+/**
+ * A single client connection, owned by one {@link EventLoop}.
+ *
+ * All state is confined to the event loop thread, with the exception of
+ * {@link #reply(ResponseSlot, Response)} and {@link #drop()}, which may be called from any thread
+ * and hand over to the loop. Pipelined requests are dispatched as soon as they are parsed, but
+ * every request reserves a {@link ResponseSlot} so that responses are written in request order.
+ */
+class HttpConnection {
+
+  private static final Logger LOG = LoggerFactory.getLogger(HttpConnection.class);
+
+  private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+  /**
+   * The header in which callers pass the time their request has left, in milliseconds. Apollo's
+   * request-scoped client sets it on outgoing requests.
+   */
+  static final String TTL_HEADER = "X-Apollo-Ttl-Millis";
+
+  private final EventLoop loop;
+  private final SelectionKey key;
+  private final SocketChannel channel;
+  private final HttpServerConfig config;
+  private final RequestHandler requestHandler;
+  private final Executor dispatcher;
+  private final HttpRequestParser parser;
+  private final Optional<RequestMetadata.HostAndPort> localAddress;
+  private final Optional<RequestMetadata.HostAndPort> remoteAddress;
+  private final String defaultAuthority;
+  private final long ttlNanos;
+
+  private final ArrayDeque<ResponseSlot> pending = new ArrayDeque<>();
+  private final ArrayDeque<ByteBuffer> outbound = new ArrayDeque<>();
+  // slots in outbound with a listener waiting for their response to be written, in write order
+  private final ArrayDeque<ResponseSlot> writing = new ArrayDeque<>();
+
+  private ByteBuffer input = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+  private boolean readPaused;
+  private boolean inputDone;
+  private boolean closeAfterWrite;
+  private boolean closed;
+  private long lastActivityNanos = System.nanoTime();
+
+  HttpConnection(EventLoop loop,
+                 SelectionKey key,
+                 SocketChannel channel,
+                 HttpServerConfig config,
+                 RequestHandler requestHandler,
+                 Executor dispatcher) throws IOException {
+    this.loop = loop;
+    this.key = key;
+    this.channel = channel;
+    this.config = config;
+    this.requestHandler = requestHandler;
+    this.dispatcher = dispatcher;
+    this.parser = new HttpRequestParser(config.maxHeaderSize(), config.maxBodySize());
+    this.ttlNanos = config.ttlMillis() * 1_000_000L;
+
+    final InetSocketAddress local = (InetSocketAddress) channel.getLocalAddress();
+    final InetSocketAddress remote = (InetSocketAddress) channel.getRemoteAddress();
+    this.localAddress = Optional.of(
+        RequestMetadataImpl.hostAndPort(local.getAddress().getHostAddress(), local.getPort()));
+    this.remoteAddress = Optional.of(
+        RequestMetadataImpl.hostAndPort(remote.getAddress().getHostAddress(), remote.getPort()));
+    this.defaultAuthority = local.getAddress().getHostAddress() + ":" + local.getPort();
+  }
+
+  void onReadable() {
+    final int read;
+    try {
+      read = channel.read(input);
+    } catch (IOException e) {
+      LOG.debug("Failed to read from {}", channel, e);
+      close();
+      return;
+    }
+
+    if (read < 0) {
+      inputDone = true;
+      setInterest(SelectionKey.OP_READ, false);
+      if (pending.isEmpty() && outbound.isEmpty()) {
+        close();
+        return;
+      }
+      closeAfterWrite = true;
+    } else if (read > 0) {
+      lastActivityNanos = System.nanoTime();
+    }
+
+    processInput();
+  }
+
+  void onWritable() {
+    flush();
+  }
+
+  /**
+   * Closes the connection if it has been idle for longer than the configured timeout. A
+   * connection with outstanding requests is never idle.
+   */
+  void checkIdle(long nowNanos) {
+    if (pending.isEmpty() && outbound.isEmpty()
+        && nowNanos - lastActivityNanos > config.idleTimeoutMillis() * 1_000_000L) {
+      close();
+    }
+  }
+
+  void reply(ResponseSlot slot, Response<ByteString> response) {
+    final ByteBuffer[] buffers;
+    try {
+      buffers = ResponseEncoder.encode(response, slot.keepAlive, slot.http10, slot.headRequest);
+    } catch (RuntimeException e) {
+      LOG.warn("Failed to encode response, closing connection", e);
+      drop();
+      return;
+    }
+
+    if (loop.inLoop()) {
+      complete(slot, buffers);
+    } else {
+      loop.execute(() -> complete(slot, buffers));
+    }
+  }
+
+  void drop() {
+    if (loop.inLoop()) {
+      close();
+    } else {
+      loop.execute(this::close);
+    }
+  }
+
+  void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    pending.clear();
+    outbound.clear();
+    writing.clear();
+    key.cancel();
+    try {
+      channel.close();
+    } catch (IOException e) {
+      LOG.debug("Failed to close {}", channel, e);
+    }
+  }
+
+  private void processInput() {
+    if (readPaused || closed) {
+      return;
+    }
+
+    input.flip();
+    try {
+      while (!inputDone || input.hasRemaining()) {
+        if (pending.size() >= config.maxPipelinedRequests()) {
+          // let the client feel the backpressure until some responses are written
+          readPaused = true;
+          setInterest(SelectionKey.OP_READ, false);
+          break;
+        }
+
+        final ParsedRequest parsed = parser.parse(input);
+        if (parser.takeExpectContinue()) {
+          sendContinue();
+        }
+        if (parsed == null) {
+          break;
+        }
+
+        dispatch(parsed);
+        if (!parsed.keepAlive()) {
+          stopReading();
+          break;
+        }
+      }
+    } catch (HttpParseException e) {
+      LOG.debug("Bad request from {}: {}", channel, e.getMessage());
+      final ResponseSlot slot = new ResponseSlot(false, false, false);
+      pending.addLast(slot);
+      stopReading();
+      complete(slot, ResponseEncoder.encode(Response.forStatus(e.status()), false, false, false));
+      return;
+    } finally {
+      input.compact();
+    }
+
+    if (inputDone && parser.inProgress()) {
+      // the client went away in the middle of a request
+      closeAfterWrite = true;
+    }
+
+    if (!input.hasRemaining()) {
+      final ByteBuffer larger = ByteBuffer.allocate(input.capacity() * 2);
+      input.flip();
+      larger.put(input);
+      input = larger;
+    }
+  }
+
+  private void sendContinue() {
+    if (pending.isEmpty()) {
+      write(ResponseEncoder.encodeContinue());
+      return;
+    }
+
+    // the interim response must not overtake the responses to earlier pipelined requests, so it
+    // gets a slot of its own that is written as soon as they are
+    final ResponseSlot slot = new ResponseSlot(true, false, false);
+    slot.buffers = ResponseEncoder.encodeContinue();
+    pending.addLast(slot);
+  }
+
+  private void dispatch(ParsedRequest parsed) {
+    final ResponseSlot slot = new ResponseSlot(
+        parsed.keepAlive(), parsed.isHttp10(), "HEAD".equals(parsed.method()));
+    pending.addLast(slot);
+
+    final long requestTtlNanos = ttlNanos(parsed);
+    final ServerOngoingRequest ongoingRequest = new ServerOngoingRequest(
+        toRequest(parsed).withTtl(Duration.ofNanos(requestTtlNanos)),
+        RequestMetadataImpl.create(Instant.now(), localAddress, remoteAddress),
+        System.nanoTime(),
+        requestTtlNanos,
+        this,
+        slot);
+
+    try {
+      dispatcher.execute(() -> handle(ongoingRequest));
+    } catch (RejectedExecutionException e) {
+      ongoingRequest.reply(Response.forStatus(Status.SERVICE_UNAVAILABLE));
+    }
+  }
+
+  private void handle(ServerOngoingRequest ongoingRequest) {
+    ongoingRequest.dispatched(System.nanoTime());
+    try {
+      requestHandler.handle(ongoingRequest);
+    } catch (RuntimeException e) {
+      LOG.error("Request handler failed for {}", ongoingRequest.request(), e);
+      ongoingRequest.reply(Response.forStatus(Status.INTERNAL_SERVER_ERROR));
+    }
+  }
+
+  private Request toRequest(ParsedRequest parsed) {
+    final String target = parsed.target();
+    final String uri;
+    if (target.startsWith("/")) {
+      uri = "http://" + authority(parsed) + target;
+    } else {
+      // absolute-form, or asterisk-form for OPTIONS
+      uri = target;
+    }
+
+    Request request = Request.forUri(uri, parsed.method());
+    if (!parsed.headers().isEmpty()) {
+      request = request.withHeaders(parsed.headers());
+    }
+    if (parsed.body().size() > 0) {
+      request = request.withPayload(parsed.body());
+    }
+    return request;
+  }
+
+  private String authority(ParsedRequest parsed) {
+    return header(parsed, "host")
+        .filter(host -> !host.isEmpty())
+        .orElse(defaultAuthority);
+  }
+
+  /**
+   * The configured ttl, or the one the caller has left if that is shorter. Values that aren't a
+   * positive number of milliseconds are ignored.
+   */
+  private long ttlNanos(ParsedRequest parsed) {
+    final Optional<String> callerTtl = header(parsed, TTL_HEADER);
+    if (!callerTtl.isPresent()) {
+      return ttlNanos;
+    }
+    try {
+      final long millis = Long.parseLong(callerTtl.get().trim());
+      return millis > 0 ? Math.min(ttlNanos, TimeUnit.MILLISECONDS.toNanos(millis)) : ttlNanos;
+    } catch (NumberFormatException e) {
+      return ttlNanos;
+    }
+  }
+
+  private static Optional<String> header(ParsedRequest parsed, String name) {
+    for (Map.Entry<String, String> header : parsed.headers().entrySet()) {
+      if (name.equalsIgnoreCase(header.getKey())) {
+        return Optional.of(header.getValue());
+      }
+    }
+    return Optional.empty();
+  }
+
+  private void complete(ResponseSlot slot, ByteBuffer[] buffers) {
+    if (closed) {
+      return;
+    }
+    slot.buffers = buffers;
+
+    while (!pending.isEmpty() && pending.peekFirst().buffers != null) {
+      final ResponseSlot done = pending.removeFirst();
+      for (ByteBuffer buffer : done.buffers) {
+        outbound.addLast(buffer);
+      }
+      if (done.writtenListener() != null) {
+        writing.addLast(done);
+      }
+      if (!done.keepAlive) {
+        closeAfterWrite = true;
+        // anything pipelined after a closing response will never be answered
+        pending.clear();
+        stopReading();
+      }
+    }
+
+    flush();
+
+    if (readPaused && !closeAfterWrite
+        && pending.size() < config.maxPipelinedRequests()) {
+      readPaused = false;
+      setInterest(SelectionKey.OP_READ, true);
+      processInput();
+    }
+  }
+
+  private void write(ByteBuffer[] buffers) {
+    for (ByteBuffer buffer : buffers) {
+      outbound.addLast(buffer);
+    }
+    flush();
+  }
+
+  private void flush() {
+    if (closed) {
+      return;
+    }
+
+    try {
+      while (!outbound.isEmpty()) {
+        final long written = channel.write(outbound.toArray(new ByteBuffer[0]));
+        while (!outbound.isEmpty() && !outbound.peekFirst().hasRemaining()) {
+          outbound.removeFirst();
+        }
+        if (written == 0) {
+          break;
+        }
+        lastActivityNanos = System.nanoTime();
+      }
+    } catch (IOException e) {
+      LOG.debug("Failed to write to {}", channel, e);
+      close();
+      return;
+    }
+
+    notifyWritten();
+
+    if (!outbound.isEmpty()) {
+      setInterest(SelectionKey.OP_WRITE, true);
+      return;
+    }
+
+    setInterest(SelectionKey.OP_WRITE, false);
+    if (closeAfterWrite && pending.isEmpty()) {
+      close();
+    }
+  }
+
+  private void notifyWritten() {
+    while (!writing.isEmpty() && writing.peekFirst().isWritten()) {
+      final Runnable listener = writing.removeFirst().writtenListener();
+      try {
+        listener.run();
+      } catch (RuntimeException e) {
+        LOG.warn("Reply written listener failed", e);
+      }
+    }
+  }
+
+  private void stopReading() {
+    readPaused = true;
+    closeAfterWrite = true;
+    setInterest(SelectionKey.OP_READ, false);
+  }
+
+  private void setInterest(int op, boolean enabled) {
+    if (closed || !key.isValid()) {
+      return;
+    }
+    final int ops = key.interestOps();
+    final int updated = enabled ? ops | op : ops & ~op;
+    if (updated != ops) {
+      key.interestOps(updated);
+    }
+  }
+
+  /**
+   * The place of a request in the response order of its connection.
+   */
+  static final class ResponseSlot {
+
+    final boolean keepAlive;
+    final boolean http10;
+    final boolean headRequest;
+
+    ByteBuffer[] buffers;
+
+    private Runnable writtenListener;
+
+    ResponseSlot(boolean keepAlive, boolean http10, boolean headRequest) {
+      this.keepAlive = keepAlive;
+      this.http10 = http10;
+      this.headRequest = headRequest;
+    }
+
+    /**
+     * Adds a listener to run on the event loop once the response in this slot has been written.
+     */
+    synchronized void onWritten(Runnable listener) {
+      final Runnable previous = writtenListener;
+      writtenListener = previous == null ? listener : () -> {
+        previous.run();
+        listener.run();
+      };
+    }
+
+    synchronized Runnable writtenListener() {
+      return writtenListener;
+    }
+
+    boolean isWritten() {
+      for (ByteBuffer buffer : buffers) {
+        if (buffer.hasRemaining()) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
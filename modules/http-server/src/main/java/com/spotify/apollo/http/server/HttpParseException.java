@@ -0,0 +1,40 @@
+/*-
+ * -\-\-
+ * Spotify Apollo HTTP Server Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.server;
+
+import com.spotify.apollo.StatusType;
+
+/**
+ * Thrown by {@link HttpRequestParser} when the bytes on a connection do not form a request we
+ * can serve. The connection is closed after replying with {@link #status()}.
+ */
+class HttpParseException extends Exception {
+
+  private final StatusType status;
+
+  HttpParseException(StatusType status, String message) {
+    super(message);
+    this.status = status;
+  }
+
+  StatusType status() {
+    return status;
+  }
+}
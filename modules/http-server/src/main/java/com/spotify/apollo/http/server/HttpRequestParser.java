@@ -0,0 +1,466 @@
+/*-
+ * -\-\-
+ * Spotify Apollo HTTP Server Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.server;
+
+import com.spotify.apollo.Status;
+import com.spotify.apollo.StatusType;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import okio.Buffer;
+import okio.ByteString;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Incremental HTTP/1.1 request parser.
+ *
+ * The parser is fed the read side of a connection buffer through {@link #parse(ByteBuffer)}. Each
+ * call consumes as much as it can and either returns a complete request, or null if more bytes
+ * are needed. Request heads are only consumed once complete, while bodies are moved into an okio
+ * {@link Buffer} as they arrive so that the connection buffer stays small. One instance is used
+ * per connection and is not thread safe.
+ */
+class HttpRequestParser {
+
+  static final StatusType HEADER_FIELDS_TOO_LARGE =
+      Status.createForCode(431).withReasonPhrase("Request Header Fields Too Large");
+  static final StatusType HTTP_VERSION_NOT_SUPPORTED =
+      Status.createForCode(505).withReasonPhrase("HTTP Version Not Supported");
+
+  private static final int MAX_CHUNK_SIZE_LINE = 1024;
+
+  private enum State {
+    HEAD,
+    FIXED_BODY,
+    CHUNK_SIZE,
+    CHUNK_DATA,
+    CHUNK_DATA_END,
+    TRAILERS
+  }
+
+  private final int maxHeaderSize;
+  private final int maxBodySize;
+
+  private State state = State.HEAD;
+  private int scanned;
+  private long remaining;
+  private int trailerBytes;
+  private boolean expectContinue;
+
+  private String method;
+  private String target;
+  private boolean http10;
+  private Map<String, String> headers;
+  private boolean keepAlive;
+  private final Buffer body = new Buffer();
+
+  HttpRequestParser(int maxHeaderSize, int maxBodySize) {
+    this.maxHeaderSize = maxHeaderSize;
+    this.maxBodySize = maxBodySize;
+  }
+
+  /**
+   * Parses the next request out of {@code in}, which must be in read mode.
+   *
+   * @return the request, or null if {@code in} does not yet hold all of it
+   * @throws HttpParseException if the input is not a valid request
+   */
+  ParsedRequest parse(ByteBuffer in) throws HttpParseException {
+    while (true) {
+      switch (state) {
+        case HEAD:
+          if (!parseHead(in)) {
+            return null;
+          }
+          break;
+
+        case FIXED_BODY:
+          remaining -= copyBody(in, remaining);
+          if (remaining > 0) {
+            return null;
+          }
+          return complete();
+
+        case CHUNK_SIZE:
+          if (!parseChunkSize(in)) {
+            return null;
+          }
+          break;
+
+        case CHUNK_DATA:
+          remaining -= copyBody(in, remaining);
+          if (remaining > 0) {
+            return null;
+          }
+          state = State.CHUNK_DATA_END;
+          break;
+
+        case CHUNK_DATA_END:
+          if (in.remaining() < 2) {
+            return null;
+          }
+          if (in.get() != '\r' || in.get() != '\n') {
+            throw badRequest("missing CRLF after chunk data");
+          }
+          state = State.CHUNK_SIZE;
+          break;
+
+        case TRAILERS:
+          if (!skipTrailers(in)) {
+            return null;
+          }
+          return complete();
+
+        default:
+          throw new IllegalStateException("unknown parser state " + state);
+      }
+
+      if (state == State.HEAD) {
+        // a request without body was just parsed
+        return complete();
+      }
+    }
+  }
+
+  /**
+   * Returns true once per request if the client asked for a {@code 100 Continue} before sending
+   * the body.
+   */
+  boolean takeExpectContinue() {
+    final boolean result = expectContinue;
+    expectContinue = false;
+    return result;
+  }
+
+  /**
+   * Returns true if the parser is in the middle of a request.
+   */
+  boolean inProgress() {
+    return state != State.HEAD || scanned > 0;
+  }
+
+  private boolean parseHead(ByteBuffer in) throws HttpParseException {
+    // RFC 7230 3.5: ignore empty lines preceding the request-line
+    while (scanned == 0 && in.remaining() >= 2
+           && in.get(in.position()) == '\r' && in.get(in.position() + 1) == '\n') {
+      in.position(in.position() + 2);
+    }
+
+    final int start = in.position();
+    final int limit = in.limit();
+    int i = start + Math.max(scanned - 3, 0);
+    int end = -1;
+    for (; i + 3 < limit; i++) {
+      if (in.get(i + 3) == '\n' && in.get(i + 2) == '\r'
+          && in.get(i + 1) == '\n' && in.get(i) == '\r') {
+        end = i + 4;
+        break;
+      }
+    }
+
+    if (end < 0) {
+      scanned = limit - start;
+      if (scanned > maxHeaderSize) {
+        throw new HttpParseException(HEADER_FIELDS_TOO_LARGE, "request head too large");
+      }
+      return false;
+    }
+    if (end - start > maxHeaderSize) {
+      throw new HttpParseException(HEADER_FIELDS_TOO_LARGE, "request head too large");
+    }
+
+    final byte[] head = new byte[end - start - 4];
+    in.get(head);
+    in.position(end);
+    scanned = 0;
+
+    parseHead(new String(head, ISO_8859_1));
+    return true;
+  }
+
+  private void parseHead(String head) throws HttpParseException {
+    int lineEnd = head.indexOf("\r\n");
+    if (lineEnd < 0) {
+      lineEnd = head.length();
+    }
+    parseRequestLine(head.substring(0, lineEnd));
+
+    final Map<String, String> headers = new LinkedHashMap<>();
+    final Map<String, String> names = new HashMap<>();
+    int pos = lineEnd + 2;
+    while (pos < head.length()) {
+      int next = head.indexOf("\r\n", pos);
+      if (next < 0) {
+        next = head.length();
+      }
+      addHeader(head, pos, next, headers, names);
+      pos = next + 2;
+    }
+    this.headers = headers;
+
+    final String connection = header(names, headers, "connection");
+    keepAlive = http10
+                ? hasToken(connection, "keep-alive")
+                : !hasToken(connection, "close");
+
+    final String transferEncoding = header(names, headers, "transfer-encoding");
+    final String contentLength = header(names, headers, "content-length");
+
+    if (transferEncoding != null) {
+      if (!"chunked".equalsIgnoreCase(transferEncoding.trim())) {
+        throw new HttpParseException(
+            Status.NOT_IMPLEMENTED, "unsupported transfer-encoding " + transferEncoding);
+      }
+      if (contentLength != null) {
+        // RFC 7230 3.3.3: the message might be a smuggling attempt, don't reuse the connection
+        keepAlive = false;
+      }
+      state = State.CHUNK_SIZE;
+    } else if (contentLength != null) {
+      remaining = parseContentLength(contentLength);
+      state = remaining > 0 ? State.FIXED_BODY : State.HEAD;
+    } else {
+      state = State.HEAD;
+    }
+
+    if (state != State.HEAD) {
+      final String expect = header(names, headers, "expect");
+      expectContinue = !http10 && "100-continue".equalsIgnoreCase(expect);
+    }
+  }
+
+  private void parseRequestLine(String line) throws HttpParseException {
+    final int sp1 = line.indexOf(' ');
+    final int sp2 = sp1 < 0 ? -1 : line.indexOf(' ', sp1 + 1);
+    if (sp1 <= 0 || sp2 < 0 || sp2 == sp1 + 1) {
+      throw badRequest("malformed request line");
+    }
+
+    method = line.substring(0, sp1);
+    for (int i = 0; i < method.length(); i++) {
+      if (!isTokenChar(method.charAt(i))) {
+        throw badRequest("malformed method");
+      }
+    }
+
+    target = line.substring(sp1 + 1, sp2);
+    if (target.indexOf(' ') >= 0) {
+      throw badRequest("malformed request target");
+    }
+
+    final String version = line.substring(sp2 + 1);
+    if ("HTTP/1.1".equals(version)) {
+      http10 = false;
+    } else if ("HTTP/1.0".equals(version)) {
+      http10 = true;
+    } else if (version.startsWith("HTTP/")) {
+      throw new HttpParseException(HTTP_VERSION_NOT_SUPPORTED, "unsupported version " + version);
+    } else {
+      throw badRequest("malformed http version");
+    }
+  }
+
+  private static void addHeader(String head, int start, int end,
+                                Map<String, String> headers,
+                                Map<String, String> names) throws HttpParseException {
+    final int colon = head.indexOf(':', start);
+    if (colon <= start || colon >= end) {
+      throw badRequest("malformed header line");
+    }
+    for (int i = start; i < colon; i++) {
+      if (!isTokenChar(head.charAt(i))) {
+        // this also rejects obsolete line folding, RFC 7230 3.2.4
+        throw badRequest("malformed header name");
+      }
+    }
+
+    final String name = head.substring(start, colon);
+    final String value = head.substring(colon + 1, end).trim();
+
+    final String lowerCase = name.toLowerCase(Locale.ROOT);
+    final String existing = names.putIfAbsent(lowerCase, name);
+    if (existing == null) {
+      headers.put(name, value);
+    } else {
+      headers.put(existing, headers.get(existing) + ", " + value);
+    }
+  }
+
+  private long parseContentLength(String value) throws HttpParseException {
+    long length = -1;
+    // repeated headers were joined, which is fine as long as all values agree
+    for (String part : value.split(",")) {
+      final String trimmed = part.trim();
+      if (trimmed.isEmpty() || trimmed.length() > 18) {
+        throw badRequest("malformed content-length");
+      }
+      long parsed = 0;
+      for (int i = 0; i < trimmed.length(); i++) {
+        final char c = trimmed.charAt(i);
+        if (c < '0' || c > '9') {
+          throw badRequest("malformed content-length");
+        }
+        parsed = parsed * 10 + (c - '0');
+      }
+      if (length >= 0 && length != parsed) {
+        throw badRequest("conflicting content-length values");
+      }
+      length = parsed;
+    }
+
+    if (length > maxBodySize) {
+      throw new HttpParseException(Status.REQUEST_ENTITY_TOO_LARGE, "request body too large");
+    }
+    return length;
+  }
+
+  private boolean parseChunkSize(ByteBuffer in) throws HttpParseException {
+    final int lineEnd = indexOfCrlf(in);
+    if (lineEnd < 0) {
+      if (in.remaining() > MAX_CHUNK_SIZE_LINE) {
+        throw badRequest("chunk size line too long");
+      }
+      return false;
+    }
+
+    long size = 0;
+    int digits = 0;
+    int i = in.position();
+    for (; i < lineEnd; i++) {
+      final int digit = Character.digit(in.get(i), 16);
+      if (digit < 0) {
+        break;
+      }
+      if (++digits > 15) {
+        throw badRequest("chunk size too large");
+      }
+      size = size * 16 + digit;
+    }
+    if (digits == 0 || (i < lineEnd && in.get(i) != ';' && in.get(i) != ' ')) {
+      throw badRequest("malformed chunk size");
+    }
+    in.position(lineEnd + 2);
+
+    if (size == 0) {
+      trailerBytes = 0;
+      state = State.TRAILERS;
+    } else {
+      if (body.size() + size > maxBodySize) {
+        throw new HttpParseException(Status.REQUEST_ENTITY_TOO_LARGE, "request body too large");
+      }
+      remaining = size;
+      state = State.CHUNK_DATA;
+    }
+    return true;
+  }
+
+  private boolean skipTrailers(ByteBuffer in) throws HttpParseException {
+    while (true) {
+      final int lineEnd = indexOfCrlf(in);
+      if (lineEnd < 0) {
+        if (trailerBytes + in.remaining() > maxHeaderSize) {
+          throw new HttpParseException(HEADER_FIELDS_TOO_LARGE, "trailers too large");
+        }
+        return false;
+      }
+
+      final int length = lineEnd - in.position();
+      trailerBytes += length + 2;
+      if (trailerBytes > maxHeaderSize) {
+        throw new HttpParseException(HEADER_FIELDS_TOO_LARGE, "trailers too large");
+      }
+      in.position(lineEnd + 2);
+      if (length == 0) {
+        return true;
+      }
+    }
+  }
+
+  private long copyBody(ByteBuffer in, long max) {
+    final int count = (int) Math.min(max, in.remaining());
+    if (count == 0) {
+      return 0;
+    }
+
+    final ByteBuffer slice = in.duplicate();
+    slice.limit(slice.position() + count);
+    body.write(slice);
+    in.position(in.position() + count);
+    return count;
+  }
+
+  private ParsedRequest complete() {
+    final ByteString payload = body.size() > 0 ? body.readByteString() : ByteString.EMPTY;
+    final ParsedRequest request =
+        new ParsedRequest(method, target, http10, headers, payload, keepAlive);
+
+    state = State.HEAD;
+    method = null;
+    target = null;
+    headers = null;
+    expectContinue = false;
+    return request;
+  }
+
+  private static int indexOfCrlf(ByteBuffer in) {
+    for (int i = in.position(); i + 1 < in.limit(); i++) {
+      if (in.get(i) == '\r' && in.get(i + 1) == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static String header(Map<String, String> names,
+                               Map<String, String> headers,
+                               String lowerCaseName) {
+    final String name = names.get(lowerCaseName);
+    return name == null ? null : headers.get(name);
+  }
+
+  private static boolean hasToken(String value, String token) {
+    if (value == null) {
+      return false;
+    }
+    for (String part : value.split(",")) {
+      if (token.equalsIgnoreCase(part.trim())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // RFC 7230 3.2.6
+  private static boolean isTokenChar(char c) {
+    if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9') {
+      return true;
+    }
+    return "!#$%&'*+-.^_`|~".indexOf(c) >= 0;
+  }
+
+  private static HttpParseException badRequest(String message) {
+    return new HttpParseException(Status.BAD_REQUEST, message);
+  }
+}
@@ -0,0 +1,47 @@
+/*-
+ * -\-\-
+ * Spotify Apollo HTTP Server Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.server;
+
+import com.spotify.apollo.request.RequestHandler;
+
+import java.io.Closeable;
+import java.net.InetSocketAddress;
+
+/**
+ * A HTTP/1.1 server that feeds incoming requests to a {@link RequestHandler}.
+ *
+ * @see HttpServerModule
+ */
+public interface HttpServer extends Closeable {
+
+  /**
+   * Binds the server socket and starts accepting connections. Every parsed request is passed
+   * to the given handler as an {@link com.spotify.apollo.request.OngoingRequest}.
+   *
+   * @param requestHandler the handler for incoming requests
+   */
+  void start(RequestHandler requestHandler);
+
+  /**
+   * The address the server is bound to. Only available after {@link #start(RequestHandler)}.
+   * Useful when the server is configured to listen on port 0.
+   */
+  InetSocketAddress address();
+}
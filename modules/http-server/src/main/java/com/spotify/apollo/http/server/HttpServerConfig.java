@@ -0,0 +1,100 @@
+/*-
+ * -\-\-
+ * Spotify Apollo HTTP Server Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.server;
+
+import com.google.inject.Inject;
+import com.typesafe.config.Config;
+
+import static com.spotify.apollo.environment.ConfigUtil.optionalInt;
+import static com.spotify.apollo.environment.ConfigUtil.optionalString;
+
+/**
+ * Configuration object for keys under the http.server keyspace.
+ */
+class HttpServerConfig {
+
+  static final String DEFAULT_ADDRESS = "0.0.0.0";
+  static final int DEFAULT_PORT = 8080;
+  static final int DEFAULT_WORKER_THREADS = 64;
+  static final int DEFAULT_WORKER_QUEUE_SIZE = 1024;
+  static final int DEFAULT_TTL_MILLIS = 30_000;
+  static final int DEFAULT_IDLE_TIMEOUT_MILLIS = 60_000;
+  static final int DEFAULT_MAX_HEADER_SIZE = 64 * 1024;
+  static final int DEFAULT_MAX_BODY_SIZE = 16 * 1024 * 1024;
+  static final int DEFAULT_MAX_PIPELINED_REQUESTS = 16;
+
+  private final Config config;
+
+  @Inject
+  HttpServerConfig(Config config) {
+    this.config = config;
+  }
+
+  String address() {
+    return optionalString(config, "http.server.address").orElse(DEFAULT_ADDRESS);
+  }
+
+  int port() {
+    return optionalInt(config, "http.server.port").orElse(DEFAULT_PORT);
+  }
+
+  int eventLoopThreads() {
+    return optionalInt(config, "http.server.eventLoopThreads")
+        .orElse(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Number of threads to dispatch requests to. 0 means requests are handled directly on the
+   * event loop threads, which is only safe if no route, middleware or meta route ever blocks,
+   * since a blocked loop stalls every connection it owns.
+   */
+  int workerThreads() {
+    return optionalInt(config, "http.server.workerThreads").orElse(DEFAULT_WORKER_THREADS);
+  }
+
+  /**
+   * Number of requests that may wait for a worker thread. Requests beyond that get a 503.
+   */
+  int workerQueueSize() {
+    return optionalInt(config, "http.server.workerQueueSize").orElse(DEFAULT_WORKER_QUEUE_SIZE);
+  }
+
+  int ttlMillis() {
+    return optionalInt(config, "http.server.ttlMillis").orElse(DEFAULT_TTL_MILLIS);
+  }
+
+  int idleTimeoutMillis() {
+    return optionalInt(config, "http.server.idleTimeoutMillis")
+        .orElse(DEFAULT_IDLE_TIMEOUT_MILLIS);
+  }
+
+  int maxHeaderSize() {
+    return optionalInt(config, "http.server.maxHeaderSize").orElse(DEFAULT_MAX_HEADER_SIZE);
+  }
+
+  int maxBodySize() {
+    return optionalInt(config, "http.server.maxBodySize").orElse(DEFAULT_MAX_BODY_SIZE);
+  }
+
+  int maxPipelinedRequests() {
+    return optionalInt(config, "http.server.maxPipelinedRequests")
+        .orElse(DEFAULT_MAX_PIPELINED_REQUESTS);
+  }
+}
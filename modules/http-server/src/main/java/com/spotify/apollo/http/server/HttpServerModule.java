@@ -0,0 +1,62 @@
+/*-
+ * -\-\-
+ * Spotify Apollo HTTP Server Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.server;
+
+import com.google.inject.Singleton;
+import com.spotify.apollo.core.Service;
+import com.spotify.apollo.module.AbstractApolloModule;
+import com.spotify.apollo.module.ApolloModule;
+
+/**
+ * Module that provides an {@link HttpServer} which serves requests over HTTP/1.1, with support
+ * for keep-alive and pipelining.
+ *
+ * <p>The server is closed together with the {@link Service.Instance}.
+ *
+ * @see HttpServer
+ * @see com.spotify.apollo.environment.ApolloEnvironmentModule
+ */
+public class HttpServerModule extends AbstractApolloModule {
+
+  private HttpServerModule() {}
+
+  public static ApolloModule create() {
+    return new HttpServerModule();
+  }
+
+  /**
+   * Resolves the {@link HttpServer} of a service instance that was built with this module.
+   */
+  public static HttpServer server(Service.Instance instance) {
+    return instance.resolve(HttpServer.class);
+  }
+
+  @Override
+  protected void configure() {
+    bind(HttpServerConfig.class);
+    bind(HttpServer.class).to(NioHttpServer.class).in(Singleton.class);
+    manageLifecycle(HttpServer.class);
+  }
+
+  @Override
+  public String getId() {
+    return "http.server";
+  }
+}
@@ -0,0 +1,170 @@
+/*-
+ * -\-\-
+ * Spotify Apollo HTTP Server Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.server;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+
+import com.spotify.apollo.request.RequestHandler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * {@link HttpServer} built directly on java.nio. One acceptor thread hands connections to a
+ * fixed number of {@link EventLoop}s in round-robin order.
+ */
+class NioHttpServer implements HttpServer {
+
+  private static final Logger LOG = LoggerFactory.getLogger(NioHttpServer.class);
+
+  private static final int ACCEPT_BACKLOG = 1024;
+
+  private final HttpServerConfig config;
+
+  private final List<EventLoop> loops = new ArrayList<>();
+  private final List<Thread> threads = new ArrayList<>();
+  private ServerSocketChannel serverChannel;
+  private ExecutorService workers;
+  private volatile InetSocketAddress address;
+
+  @Inject
+  NioHttpServer(HttpServerConfig config) {
+    this.config = config;
+  }
+
+  @Override
+  public synchronized void start(RequestHandler requestHandler) {
+    checkState(serverChannel == null, "server already started");
+
+    final Executor dispatcher;
+    if (config.workerThreads() > 0) {
+      workers = new ThreadPoolExecutor(
+          config.workerThreads(), config.workerThreads(),
+          0L, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(config.workerQueueSize()),
+          threadFactory("apollo-http-worker-%d"));
+      dispatcher = workers;
+    } else {
+      dispatcher = MoreExecutors.directExecutor();
+    }
+
+    try {
+      serverChannel = ServerSocketChannel.open();
+      serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+      serverChannel.bind(new InetSocketAddress(config.address(), config.port()), ACCEPT_BACKLOG);
+      address = (InetSocketAddress) serverChannel.getLocalAddress();
+
+      final ThreadFactory loopThreads = threadFactory("apollo-http-loop-%d");
+      for (int i = 0; i < Math.max(1, config.eventLoopThreads()); i++) {
+        final EventLoop loop = new EventLoop(config, requestHandler, dispatcher);
+        loops.add(loop);
+        threads.add(loopThreads.newThread(loop));
+      }
+    } catch (IOException e) {
+      close();
+      throw new UncheckedIOException("Failed to start http server", e);
+    }
+
+    threads.add(threadFactory("apollo-http-acceptor").newThread(this::accept));
+    threads.forEach(Thread::start);
+
+    LOG.info("Started http server on {}", address);
+  }
+
+  @Override
+  public InetSocketAddress address() {
+    checkState(address != null, "server not started");
+    return address;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (serverChannel != null) {
+      try {
+        serverChannel.close();
+      } catch (IOException e) {
+        LOG.warn("Failed to close server channel", e);
+      }
+    }
+    loops.forEach(EventLoop::shutdown);
+    for (Thread thread : threads) {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    if (workers != null) {
+      workers.shutdown();
+    }
+  }
+
+  private void accept() {
+    int next = 0;
+    while (true) {
+      final SocketChannel channel;
+      try {
+        channel = serverChannel.accept();
+      } catch (ClosedChannelException e) {
+        return;
+      } catch (IOException e) {
+        LOG.warn("Failed to accept connection", e);
+        continue;
+      }
+
+      try {
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      } catch (IOException e) {
+        LOG.debug("Failed to set TCP_NODELAY on {}", channel, e);
+      }
+
+      loops.get(next).register(channel);
+      next = (next + 1) % loops.size();
+    }
+  }
+
+  private static ThreadFactory threadFactory(String nameFormat) {
+    return new ThreadFactoryBuilder()
+        .setNameFormat(nameFormat)
+        .setDaemon(true)
+        .build();
+  }
+}
@@ -0,0 +1,81 @@
+/*-
+ * -\-\-
+ * Spotify Apollo HTTP Server Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.server;
+
+import java.util.Map;
+
+import okio.ByteString;
+
+/**
+ * A complete HTTP request as read off the wire by {@link HttpRequestParser}.
+ */
+final class ParsedRequest {
+
+  private final String method;
+  private final String target;
+  private final boolean http10;
+  private final Map<String, String> headers;
+  private final ByteString body;
+  private final boolean keepAlive;
+
+  ParsedRequest(String method,
+                String target,
+                boolean http10,
+                Map<String, String> headers,
+                ByteString body,
+                boolean keepAlive) {
+    this.method = method;
+    this.target = target;
+    this.http10 = http10;
+    this.headers = headers;
+    this.body = body;
+    this.keepAlive = keepAlive;
+  }
+
+  String method() {
+    return method;
+  }
+
+  /**
+   * The request-target, either in origin-form ({@code /path?query}) or absolute-form.
+   */
+  String target() {
+    return target;
+  }
+
+  boolean isHttp10() {
+    return http10;
+  }
+
+  /**
+   * Request headers in arrival order. Repeated headers are joined with {@code ", "}.
+   */
+  Map<String, String> headers() {
+    return headers;
+  }
+
+  ByteString body() {
+    return body;
+  }
+
+  boolean keepAlive() {
+    return keepAlive;
+  }
+}
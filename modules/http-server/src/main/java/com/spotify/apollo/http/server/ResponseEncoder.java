@@ -0,0 +1,124 @@
+/*-
+ * -\-\-
+ * Spotify Apollo HTTP Server Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.server;
+
+import com.spotify.apollo.Response;
+import com.spotify.apollo.StatusType;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import okio.ByteString;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Encodes apollo responses into HTTP/1.1 wire format.
+ *
+ * The status line and headers are written into a single heap buffer, while the payload is
+ * passed along as a read-only view of the response {@link ByteString}, so the body is never
+ * copied before it hits the socket.
+ */
+final class ResponseEncoder {
+
+  private ResponseEncoder() {
+  }
+
+  /**
+   * Encodes the response.
+   *
+   * @param response    the response to encode
+   * @param keepAlive   whether the connection will be kept open after this response
+   * @param http10      whether the request was an HTTP/1.0 request
+   * @param headRequest whether the request was a HEAD request, in which case no body is sent
+   */
+  static ByteBuffer[] encode(Response<ByteString> response,
+                             boolean keepAlive,
+                             boolean http10,
+                             boolean headRequest) {
+    final StatusType status = response.status();
+    final ByteString payload = response.payload().orElse(ByteString.EMPTY);
+    final boolean bodyAllowed = bodyAllowed(status.code());
+
+    final StringBuilder head = new StringBuilder(128);
+    head.append(http10 ? "HTTP/1.0 " : "HTTP/1.1 ")
+        .append(status.code())
+        .append(' ');
+    appendSanitized(head, status.reasonPhrase());
+    head.append("\r\n");
+
+    boolean hasContentLength = false;
+    for (Map.Entry<String, String> header : response.headerEntries()) {
+      final String name = header.getKey();
+      if ("connection".equalsIgnoreCase(name) || "transfer-encoding".equalsIgnoreCase(name)) {
+        // framing is owned by the server
+        continue;
+      }
+      if ("content-length".equalsIgnoreCase(name)) {
+        if (!bodyAllowed) {
+          continue;
+        }
+        hasContentLength = true;
+      }
+      appendSanitized(head, name);
+      head.append(": ");
+      appendSanitized(head, header.getValue());
+      head.append("\r\n");
+    }
+
+    if (bodyAllowed && !hasContentLength) {
+      head.append("Content-Length: ").append(payload.size()).append("\r\n");
+    }
+    if (!keepAlive) {
+      head.append("Connection: close\r\n");
+    } else if (http10) {
+      head.append("Connection: keep-alive\r\n");
+    }
+    head.append("\r\n");
+
+    final ByteBuffer headBuffer = ByteBuffer.wrap(head.toString().getBytes(ISO_8859_1));
+    if (!bodyAllowed || headRequest || payload.size() == 0) {
+      return new ByteBuffer[]{headBuffer};
+    }
+    return new ByteBuffer[]{headBuffer, payload.asByteBuffer()};
+  }
+
+  /**
+   * Encodes an interim {@code 100 Continue} response.
+   */
+  static ByteBuffer[] encodeContinue() {
+    return new ByteBuffer[]{ByteBuffer.wrap("HTTP/1.1 100 Continue\r\n\r\n".getBytes(ISO_8859_1))};
+  }
+
+  // RFC 7230 3.3: 1xx, 204 and 304 responses never have a body
+  private static boolean bodyAllowed(int code) {
+    return code >= 200 && code != 204 && code != 304;
+  }
+
+  private static void appendSanitized(StringBuilder sb, String value) {
+    if (value == null) {
+      return;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      final char c = value.charAt(i);
+      sb.append(c == '\r' || c == '\n' ? ' ' : c);
+    }
+  }
+}
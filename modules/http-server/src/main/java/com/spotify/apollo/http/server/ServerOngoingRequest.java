@@ -0,0 +1,121 @@
+/*-
+ * -\-\-
+ * Spotify Apollo HTTP Server Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.server;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.RequestMetadata;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.request.OngoingRequest;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okio.ByteString;
+
+/**
+ * An {@link OngoingRequest} received on an {@link HttpConnection}. The first call to either
+ * {@link #reply(Response)} or {@link #drop()} wins, later calls are ignored.
+ */
+final class ServerOngoingRequest implements OngoingRequest {
+
+  private final Request request;
+  private final RequestMetadata metadata;
+  private final long arrivalTimeNanos;
+  private final long ttlNanos;
+  private final HttpConnection connection;
+  private final HttpConnection.ResponseSlot slot;
+  private final AtomicBoolean replied = new AtomicBoolean();
+  private volatile OptionalLong dispatchTimeNanos = OptionalLong.empty();
+
+  ServerOngoingRequest(Request request,
+                       RequestMetadata metadata,
+                       long arrivalTimeNanos,
+                       long ttlNanos,
+                       HttpConnection connection,
+                       HttpConnection.ResponseSlot slot) {
+    this.request = request;
+    this.metadata = metadata;
+    this.arrivalTimeNanos = arrivalTimeNanos;
+    this.ttlNanos = ttlNanos;
+    this.connection = connection;
+    this.slot = slot;
+  }
+
+  @Override
+  public Request request() {
+    return request;
+  }
+
+  @Override
+  public void reply(Response<ByteString> response) {
+    if (replied.compareAndSet(false, true)) {
+      connection.reply(slot, response);
+    }
+  }
+
+  /**
+   * Dropping a request closes its connection, since HTTP/1.1 has no way of telling the client
+   * that one of its requests will never get a response.
+   */
+  @Override
+  public void drop() {
+    if (replied.compareAndSet(false, true)) {
+      connection.drop();
+    }
+  }
+
+  @Override
+  public boolean isExpired() {
+    return System.nanoTime() - arrivalTimeNanos > ttlNanos;
+  }
+
+  @Override
+  public boolean onReplyWritten(Runnable listener) {
+    slot.onWritten(listener);
+    return true;
+  }
+
+  @Override
+  public OptionalLong deadlineNanos() {
+    return OptionalLong.of(arrivalTimeNanos + ttlNanos);
+  }
+
+  /**
+   * Records that a worker thread has started handling this request.
+   */
+  void dispatched(long nanoTime) {
+    dispatchTimeNanos = OptionalLong.of(nanoTime);
+  }
+
+  @Override
+  public OptionalLong dispatchTimeNanos() {
+    return dispatchTimeNanos;
+  }
+
+  @Override
+  public long arrivalTimeNanos() {
+    return arrivalTimeNanos;
+  }
+
+  @Override
+  public RequestMetadata metadata() {
+    return metadata;
+  }
+}
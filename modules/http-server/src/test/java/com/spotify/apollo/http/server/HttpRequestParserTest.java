@@ -0,0 +1,175 @@
+/*-
+ * -\-\-
+ * Spotify Apollo HTTP Server Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.server;
+
+import com.spotify.apollo.Status;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import okio.ByteString;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.fail;
+
+public class HttpRequestParserTest {
+
+  private final HttpRequestParser parser = new HttpRequestParser(1024, 64);
+
+  @Test
+  public void shouldParseSimpleRequest() throws Exception {
+    ParsedRequest request = parse("GET /foo?bar=baz HTTP/1.1\r\nHost: example.com\r\n\r\n");
+
+    assertThat(request.method(), is("GET"));
+    assertThat(request.target(), is("/foo?bar=baz"));
+    assertThat(request.isHttp10(), is(false));
+    assertThat(request.headers().get("Host"), is("example.com"));
+    assertThat(request.body(), is(ByteString.EMPTY));
+    assertThat(request.keepAlive(), is(true));
+  }
+
+  @Test
+  public void shouldParseRequestFedOneByteAtATime() throws Exception {
+    byte[] bytes = "POST /foo HTTP/1.1\r\nContent-Length: 5\r\n\r\nhello".getBytes(ISO_8859_1);
+    ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
+
+    ParsedRequest request = null;
+    for (byte b : bytes) {
+      assertThat(request, is(nullValue()));
+      buffer.put(b);
+      buffer.flip();
+      request = parser.parse(buffer);
+      buffer.compact();
+    }
+
+    assertThat(request.body().utf8(), is("hello"));
+  }
+
+  @Test
+  public void shouldParsePipelinedRequests() throws Exception {
+    ByteBuffer buffer = bytes("GET /a HTTP/1.1\r\n\r\nGET /b HTTP/1.1\r\n\r\n");
+
+    assertThat(parser.parse(buffer).target(), is("/a"));
+    assertThat(parser.parse(buffer).target(), is("/b"));
+    assertThat(parser.parse(buffer), is(nullValue()));
+  }
+
+  @Test
+  public void shouldParseChunkedBody() throws Exception {
+    ParsedRequest request = parse("POST / HTTP/1.1\r\nTransfer-Encoding: chunked\r\n\r\n"
+                                  + "5;ext=1\r\nhello\r\n6\r\n world\r\n0\r\nX-Trailer: 1\r\n\r\n");
+
+    assertThat(request.body().utf8(), is("hello world"));
+  }
+
+  @Test
+  public void shouldJoinRepeatedHeaders() throws Exception {
+    ParsedRequest request = parse("GET / HTTP/1.1\r\nAccept: a\r\naccept: b\r\n\r\n");
+
+    assertThat(request.headers().get("Accept"), is("a, b"));
+  }
+
+  @Test
+  public void shouldHandleKeepAliveRules() throws Exception {
+    assertThat(parse("GET / HTTP/1.1\r\nConnection: close\r\n\r\n").keepAlive(), is(false));
+    assertThat(parse("GET / HTTP/1.0\r\n\r\n").keepAlive(), is(false));
+    assertThat(parse("GET / HTTP/1.0\r\nConnection: Keep-Alive\r\n\r\n").keepAlive(), is(true));
+  }
+
+  @Test
+  public void shouldNotKeepAliveIfBothContentLengthAndChunked() throws Exception {
+    ParsedRequest request = parse("POST / HTTP/1.1\r\nContent-Length: 3\r\n"
+                                  + "Transfer-Encoding: chunked\r\n\r\n0\r\n\r\n");
+
+    assertThat(request.keepAlive(), is(false));
+  }
+
+  @Test
+  public void shouldRequestContinue() throws Exception {
+    assertThat(parser.parse(bytes("PUT / HTTP/1.1\r\nContent-Length: 1\r\n"
+                                  + "Expect: 100-continue\r\n\r\n")), is(nullValue()));
+    assertThat(parser.takeExpectContinue(), is(true));
+    assertThat(parser.takeExpectContinue(), is(false));
+  }
+
+  @Test
+  public void shouldRejectMalformedRequestLine() throws Exception {
+    assertFailsWith("GARBAGE\r\n\r\n", Status.BAD_REQUEST.code());
+  }
+
+  @Test
+  public void shouldRejectUnsupportedVersion() throws Exception {
+    assertFailsWith("GET / HTTP/2.0\r\n\r\n", 505);
+  }
+
+  @Test
+  public void shouldRejectInvalidContentLength() throws Exception {
+    assertFailsWith("POST / HTTP/1.1\r\nContent-Length: -1\r\n\r\n", Status.BAD_REQUEST.code());
+  }
+
+  @Test
+  public void shouldRejectConflictingContentLengths() throws Exception {
+    assertFailsWith("POST / HTTP/1.1\r\nContent-Length: 1\r\nContent-Length: 2\r\n\r\n",
+                    Status.BAD_REQUEST.code());
+  }
+
+  @Test
+  public void shouldRejectTooLargeBody() throws Exception {
+    assertFailsWith("POST / HTTP/1.1\r\nContent-Length: 65\r\n\r\n",
+                    Status.REQUEST_ENTITY_TOO_LARGE.code());
+  }
+
+  @Test
+  public void shouldRejectTooLargeHead() throws Exception {
+    StringBuilder request = new StringBuilder("GET / HTTP/1.1\r\n");
+    while (request.length() < 2048) {
+      request.append("X-Padding: xxxxxxxxxxxxxxxxxxxxxxxxxxxxxxxx\r\n");
+    }
+    assertFailsWith(request.toString(), 431);
+  }
+
+  @Test
+  public void shouldRejectUnknownTransferEncoding() throws Exception {
+    assertFailsWith("POST / HTTP/1.1\r\nTransfer-Encoding: gzip\r\n\r\n",
+                    Status.NOT_IMPLEMENTED.code());
+  }
+
+  private ParsedRequest parse(String request) throws HttpParseException {
+    return new HttpRequestParser(1024, 64).parse(bytes(request));
+  }
+
+  private void assertFailsWith(String request, int code) {
+    try {
+      parser.parse(bytes(request));
+      fail("expected parse failure");
+    } catch (HttpParseException e) {
+      assertThat(e.status().code(), equalTo(code));
+    }
+  }
+
+  private static ByteBuffer bytes(String s) {
+    return ByteBuffer.wrap(s.getBytes(ISO_8859_1));
+  }
+}
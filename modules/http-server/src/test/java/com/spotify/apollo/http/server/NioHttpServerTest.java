@@ -0,0 +1,312 @@
+/*-
+ * -\-\-
+ * Spotify Apollo HTTP Server Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.server;
+
+import com.google.common.collect.ImmutableMap;
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+import com.spotify.apollo.request.OngoingRequest;
+import com.typesafe.config.ConfigFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import okio.ByteString;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+
+public class NioHttpServerTest {
+
+  private ScheduledExecutorService executor;
+  private NioHttpServer server;
+  private InetSocketAddress address;
+  private final CountDownLatch written = new CountDownLatch(1);
+
+  @Before
+  public void setUp() throws Exception {
+    executor = Executors.newSingleThreadScheduledExecutor();
+    server = new NioHttpServer(new HttpServerConfig(ConfigFactory.parseMap(ImmutableMap.of(
+        "http.server.address", "127.0.0.1",
+        "http.server.port", 0,
+        "http.server.eventLoopThreads", 2))));
+    server.start(this::handle);
+    address = server.address();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.close();
+    executor.shutdownNow();
+  }
+
+  private void handle(OngoingRequest ongoingRequest) {
+    final String uri = ongoingRequest.request().uri();
+    final String body = ongoingRequest.request().payload().map(ByteString::utf8).orElse("-");
+    final Response<ByteString> response = Response.forPayload(
+        ByteString.encodeUtf8(ongoingRequest.request().method() + " " + uri + " " + body));
+
+    if (uri.endsWith("/slow")) {
+      executor.schedule(() -> ongoingRequest.reply(response), 100, TimeUnit.MILLISECONDS);
+    } else if (uri.endsWith("/empty")) {
+      ongoingRequest.reply(Response.forStatus(Status.NO_CONTENT));
+    } else if (uri.endsWith("/drop")) {
+      ongoingRequest.drop();
+    } else if (uri.endsWith("/thread")) {
+      ongoingRequest.reply(
+          Response.forPayload(ByteString.encodeUtf8(Thread.currentThread().getName())));
+    } else if (uri.endsWith("/written")) {
+      ongoingRequest.onReplyWritten(written::countDown);
+      ongoingRequest.reply(response);
+    } else if (uri.endsWith("/call")) {
+      // replies with the ttl and ttl header of an outgoing call made while handling the request
+      final IncomingRequestAwareClient downstream = (request, incoming) ->
+          CompletableFuture.completedFuture(Response.forPayload(ByteString.encodeUtf8(
+              request.ttl().map(Duration::toMillis).orElse(-1L) + " "
+              + request.header(HttpConnection.TTL_HEADER).orElse("-"))));
+      downstream.wrapRequest(ongoingRequest.request(), ongoingRequest.metadata().arrivalTime())
+          .send(Request.forUri("http://downstream/"))
+          .thenAccept(ongoingRequest::reply);
+    } else if (uri.endsWith("/dispatched")) {
+      final boolean afterArrival = ongoingRequest.dispatchTimeNanos().isPresent()
+          && ongoingRequest.dispatchTimeNanos().getAsLong() >= ongoingRequest.arrivalTimeNanos();
+      ongoingRequest.reply(
+          Response.forPayload(ByteString.encodeUtf8("dispatched " + afterArrival)));
+    } else {
+      ongoingRequest.reply(response);
+    }
+  }
+
+  @Test
+  public void shouldServeRequest() throws Exception {
+    String response = exchange("GET /foo?bar=baz HTTP/1.1\r\n"
+                               + "Host: example.com\r\n"
+                               + "Connection: close\r\n\r\n");
+
+    assertThat(response, startsWith("HTTP/1.1 200 OK\r\n"));
+    assertThat(response, containsString("Content-Length: 36\r\n"));
+    assertThat(response, containsString("Connection: close\r\n"));
+    assertThat(response, containsString("\r\n\r\nGET http://example.com/foo?bar=baz -"));
+  }
+
+  @Test
+  public void shouldReportDispatchTime() throws Exception {
+    String response = exchange("GET /dispatched HTTP/1.1\r\nHost: h\r\n"
+                               + "Connection: close\r\n\r\n");
+
+    assertThat(response, containsString("\r\n\r\ndispatched true"));
+  }
+
+  @Test
+  public void shouldHandleRequestsOnWorkerThreads() throws Exception {
+    String response = exchange("GET /thread HTTP/1.1\r\nHost: h\r\n"
+                               + "Connection: close\r\n\r\n");
+
+    assertThat(response, containsString("\r\n\r\napollo-http-worker-"));
+  }
+
+  @Test
+  public void shouldPropagateCallerTtlToOutgoingCalls() throws Exception {
+    String response = exchange("GET /call HTTP/1.1\r\nHost: h\r\n"
+                               + "X-Apollo-Ttl-Millis: 500\r\n"
+                               + "Connection: close\r\n\r\n");
+
+    final String[] outgoing = response.substring(response.indexOf("\r\n\r\n") + 4).split(" ");
+    assertThat(Long.parseLong(outgoing[0]), allOf(greaterThan(0L), lessThanOrEqualTo(500L)));
+    assertThat(outgoing[1], is(outgoing[0]));
+  }
+
+  @Test
+  public void shouldPropagateServerTtlToOutgoingCalls() throws Exception {
+    String response = exchange("GET /call HTTP/1.1\r\nHost: h\r\n"
+                               + "X-Apollo-Ttl-Millis: 60000\r\n"
+                               + "Connection: close\r\n\r\n");
+
+    final String[] outgoing = response.substring(response.indexOf("\r\n\r\n") + 4).split(" ");
+    assertThat(Long.parseLong(outgoing[0]), allOf(greaterThan(500L), lessThanOrEqualTo(30_000L)));
+    assertThat(outgoing[1], is(outgoing[0]));
+  }
+
+  @Test
+  public void shouldReportWrittenReplies() throws Exception {
+    String response = exchange("GET /written HTTP/1.1\r\nHost: h\r\n"
+                               + "Connection: close\r\n\r\n");
+
+    assertThat(response, containsString("GET http://h/written -"));
+    assertThat(written.await(1, TimeUnit.SECONDS), is(true));
+  }
+
+  @Test
+  public void shouldKeepConnectionAlive() throws Exception {
+    try (Socket socket = connect()) {
+      for (int i = 0; i < 3; i++) {
+        write(socket, "GET /foo HTTP/1.1\r\nHost: h\r\n\r\n");
+        assertThat(readResponse(socket.getInputStream()), containsString("GET http://h/foo -"));
+      }
+    }
+  }
+
+  @Test
+  public void shouldWritePipelinedResponsesInOrder() throws Exception {
+    String response = exchange("GET /slow HTTP/1.1\r\nHost: h\r\n\r\n"
+                               + "GET /fast HTTP/1.1\r\nHost: h\r\n\r\n"
+                               + "GET /empty HTTP/1.1\r\nHost: h\r\nConnection: close\r\n\r\n");
+
+    int slow = response.indexOf("http://h/slow");
+    int fast = response.indexOf("http://h/fast");
+    int empty = response.indexOf("HTTP/1.1 204 No Content");
+
+    assertThat(slow, not(-1));
+    assertThat(slow, lessThan(fast));
+    assertThat(fast, lessThan(empty));
+  }
+
+  @Test
+  public void shouldReadContentLengthBody() throws Exception {
+    String response = exchange("POST /foo HTTP/1.1\r\nHost: h\r\nContent-Length: 5\r\n"
+                               + "Connection: close\r\n\r\nhello");
+
+    assertThat(response, containsString("POST http://h/foo hello"));
+  }
+
+  @Test
+  public void shouldReadChunkedBody() throws Exception {
+    String response = exchange("POST /foo HTTP/1.1\r\nHost: h\r\nTransfer-Encoding: chunked\r\n"
+                               + "Connection: close\r\n\r\n3\r\nhel\r\n2\r\nlo\r\n0\r\n\r\n");
+
+    assertThat(response, containsString("POST http://h/foo hello"));
+  }
+
+  @Test
+  public void shouldSendContinueForPipelinedRequest() throws Exception {
+    try (Socket socket = connect()) {
+      write(socket, "GET /slow HTTP/1.1\r\nHost: h\r\n\r\n"
+                    + "POST /foo HTTP/1.1\r\nHost: h\r\nContent-Length: 5\r\n"
+                    + "Expect: 100-continue\r\n\r\n");
+
+      final InputStream in = socket.getInputStream();
+      assertThat(readResponse(in), containsString("GET http://h/slow -"));
+      assertThat(readResponse(in), startsWith("HTTP/1.1 100 Continue\r\n"));
+
+      write(socket, "hello");
+      assertThat(readResponse(in), containsString("POST http://h/foo hello"));
+    }
+  }
+
+  @Test
+  public void shouldNotSendBodyForHead() throws Exception {
+    String response = exchange("HEAD /foo HTTP/1.0\r\nHost: h\r\n\r\n");
+
+    assertThat(response, containsString("Content-Length: 19\r\n"));
+    assertThat(response, not(containsString("http://h/foo")));
+  }
+
+  @Test
+  public void shouldRespondBadRequestToMalformedRequest() throws Exception {
+    String response = exchange("this is not http\r\n\r\n");
+
+    assertThat(response, startsWith("HTTP/1.1 400 Bad Request\r\n"));
+    assertThat(response, containsString("Connection: close\r\n"));
+  }
+
+  @Test
+  public void shouldCloseConnectionOnDrop() throws Exception {
+    assertThat(exchange("GET /drop HTTP/1.1\r\nHost: h\r\n\r\n"), is(""));
+  }
+
+  private Socket connect() throws IOException {
+    final Socket socket = new Socket(address.getAddress(), address.getPort());
+    socket.setSoTimeout(5000);
+    return socket;
+  }
+
+  private String exchange(String request) throws IOException {
+    try (Socket socket = connect()) {
+      write(socket, request);
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      final byte[] buffer = new byte[4096];
+      int read;
+      while ((read = socket.getInputStream().read(buffer)) >= 0) {
+        out.write(buffer, 0, read);
+      }
+      return new String(out.toByteArray(), ISO_8859_1);
+    }
+  }
+
+  private static void write(Socket socket, String data) throws IOException {
+    socket.getOutputStream().write(data.getBytes(ISO_8859_1));
+    socket.getOutputStream().flush();
+  }
+
+  /**
+   * Reads a single response that has a Content-Length header.
+   */
+  static String readResponse(InputStream in) throws IOException {
+    final StringBuilder head = new StringBuilder();
+    while (!head.toString().endsWith("\r\n\r\n")) {
+      final int b = in.read();
+      if (b < 0) {
+        throw new IOException("unexpected end of stream");
+      }
+      head.append((char) b);
+    }
+
+    int contentLength = 0;
+    for (String line : head.toString().split("\r\n")) {
+      if (line.toLowerCase().startsWith("content-length:")) {
+        contentLength = Integer.parseInt(line.substring("content-length:".length()).trim());
+      }
+    }
+
+    final byte[] body = new byte[contentLength];
+    int offset = 0;
+    while (offset < contentLength) {
+      final int read = in.read(body, offset, contentLength - offset);
+      if (read < 0) {
+        throw new IOException("unexpected end of stream");
+      }
+      offset += read;
+    }
+    return head + new String(body, ISO_8859_1);
+  }
+}
@@ -0,0 +1,236 @@
+/*-
+ * -\-\-
+ * Spotify Apollo HTTP Server Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.server.benchmark;
+
+import com.google.common.collect.ImmutableMap;
+import com.spotify.apollo.Environment;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.core.Service;
+import com.spotify.apollo.core.Services;
+import com.spotify.apollo.environment.ApolloEnvironmentModule;
+import com.spotify.apollo.http.server.HttpServer;
+import com.spotify.apollo.http.server.HttpServerModule;
+import com.spotify.apollo.request.RequestHandler;
+import com.spotify.apollo.route.Route;
+import com.spotify.apollo.test.ServiceHelper;
+import com.typesafe.config.ConfigFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import okio.ByteString;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Measures round trips through the server over a real socket, one request at a time and in
+ * pipelined batches, to an apollo route that replies immediately. The same route called through
+ * {@link ServiceHelper}, which skips the network, is the baseline.
+ */
+@State(Scope.Thread)
+public class HttpServerBenchmark {
+
+  private static final int PIPELINE_DEPTH = 16;
+
+  private static final byte[] REQUEST =
+      "GET /ping HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(ISO_8859_1);
+  private static final ByteString PONG = ByteString.encodeUtf8("pong");
+
+  static void init(Environment environment) {
+    environment.routingEngine()
+        .registerAutoRoute(Route.sync("GET", "/ping", requestContext -> Response.forPayload(PONG)));
+  }
+
+  @State(Scope.Benchmark)
+  public static class Server {
+    private Service.Instance instance;
+    private InetSocketAddress address;
+
+    @Setup
+    public void start() throws IOException {
+      final Service service = Services.usingName("benchmark")
+          .usingModuleDiscovery(false)
+          .withModule(ApolloEnvironmentModule.create())
+          .withModule(HttpServerModule.create())
+          .build();
+
+      instance = service.start(new String[0], ConfigFactory.parseMap(ImmutableMap.of(
+          "http.server.address", "127.0.0.1",
+          "http.server.port", 0)));
+
+      final RequestHandler handler =
+          ApolloEnvironmentModule.environment(instance).initialize(HttpServerBenchmark::init);
+      final HttpServer server = HttpServerModule.server(instance);
+      server.start(handler);
+      address = server.address();
+    }
+
+    @TearDown
+    public void stop() throws IOException {
+      instance.close();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class InProcess {
+    private final ServiceHelper serviceHelper =
+        ServiceHelper.create(HttpServerBenchmark::init, "benchmark");
+
+    @Setup
+    public void start() throws InterruptedException {
+      serviceHelper.start();
+    }
+
+    @TearDown
+    public void stop() throws IOException {
+      serviceHelper.close();
+    }
+  }
+
+  private Socket socket;
+  private OutputStream out;
+  private InputStream in;
+  private byte[] pipelined;
+  private final byte[] buffer = new byte[64 * 1024];
+  private int responseSize;
+
+  @Setup(Level.Trial)
+  public void connect(Server server) throws IOException {
+    socket = new Socket(server.address.getAddress(), server.address.getPort());
+    socket.setTcpNoDelay(true);
+    out = socket.getOutputStream();
+    in = socket.getInputStream();
+
+    pipelined = new byte[REQUEST.length * PIPELINE_DEPTH];
+    for (int i = 0; i < PIPELINE_DEPTH; i++) {
+      System.arraycopy(REQUEST, 0, pipelined, i * REQUEST.length, REQUEST.length);
+    }
+
+    // all responses are identical, so learn the size from the first one
+    out.write(REQUEST);
+    responseSize = readResponseSize();
+  }
+
+  @TearDown(Level.Trial)
+  public void disconnect() throws IOException {
+    socket.close();
+  }
+
+  public static void main(String... args) throws IOException, RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(HttpServerBenchmark.class.getSimpleName())
+        .warmupIterations(5)
+        .measurementIterations(10)
+        .threads(1)
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Response<ByteString> serviceHelper(InProcess inProcess)
+      throws ExecutionException, InterruptedException {
+    return inProcess.serviceHelper.request("GET", "/ping").toCompletableFuture().get();
+  }
+
+  @Benchmark
+  @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int keepAlive() throws IOException {
+    out.write(REQUEST);
+    return readFully(responseSize);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @OperationsPerInvocation(PIPELINE_DEPTH)
+  public int pipelined() throws IOException {
+    out.write(pipelined);
+    return readFully(responseSize * PIPELINE_DEPTH);
+  }
+
+  /**
+   * Reads a whole response, which must have a Content-Length header, and returns its size.
+   */
+  private int readResponseSize() throws IOException {
+    int total = 0;
+    while (true) {
+      final int read = in.read(buffer, total, buffer.length - total);
+      if (read < 0) {
+        throw new IOException("connection closed");
+      }
+      total += read;
+
+      final String received = new String(buffer, 0, total, US_ASCII);
+      final int headEnd = received.indexOf("\r\n\r\n");
+      if (headEnd < 0) {
+        continue;
+      }
+
+      int contentLength = 0;
+      for (String line : received.substring(0, headEnd).split("\r\n")) {
+        if (line.regionMatches(true, 0, "Content-Length:", 0, "Content-Length:".length())) {
+          contentLength = Integer.parseInt(line.substring("Content-Length:".length()).trim());
+        }
+      }
+
+      final int size = headEnd + 4 + contentLength;
+      readFully(size - total);
+      return size;
+    }
+  }
+
+  private int readFully(int size) throws IOException {
+    int total = 0;
+    while (total < size) {
+      final int read = in.read(buffer, 0, Math.min(buffer.length, size - total));
+      if (read < 0) {
+        throw new IOException("connection closed");
+      }
+      total += read;
+    }
+    return total;
+  }
+}
@@ -29,6 +29,7 @@ import com.spotify.metrics.ffwd.FastForwardReporter;
 import com.spotify.metrics.tags.EnvironmentTagExtractor;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
@@ -51,12 +52,16 @@ interface FfwdConfig {
 
     final int interval = optionalInt(config, "interval").orElse(DEFAULT_INTERVAL);
     final boolean flush = optionalBoolean(config, "flush").orElse(Boolean.TRUE);
+    final Optional<List<Double>> histogramQuantiles =
+        config.hasPath("histogram-quantiles")
+        ? Optional.of(config.getDoubleList("histogram-quantiles"))
+        : Optional.empty();
 
     switch (type) {
       case "agent":
         final Optional<String> host = optionalString(config, "host");
         final Optional<Integer> port = optionalInt(config, "port");
-        return new Agent(interval, flush, host, port);
+        return new Agent(interval, flush, host, port, histogramQuantiles);
       case "http":
         throw new RuntimeException("ffwd type 'http' no longer supported");
       default:
@@ -69,13 +74,15 @@ interface FfwdConfig {
     private final boolean flush;
     private final Optional<String> host;
     private final Optional<Integer> port;
+    private final Optional<List<Double>> histogramQuantiles;
 
     Agent(final int interval, final boolean flush, final Optional<String> host,
-     final Optional<Integer> port) {
+     final Optional<Integer> port, final Optional<List<Double>> histogramQuantiles) {
       this.interval = interval;
       this.flush = flush;
       this.host = host;
       this.port = port;
+      this.histogramQuantiles = histogramQuantiles;
     }
 
     int getInterval() {
@@ -94,6 +101,10 @@ interface FfwdConfig {
       return port;
     }
 
+    Optional<List<Double>> getHistogramQuantiles() {
+      return histogramQuantiles;
+    }
+
     @Override
     public Callable<FastForwardLifecycle> setup(
         final SemanticMetricRegistry metricRegistry, final MetricId metricId,
@@ -107,6 +118,8 @@ interface FfwdConfig {
 
       host.ifPresent(builder::host);
       port.ifPresent(builder::port);
+      histogramQuantiles.ifPresent(quantiles -> builder.histogramQuantiles(
+          quantiles.stream().mapToDouble(Double::doubleValue).toArray()));
 
       return () -> {
         final FastForwardReporter reporter = builder.build();
@@ -0,0 +1,203 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Metrics Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.metrics;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link Reservoir} that records every value into an HdrHistogram instead of keeping a sample,
+ * so that tail percentiles like p99 and p999 stay accurate at any request rate. Values are
+ * recorded without locking, with a precision of {@value #SIGNIFICANT_DIGITS} significant digits.
+ *
+ * <p>Each snapshot covers the values recorded since the previous one, which for a reporter means
+ * one reporting interval. A snapshot taken less than {@code minimumInterval} after the previous
+ * one returns the previous one again, so that several readers of the same histogram don't split
+ * an interval between them.
+ *
+ * <p>Snapshots taken within {@link #scraping(Runnable)} have intervals of their own, so that
+ * scraping the metrics doesn't take values away from the reporter, or the other way around.
+ */
+class HdrHistogramReservoir implements Reservoir {
+
+  private static final int SIGNIFICANT_DIGITS = 2;
+
+  private static final ThreadLocal<Boolean> SCRAPING = ThreadLocal.withInitial(() -> false);
+
+  private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+  private final long minimumIntervalNanos;
+  private final LongSupplier nanoTime;
+
+  // guarded by this
+  private final Interval reports;
+  private Interval scrapes;
+  private Histogram recycled;
+
+  HdrHistogramReservoir(long minimumIntervalNanos, LongSupplier nanoTime) {
+    this.minimumIntervalNanos = minimumIntervalNanos;
+    this.nanoTime = nanoTime;
+    this.reports = new Interval(nanoTime.getAsLong());
+  }
+
+  /**
+   * Runs {@code reading} with the snapshots that it takes on this thread covering the intervals
+   * between scrapes rather than those between reports.
+   */
+  static void scraping(Runnable reading) {
+    SCRAPING.set(true);
+    try {
+      reading.run();
+    } finally {
+      SCRAPING.set(false);
+    }
+  }
+
+  @Override
+  public synchronized int size() {
+    return reports.snapshot.size();
+  }
+
+  @Override
+  public void update(long value) {
+    recorder.recordValue(Math.max(0, value));
+  }
+
+  @Override
+  public synchronized Snapshot getSnapshot() {
+    final long now = nanoTime.getAsLong();
+    if (SCRAPING.get() && scrapes == null) {
+      // the recorder holds everything since the last report, so the first scrape covers that
+      scrapes = new Interval(now - minimumIntervalNanos);
+    }
+
+    final Interval interval = SCRAPING.get() ? scrapes : reports;
+    if (now - interval.startNanos >= minimumIntervalNanos) {
+      drainRecorder();
+      // the histogram is not recycled, since the previous snapshot may still be in use
+      interval.snapshot = new HistogramSnapshot(interval.pending);
+      interval.pending = new Histogram(SIGNIFICANT_DIGITS);
+      interval.startNanos = now;
+    }
+    return interval.snapshot;
+  }
+
+  private void drainRecorder() {
+    recycled = recorder.getIntervalHistogram(recycled);
+    reports.pending.add(recycled);
+    if (scrapes != null) {
+      scrapes.pending.add(recycled);
+    }
+  }
+
+  /**
+   * The values of one kind of reader: the latest snapshot, and those recorded since.
+   */
+  private static final class Interval {
+
+    private Histogram pending = new Histogram(SIGNIFICANT_DIGITS);
+    private HistogramSnapshot snapshot = new HistogramSnapshot(new Histogram(SIGNIFICANT_DIGITS));
+    private long startNanos;
+
+    Interval(long startNanos) {
+      this.startNanos = startNanos;
+    }
+  }
+
+  private static class HistogramSnapshot extends Snapshot {
+
+    private final Histogram histogram;
+
+    HistogramSnapshot(Histogram histogram) {
+      this.histogram = histogram;
+    }
+
+    @Override
+    public double getValue(double quantile) {
+      return histogram.getValueAtPercentile(quantile * 100);
+    }
+
+    /**
+     * Returns one value per recorded bucket rather than every recorded value, of which there
+     * may be millions.
+     */
+    @Override
+    public long[] getValues() {
+      final long[] values = new long[countBuckets()];
+      int i = 0;
+      for (HistogramIterationValue value : histogram.recordedValues()) {
+        values[i++] = value.getValueIteratedTo();
+      }
+      return values;
+    }
+
+    private int countBuckets() {
+      int buckets = 0;
+      for (HistogramIterationValue ignored : histogram.recordedValues()) {
+        buckets++;
+      }
+      return buckets;
+    }
+
+    @Override
+    public int size() {
+      return (int) Math.min(histogram.getTotalCount(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long getMax() {
+      return histogram.getMaxValue();
+    }
+
+    @Override
+    public double getMean() {
+      return histogram.getMean();
+    }
+
+    @Override
+    public long getMin() {
+      return histogram.getMinValue();
+    }
+
+    @Override
+    public double getStdDev() {
+      return histogram.getStdDeviation();
+    }
+
+    @Override
+    public void dump(OutputStream output) {
+      try (PrintWriter out =
+               new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+        for (long value : getValues()) {
+          out.printf("%d%n", value);
+        }
+      }
+    }
+  }
+}
@@ -24,11 +24,17 @@ import com.spotify.apollo.Client;
 import com.spotify.apollo.RequestContext;
 import com.spotify.apollo.environment.EndpointRunnableFactoryDecorator;
 import com.spotify.apollo.request.EndpointRunnableFactory;
+import com.spotify.apollo.request.OngoingRequest;
 import com.spotify.apollo.request.RequestContexts;
-import com.spotify.apollo.request.TrackedOngoingRequest;
+
+import java.util.OptionalLong;
+
+import static com.spotify.apollo.metrics.RequestPhase.QUEUE;
+import static com.spotify.apollo.metrics.RequestPhase.ROUTING;
 
 /**
- * An {@link EndpointRunnableFactory} that collects metrics
+ * An {@link EndpointRunnableFactory} that collects metrics, including the time spent in each
+ * {@link RequestPhase} of a request.
  */
 class MetricsCollectingEndpointRunnableFactoryDecorator implements EndpointRunnableFactoryDecorator {
 
@@ -42,26 +48,44 @@ class MetricsCollectingEndpointRunnableFactoryDecorator implements EndpointRunna
   @Override
   public EndpointRunnableFactory apply(EndpointRunnableFactory delegate) {
     return (request, requestContext, endpoint) -> {
+      final long matchedNanos = System.nanoTime();
       final String endpointName = endpoint.info().getName();
 
-      // note: will not time duration of matching and dispatching
       final RequestMetrics requestStats = metrics.metricsForEndpointCall(endpointName);
 
       requestStats.incoming(request.request());
+      recordQueueAndRouting(requestStats, request, requestContext.arrivalTimeNanos(), matchedNanos);
 
-      final TrackedOngoingRequest
+      final MetricsTrackingOngoingRequest
           trackedRequest = new MetricsTrackingOngoingRequest(requestStats, request);
       final Client instrumentingClient =
           new InstrumentingClient(requestContext.requestScopedClient(), trackedRequest);
-      final RequestContext instrumentingContext =
+      final RequestContext instrumentingContext = new MetricsTrackingRequestContext(
           RequestContexts.create(
               requestContext.request(),
               instrumentingClient,
               requestContext.pathArgs(),
               requestContext.arrivalTimeNanos(),
-              requestContext.metadata());
+              requestContext.metadata()),
+          trackedRequest);
 
-      return delegate.create(trackedRequest, instrumentingContext, endpoint);
+      final Runnable runnable = delegate.create(trackedRequest, instrumentingContext, endpoint);
+      return () -> {
+        trackedRequest.invoked();
+        runnable.run();
+      };
     };
   }
+
+  private static void recordQueueAndRouting(
+      RequestMetrics requestStats, OngoingRequest request, long arrivalNanos, long matchedNanos) {
+    final OptionalLong dispatchNanos = request.dispatchTimeNanos();
+    if (dispatchNanos.isPresent()) {
+      requestStats.phase(QUEUE, dispatchNanos.getAsLong() - arrivalNanos);
+      requestStats.phase(ROUTING, matchedNanos - dispatchNanos.getAsLong());
+    } else {
+      // the server doesn't say when it dispatched the request, so routing includes the queue
+      requestStats.phase(ROUTING, matchedNanos - arrivalNanos);
+    }
+  }
 }
@@ -22,19 +22,27 @@ package com.spotify.apollo.metrics;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Metric;
 import com.codahale.metrics.RatioGauge;
+import com.codahale.metrics.Reservoir;
 import com.codahale.metrics.jvm.FileDescriptorRatioGauge;
 import com.google.auto.service.AutoService;
+import com.google.inject.Inject;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.google.inject.multibindings.Multibinder;
 import com.google.inject.name.Named;
+import com.spotify.apollo.Response;
 import com.spotify.apollo.core.Services;
 import com.spotify.apollo.environment.ApolloConfig;
 import com.spotify.apollo.environment.EndpointRunnableFactoryDecorator;
+import com.spotify.apollo.environment.MetaRouteProvider;
 import com.spotify.apollo.metrics.semantic.MetricsConfig;
 import com.spotify.apollo.metrics.semantic.SemanticMetricsFactory;
 import com.spotify.apollo.module.AbstractApolloModule;
 import com.spotify.apollo.module.ApolloModule;
+import com.spotify.apollo.request.RequestTracker;
+import com.spotify.apollo.route.AsyncHandler;
+import com.spotify.apollo.route.Middleware;
+import com.spotify.apollo.route.Route;
 import com.spotify.metrics.core.MetricId;
 import com.spotify.metrics.core.ReservoirWithTtl;
 import com.spotify.metrics.core.SemanticMetricRegistry;
@@ -48,6 +56,10 @@ import com.typesafe.config.Config;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import okio.ByteString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +71,9 @@ import org.slf4j.LoggerFactory;
  *
  * Currently this module requires an external binding for a {@link MetricId} that
  * will be used as the ffwd prefix.
+ *
+ * If {@code metrics.openmetrics} is enabled, the metrics can also be scraped from
+ * {@code /_meta/0/metrics}, in the OpenMetrics text format.
  */
 @AutoService(ApolloModule.class)
 public class MetricsModule extends AbstractApolloModule {
@@ -82,15 +97,18 @@ public class MetricsModule extends AbstractApolloModule {
         .addBinding()
         .to(MetricsCollectingEndpointRunnableFactoryDecorator.class);
 
+    Multibinder.newSetBinder(binder(), MetaRouteProvider.class)
+        .addBinding()
+        .to(OpenMetricsMetaRoutes.class);
+
     manageLifecycle(FastForwardLifecycle.class);
   }
 
   @Provides
   @Singleton
   public SemanticMetricRegistry semanticMetricRegistry(MetricsConfig metricsConfig) {
-    final SemanticMetricRegistry metricRegistry = new SemanticMetricRegistry(
-      () -> new ReservoirWithTtl(metricsConfig.reservoirTtl()));
-
+    final SemanticMetricRegistry metricRegistry =
+        new SemanticMetricRegistry(reservoirSupplier(metricsConfig));
 
     LOG.info("Creating SemanticMetricRegistry");
 
@@ -124,10 +142,33 @@ public class MetricsModule extends AbstractApolloModule {
         return Collections.unmodifiableMap(gauges);
       }
     });
+    registerReaperLag(metricRegistry);
 
     return metricRegistry;
   }
 
+  @SuppressWarnings("deprecation")
+  private static void registerReaperLag(SemanticMetricRegistry metricRegistry) {
+    // all RequestTrackers are reaped by one thread, so a single gauge covers them
+    metricRegistry.register(
+        MetricId.build().tagged("what", "request-reaper-lag", "unit", "ns"),
+        (Gauge<Long>) RequestTracker::reaperLagNanos);
+  }
+
+  private static Supplier<Reservoir> reservoirSupplier(MetricsConfig metricsConfig) {
+    final String reservoir = metricsConfig.reservoir();
+    switch (reservoir) {
+      case "ttl":
+        final int ttl = metricsConfig.reservoirTtl();
+        return () -> new ReservoirWithTtl(ttl);
+      case "hdr":
+        final long interval = TimeUnit.SECONDS.toNanos(metricsConfig.reservoirInterval());
+        return () -> new HdrHistogramReservoir(interval, System::nanoTime);
+      default:
+        throw new RuntimeException("Unrecognized metrics reservoir: " + reservoir);
+    }
+  }
+
   @Provides
   @Singleton
   public MetricsFactory apolloMetrics(
@@ -168,4 +209,36 @@ public class MetricsModule extends AbstractApolloModule {
   public String getId() {
     return "metrics";
   }
+
+  static class OpenMetricsMetaRoutes implements MetaRouteProvider {
+
+    private final boolean enabled;
+    private final OpenMetricsExposition exposition;
+
+    @Inject
+    OpenMetricsMetaRoutes(SemanticMetricRegistry metricRegistry, MetricsConfig metricsConfig) {
+      this.enabled = metricsConfig.openMetrics();
+      this.exposition = new OpenMetricsExposition(
+          metricRegistry,
+          TimeUnit.MILLISECONDS.toNanos(metricsConfig.openMetricsCacheMillis()),
+          System::nanoTime);
+    }
+
+    @Override
+    public Stream<Route<? extends AsyncHandler<?>>> routes() {
+      if (!enabled) {
+        return Stream.empty();
+      }
+
+      return Stream.of(
+          Route.sync("GET", "/_meta/0/metrics", requestContext -> metrics())
+              .withDocString("The metrics of the service, in the OpenMetrics text format.", "")
+              .withMiddleware(Middleware::syncToAsync));
+    }
+
+    Response<ByteString> metrics() {
+      return Response.forPayload(exposition.scrape())
+          .withHeader("Content-Type", OpenMetricsExposition.CONTENT_TYPE);
+    }
+  }
 }
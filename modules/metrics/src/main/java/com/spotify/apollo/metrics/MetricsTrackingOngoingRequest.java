@@ -28,16 +28,24 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import okio.ByteString;
 
+import static com.spotify.apollo.metrics.RequestPhase.HANDLER;
+import static com.spotify.apollo.metrics.RequestPhase.REPLY;
+import static com.spotify.apollo.metrics.RequestPhase.SERIALIZATION;
 import static java.util.Objects.requireNonNull;
 
 class MetricsTrackingOngoingRequest
     extends ForwardingOngoingRequest
     implements TrackedOngoingRequest {
 
+  private static final long NOT_YET = Long.MIN_VALUE;
+
   private final RequestMetrics metrics;
 
   private final AtomicInteger requestCounter = new AtomicInteger();
 
+  private volatile long invokedNanos = NOT_YET;
+  private volatile long handledNanos = NOT_YET;
+
   MetricsTrackingOngoingRequest(
       RequestMetrics metrics,
       OngoingRequest ongoingRequest) {
@@ -47,9 +55,33 @@ class MetricsTrackingOngoingRequest
 
   @Override
   public void reply(Response<ByteString> message) {
+    recordEndpointPhases(System.nanoTime());
     metrics.fanout(requestCounter.get());
     metrics.response(message);
+
+    final long replyNanos = System.nanoTime();
+    final boolean reportsWrite =
+        onReplyWritten(() -> metrics.phase(REPLY, System.nanoTime() - replyNanos));
     super.reply(message);
+    if (!reportsWrite) {
+      metrics.phase(REPLY, System.nanoTime() - replyNanos);
+    }
+  }
+
+  private void recordEndpointPhases(long serializedNanos) {
+    final long invoked = invokedNanos;
+    if (invoked == NOT_YET) {
+      // replied to before the endpoint was invoked
+      return;
+    }
+
+    final long handled = handledNanos;
+    if (handled == NOT_YET) {
+      metrics.phase(HANDLER, serializedNanos - invoked);
+    } else {
+      metrics.phase(HANDLER, handled - invoked);
+      metrics.phase(SERIALIZATION, serializedNanos - handled);
+    }
   }
 
   @Override
@@ -58,6 +90,23 @@ class MetricsTrackingOngoingRequest
     super.drop();
   }
 
+  /**
+   * Marks the start of the endpoint invocation.
+   */
+  void invoked() {
+    invokedNanos = System.nanoTime();
+  }
+
+  /**
+   * Marks the completion of the handler, before the response is serialized. Only the first call
+   * counts.
+   */
+  void handlerCompleted() {
+    if (handledNanos == NOT_YET) {
+      handledNanos = System.nanoTime();
+    }
+  }
+
   /**
    * Increment number of downstream calls associated with this request.
    */
@@ -0,0 +1,77 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Metrics Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.metrics;
+
+import com.spotify.apollo.Client;
+import com.spotify.apollo.Request;
+import com.spotify.apollo.RequestContext;
+import com.spotify.apollo.RequestMetadata;
+import com.spotify.apollo.request.HandlerCompletionListener;
+
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link RequestContext} that tells its {@link MetricsTrackingOngoingRequest} when the handler
+ * has completed.
+ */
+class MetricsTrackingRequestContext implements RequestContext, HandlerCompletionListener {
+
+  private final RequestContext delegate;
+  private final MetricsTrackingOngoingRequest trackedRequest;
+
+  MetricsTrackingRequestContext(
+      RequestContext delegate,
+      MetricsTrackingOngoingRequest trackedRequest) {
+    this.delegate = requireNonNull(delegate);
+    this.trackedRequest = requireNonNull(trackedRequest);
+  }
+
+  @Override
+  public Request request() {
+    return delegate.request();
+  }
+
+  @Override
+  public Client requestScopedClient() {
+    return delegate.requestScopedClient();
+  }
+
+  @Override
+  public Map<String, String> pathArgs() {
+    return delegate.pathArgs();
+  }
+
+  @Override
+  public long arrivalTimeNanos() {
+    return delegate.arrivalTimeNanos();
+  }
+
+  @Override
+  public RequestMetadata metadata() {
+    return delegate.metadata();
+  }
+
+  @Override
+  public void handlerCompleted() {
+    trackedRequest.handlerCompleted();
+  }
+}
@@ -0,0 +1,348 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Metrics Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.spotify.metrics.core.MetricId;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import okio.Buffer;
+import okio.ByteString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Renders the metrics of a {@link SemanticMetricRegistry} in the
+ * <a href="https://openmetrics.io/">OpenMetrics</a> text format.
+ *
+ * <p>The "what" tag of a metric, or its key if it has no such tag, becomes the name of the
+ * metric family, and the other tags become labels. Gauges are rendered as gauges, counters and
+ * meters as counters, and histograms and timers as summaries. Timers are reported in seconds.
+ *
+ * <p>Rendering walks the whole registry, so a rendering is reused by all scrapes within the
+ * cache interval. The text is written into a buffer that is kept between renderings.
+ */
+class OpenMetricsExposition {
+
+  private static final Logger LOG = LoggerFactory.getLogger(OpenMetricsExposition.class);
+
+  static final String CONTENT_TYPE =
+      "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+  private static final String WHAT = "what";
+  private static final double[] QUANTILES = {0.5, 0.75, 0.95, 0.99, 0.999};
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final SemanticMetricRegistry registry;
+  private final long cacheIntervalNanos;
+  private final LongSupplier nanoTime;
+
+  // guarded by this
+  private final Buffer buffer = new Buffer();
+  private final Map<String, String> metricNames = new HashMap<>();
+  private final Map<String, String> labelNames = new HashMap<>();
+
+  private volatile Rendering latest;
+
+  OpenMetricsExposition(
+      SemanticMetricRegistry registry, long cacheIntervalNanos, LongSupplier nanoTime) {
+    this.registry = registry;
+    this.cacheIntervalNanos = cacheIntervalNanos;
+    this.nanoTime = nanoTime;
+  }
+
+  /**
+   * Returns the metrics of the registry, as rendered at most the cache interval ago.
+   */
+  ByteString scrape() {
+    final Rendering rendering = latest;
+    if (rendering != null && !rendering.expired(nanoTime.getAsLong())) {
+      return rendering.text;
+    }
+
+    synchronized (this) {
+      // another scrape may have rendered the metrics while we waited
+      final long now = nanoTime.getAsLong();
+      if (latest == null || latest.expired(now)) {
+        latest = new Rendering(render(), now + cacheIntervalNanos);
+      }
+      return latest.text;
+    }
+  }
+
+  private ByteString render() {
+    final SortedMap<String, List<Map.Entry<MetricId, Metric>>> families = new TreeMap<>();
+
+    for (Map.Entry<MetricId, Metric> entry : registry.getMetrics().entrySet()) {
+      final Type type = Type.of(entry.getValue());
+      final String name = type == null ? null : familyName(entry.getKey(), type);
+      if (name != null) {
+        families.computeIfAbsent(name, n -> new ArrayList<>()).add(entry);
+      }
+    }
+
+    // leave the intervals of hdr reservoirs to the reporter
+    HdrHistogramReservoir.scraping(() -> {
+      for (Map.Entry<String, List<Map.Entry<MetricId, Metric>>> family : families.entrySet()) {
+        writeFamily(family.getKey(), family.getValue());
+      }
+    });
+    buffer.writeUtf8("# EOF\n");
+
+    return buffer.readByteString();
+  }
+
+  private void writeFamily(String name, List<Map.Entry<MetricId, Metric>> metrics) {
+    // metrics of different types may end up with the same name; the first one decides the type
+    final Type type = Type.of(metrics.get(0).getValue());
+
+    buffer.writeUtf8("# TYPE ").writeUtf8(name).writeByte(' ')
+        .writeUtf8(type.name).writeByte('\n');
+
+    for (Map.Entry<MetricId, Metric> entry : metrics) {
+      final MetricId id = entry.getKey();
+      final Metric metric = entry.getValue();
+      if (Type.of(metric) != type) {
+        continue;
+      }
+
+      if (metric instanceof Gauge) {
+        writeGauge(name, id, (Gauge<?>) metric);
+      } else if (metric instanceof Counter) {
+        writeCount(name, "_total", id, ((Counter) metric).getCount());
+      } else if (metric instanceof Meter) {
+        writeCount(name, "_total", id, ((Meter) metric).getCount());
+      } else if (metric instanceof Histogram) {
+        final Histogram histogram = (Histogram) metric;
+        writeSummary(name, id, histogram.getSnapshot(), 1, histogram.getCount());
+      } else if (metric instanceof Timer) {
+        final Timer timer = (Timer) metric;
+        writeSummary(name, id, timer.getSnapshot(), NANOS_PER_SECOND, timer.getCount());
+      }
+    }
+  }
+
+  private void writeGauge(String name, MetricId id, Gauge<?> gauge) {
+    final Object value;
+    try {
+      value = gauge.getValue();
+    } catch (RuntimeException e) {
+      LOG.debug("Failed to get the value of gauge {}", id, e);
+      return;
+    }
+
+    if (value instanceof Number) {
+      writeSampleName(name, "", id, null);
+      writeValue(((Number) value).doubleValue());
+    }
+  }
+
+  private void writeCount(String name, String suffix, MetricId id, long count) {
+    writeSampleName(name, suffix, id, null);
+    buffer.writeDecimalLong(count).writeByte('\n');
+  }
+
+  private void writeSummary(
+      String name, MetricId id, Snapshot snapshot, double divisor, long count) {
+    for (double quantile : QUANTILES) {
+      writeSampleName(name, "", id, Double.toString(quantile));
+      writeValue(snapshot.getValue(quantile) / divisor);
+    }
+    writeCount(name, "_count", id, count);
+  }
+
+  private void writeSampleName(String name, String suffix, MetricId id, String quantile) {
+    buffer.writeUtf8(name).writeUtf8(suffix);
+
+    char separator = '{';
+    for (Map.Entry<String, String> tag : id.getTags().entrySet()) {
+      final String label = labelName(tag.getKey());
+      if (label == null) {
+        continue;
+      }
+      buffer.writeByte(separator).writeUtf8(label).writeUtf8("=\"");
+      writeLabelValue(tag.getValue());
+      buffer.writeByte('"');
+      separator = ',';
+    }
+    if (quantile != null) {
+      buffer.writeByte(separator).writeUtf8("quantile=\"").writeUtf8(quantile).writeByte('"');
+      separator = ',';
+    }
+    if (separator == ',') {
+      buffer.writeByte('}');
+    }
+
+    buffer.writeByte(' ');
+  }
+
+  private void writeLabelValue(String value) {
+    int start = 0;
+    for (int i = 0; i < value.length(); i++) {
+      final String escaped = escape(value.charAt(i));
+      if (escaped != null) {
+        buffer.writeUtf8(value, start, i).writeUtf8(escaped);
+        start = i + 1;
+      }
+    }
+    buffer.writeUtf8(value, start, value.length());
+  }
+
+  private static String escape(char c) {
+    switch (c) {
+      case '\\':
+        return "\\\\";
+      case '"':
+        return "\\\"";
+      case '\n':
+        return "\\n";
+      default:
+        return null;
+    }
+  }
+
+  private void writeValue(double value) {
+    if (Double.isNaN(value)) {
+      buffer.writeUtf8("NaN");
+    } else if (Double.isInfinite(value)) {
+      buffer.writeUtf8(value > 0 ? "+Inf" : "-Inf");
+    } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      buffer.writeDecimalLong((long) value);
+    } else {
+      buffer.writeUtf8(Double.toString(value));
+    }
+    buffer.writeByte('\n');
+  }
+
+  private String familyName(MetricId id, Type type) {
+    final String what = id.getTags().get(WHAT);
+    final String name = metricNames.computeIfAbsent(
+        what != null ? what : id.getKey(), OpenMetricsExposition::sanitizeMetricName);
+    if (name.isEmpty()) {
+      return null;
+    }
+    return type.familyName(name);
+  }
+
+  private String labelName(String tag) {
+    return labelNames.computeIfAbsent(tag, OpenMetricsExposition::sanitizeLabelName);
+  }
+
+  static String sanitizeMetricName(String name) {
+    return sanitize(name, true);
+  }
+
+  /**
+   * Returns the label name for the given tag, or null if the tag should not become a label.
+   */
+  static String sanitizeLabelName(String tag) {
+    if (WHAT.equals(tag) || "quantile".equals(tag)) {
+      return null;
+    }
+    final String label = sanitize(tag, false);
+    return label.isEmpty() || label.startsWith("__") ? null : label;
+  }
+
+  private static String sanitize(String name, boolean allowColon) {
+    if (name == null) {
+      return "";
+    }
+
+    final StringBuilder result = new StringBuilder(name.length() + 1);
+    for (int i = 0; i < name.length(); i++) {
+      final char c = name.charAt(i);
+      if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_'
+          || (c >= '0' && c <= '9') || (allowColon && c == ':')) {
+        result.append(c);
+      } else {
+        result.append('_');
+      }
+    }
+    if (result.length() > 0 && Character.isDigit(result.charAt(0))) {
+      result.insert(0, '_');
+    }
+    return result.toString();
+  }
+
+  private enum Type {
+    GAUGE("gauge"),
+    COUNTER("counter"),
+    SUMMARY("summary"),
+    TIMER("summary");
+
+    private final String name;
+
+    Type(String name) {
+      this.name = name;
+    }
+
+    String familyName(String name) {
+      switch (this) {
+        case COUNTER:
+          return name.endsWith("_total") ? name.substring(0, name.length() - 6) : name;
+        case TIMER:
+          return name + "_seconds";
+        default:
+          return name;
+      }
+    }
+
+    static Type of(Metric metric) {
+      if (metric instanceof Gauge) {
+        return GAUGE;
+      } else if (metric instanceof Counter || metric instanceof Meter) {
+        return COUNTER;
+      } else if (metric instanceof Histogram) {
+        return SUMMARY;
+      } else if (metric instanceof Timer) {
+        return TIMER;
+      }
+      return null;
+    }
+  }
+
+  private static final class Rendering {
+
+    private final ByteString text;
+    private final long expiresAt;
+
+    private Rendering(ByteString text, long expiresAt) {
+      this.text = text;
+      this.expiresAt = expiresAt;
+    }
+
+    private boolean expired(long now) {
+      return now - expiresAt >= 0;
+    }
+  }
+}
@@ -53,4 +53,14 @@ public interface RequestMetrics {
    * No response was sent; the request was dropped on the floor.
    */
   void drop();
+
+  /**
+   * Register the time spent in one phase of handling this request. Phases that could not be
+   * timed are not registered.
+   *
+   * @param phase the phase
+   * @param durationNanos the time spent in it, in nanoseconds
+   */
+  default void phase(RequestPhase phase, long durationNanos) {
+  }
 }
@@ -0,0 +1,54 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Metrics Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.metrics;
+
+/**
+ * The phases that Apollo goes through to handle a request, in order. The time spent in each is
+ * registered through {@link RequestMetrics#phase(RequestPhase, long)}, as a timer per phase
+ * when using the semantic metrics. A phase that could not be timed for a request, for instance
+ * because the request was replied to before reaching it, is not registered for that request.
+ */
+public enum RequestPhase {
+  /**
+   * From the arrival of the request until a thread starts handling it.
+   */
+  QUEUE,
+  /**
+   * From the start of handling, or the arrival if the server doesn't say when that was, until a
+   * route has been matched.
+   */
+  ROUTING,
+  /**
+   * From the invocation of the endpoint until its handler has produced a response, or until the
+   * reply if no middleware reports when the handler completed.
+   */
+  HANDLER,
+  /**
+   * From the completion of the handler until the serialized response is ready to be sent.
+   */
+  SERIALIZATION,
+  /**
+   * From handing the response to the server until it has been written to the client. For servers
+   * that don't report when a reply is written (see
+   * {@link com.spotify.apollo.request.OngoingRequest#onReplyWritten(Runnable)}), only the time
+   * the server takes to accept the reply. Not registered if the reply is never written.
+   */
+  REPLY
+}
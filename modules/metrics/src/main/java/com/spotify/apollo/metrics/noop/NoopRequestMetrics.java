@@ -22,6 +22,7 @@ package com.spotify.apollo.metrics.noop;
 import com.spotify.apollo.Request;
 import com.spotify.apollo.Response;
 import com.spotify.apollo.metrics.RequestMetrics;
+import com.spotify.apollo.metrics.RequestPhase;
 
 import okio.ByteString;
 
@@ -54,4 +55,8 @@ class NoopRequestMetrics implements RequestMetrics {
   public void drop() {
 
   }
+
+  @Override
+  public void phase(RequestPhase phase, long durationNanos) {
+  }
 }
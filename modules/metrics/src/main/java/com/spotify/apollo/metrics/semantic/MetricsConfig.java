@@ -19,7 +19,9 @@
  */
 package com.spotify.apollo.metrics.semantic;
 
+import static com.spotify.apollo.environment.ConfigUtil.optionalBoolean;
 import static com.spotify.apollo.environment.ConfigUtil.optionalInt;
+import static com.spotify.apollo.environment.ConfigUtil.optionalString;
 import static com.spotify.apollo.metrics.semantic.What.DROPPED_REQUEST_RATE;
 import static com.spotify.apollo.metrics.semantic.What.ENDPOINT_REQUEST_DURATION;
 import static com.spotify.apollo.metrics.semantic.What.ENDPOINT_REQUEST_DURATION_THRESHOLD_RATE;
@@ -52,6 +54,9 @@ public class MetricsConfig {
           ERROR_RATIO_5XX);
 
   static final int DEFAULT_TTL_SECONDS = (int) TimeUnit.MINUTES.toSeconds(5);
+  static final String DEFAULT_RESERVOIR = "ttl";
+  static final int DEFAULT_RESERVOIR_INTERVAL_SECONDS = 10;
+  static final int DEFAULT_OPENMETRICS_CACHE_MILLIS = 1000;
 
   private final Set<What> enabledMetrics;
   private final Set<Integer> precreateCodes;
@@ -101,4 +106,34 @@ public class MetricsConfig {
   public int reservoirTtl() {
     return optionalInt(config, "metrics.reservoir-ttl").orElse(DEFAULT_TTL_SECONDS);
   }
+
+  /**
+   * The kind of reservoir backing histograms and timers: {@code "ttl"} or {@code "hdr"}.
+   */
+  public String reservoir() {
+    return optionalString(config, "metrics.reservoir").orElse(DEFAULT_RESERVOIR);
+  }
+
+  /**
+   * The shortest time, in seconds, covered by a snapshot of an {@code "hdr"} reservoir.
+   */
+  public int reservoirInterval() {
+    return optionalInt(config, "metrics.reservoir-interval")
+        .orElse(DEFAULT_RESERVOIR_INTERVAL_SECONDS);
+  }
+
+  /**
+   * Whether to expose the metrics in the OpenMetrics text format at {@code /_meta/0/metrics}.
+   */
+  public boolean openMetrics() {
+    return optionalBoolean(config, "metrics.openmetrics").orElse(false);
+  }
+
+  /**
+   * For how long, in milliseconds, a rendering of the OpenMetrics text is served to scrapes.
+   */
+  public int openMetricsCacheMillis() {
+    return optionalInt(config, "metrics.openmetrics-cache-millis")
+        .orElse(DEFAULT_OPENMETRICS_CACHE_MILLIS);
+  }
 }
@@ -19,17 +19,15 @@
  */
 package com.spotify.apollo.metrics.semantic;
 
-import com.codahale.metrics.Histogram;
-import com.codahale.metrics.Meter;
 import com.codahale.metrics.Timer;
 import com.spotify.apollo.Request;
 import com.spotify.apollo.Response;
 import com.spotify.apollo.StatusType;
 import com.spotify.apollo.metrics.RequestMetrics;
+import com.spotify.apollo.metrics.RequestPhase;
+import com.spotify.apollo.metrics.semantic.SemanticServiceMetrics.CachedMeters;
 
-import java.util.Optional;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
 
 import okio.ByteString;
 
@@ -39,92 +37,89 @@ import static com.spotify.apollo.StatusType.Family.SUCCESSFUL;
 import static com.spotify.apollo.StatusType.Family.CLIENT_ERROR;
 import static java.util.Objects.requireNonNull;
 
-// Optional fields are fine; they enable the use of the 'ifPresent' idiom which is more readable
-// than if statements
-@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+/**
+ * Every request and reply goes through here, so the metrics of the endpoint are read straight
+ * from its {@link CachedMeters}, where disabled metrics are null, and the duration is measured
+ * from a start time rather than a {@link com.codahale.metrics.Timer.Context}. That way nothing is
+ * allocated per request other than this object.
+ */
 class SemanticRequestMetrics implements RequestMetrics {
 
-  private final Optional<Consumer<Response<ByteString>>> requestRateCounter;
-  private final Optional<Histogram> fanoutHistogram;
-  private final Optional<Histogram> requestSizeHistogram;
-  private final Optional<Histogram> responseSizeHistogram;
-  private final Optional<Timer.Context> timerContext;
-  private final Optional<Meter> droppedRequests;
-  private final Meter sentReplies;
-  private final Meter sentErrors;
-  private final Meter sentErrors4xx;
-  private final Meter sentErrors5xx;
-  private final Optional<DurationThresholdTracker> durationThresholdTracker;
-
-  SemanticRequestMetrics(
-      Optional<Consumer<Response<ByteString>>> requestRateCounter,
-      Optional<Histogram> fanoutHistogram,
-      Optional<Histogram> responseSizeHistogram,
-      Optional<Histogram> requestSizeHistogram,
-      Optional<Timer.Context> timerContext,
-      Optional<Meter> droppedRequests,
-      Meter sentReplies,
-      Meter sentErrors,
-      Meter sentErrors4xx,
-      Meter sentErrors5xx,
-      Optional<DurationThresholdTracker> durationThresholdTracker) {
-
-    this.requestRateCounter = requireNonNull(requestRateCounter);
-    this.fanoutHistogram = requireNonNull(fanoutHistogram);
-    this.responseSizeHistogram = requireNonNull(responseSizeHistogram);
-    this.requestSizeHistogram = requireNonNull(requestSizeHistogram);
-    this.timerContext = requireNonNull(timerContext);
-    this.droppedRequests = requireNonNull(droppedRequests);
-    this.sentReplies = requireNonNull(sentReplies);
-    this.sentErrors = requireNonNull(sentErrors);
-    this.sentErrors4xx = requireNonNull(sentErrors4xx);
-    this.sentErrors5xx = requireNonNull(sentErrors5xx);
-    this.durationThresholdTracker = requireNonNull(durationThresholdTracker);
+  private final CachedMeters meters;
+  private final long startNanos;
+
+  SemanticRequestMetrics(CachedMeters meters, long startNanos) {
+    this.meters = requireNonNull(meters);
+    this.startNanos = startNanos;
   }
 
   @Override
   public void incoming(Request request) {
-    requestSizeHistogram
-        .ifPresent(histogram -> request.payload()
-            .ifPresent(payload -> histogram.update(payload.size())));
+    if (meters.requestSizeHistogram != null && request.payload().isPresent()) {
+      meters.requestSizeHistogram.update(request.payload().get().size());
+    }
   }
 
   @Override
   public void fanout(int requests) {
-    fanoutHistogram.ifPresent(histogram -> histogram.update(requests));
+    if (meters.fanoutHistogram != null) {
+      meters.fanoutHistogram.update(requests);
+    }
   }
 
   @Override
   public void response(Response<ByteString> response) {
-    requestRateCounter.ifPresent(consumer -> consumer.accept(response));
-    responseSizeHistogram
-        .ifPresent(histogram -> response.payload()
-            .ifPresent(payload -> histogram.update(payload.size())));
-
-    sentReplies.mark();
-    timerContext.ifPresent(timer -> {
-      final long duration = timer.stop();
-      final long durationMs = TimeUnit.NANOSECONDS.toMillis(duration);
-      durationThresholdTracker.ifPresent(counter -> {
-        counter.markDurationThresholds(durationMs);
-      });
-    });
-
-    StatusType.Family family = response.status().family();
+    final StatusType status = response.status();
+
+    if (meters.requestRateMeters != null) {
+      meters.requestRateMeters.forCode(status.code()).mark();
+    }
+    if (meters.responseSizeHistogram != null && response.payload().isPresent()) {
+      meters.responseSizeHistogram.update(response.payload().get().size());
+    }
+
+    meters.sentReplies.mark();
+    if (meters.requestDurationTimer != null) {
+      final long duration = stopTimer();
+      if (meters.requestDurationThresholdTracker != null) {
+        meters.requestDurationThresholdTracker
+            .markDurationThresholds(TimeUnit.NANOSECONDS.toMillis(duration));
+      }
+    }
+
+    StatusType.Family family = status.family();
     if (family != INFORMATIONAL && family != SUCCESSFUL) {
-      sentErrors.mark();
+      meters.sentErrors.mark();
     }
     if (family == CLIENT_ERROR) {
-      sentErrors4xx.mark();
+      meters.sentErrors4xx.mark();
     }
     if (family == SERVER_ERROR) {
-      sentErrors5xx.mark();
+      meters.sentErrors5xx.mark();
     }
   }
 
   @Override
   public void drop() {
-    droppedRequests.ifPresent(Meter::mark);
-    timerContext.ifPresent(Timer.Context::stop);
+    if (meters.droppedRequests != null) {
+      meters.droppedRequests.mark();
+    }
+    if (meters.requestDurationTimer != null) {
+      stopTimer();
+    }
+  }
+
+  @Override
+  public void phase(RequestPhase phase, long durationNanos) {
+    final Timer timer = meters.phaseTimers[phase.ordinal()];
+    if (timer != null) {
+      timer.update(durationNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private long stopTimer() {
+    final long duration = System.nanoTime() - startNanos;
+    meters.requestDurationTimer.update(duration, TimeUnit.NANOSECONDS);
+    return duration;
   }
 }
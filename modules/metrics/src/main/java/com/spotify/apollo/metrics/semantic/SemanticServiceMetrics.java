@@ -29,23 +29,24 @@ import com.codahale.metrics.Meter;
 import com.codahale.metrics.RatioGauge;
 import com.codahale.metrics.RatioGauge.Ratio;
 import com.codahale.metrics.Timer;
-import com.spotify.apollo.Response;
 import com.spotify.apollo.metrics.RequestMetrics;
+import com.spotify.apollo.metrics.RequestPhase;
 import com.spotify.apollo.metrics.ServiceMetrics;
 import com.spotify.metrics.core.MetricId;
 import com.spotify.metrics.core.SemanticMetricRegistry;
 
-import java.util.Optional;
 import java.util.Set;
-import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
-import okio.ByteString;
-
 import static com.spotify.apollo.metrics.semantic.What.DROPPED_REQUEST_RATE;
 import static com.spotify.apollo.metrics.semantic.What.ENDPOINT_REQUEST_DURATION;
+import static com.spotify.apollo.metrics.semantic.What.ENDPOINT_REQUEST_HANDLER_DURATION;
+import static com.spotify.apollo.metrics.semantic.What.ENDPOINT_REQUEST_QUEUE_DURATION;
 import static com.spotify.apollo.metrics.semantic.What.ENDPOINT_REQUEST_RATE;
+import static com.spotify.apollo.metrics.semantic.What.ENDPOINT_REQUEST_REPLY_DURATION;
+import static com.spotify.apollo.metrics.semantic.What.ENDPOINT_REQUEST_ROUTING_DURATION;
+import static com.spotify.apollo.metrics.semantic.What.ENDPOINT_REQUEST_SERIALIZATION_DURATION;
 import static com.spotify.apollo.metrics.semantic.What.ERROR_RATIO;
 import static com.spotify.apollo.metrics.semantic.What.ERROR_RATIO_4XX;
 import static com.spotify.apollo.metrics.semantic.What.ERROR_RATIO_5XX;
@@ -55,7 +56,6 @@ import static com.spotify.apollo.metrics.semantic.What.RESPONSE_PAYLOAD_SIZE;
 import static java.lang.Math.max;
 import static java.util.Objects.requireNonNull;
 
-@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 class SemanticServiceMetrics implements ServiceMetrics {
 
   // Minimum reply rate at which we consider the error ratio to make sense.
@@ -93,20 +93,7 @@ class SemanticServiceMetrics implements ServiceMetrics {
 
   @Override
   public RequestMetrics metricsForEndpointCall(String endpoint) {
-    CachedMeters meters = metersCache.getUnchecked(endpoint);
-
-    return new SemanticRequestMetrics(
-        meters.requestRateCounter,
-        meters.fanoutHistogram,
-        meters.responseSizeHistogram,
-        meters.requestSizeHistogram,
-        meters.requestDurationTimer.map(Timer::time),
-        meters.droppedRequests,
-        meters.sentReplies,
-        meters.sentErrors,
-        meters.sentErrors4xx,
-        meters.sentErrors5xx,
-        meters.requestDurationThresholdTracker);
+    return new SemanticRequestMetrics(metersCache.getUnchecked(endpoint), System.nanoTime());
   }
 
   private CachedMeters metersForEndpoint(String endpoint) {
@@ -166,7 +153,8 @@ class SemanticServiceMetrics implements ServiceMetrics {
     }
 
     return new CachedMeters(
-        requestRateCounter(id),
+        requestRateMeters(id),
+        phaseTimers(id),
         fanoutHistogram(id),
         responseSizeHistogram(id),
         requestSizeHistogram(id),
@@ -179,21 +167,48 @@ class SemanticServiceMetrics implements ServiceMetrics {
         sentErrors5xx);
   }
 
-  private Optional<Meter> droppedRequests(MetricId id) {
+  private Meter droppedRequests(MetricId id) {
     return enabledMetrics.test(DROPPED_REQUEST_RATE) ?
-           Optional.of(metricRegistry.meter(
+           metricRegistry.meter(
                id.tagged(
                    "what", DROPPED_REQUEST_RATE.tag(),
                    "unit", "request"
-               ))) :
-           Optional.empty();
+               )) :
+           null;
+  }
+
+  private Timer[] phaseTimers(MetricId id) {
+    final Timer[] timers = new Timer[RequestPhase.values().length];
+    for (RequestPhase phase : RequestPhase.values()) {
+      final What what = phaseMetric(phase);
+      if (enabledMetrics.test(what)) {
+        timers[phase.ordinal()] = metricRegistry.timer(id.tagged("what", what.tag()));
+      }
+    }
+    return timers;
   }
 
-  private Optional<Timer> requestDurationTimer(MetricId id) {
+  private static What phaseMetric(RequestPhase phase) {
+    switch (phase) {
+      case QUEUE:
+        return ENDPOINT_REQUEST_QUEUE_DURATION;
+      case ROUTING:
+        return ENDPOINT_REQUEST_ROUTING_DURATION;
+      case HANDLER:
+        return ENDPOINT_REQUEST_HANDLER_DURATION;
+      case SERIALIZATION:
+        return ENDPOINT_REQUEST_SERIALIZATION_DURATION;
+      case REPLY:
+        return ENDPOINT_REQUEST_REPLY_DURATION;
+      default:
+        throw new IllegalArgumentException("Unknown request phase: " + phase);
+    }
+  }
+
+  private Timer requestDurationTimer(MetricId id) {
     return enabledMetrics.test(ENDPOINT_REQUEST_DURATION) ?
-           Optional.of(metricRegistry
-               .timer(id.tagged("what", ENDPOINT_REQUEST_DURATION.tag()))) :
-           Optional.empty();
+           metricRegistry.timer(id.tagged("what", ENDPOINT_REQUEST_DURATION.tag())) :
+           null;
   }
 
   /**
@@ -202,46 +217,46 @@ class SemanticServiceMetrics implements ServiceMetrics {
    *
    * @param endpoint formatted as METHOD:URI
    */
-  private Optional<DurationThresholdTracker> requestDurationThresholdTracker(MetricId id,
-                                                                             String endpoint) {
+  private DurationThresholdTracker requestDurationThresholdTracker(MetricId id,
+                                                                   String endpoint) {
     return durationThresholdConfig.getDurationThresholdForEndpoint(endpoint)
-        .map(threshold -> Optional.of(new DurationThresholdTracker(id, metricRegistry, threshold)))
-        .orElse(Optional.empty());
+        .map(threshold -> new DurationThresholdTracker(id, metricRegistry, threshold))
+        .orElse(null);
   }
 
-  private Optional<Histogram> requestSizeHistogram(MetricId id) {
+  private Histogram requestSizeHistogram(MetricId id) {
     return enabledMetrics.test(REQUEST_PAYLOAD_SIZE) ?
-           Optional.of(metricRegistry.histogram(
+           metricRegistry.histogram(
                id.tagged(
                    "what", REQUEST_PAYLOAD_SIZE.tag(),
                    "unit", "B"
-               ))) :
-           Optional.empty();
+               )) :
+           null;
   }
 
-  private Optional<Histogram> responseSizeHistogram(MetricId id) {
+  private Histogram responseSizeHistogram(MetricId id) {
     return enabledMetrics.test(RESPONSE_PAYLOAD_SIZE) ?
-           Optional.of(metricRegistry.histogram(
+           metricRegistry.histogram(
                id.tagged(
                    "what", RESPONSE_PAYLOAD_SIZE.tag(),
                    "unit", "B"
-               ))) :
-           Optional.empty();
+               )) :
+           null;
   }
 
-  private Optional<Histogram> fanoutHistogram(MetricId id) {
+  private Histogram fanoutHistogram(MetricId id) {
     return enabledMetrics.test(REQUEST_FANOUT_FACTOR) ?
-           Optional.of(metricRegistry.histogram(
+           metricRegistry.histogram(
                id.tagged(
                    "what", REQUEST_FANOUT_FACTOR.tag(),
-                   "unit", "request/request"))) :
-           Optional.empty();
+                   "unit", "request/request")) :
+           null;
   }
 
-  private Optional<Consumer<Response<ByteString>>> requestRateCounter(MetricId id) {
+  private StatusCodeMeters requestRateMeters(MetricId id) {
     return enabledMetrics.test(ENDPOINT_REQUEST_RATE) ?
-           Optional.of(response -> requestRateMeter(id, response.status().code()).mark()) :
-           Optional.empty();
+           new StatusCodeMeters(code -> requestRateMeter(id, code)) :
+           null;
   }
 
   private Meter requestRateMeter(MetricId id, int code) {
@@ -293,31 +308,38 @@ class SemanticServiceMetrics implements ServiceMetrics {
     };
   }
 
-  private static class CachedMeters {
-
-    private final Optional<Consumer<Response<ByteString>>> requestRateCounter;
-    private final Optional<Histogram> fanoutHistogram;
-    private final Optional<Histogram> responseSizeHistogram;
-    private final Optional<Histogram> requestSizeHistogram;
-    private final Optional<Timer> requestDurationTimer;
-    private final Optional<DurationThresholdTracker> requestDurationThresholdTracker;
-    private final Optional<Meter> droppedRequests;
-    private final Meter sentReplies;
-    private final Meter sentErrors;
-    private final Meter sentErrors4xx;
-    private final Meter sentErrors5xx;
+  /**
+   * The metrics of one endpoint, looked up once so that requests to it don't have to. Disabled
+   * metrics are null.
+   */
+  static class CachedMeters {
 
+    final StatusCodeMeters requestRateMeters;
+    // indexed by RequestPhase ordinal
+    final Timer[] phaseTimers;
+    final Histogram fanoutHistogram;
+    final Histogram responseSizeHistogram;
+    final Histogram requestSizeHistogram;
+    final Timer requestDurationTimer;
+    final DurationThresholdTracker requestDurationThresholdTracker;
+    final Meter droppedRequests;
+    final Meter sentReplies;
+    final Meter sentErrors;
+    final Meter sentErrors4xx;
+    final Meter sentErrors5xx;
 
-    private CachedMeters(Optional<Consumer<Response<ByteString>>> requestRateCounter,
-                         Optional<Histogram> fanoutHistogram,
-                         Optional<Histogram> responseSizeHistogram,
-                         Optional<Histogram> requestSizeHistogram,
-                         Optional<Timer> requestDurationTimer,
-                         Optional<DurationThresholdTracker> requestDurationThresholdTracker,
-                         Optional<Meter> droppedRequests,
+    private CachedMeters(StatusCodeMeters requestRateMeters,
+                         Timer[] phaseTimers,
+                         Histogram fanoutHistogram,
+                         Histogram responseSizeHistogram,
+                         Histogram requestSizeHistogram,
+                         Timer requestDurationTimer,
+                         DurationThresholdTracker requestDurationThresholdTracker,
+                         Meter droppedRequests,
                          Meter sentReplies, Meter sentErrors,
                          Meter sentErrors4xx, Meter sentErrors5xx) {
-      this.requestRateCounter = requestRateCounter;
+      this.requestRateMeters = requestRateMeters;
+      this.phaseTimers = phaseTimers;
       this.fanoutHistogram = fanoutHistogram;
       this.requestSizeHistogram = requestSizeHistogram;
       this.responseSizeHistogram = responseSizeHistogram;
@@ -0,0 +1,63 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Metrics Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.metrics.semantic;
+
+import com.codahale.metrics.Meter;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * The meters of an endpoint that are tagged with a status code. The meters for the codes in the
+ * valid range are kept in an array indexed by code, so that finding one on the reply path builds
+ * no {@link com.spotify.metrics.core.MetricId} and skips the registry once the code has been
+ * seen. Other codes are looked up every time.
+ */
+class StatusCodeMeters {
+
+  private static final int MIN_CODE = 100;
+  private static final int MAX_CODE = 599;
+
+  private final IntFunction<Meter> registry;
+  private final AtomicReferenceArray<Meter> meters =
+      new AtomicReferenceArray<>(MAX_CODE - MIN_CODE + 1);
+
+  /**
+   * @param registry gets or creates the meter for a status code in the metric registry
+   */
+  StatusCodeMeters(IntFunction<Meter> registry) {
+    this.registry = registry;
+  }
+
+  Meter forCode(int code) {
+    if (code < MIN_CODE || code > MAX_CODE) {
+      return registry.apply(code);
+    }
+
+    final int index = code - MIN_CODE;
+    Meter meter = meters.get(index);
+    if (meter == null) {
+      // racing threads get the same meter from the registry, so either of them can store it
+      meter = registry.apply(code);
+      meters.set(index, meter);
+    }
+    return meter;
+  }
+}
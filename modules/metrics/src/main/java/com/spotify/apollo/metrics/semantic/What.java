@@ -32,7 +32,12 @@ public enum What {
   ERROR_RATIO("error-ratio"),
   ERROR_RATIO_4XX("error-ratio-4xx"),
   ERROR_RATIO_5XX("error-ratio-5xx"),
-  ENDPOINT_REQUEST_DURATION_THRESHOLD_RATE("endpoint-request-duration-threshold-rate")
+  ENDPOINT_REQUEST_DURATION_THRESHOLD_RATE("endpoint-request-duration-threshold-rate"),
+  ENDPOINT_REQUEST_QUEUE_DURATION("endpoint-request-queue-duration"),
+  ENDPOINT_REQUEST_ROUTING_DURATION("endpoint-request-routing-duration"),
+  ENDPOINT_REQUEST_HANDLER_DURATION("endpoint-request-handler-duration"),
+  ENDPOINT_REQUEST_SERIALIZATION_DURATION("endpoint-request-serialization-duration"),
+  ENDPOINT_REQUEST_REPLY_DURATION("endpoint-request-reply-duration")
   ;
 
   private final String tag;
@@ -24,6 +24,7 @@ import static org.junit.Assert.assertEquals;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
 import com.typesafe.config.ConfigFactory;
+import java.util.Arrays;
 import java.util.Optional;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
@@ -46,6 +47,7 @@ public class ConfigTest {
       assertEquals(Boolean.TRUE, ffwdCompletelyEmpty.getFlush());
       assertEquals(30, ffwdCompletelyEmpty.getInterval());
       assertEquals(30, ffwdEmpty.getInterval());
+      assertEquals(Optional.empty(), ffwdEmpty.getHistogramQuantiles());
     }
 
     @Test
@@ -64,6 +66,14 @@ public class ConfigTest {
 
       assertEquals(15, ffwd.getInterval());
     }
+
+    @Test
+    public void histogramQuantilesCanBeSetFromConfig() {
+      String json = "{\"ffwd\":{ \"histogram-quantiles\": [0.5, 0.99, 0.999]}}";
+      FfwdConfig.Agent ffwd = (FfwdConfig.Agent) FfwdConfig.fromConfig(conf(json));
+
+      assertEquals(Optional.of(Arrays.asList(0.5, 0.99, 0.999)), ffwd.getHistogramQuantiles());
+    }
   }
 
   @Test
@@ -0,0 +1,137 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Metrics Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.codahale.metrics.Snapshot;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HdrHistogramReservoirTest {
+
+  private static final long INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+  private AtomicLong nanoTime;
+  private HdrHistogramReservoir reservoir;
+
+  @Before
+  public void setUp() {
+    nanoTime = new AtomicLong();
+    reservoir = new HdrHistogramReservoir(INTERVAL, nanoTime::get);
+  }
+
+  @Test
+  public void shouldReportAccurateTailPercentiles() {
+    for (int i = 1; i <= 100_000; i++) {
+      reservoir.update(i);
+    }
+
+    final Snapshot snapshot = nextSnapshot();
+
+    assertThat(snapshot.size(), is(100_000));
+    assertThat(snapshot.get99thPercentile(), closeTo(99_000, 990));
+    assertThat(snapshot.get999thPercentile(), closeTo(99_900, 999));
+    assertThat((double) snapshot.getMax(), closeTo(100_000, 1_000));
+    assertThat(snapshot.getMin(), is(1L));
+  }
+
+  @Test
+  public void shouldOnlyIncludeValuesFromLatestInterval() {
+    reservoir.update(1_000);
+    nextSnapshot();
+
+    reservoir.update(7);
+    final Snapshot snapshot = nextSnapshot();
+
+    assertThat(snapshot.size(), is(1));
+    assertThat(snapshot.getMax(), is(7L));
+    assertThat(snapshot.getValues(), is(new long[]{7}));
+  }
+
+  @Test
+  public void shouldReportNothingForIntervalWithoutValues() {
+    reservoir.update(1_000);
+    nextSnapshot();
+
+    final Snapshot snapshot = nextSnapshot();
+
+    assertThat(snapshot.size(), is(0));
+    assertThat(snapshot.get99thPercentile(), is(0D));
+    assertThat(snapshot.getMean(), is(0D));
+  }
+
+  @Test
+  public void shouldReturnPreviousSnapshotWithinMinimumInterval() {
+    reservoir.update(1_000);
+    final Snapshot snapshot = nextSnapshot();
+
+    reservoir.update(2_000);
+    nanoTime.addAndGet(INTERVAL - 1);
+
+    assertThat(reservoir.getSnapshot(), is(sameInstance(snapshot)));
+    assertThat(reservoir.size(), is(1));
+  }
+
+  @Test
+  public void shouldRecordNegativeValuesAsZero() {
+    reservoir.update(-5);
+
+    assertThat(nextSnapshot().getMin(), is(0L));
+  }
+
+  @Test
+  public void shouldNotTakeValuesFromReporterWhenScraped() {
+    reservoir.update(1_000);
+
+    assertThat(scrape().size(), is(1));
+    assertThat(nextSnapshot().size(), is(1));
+  }
+
+  @Test
+  public void shouldScrapeValuesSinceLatestScrape() {
+    reservoir.update(1_000);
+    scrape();
+
+    reservoir.update(7);
+    nanoTime.addAndGet(INTERVAL);
+    final Snapshot scraped = scrape();
+
+    assertThat(scraped.size(), is(1));
+    assertThat(scraped.getMax(), is(7L));
+    assertThat(reservoir.getSnapshot().size(), is(2));
+  }
+
+  private Snapshot scrape() {
+    final Snapshot[] snapshot = new Snapshot[1];
+    HdrHistogramReservoir.scraping(() -> snapshot[0] = reservoir.getSnapshot());
+    return snapshot[0];
+  }
+
+  private Snapshot nextSnapshot() {
+    nanoTime.addAndGet(INTERVAL);
+    return reservoir.getSnapshot();
+  }
+}
@@ -26,6 +26,7 @@ import com.spotify.apollo.Response;
 import com.spotify.apollo.dispatch.Endpoint;
 import com.spotify.apollo.dispatch.EndpointInfo;
 import com.spotify.apollo.request.EndpointRunnableFactory;
+import com.spotify.apollo.request.HandlerCompletionListener;
 import com.spotify.apollo.request.OngoingRequest;
 import com.spotify.apollo.request.RequestContexts;
 import com.spotify.apollo.request.RequestMetadataImpl;
@@ -41,6 +42,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -49,6 +51,9 @@ import okio.ByteString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -158,6 +163,73 @@ public class MetricsCollectingEndpointRunnableFactoryDecoratorTest {
     verify(requestStats).drop();
   }
 
+  @Test
+  public void shouldTrackQueueAndRoutingWhenDispatchTimeIsKnown() throws Exception {
+    when(ongoingRequest.dispatchTimeNanos()).thenReturn(OptionalLong.of(System.nanoTime()));
+
+    decorated.create(ongoingRequest, requestContext, endpoint).run();
+
+    verify(requestStats).phase(eq(RequestPhase.QUEUE), anyLong());
+    verify(requestStats).phase(eq(RequestPhase.ROUTING), anyLong());
+  }
+
+  @Test
+  public void shouldTrackRoutingWhenDispatchTimeIsUnknown() throws Exception {
+    decorated.create(ongoingRequest, requestContext, endpoint).run();
+
+    verify(requestStats, never()).phase(eq(RequestPhase.QUEUE), anyLong());
+    verify(requestStats).phase(eq(RequestPhase.ROUTING), anyLong());
+  }
+
+  @Test
+  public void shouldTrackHandlerAndSerialization() throws Exception {
+    decorated.create(ongoingRequest, requestContext, endpoint).run();
+
+    HandlerCompletionListener.handlerCompleted(requestContextCaptor.getValue());
+    ongoingRequestCaptor.getValue()
+        .reply(Response.ok());
+
+    verify(requestStats).phase(eq(RequestPhase.HANDLER), anyLong());
+    verify(requestStats).phase(eq(RequestPhase.SERIALIZATION), anyLong());
+    verify(requestStats).phase(eq(RequestPhase.REPLY), anyLong());
+  }
+
+  @Test
+  public void shouldTrackHandlerUntilReplyIfCompletionIsNotReported() throws Exception {
+    decorated.create(ongoingRequest, requestContext, endpoint).run();
+
+    ongoingRequestCaptor.getValue()
+        .reply(Response.ok());
+
+    verify(requestStats).phase(eq(RequestPhase.HANDLER), anyLong());
+    verify(requestStats, never()).phase(eq(RequestPhase.SERIALIZATION), anyLong());
+  }
+
+  @Test
+  public void shouldNotTrackHandlerIfNotInvoked() throws Exception {
+    decorated.create(ongoingRequest, requestContext, endpoint);
+
+    ongoingRequestCaptor.getValue()
+        .reply(Response.ok());
+
+    verify(requestStats, never()).phase(eq(RequestPhase.HANDLER), anyLong());
+    verify(requestStats).phase(eq(RequestPhase.REPLY), anyLong());
+  }
+
+  @Test
+  public void shouldTrackReplyUntilWrittenIfServerReportsIt() throws Exception {
+    final ArgumentCaptor<Runnable> written = ArgumentCaptor.forClass(Runnable.class);
+    when(ongoingRequest.onReplyWritten(written.capture())).thenReturn(true);
+    decorated.create(ongoingRequest, requestContext, endpoint).run();
+
+    ongoingRequestCaptor.getValue()
+        .reply(Response.ok());
+
+    verify(requestStats, never()).phase(eq(RequestPhase.REPLY), anyLong());
+    written.getValue().run();
+    verify(requestStats).phase(eq(RequestPhase.REPLY), anyLong());
+  }
+
   @Test
   public void shouldCopyMetadataFromIncomingRequestContext() throws Exception {
     decorated.create(ongoingRequest, requestContext, endpoint).run();
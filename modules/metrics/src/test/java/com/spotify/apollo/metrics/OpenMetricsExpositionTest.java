@@ -0,0 +1,159 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Metrics Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Timer;
+import com.spotify.metrics.core.MetricId;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import okio.ByteString;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OpenMetricsExpositionTest {
+
+  private static final long CACHE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+  private static final MetricId REQUEST_RATE = MetricId.build()
+      .tagged("what", "endpoint-request-rate", "endpoint", "GET:/ping", "status-code", "200");
+
+  private SemanticMetricRegistry registry;
+  private AtomicLong nanoTime;
+  private OpenMetricsExposition exposition;
+
+  @Before
+  public void setUp() {
+    registry = new SemanticMetricRegistry();
+    nanoTime = new AtomicLong();
+    exposition = new OpenMetricsExposition(registry, CACHE_INTERVAL, nanoTime::get);
+  }
+
+  @Test
+  public void shouldRenderMetersAsCounters() {
+    registry.meter(REQUEST_RATE).mark(3);
+
+    assertThat(exposition.scrape().utf8(), is(
+        "# TYPE endpoint_request_rate counter\n"
+        + "endpoint_request_rate_total{endpoint=\"GET:/ping\",status_code=\"200\"} 3\n"
+        + "# EOF\n"));
+  }
+
+  @Test
+  public void shouldRenderGauges() {
+    registry.register(MetricId.build().tagged("what", "queue-size"), (Gauge<Integer>) () -> 7);
+    registry.register(MetricId.build().tagged("what", "ratio"), (Gauge<Double>) () -> 0.25);
+    registry.register(MetricId.build().tagged("what", "name"), (Gauge<String>) () -> "apollo");
+
+    assertThat(exposition.scrape().utf8(), is(
+        "# TYPE name gauge\n"
+        + "# TYPE queue_size gauge\n"
+        + "queue_size 7\n"
+        + "# TYPE ratio gauge\n"
+        + "ratio 0.25\n"
+        + "# EOF\n"));
+  }
+
+  @Test
+  public void shouldRenderTimersAsSummariesInSeconds() {
+    final Timer timer =
+        registry.timer(MetricId.build().tagged("what", "endpoint-request-duration"));
+    timer.update(250, TimeUnit.MILLISECONDS);
+
+    final String text = exposition.scrape().utf8();
+
+    assertThat(text, containsString("# TYPE endpoint_request_duration_seconds summary\n"));
+    assertThat(text, containsString("endpoint_request_duration_seconds{quantile=\"0.99\"} 0.25\n"));
+    assertThat(text, containsString("endpoint_request_duration_seconds_count 1\n"));
+  }
+
+  @Test
+  public void shouldRenderHistogramsAsSummaries() {
+    registry.histogram(MetricId.build().tagged("what", "request-fanout-factor", "unit", "request"))
+        .update(4);
+
+    final String text = exposition.scrape().utf8();
+
+    assertThat(text, containsString("# TYPE request_fanout_factor summary\n"));
+    assertThat(text,
+        containsString("request_fanout_factor{unit=\"request\",quantile=\"0.5\"} 4\n"));
+    assertThat(text, containsString("request_fanout_factor_count{unit=\"request\"} 1\n"));
+  }
+
+  @Test
+  public void shouldEscapeLabelValues() {
+    registry.counter(MetricId.build().tagged("what", "errors", "message", "a \"b\"\\c\nd")).inc();
+
+    assertThat(exposition.scrape().utf8(),
+        containsString("errors_total{message=\"a \\\"b\\\"\\\\c\\nd\"} 1\n"));
+  }
+
+  @Test
+  public void shouldSkipMetricsWhoseNameIsTakenByAnotherType() {
+    registry.counter(MetricId.build().tagged("what", "conflict", "kind", "counter")).inc();
+    registry.register(MetricId.build().tagged("what", "conflict", "kind", "gauge"),
+                      (Gauge<Integer>) () -> 1);
+
+    final String text = exposition.scrape().utf8();
+
+    assertThat(text, not(containsString("kind=\"gauge\"")));
+    assertThat(text, endsWith("# EOF\n"));
+  }
+
+  @Test
+  public void shouldReuseRenderingWithinCacheInterval() {
+    registry.meter(REQUEST_RATE).mark();
+    final ByteString first = exposition.scrape();
+
+    registry.meter(REQUEST_RATE).mark();
+    nanoTime.addAndGet(CACHE_INTERVAL - 1);
+
+    assertThat(exposition.scrape(), is(sameInstance(first)));
+  }
+
+  @Test
+  public void shouldRenderAgainAfterCacheInterval() {
+    registry.meter(REQUEST_RATE).mark();
+    exposition.scrape();
+
+    registry.meter(REQUEST_RATE).mark();
+    nanoTime.addAndGet(CACHE_INTERVAL);
+
+    assertThat(exposition.scrape().utf8(), containsString("status_code=\"200\"} 2\n"));
+  }
+
+  @Test
+  public void shouldSanitizeNames() {
+    assertThat(OpenMetricsExposition.sanitizeMetricName("9-lives:total"), is("_9_lives:total"));
+    assertThat(OpenMetricsExposition.sanitizeLabelName("status-code"), is("status_code"));
+    assertThat(OpenMetricsExposition.sanitizeLabelName("a:b"), is("a_b"));
+    assertThat(OpenMetricsExposition.sanitizeLabelName("what"), is(nullValue()));
+    assertThat(OpenMetricsExposition.sanitizeLabelName("__name__"), is(nullValue()));
+  }
+}
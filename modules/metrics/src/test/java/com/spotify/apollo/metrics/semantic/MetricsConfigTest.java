@@ -44,6 +44,40 @@ public class MetricsConfigTest {
       "metrics.reservoir-ttl: 30")).reservoirTtl(), is(30));
   }
 
+  @Test
+  public void testDefaultReservoir() {
+    MetricsConfig metricsConfig = new MetricsConfig(ConfigFactory.empty());
+
+    assertThat(metricsConfig.reservoir(), is("ttl"));
+    assertThat(metricsConfig.reservoirInterval(), is(10));
+  }
+
+  @Test
+  public void testOverrideDefaultReservoir() {
+    MetricsConfig metricsConfig = new MetricsConfig(ConfigFactory.parseString(
+        "metrics.reservoir: hdr\nmetrics.reservoir-interval: 30"));
+
+    assertThat(metricsConfig.reservoir(), is("hdr"));
+    assertThat(metricsConfig.reservoirInterval(), is(30));
+  }
+
+  @Test
+  public void testDefaultOpenMetrics() {
+    MetricsConfig metricsConfig = new MetricsConfig(ConfigFactory.empty());
+
+    assertThat(metricsConfig.openMetrics(), is(false));
+    assertThat(metricsConfig.openMetricsCacheMillis(), is(1000));
+  }
+
+  @Test
+  public void testEnableOpenMetrics() {
+    MetricsConfig metricsConfig = new MetricsConfig(ConfigFactory.parseString(
+        "metrics.openmetrics: true\nmetrics.openmetrics-cache-millis: 5000"));
+
+    assertThat(metricsConfig.openMetrics(), is(true));
+    assertThat(metricsConfig.openMetricsCacheMillis(), is(5000));
+  }
+
   @Test
   public void shouldReturnDefaultIfNoConfig() throws Exception {
     assertThat(new MetricsConfig(ConfigFactory.empty()).serverMetrics(),
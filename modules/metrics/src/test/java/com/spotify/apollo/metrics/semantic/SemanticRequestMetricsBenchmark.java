@@ -0,0 +1,112 @@
+/*-
+ * -\-\-
+ * Spotify Apollo Metrics Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.metrics.semantic;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+import com.spotify.apollo.metrics.RequestMetrics;
+import com.spotify.metrics.core.MetricId;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+import com.typesafe.config.ConfigFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import okio.ByteString;
+
+/**
+ * Measures recording the metrics of one request with all metrics enabled, from looking up the
+ * endpoint to the reply. Run with the GC profiler to see the bytes allocated per request, which
+ * should be no more than the {@link SemanticRequestMetrics} itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SemanticRequestMetricsBenchmark {
+
+  private static final Request REQUEST =
+      Request.forUri("/albums", "PUT").withPayload(ByteString.encodeUtf8("{}"));
+  private static final Response<ByteString> OK =
+      Response.forPayload(ByteString.encodeUtf8("{\"id\":1}"));
+  private static final Response<ByteString> NOT_FOUND = Response.forStatus(Status.NOT_FOUND);
+  private static final Response<ByteString> UNAVAILABLE =
+      Response.forStatus(Status.SERVICE_UNAVAILABLE);
+
+  private SemanticServiceMetrics serviceMetrics;
+
+  public static void main(String... args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(SemanticRequestMetricsBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .warmupIterations(5)
+        .measurementIterations(10)
+        .threads(1)
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() {
+    serviceMetrics = new SemanticServiceMetrics(
+        new SemanticMetricRegistry(),
+        MetricId.EMPTY.tagged("service", "benchmark"),
+        Collections.emptySet(),
+        what -> true,
+        DurationThresholdConfig.parseConfig(ConfigFactory.empty()));
+  }
+
+  @Benchmark
+  public RequestMetrics ok() {
+    return call(OK);
+  }
+
+  @Benchmark
+  public RequestMetrics notFound() {
+    return call(NOT_FOUND);
+  }
+
+  @Benchmark
+  public RequestMetrics unavailable() {
+    return call(UNAVAILABLE);
+  }
+
+  private RequestMetrics call(Response<ByteString> response) {
+    RequestMetrics metrics = serviceMetrics.metricsForEndpointCall("PUT:/albums");
+    metrics.incoming(REQUEST);
+    metrics.response(response);
+    return metrics;
+  }
+}
@@ -28,6 +28,7 @@ import com.codahale.metrics.Timer;
 import com.spotify.apollo.Request;
 import com.spotify.apollo.Response;
 import com.spotify.apollo.metrics.RequestMetrics;
+import com.spotify.apollo.metrics.RequestPhase;
 import com.spotify.metrics.core.MetricId;
 import com.spotify.metrics.core.SemanticMetricRegistry;
 
@@ -55,6 +56,7 @@ import static com.spotify.apollo.Status.BAD_REQUEST;
 import static com.spotify.apollo.metrics.semantic.What.DROPPED_REQUEST_RATE;
 import static com.spotify.apollo.metrics.semantic.What.ENDPOINT_REQUEST_DURATION;
 import static com.spotify.apollo.metrics.semantic.What.ENDPOINT_REQUEST_DURATION_THRESHOLD_RATE;
+import static com.spotify.apollo.metrics.semantic.What.ENDPOINT_REQUEST_QUEUE_DURATION;
 import static com.spotify.apollo.metrics.semantic.What.ENDPOINT_REQUEST_RATE;
 import static com.spotify.apollo.metrics.semantic.What.ERROR_RATIO;
 import static com.spotify.apollo.metrics.semantic.What.REQUEST_FANOUT_FACTOR;
@@ -523,6 +525,36 @@ public class SemanticServiceMetricsTest {
     );
   }
 
+  @Test
+  public void shouldTrackRequestPhaseDurations() throws Exception {
+    requestMetrics.phase(RequestPhase.ROUTING, TimeUnit.MICROSECONDS.toNanos(30));
+    requestMetrics.phase(RequestPhase.SERIALIZATION, TimeUnit.MICROSECONDS.toNanos(120));
+
+    Map<MetricId, Timer> routing = metricRegistry.getTimers(
+        (metricId, metric) ->
+            metricId.getTags().get("what").equals("endpoint-request-routing-duration")
+    );
+    Map<MetricId, Timer> serialization = metricRegistry.getTimers(
+        (metricId, metric) ->
+            metricId.getTags().get("what").equals("endpoint-request-serialization-duration")
+    );
+
+    assertThat(routing.size(), is(1));
+    assertThat(routing.values().iterator().next().getCount(), is(1L));
+    assertThat(serialization.size(), is(1));
+    assertThat(serialization.values().iterator().next().getSnapshot().getMax(),
+               is(TimeUnit.MICROSECONDS.toNanos(120)));
+  }
+
+  @Test
+  public void shouldSupportDisablingRequestPhaseDurations() throws Exception {
+    setupWithPredicate(what -> what != ENDPOINT_REQUEST_QUEUE_DURATION);
+
+    requestMetrics.phase(RequestPhase.QUEUE, 1000);
+
+    assertNotInRegistry(ENDPOINT_REQUEST_QUEUE_DURATION);
+  }
+
   private Matcher<MetricId> meterWithTag(String tag, String value) {
     return new TypeSafeMatcher<MetricId>() {
       @Override
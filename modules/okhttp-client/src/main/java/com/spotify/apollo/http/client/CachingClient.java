@@ -0,0 +1,285 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+import com.spotify.apollo.http.CacheControl;
+import com.spotify.apollo.http.ResponseWeigher;
+import com.spotify.metrics.core.MetricId;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+
+import com.codahale.metrics.Meter;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import okio.ByteString;
+
+/**
+ * Keeps responses to http GET requests in memory, as allowed by their {@code Cache-Control}
+ * header. Fresh responses are served without a call. Stale responses with an {@code ETag} are
+ * revalidated with {@code If-None-Match}, so that an unchanged response comes back as a
+ * {@code 304 Not Modified} without a body.
+ *
+ * <p>Freshness is counted from when a response was received, using the {@code s-maxage} or
+ * {@code max-age} directive; {@code Expires} headers are ignored. Responses marked
+ * {@code no-store} or {@code private} are not kept, and ones marked {@code no-cache} are
+ * revalidated every time. Responses are told apart by uri and {@code Authorization} headers; of
+ * a response that {@code Vary}s on request headers, only the latest variant is kept.
+ */
+class CachingClient implements IncomingRequestAwareClient {
+
+  private static final String AUTHORIZATION = "Authorization";
+  private static final String CACHE_CONTROL = "Cache-Control";
+  private static final String ETAG = "ETag";
+  private static final String IF_NONE_MATCH = "If-None-Match";
+  private static final String VARY = "Vary";
+
+  private final IncomingRequestAwareClient delegate;
+  private final LongSupplier nanoTime;
+  private final Cache<String, Entry> entries;
+  private final SemanticMetricRegistry metricRegistry;
+  private final ConcurrentMap<String, HostMeters> meters = new ConcurrentHashMap<>();
+  private final MetricId baseId = MetricId.build()
+      .tagged("protocol", "http/https");
+
+  CachingClient(IncomingRequestAwareClient delegate,
+                long maxBytes,
+                SemanticMetricRegistry metricRegistry,
+                LongSupplier nanoTime) {
+    this.delegate = delegate;
+    this.metricRegistry = metricRegistry;
+    this.nanoTime = nanoTime;
+    // a single segment keeps the memory limit exact across all entries
+    this.entries = CacheBuilder.newBuilder()
+        .concurrencyLevel(1)
+        .maximumWeight(maxBytes)
+        .weigher((String key, Entry entry) -> entry.weight)
+        .build();
+  }
+
+  @Override
+  public CompletionStage<Response<ByteString>> send(Request request, Optional<Request> incoming) {
+    if (!isCacheable(request)) {
+      return delegate.send(request, incoming);
+    }
+
+    final CacheControl requestCacheControl = CacheControl.parse(request.header(CACHE_CONTROL));
+    if (requestCacheControl.noStore()) {
+      return delegate.send(request, incoming);
+    }
+
+    final HostMeters hostMeters =
+        meters.computeIfAbsent(HttpUris.authority(request.uri()), this::hostMeters);
+    final String key = key(request, incoming);
+    final Entry entry = entries.getIfPresent(key);
+
+    if (entry == null || !entry.matchesVary(request)) {
+      hostMeters.misses.mark();
+      return fetch(key, request, incoming);
+    }
+
+    if (!requestCacheControl.noCache() && nanoTime.getAsLong() - entry.freshUntilNanos < 0) {
+      hostMeters.hits.mark();
+      return CompletableFuture.completedFuture(entry.response);
+    }
+
+    if (!entry.etag.isPresent()) {
+      entries.asMap().remove(key, entry);
+      hostMeters.misses.mark();
+      return fetch(key, request, incoming);
+    }
+
+    return delegate.send(request.withHeader(IF_NONE_MATCH, entry.etag.get()), incoming)
+        .thenApply(response -> {
+          if (response.status().code() == Status.NOT_MODIFIED.code()) {
+            hostMeters.revalidations.mark();
+            final CacheControl cacheControl = CacheControl.parse(
+                either(response.header(CACHE_CONTROL), entry.response.header(CACHE_CONTROL)));
+            entries.asMap().replace(key, entry, new Entry(
+                entry.response,
+                either(response.header(ETAG), entry.etag),
+                entry.varyValues,
+                nanoTime.getAsLong() + freshnessNanos(cacheControl)));
+            return entry.response;
+          }
+          hostMeters.misses.mark();
+          store(key, request, response);
+          return response;
+        });
+  }
+
+  private CompletionStage<Response<ByteString>> fetch(
+      String key, Request request, Optional<Request> incoming) {
+    return delegate.send(request, incoming)
+        .thenApply(response -> {
+          store(key, request, response);
+          return response;
+        });
+  }
+
+  long sizeBytes() {
+    long size = 0;
+    for (Entry entry : entries.asMap().values()) {
+      size += entry.weight;
+    }
+    return size;
+  }
+
+  private static boolean isCacheable(Request request) {
+    return "GET".equals(request.method())
+           && !request.payload().isPresent()
+           // the caller does its own revalidation
+           && !request.header(IF_NONE_MATCH).isPresent()
+           && HttpUris.isHttp(request.uri());
+  }
+
+  private static String key(Request request, Optional<Request> incoming) {
+    // HttpClient forwards the Authorization header of the incoming request, so responses can
+    // depend on it as well as on the request's own
+    final StringBuilder key = new StringBuilder(request.uri());
+    appendValue(key, request.header(AUTHORIZATION));
+    appendValue(key, incoming.flatMap(req -> req.header(AUTHORIZATION)));
+    return key.toString();
+  }
+
+  private static void appendValue(StringBuilder key, Optional<String> value) {
+    if (value.isPresent()) {
+      key.append(' ').append(value.get().length()).append(':').append(value.get());
+    } else {
+      key.append(" -");
+    }
+  }
+
+  private void store(String key, Request request, Response<ByteString> response) {
+    if (response.status().code() != Status.OK.code()) {
+      return;
+    }
+
+    final CacheControl cacheControl = CacheControl.parse(response.header(CACHE_CONTROL));
+    final Optional<String> etag = response.header(ETAG);
+    if (cacheControl.noStore() || cacheControl.isPrivate()) {
+      return;
+    }
+
+    final long freshnessNanos = freshnessNanos(cacheControl);
+    if (freshnessNanos == 0 && !etag.isPresent()) {
+      // would never be used
+      return;
+    }
+
+    final Optional<String> vary = response.header(VARY);
+    if (vary.isPresent() && vary.get().trim().equals("*")) {
+      return;
+    }
+
+    entries.put(key, new Entry(
+        response, etag, varyValues(vary, request), nanoTime.getAsLong() + freshnessNanos));
+  }
+
+  private static long freshnessNanos(CacheControl cacheControl) {
+    return cacheControl.noCache()
+           ? 0
+           : TimeUnit.SECONDS.toNanos(Math.max(0, cacheControl.maxAgeSeconds()));
+  }
+
+  private static String[][] varyValues(Optional<String> vary, Request request) {
+    if (!vary.isPresent()) {
+      return new String[0][];
+    }
+    final String[] names = vary.get().split(",");
+    final String[][] values = new String[names.length][];
+    for (int i = 0; i < names.length; i++) {
+      final String name = names[i].trim().toLowerCase(Locale.ROOT);
+      values[i] = new String[] {name, request.header(name).orElse(null)};
+    }
+    return values;
+  }
+
+  private HostMeters hostMeters(String targetHost) {
+    final MetricId id = baseId
+        .tagged("what", "http-cache-request-rate")
+        .tagged("target-host", targetHost)
+        .tagged("unit", "request");
+    return new HostMeters(
+        metricRegistry.meter(id.tagged("result", "hit")),
+        metricRegistry.meter(id.tagged("result", "revalidated")),
+        metricRegistry.meter(id.tagged("result", "miss")));
+  }
+
+  private static final class HostMeters {
+
+    private final Meter hits;
+    private final Meter revalidations;
+    private final Meter misses;
+
+    HostMeters(Meter hits, Meter revalidations, Meter misses) {
+      this.hits = hits;
+      this.revalidations = revalidations;
+      this.misses = misses;
+    }
+  }
+
+  private static final class Entry {
+
+    private final Response<ByteString> response;
+    private final Optional<String> etag;
+    // pairs of lower case header name and request value
+    private final String[][] varyValues;
+    private final long freshUntilNanos;
+    private final int weight;
+
+    Entry(Response<ByteString> response,
+          Optional<String> etag,
+          String[][] varyValues,
+          long freshUntilNanos) {
+      this.response = response;
+      this.etag = etag;
+      this.varyValues = varyValues;
+      this.freshUntilNanos = freshUntilNanos;
+      this.weight = ResponseWeigher.weigh(response);
+    }
+
+    boolean matchesVary(Request request) {
+      for (String[] nameAndValue : varyValues) {
+        final Optional<String> value = request.header(nameAndValue[0]);
+        if (!value.equals(Optional.ofNullable(nameAndValue[1]))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static Optional<String> either(Optional<String> preferred, Optional<String> fallback) {
+    return preferred.isPresent() ? preferred : fallback;
+  }
+}
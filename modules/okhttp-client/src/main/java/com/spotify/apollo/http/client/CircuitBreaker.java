@@ -0,0 +1,288 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * A circuit breaker for the calls to one downstream authority.
+ *
+ * <p>While closed, the outcomes of the latest calls are kept in a sliding window. Once the window
+ * has enough calls and the share of failed or slow calls in it reaches a threshold, the breaker
+ * opens and calls are rejected without being sent. After a while it lets a few probe calls
+ * through: if they all succeed it closes again, and if any of them fails it opens again.
+ */
+class CircuitBreaker {
+
+  enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  /**
+   * Tells a caller whether its call counts towards the sliding window or is a probe. A permit
+   * belongs to the state the breaker was in when it was given out, and its outcome is ignored
+   * once the breaker has changed state since.
+   */
+  static final class Permit {
+
+    private final boolean probe;
+    private final long generation;
+
+    private Permit(boolean probe, long generation) {
+      this.probe = probe;
+      this.generation = generation;
+    }
+
+    boolean isProbe() {
+      return probe;
+    }
+  }
+
+  /**
+   * Notified of state changes and rejected calls, with the lock of the breaker held.
+   */
+  interface Listener {
+
+    default void transition(State from, State to) {
+    }
+
+    default void rejected() {
+    }
+  }
+
+  private static final byte FAILED = 1;
+  private static final byte SLOW = 2;
+
+  private final Settings settings;
+  private final LongSupplier nanoTime;
+  private final Listener listener;
+
+  // read without the lock, so that calls through a closed breaker do not contend on it; the
+  // permit is replaced before the state changes
+  private volatile State state = State.CLOSED;
+  private volatile Permit callPermit = new Permit(false, 0);
+
+  // guarded by this
+  private final byte[] window;
+  private int next;
+  private int calls;
+  private int failures;
+  private int slowCalls;
+  private long openUntilNanos;
+  private int probesInFlight;
+  private int probesSucceeded;
+  // counts state changes
+  private long generation;
+  private Permit probePermit;
+
+  CircuitBreaker(Settings settings, LongSupplier nanoTime, Listener listener) {
+    this.settings = settings;
+    this.nanoTime = nanoTime;
+    this.listener = listener;
+    this.window = new byte[settings.windowSize];
+  }
+
+  /**
+   * Returns a permit to send a call, or null if the call should be rejected. The caller must
+   * report the outcome of a permitted call with {@link #complete(Permit, long, boolean)} or
+   * {@link #release(Permit)}.
+   */
+  Permit tryAcquire() {
+    if (state == State.CLOSED) {
+      return callPermit;
+    }
+
+    synchronized (this) {
+      switch (state) {
+        case CLOSED:
+          return callPermit;
+
+        case OPEN:
+          if (nanoTime.getAsLong() - openUntilNanos < 0) {
+            listener.rejected();
+            return null;
+          }
+          probesInFlight = 0;
+          probesSucceeded = 0;
+          transition(State.HALF_OPEN);
+          // fall through to let this call be the first probe
+
+        default:
+          if (probesInFlight + probesSucceeded >= settings.halfOpenProbes) {
+            listener.rejected();
+            return null;
+          }
+          probesInFlight++;
+          return probePermit;
+      }
+    }
+  }
+
+  /**
+   * Reports the outcome of a permitted call that took {@code latencyNanos} to complete.
+   */
+  synchronized void complete(Permit permit, long latencyNanos, boolean failed) {
+    if (permit.generation != generation) {
+      // the outcome of a call sent before the breaker opened, or of a probe from an earlier
+      // half-open period, says nothing new
+      return;
+    }
+
+    final boolean slow = latencyNanos >= settings.slowCallNanos;
+
+    if (permit.probe) {
+      probesInFlight--;
+      if (failed || slow) {
+        open();
+      } else if (++probesSucceeded >= settings.halfOpenProbes) {
+        close();
+      }
+      return;
+    }
+
+    final byte outcome = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+    if (calls == window.length) {
+      forget(window[next]);
+    } else {
+      calls++;
+    }
+    window[next] = outcome;
+    next = (next + 1) % window.length;
+    if ((outcome & FAILED) != 0) {
+      failures++;
+    }
+    if ((outcome & SLOW) != 0) {
+      slowCalls++;
+    }
+
+    if (calls >= settings.minimumCalls
+        && (failures * 100.0 >= settings.failureRatePercent * calls
+            || slowCalls * 100.0 >= settings.slowCallRatePercent * calls)) {
+      open();
+    }
+  }
+
+  /**
+   * Releases a permitted call whose outcome is unknown, such as one that was cancelled.
+   */
+  synchronized void release(Permit permit) {
+    if (permit.probe && permit.generation == generation) {
+      probesInFlight--;
+    }
+  }
+
+  State state() {
+    return state;
+  }
+
+  /**
+   * The share of failed calls in the sliding window, in percent.
+   */
+  synchronized double failureRatePercent() {
+    return calls == 0 ? 0 : failures * 100.0 / calls;
+  }
+
+  /**
+   * The share of slow calls in the sliding window, in percent.
+   */
+  synchronized double slowCallRatePercent() {
+    return calls == 0 ? 0 : slowCalls * 100.0 / calls;
+  }
+
+  synchronized int calls() {
+    return calls;
+  }
+
+  private void forget(byte outcome) {
+    if ((outcome & FAILED) != 0) {
+      failures--;
+    }
+    if ((outcome & SLOW) != 0) {
+      slowCalls--;
+    }
+  }
+
+  private void open() {
+    openUntilNanos = nanoTime.getAsLong() + settings.openNanos;
+    transition(State.OPEN);
+  }
+
+  private void close() {
+    Arrays.fill(window, (byte) 0);
+    next = 0;
+    calls = 0;
+    failures = 0;
+    slowCalls = 0;
+    transition(State.CLOSED);
+  }
+
+  private void transition(State to) {
+    final State from = state;
+    generation++;
+    if (to == State.CLOSED) {
+      callPermit = new Permit(false, generation);
+    } else if (to == State.HALF_OPEN) {
+      probePermit = new Permit(true, generation);
+    }
+    state = to;
+    listener.transition(from, to);
+  }
+
+  static class Settings {
+
+    final int windowSize;
+    final int minimumCalls;
+    final double failureRatePercent;
+    final long slowCallNanos;
+    final double slowCallRatePercent;
+    final long openNanos;
+    final int halfOpenProbes;
+
+    /**
+     * @param windowSize           the number of latest calls to judge the downstream by
+     * @param minimumCalls         the number of calls needed in the window before opening
+     * @param failureRatePercent   the share of failed calls at which to open
+     * @param slowCallNanos        the latency from which a call counts as slow
+     * @param slowCallRatePercent  the share of slow calls at which to open
+     * @param openNanos            how long to reject calls before probing
+     * @param halfOpenProbes       the number of probes that must succeed to close
+     */
+    Settings(int windowSize,
+             int minimumCalls,
+             double failureRatePercent,
+             long slowCallNanos,
+             double slowCallRatePercent,
+             long openNanos,
+             int halfOpenProbes) {
+      if (windowSize < 1 || minimumCalls < 1 || halfOpenProbes < 1) {
+        throw new IllegalArgumentException(
+            "the window size, minimum calls and half-open probes must be positive");
+      }
+      this.windowSize = windowSize;
+      this.minimumCalls = Math.min(minimumCalls, windowSize);
+      this.failureRatePercent = failureRatePercent;
+      this.slowCallNanos = slowCallNanos;
+      this.slowCallRatePercent = slowCallRatePercent;
+      this.openNanos = openNanos;
+      this.halfOpenProbes = halfOpenProbes;
+    }
+  }
+}
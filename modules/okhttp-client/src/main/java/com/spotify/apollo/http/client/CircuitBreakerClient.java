@@ -0,0 +1,100 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.StatusType;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.LongSupplier;
+
+import okio.ByteString;
+
+import static com.spotify.apollo.http.client.CompletableFutures.propagateCancellation;
+
+/**
+ * Sends http requests through the {@link CircuitBreaker} of their authority. Requests rejected by
+ * an open breaker fail right away with a {@link CircuitBreakerOpenException}, rather than
+ * queueing up in okhttp for a downstream that is unlikely to answer. Calls that fail or reply
+ * with a server error count as failures.
+ */
+class CircuitBreakerClient implements IncomingRequestAwareClient {
+
+  private final IncomingRequestAwareClient delegate;
+  private final CircuitBreakers breakers;
+  private final LongSupplier nanoTime;
+
+  CircuitBreakerClient(IncomingRequestAwareClient delegate,
+                       CircuitBreakers breakers,
+                       LongSupplier nanoTime) {
+    this.delegate = delegate;
+    this.breakers = breakers;
+    this.nanoTime = nanoTime;
+  }
+
+  @Override
+  public CompletionStage<Response<ByteString>> send(Request request, Optional<Request> incoming) {
+    final String uri = request.uri();
+    if (!HttpUris.isHttp(uri)) {
+      return delegate.send(request, incoming);
+    }
+
+    final String authority = HttpUris.authority(uri);
+    final CircuitBreaker breaker = breakers.forAuthority(authority);
+    final CircuitBreaker.Permit permit = breaker.tryAcquire();
+    if (permit == null) {
+      final CompletableFuture<Response<ByteString>> rejected = new CompletableFuture<>();
+      rejected.completeExceptionally(new CircuitBreakerOpenException(authority));
+      return rejected;
+    }
+
+    final long start = nanoTime.getAsLong();
+
+    final CompletionStage<Response<ByteString>> response;
+    try {
+      response = delegate.send(request, incoming);
+    } catch (RuntimeException e) {
+      breaker.complete(permit, nanoTime.getAsLong() - start, true);
+      throw e;
+    }
+
+    final CompletableFuture<Response<ByteString>> future = response.toCompletableFuture();
+    future.whenComplete((reply, throwable) -> {
+      if (throwable instanceof CancellationException) {
+        breaker.release(permit);
+      } else {
+        breaker.complete(permit, nanoTime.getAsLong() - start,
+                         throwable != null || isServerError(reply));
+      }
+    });
+
+    // a caller giving up on the reply cancels the call, which releases the permit
+    return propagateCancellation(future);
+  }
+
+  private static boolean isServerError(Response<ByteString> response) {
+    return response.status().family() == StatusType.Family.SERVER_ERROR;
+  }
+}
@@ -0,0 +1,43 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import java.io.IOException;
+
+/**
+ * Fails calls that a circuit breaker rejected without sending them, since the authority they
+ * are for has been failing. See {@link HttpCircuitBreakerModule}.
+ */
+public class CircuitBreakerOpenException extends IOException {
+
+  private final String authority;
+
+  CircuitBreakerOpenException(String authority) {
+    super("circuit breaker open for " + authority);
+    this.authority = authority;
+  }
+
+  /**
+   * The authority that calls are rejected for, such as {@code search.example.com:8080}.
+   */
+  public String authority() {
+    return authority;
+  }
+}
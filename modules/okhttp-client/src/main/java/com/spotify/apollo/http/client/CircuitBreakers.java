@@ -0,0 +1,110 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.spotify.metrics.core.MetricId;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The {@link CircuitBreaker}s of a service, one per downstream authority, created as they are
+ * first called. Each breaker reports its state changes and rejected calls as metrics.
+ */
+class CircuitBreakers {
+
+  private final CircuitBreaker.Settings settings;
+  private final SemanticMetricRegistry metricRegistry;
+  private final LongSupplier nanoTime;
+  private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+  private final MetricId baseId = MetricId.build()
+      .tagged("protocol", "http/https");
+
+  CircuitBreakers(CircuitBreaker.Settings settings,
+                  SemanticMetricRegistry metricRegistry,
+                  LongSupplier nanoTime) {
+    this.settings = settings;
+    this.metricRegistry = metricRegistry;
+    this.nanoTime = nanoTime;
+  }
+
+  CircuitBreaker forAuthority(String authority) {
+    return breakers.computeIfAbsent(authority, this::create);
+  }
+
+  Map<String, CircuitBreaker> all() {
+    return breakers;
+  }
+
+  private CircuitBreaker create(String authority) {
+    final MetricId id = baseId.tagged("target-host", authority);
+    final CircuitBreaker breaker =
+        new CircuitBreaker(settings, nanoTime, new MetricsListener(id));
+
+    metricRegistry.register(
+        id.tagged("what", "circuit-breaker-state"),
+        (Gauge<Integer>) () -> stateValue(breaker.state()));
+    return breaker;
+  }
+
+  private static int stateValue(CircuitBreaker.State state) {
+    switch (state) {
+      case CLOSED:
+        return 0;
+      case HALF_OPEN:
+        return 1;
+      default:
+        return 2;
+    }
+  }
+
+  private class MetricsListener implements CircuitBreaker.Listener {
+
+    private final MetricId id;
+    private final Meter rejections;
+
+    MetricsListener(MetricId id) {
+      this.id = id;
+      this.rejections = metricRegistry.meter(
+          id.tagged("what", "circuit-breaker-rejection-rate", "unit", "request"));
+    }
+
+    @Override
+    public void transition(CircuitBreaker.State from, CircuitBreaker.State to) {
+      metricRegistry.meter(
+          id.tagged("what", "circuit-breaker-transition-rate",
+                    "state", to.name().toLowerCase(Locale.ROOT),
+                    "unit", "transition"))
+          .mark();
+    }
+
+    @Override
+    public void rejected() {
+      rejections.mark();
+    }
+  }
+}
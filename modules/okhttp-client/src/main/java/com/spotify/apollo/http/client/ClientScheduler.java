@@ -0,0 +1,51 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * The scheduler shared by the http client and its decorators, for ttl timeouts, delayed
+ * retries and backup requests. Its tasks only complete futures or hand calls over to okhttp,
+ * so a single daemon thread keeps up with all of them.
+ */
+final class ClientScheduler {
+
+  static final ScheduledExecutorService INSTANCE = create();
+
+  private ClientScheduler() {
+  }
+
+  private static ScheduledExecutorService create() {
+    final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(
+        1,
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("apollo-http-client-scheduler-%d")
+            .build());
+    // most calls complete before their timeout, retry or backup is due, so cancelled tasks are
+    // dropped from the queue right away
+    executor.setRemoveOnCancelPolicy(true);
+    return executor;
+  }
+}
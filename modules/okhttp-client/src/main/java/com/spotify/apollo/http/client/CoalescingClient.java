@@ -0,0 +1,196 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.google.common.collect.ImmutableList;
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+import com.spotify.metrics.core.MetricId;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+
+import com.codahale.metrics.Meter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import okio.ByteString;
+
+/**
+ * Lets concurrent identical http GET and HEAD requests share a single call. Requests are
+ * identical when they have the same method, uri, {@code Authorization} headers and values of a
+ * configured list of headers.
+ *
+ * <p>A request only joins a call in flight if that call will be done, one way or another, by the
+ * time the ttl of the request runs out. Requests with a payload are never shared.
+ */
+class CoalescingClient implements IncomingRequestAwareClient {
+
+  private static final String AUTHORIZATION_HEADER = "Authorization";
+
+  private final IncomingRequestAwareClient delegate;
+  private final List<String> headers;
+  private final SemanticMetricRegistry metricRegistry;
+  private final LongSupplier nanoTime;
+  private final MetricId baseId = MetricId.build()
+      .tagged("what", "coalesced-request-rate")
+      .tagged("protocol", "http/https")
+      .tagged("unit", "request");
+  private final ConcurrentMap<Key, InFlight> inFlight = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Meter> meters = new ConcurrentHashMap<>();
+
+  CoalescingClient(IncomingRequestAwareClient delegate,
+                   List<String> headers,
+                   SemanticMetricRegistry metricRegistry,
+                   LongSupplier nanoTime) {
+    this.delegate = delegate;
+    this.headers = ImmutableList.copyOf(headers);
+    this.metricRegistry = metricRegistry;
+    this.nanoTime = nanoTime;
+  }
+
+  @Override
+  public CompletionStage<Response<ByteString>> send(Request request, Optional<Request> incoming) {
+    if (!isShareable(request)) {
+      return delegate.send(request, incoming);
+    }
+
+    final Key key = key(request, incoming);
+    final long deadlineNanos = request.ttl()
+        .map(ttl -> nanoTime.getAsLong() + ttl.toNanos())
+        .orElse(Long.MAX_VALUE);
+
+    final InFlight existing = inFlight.get(key);
+    if (existing != null) {
+      if (existing.deadlineNanos > deadlineNanos) {
+        // the call in flight may outlive this request
+        return delegate.send(request, incoming);
+      }
+      meters.computeIfAbsent(HttpUris.authority(request.uri()), this::meter).mark();
+      return copy(existing.response);
+    }
+
+    final InFlight created = new InFlight(deadlineNanos);
+    final InFlight raced = inFlight.putIfAbsent(key, created);
+    if (raced != null) {
+      // another identical request got in first; don't bother with sharing for this one
+      return delegate.send(request, incoming);
+    }
+
+    try {
+      delegate.send(request, incoming).whenComplete((response, throwable) -> {
+        // stop sharing before completing, so later requests don't get a reply that is done
+        inFlight.remove(key, created);
+        if (throwable != null) {
+          created.response.completeExceptionally(throwable);
+        } else {
+          created.response.complete(response);
+        }
+      });
+    } catch (RuntimeException e) {
+      inFlight.remove(key, created);
+      throw e;
+    }
+
+    return copy(created.response);
+  }
+
+  private Meter meter(String targetHost) {
+    return metricRegistry.meter(baseId.tagged("target-host", targetHost));
+  }
+
+  private static boolean isShareable(Request request) {
+    return ("GET".equals(request.method()) || "HEAD".equals(request.method()))
+           && !request.payload().isPresent()
+           && HttpUris.isHttp(request.uri());
+  }
+
+  private Key key(Request request, Optional<Request> incoming) {
+    // HttpClient forwards the Authorization header of the incoming request, so it is part of the
+    // key along with the request's own
+    final String[] values = new String[headers.size() + 2];
+    values[0] = request.header(AUTHORIZATION_HEADER).orElse(null);
+    values[1] = incoming.flatMap(req -> req.header(AUTHORIZATION_HEADER)).orElse(null);
+    for (int i = 0; i < headers.size(); i++) {
+      values[i + 2] = request.header(headers.get(i)).orElse(null);
+    }
+    return new Key(request.method(), request.uri(), values);
+  }
+
+  /**
+   * Each caller gets a future of its own, so that one cancelling it doesn't affect the others.
+   */
+  private static CompletionStage<Response<ByteString>> copy(
+      CompletableFuture<Response<ByteString>> response) {
+    return response.thenApply(Function.identity());
+  }
+
+  private static final class InFlight {
+
+    private final long deadlineNanos;
+    private final CompletableFuture<Response<ByteString>> response = new CompletableFuture<>();
+
+    InFlight(long deadlineNanos) {
+      this.deadlineNanos = deadlineNanos;
+    }
+  }
+
+  private static final class Key {
+
+    private final String method;
+    private final String uri;
+    private final String[] headerValues;
+    private final int hash;
+
+    Key(String method, String uri, String[] headerValues) {
+      this.method = method;
+      this.uri = uri;
+      this.headerValues = headerValues;
+      this.hash = 31 * (31 * method.hashCode() + uri.hashCode()) + Arrays.hashCode(headerValues);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) o;
+      return hash == other.hash
+             && method.equals(other.method)
+             && uri.equals(other.uri)
+             && Arrays.equals(headerValues, other.headerValues);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Helpers for the futures that client decorators hand back to their callers.
+ */
+final class CompletableFutures {
+
+  private CompletableFutures() {
+  }
+
+  /**
+   * Returns a stage that completes like {@code source}, and that cancels {@code source} when it is
+   * cancelled itself. Cancelling a dependent stage doesn't propagate back to the stage it was
+   * derived from, so without this a caller giving up on a reply would leave the call running, and
+   * whatever waits for its outcome, such as a held permit, would not be released until it ends.
+   */
+  static <T> CompletableFuture<T> propagateCancellation(CompletableFuture<T> source) {
+    final CompletableFuture<T> result = source.thenApply(value -> value);
+    result.whenComplete((value, throwable) -> {
+      if (result.isCancelled()) {
+        source.cancel(false);
+      }
+    });
+    return result;
+  }
+}
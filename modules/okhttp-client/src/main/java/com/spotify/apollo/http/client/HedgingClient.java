@@ -0,0 +1,200 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import okio.ByteString;
+
+/**
+ * Sends a backup copy of an http GET request when the first attempt hasn't completed after a
+ * while, and replies with whichever response arrives first. The other attempt is then cancelled.
+ *
+ * <p>The delay is either fixed or learned per authority as a percentile of the latency of first
+ * attempts. Backups are limited by a {@link RequestBudget} shared by all requests, and are only
+ * sent if the request has time left before its ttl.
+ */
+class HedgingClient implements IncomingRequestAwareClient {
+
+  private final IncomingRequestAwareClient delegate;
+  private final RequestBudget budget;
+  private final long fixedDelayNanos;
+  private final double percentile;
+  private final ScheduledExecutorService scheduler;
+  private final LongSupplier nanoTime;
+  private final ConcurrentMap<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+
+  /**
+   * @param fixedDelay the delay before sending a backup, or empty to learn it per authority
+   * @param percentile the latency percentile to use as the delay when learning it
+   */
+  HedgingClient(IncomingRequestAwareClient delegate,
+                RequestBudget budget,
+                Optional<Duration> fixedDelay,
+                double percentile,
+                ScheduledExecutorService scheduler,
+                LongSupplier nanoTime) {
+    this.delegate = delegate;
+    this.budget = budget;
+    this.fixedDelayNanos = fixedDelay.map(Duration::toNanos).orElse(-1L);
+    this.percentile = percentile;
+    this.scheduler = scheduler;
+    this.nanoTime = nanoTime;
+  }
+
+  @Override
+  public CompletionStage<Response<ByteString>> send(Request request, Optional<Request> incoming) {
+    if (!"GET".equals(request.method()) || !HttpUris.isHttp(request.uri())) {
+      return delegate.send(request, incoming);
+    }
+
+    budget.deposit();
+
+    final LatencyTracker tracker = latencies.computeIfAbsent(
+        HttpUris.authority(request.uri()), authority -> new LatencyTracker(percentile));
+    final long delayNanos = fixedDelayNanos >= 0 ? fixedDelayNanos : tracker.percentileNanos();
+    final long start = nanoTime.getAsLong();
+
+    final CompletableFuture<Response<ByteString>> primary =
+        delegate.send(request, incoming).toCompletableFuture();
+    primary.whenComplete((reply, throwable) -> {
+      // a cancelled attempt stopped early, usually because its backup won, so its latency is
+      // shorter than the real one
+      if (!(throwable instanceof CancellationException)) {
+        tracker.record(nanoTime.getAsLong() - start);
+      }
+    });
+
+    final boolean hasTimeForBackup =
+        request.ttl().map(ttl -> ttl.toNanos() > delayNanos).orElse(true);
+    if (delayNanos < 0 || !hasTimeForBackup) {
+      return primary;
+    }
+
+    return new HedgedCall(request, incoming, start).start(primary, delayNanos);
+  }
+
+  /**
+   * The state of one request that may get a backup.
+   */
+  private class HedgedCall {
+
+    private final Request request;
+    private final Optional<Request> incoming;
+    private final long start;
+    private final CompletableFuture<Response<ByteString>> result = new CompletableFuture<>();
+
+    private volatile CompletableFuture<Response<ByteString>> backup;
+
+    // guarded by this
+    private int pending = 1;
+
+    HedgedCall(Request request, Optional<Request> incoming, long start) {
+      this.request = request;
+      this.incoming = incoming;
+      this.start = start;
+    }
+
+    CompletableFuture<Response<ByteString>> start(
+        CompletableFuture<Response<ByteString>> primary, long delayNanos) {
+      primary.whenComplete(this::onAttemptCompleted);
+
+      final ScheduledFuture<?> timer =
+          scheduler.schedule(this::sendBackup, delayNanos, TimeUnit.NANOSECONDS);
+
+      // cancel whatever is still running once there is a reply, or if the caller gives up
+      result.whenComplete((reply, throwable) -> {
+        timer.cancel(false);
+        primary.cancel(false);
+        final CompletableFuture<Response<ByteString>> backup = this.backup;
+        if (backup != null) {
+          backup.cancel(false);
+        }
+      });
+
+      return result;
+    }
+
+    private void sendBackup() {
+      final Optional<Duration> remainingTtl =
+          request.ttl().map(ttl -> ttl.minusNanos(nanoTime.getAsLong() - start));
+      if (remainingTtl.isPresent() && !isPositive(remainingTtl.get())) {
+        return;
+      }
+
+      synchronized (this) {
+        if (result.isDone() || !budget.tryWithdraw()) {
+          return;
+        }
+        pending++;
+      }
+
+      final Request backupRequest = remainingTtl.map(request::withTtl).orElse(request);
+
+      final CompletableFuture<Response<ByteString>> backup;
+      try {
+        backup = delegate.send(backupRequest, incoming).toCompletableFuture();
+      } catch (RuntimeException e) {
+        onAttemptCompleted(null, e);
+        return;
+      }
+
+      this.backup = backup;
+      backup.whenComplete(this::onAttemptCompleted);
+      if (result.isDone()) {
+        backup.cancel(false);
+      }
+    }
+
+    private void onAttemptCompleted(Response<ByteString> reply, Throwable throwable) {
+      if (throwable == null) {
+        result.complete(reply);
+        return;
+      }
+
+      // fail only when no other attempt can still succeed
+      final boolean last;
+      synchronized (this) {
+        last = --pending == 0;
+      }
+      if (last) {
+        result.completeExceptionally(throwable);
+      }
+    }
+  }
+
+  private static boolean isPositive(Duration duration) {
+    return !duration.isNegative() && !duration.isZero();
+  }
+}
@@ -0,0 +1,111 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.multibindings.Multibinder;
+import com.spotify.apollo.environment.ClientDecorator;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+import com.spotify.apollo.module.AbstractApolloModule;
+import com.spotify.apollo.module.ApolloModule;
+import com.spotify.metrics.core.MetricId;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+
+import com.codahale.metrics.Gauge;
+
+import com.typesafe.config.Config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Module that keeps cacheable responses to http GET requests in memory. See
+ * {@link CachingClient}.
+ *
+ * <p>The memory used for responses is limited by {@code http.client.cache.maxBytes}. Like
+ * {@link HttpMetricModule}, this module must be declared <b>AFTER</b> the {@link HttpClientModule},
+ * and it needs a {@link SemanticMetricRegistry} for its hit ratio metrics.
+ *
+ * @see HttpClientModule
+ */
+public class HttpCacheModule extends AbstractApolloModule {
+
+  static final long DEFAULT_MAX_BYTES = 32 * 1024 * 1024;
+
+  private HttpCacheModule() {}
+
+  public static ApolloModule create() {
+    return new HttpCacheModule();
+  }
+
+  @Override
+  public String getId() {
+    return "http-cache";
+  }
+
+  @Override
+  protected void configure() {
+    Multibinder.newSetBinder(binder(), ClientDecorator.class)
+        .addBinding()
+        .to(CachingClientDecorator.class);
+  }
+
+  @Singleton
+  static class CachingClientDecorator implements ClientDecorator {
+
+    private final long maxBytes;
+    private final SemanticMetricRegistry metricRegistry;
+    private final List<CachingClient> clients = new CopyOnWriteArrayList<>();
+
+    @Inject
+    CachingClientDecorator(Config config, SemanticMetricRegistry metricRegistry) {
+      this.maxBytes = config.hasPath("http.client.cache.maxBytes")
+                      ? config.getBytes("http.client.cache.maxBytes")
+                      : DEFAULT_MAX_BYTES;
+      this.metricRegistry = metricRegistry;
+
+      // a metric can only be registered once, while the decorator may be applied to more than
+      // one client, so the gauge adds up all of their caches
+      metricRegistry.register(
+          MetricId.build()
+              .tagged("protocol", "http/https")
+              .tagged("what", "http-cache-size")
+              .tagged("unit", "B"),
+          (Gauge<Long>) this::sizeBytes);
+    }
+
+    @Override
+    public IncomingRequestAwareClient apply(IncomingRequestAwareClient baseClient) {
+      final CachingClient client =
+          new CachingClient(baseClient, maxBytes, metricRegistry, System::nanoTime);
+      clients.add(client);
+      return client;
+    }
+
+    long sizeBytes() {
+      long size = 0;
+      for (CachingClient client : clients) {
+        size += client.sizeBytes();
+      }
+      return size;
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.inject.Inject;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
+import com.google.inject.multibindings.Multibinder;
+import com.spotify.apollo.environment.ClientDecorator;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+import com.spotify.apollo.environment.MetaRouteProvider;
+import com.spotify.apollo.meta.JsonMetaSerializer;
+import com.spotify.apollo.meta.MetaApplication;
+import com.spotify.apollo.module.AbstractApolloModule;
+import com.spotify.apollo.module.ApolloModule;
+import com.spotify.apollo.route.AsyncHandler;
+import com.spotify.apollo.route.Middlewares;
+import com.spotify.apollo.route.Route;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+
+import com.typesafe.config.Config;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.spotify.apollo.environment.ConfigUtil.optionalDouble;
+import static com.spotify.apollo.environment.ConfigUtil.optionalInt;
+
+/**
+ * Module that puts a circuit breaker in front of every downstream authority, so that calls to a
+ * failing or slow downstream fail fast instead of piling up. See {@link CircuitBreaker} and
+ * {@link CircuitBreakerClient}.
+ *
+ * <p>Like {@link HttpMetricModule}, this module must be declared <b>AFTER</b> the
+ * {@link HttpClientModule}, and it needs a {@link SemanticMetricRegistry} for its metrics.
+ * Declaring it before the {@link HttpLoadBalancingModule} gives every host its own breaker,
+ * while declaring it after gives one breaker per logical service name. The state of the
+ * breakers is served at {@code /_meta/0/circuit-breakers}.
+ *
+ * @see HttpClientModule
+ */
+public class HttpCircuitBreakerModule extends AbstractApolloModule {
+
+  static final int DEFAULT_WINDOW_SIZE = 100;
+  static final int DEFAULT_MINIMUM_CALLS = 20;
+  static final double DEFAULT_FAILURE_RATE_PERCENT = 50;
+  static final double DEFAULT_SLOW_CALL_RATE_PERCENT = 50;
+  static final int DEFAULT_OPEN_MILLIS = 10_000;
+  static final int DEFAULT_HALF_OPEN_PROBES = 5;
+
+  private HttpCircuitBreakerModule() {}
+
+  public static ApolloModule create() {
+    return new HttpCircuitBreakerModule();
+  }
+
+  @Override
+  public String getId() {
+    return "http-circuit-breaker";
+  }
+
+  @Override
+  protected void configure() {
+    Multibinder.newSetBinder(binder(), ClientDecorator.class)
+        .addBinding()
+        .to(CircuitBreakerClientDecorator.class);
+    Multibinder.newSetBinder(binder(), MetaRouteProvider.class)
+        .addBinding()
+        .to(CircuitBreakerMetaRoutes.class);
+  }
+
+  @Provides
+  @Singleton
+  CircuitBreakers circuitBreakers(Config config, SemanticMetricRegistry metricRegistry) {
+    final String prefix = "http.client.circuitBreaker.";
+    final CircuitBreaker.Settings settings = new CircuitBreaker.Settings(
+        optionalInt(config, prefix + "windowSize").orElse(DEFAULT_WINDOW_SIZE),
+        optionalInt(config, prefix + "minimumCalls").orElse(DEFAULT_MINIMUM_CALLS),
+        optionalDouble(config, prefix + "failureRatePercent")
+            .orElse(DEFAULT_FAILURE_RATE_PERCENT),
+        optionalInt(config, prefix + "slowCallMillis")
+            .map(TimeUnit.MILLISECONDS::toNanos)
+            .orElse(Long.MAX_VALUE),
+        optionalDouble(config, prefix + "slowCallRatePercent")
+            .orElse(DEFAULT_SLOW_CALL_RATE_PERCENT),
+        TimeUnit.MILLISECONDS.toNanos(
+            optionalInt(config, prefix + "openMillis").orElse(DEFAULT_OPEN_MILLIS)),
+        optionalInt(config, prefix + "halfOpenProbes").orElse(DEFAULT_HALF_OPEN_PROBES));
+    return new CircuitBreakers(settings, metricRegistry, System::nanoTime);
+  }
+
+  static class CircuitBreakerClientDecorator implements ClientDecorator {
+
+    private final CircuitBreakers breakers;
+
+    @Inject
+    CircuitBreakerClientDecorator(CircuitBreakers breakers) {
+      this.breakers = breakers;
+    }
+
+    @Override
+    public IncomingRequestAwareClient apply(IncomingRequestAwareClient baseClient) {
+      return new CircuitBreakerClient(baseClient, breakers, System::nanoTime);
+    }
+  }
+
+  static class CircuitBreakerMetaRoutes implements MetaRouteProvider {
+
+    private final CircuitBreakers breakers;
+
+    @Inject
+    CircuitBreakerMetaRoutes(CircuitBreakers breakers) {
+      this.breakers = breakers;
+    }
+
+    @Override
+    public Stream<Route<? extends AsyncHandler<?>>> routes() {
+      return Stream.of(
+          Route.sync("GET", "/_meta/0/circuit-breakers", requestContext -> circuitBreakers())
+              .withDocString("The state of the circuit breakers of outgoing http calls, "
+                             + "per downstream authority.", "")
+              .withMiddleware(Middlewares.serialize(new JsonMetaSerializer())));
+    }
+
+    MetaApplication.Result<Map<String, CircuitBreakerInfo>> circuitBreakers() {
+      final ImmutableSortedMap.Builder<String, CircuitBreakerInfo> infos =
+          ImmutableSortedMap.naturalOrder();
+      for (Map.Entry<String, CircuitBreaker> breaker : breakers.all().entrySet()) {
+        infos.put(breaker.getKey(), new CircuitBreakerInfo(breaker.getValue()));
+      }
+      return new MetaApplication.Result<>(infos.build());
+    }
+  }
+
+  public static class CircuitBreakerInfo {
+    public final String state;
+    public final int calls;
+    public final double failureRatePercent;
+    public final double slowCallRatePercent;
+
+    CircuitBreakerInfo(CircuitBreaker breaker) {
+      this.state = breaker.state().name().toLowerCase(Locale.ROOT);
+      this.calls = breaker.calls();
+      this.failureRatePercent = breaker.failureRatePercent();
+      this.slowCallRatePercent = breaker.slowCallRatePercent();
+    }
+  }
+}
@@ -22,15 +22,22 @@ package com.spotify.apollo.http.client;
 import com.google.inject.Inject;
 import com.spotify.apollo.environment.IncomingRequestAwareClient;
 
+import com.squareup.okhttp.Call;
 import com.squareup.okhttp.Headers;
 import com.squareup.okhttp.MediaType;
 import com.squareup.okhttp.OkHttpClient;
 import com.squareup.okhttp.Request;
 import com.squareup.okhttp.RequestBody;
+import com.typesafe.config.Config;
 
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.text.MessageFormat;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import okio.ByteString;
@@ -41,10 +48,28 @@ class HttpClient implements IncomingRequestAwareClient {
   private static final String AUTHORIZATION_HEADER = "Authorization";
 
   private final OkHttpClient client;
+  private final OkHttpClient untimedClient;
+  private final long maxResponseSize;
 
   @Inject
+  HttpClient(OkHttpClient client, Config config) {
+    this(client, config.hasPath("http.client.maxResponseSize")
+                 ? config.getBytes("http.client.maxResponseSize")
+                 : Long.MAX_VALUE);
+  }
+
   HttpClient(OkHttpClient client) {
+    this(client, Long.MAX_VALUE);
+  }
+
+  HttpClient(OkHttpClient client, long maxResponseSize) {
     this.client = client;
+    this.maxResponseSize = maxResponseSize;
+    // Calls with a ttl are bounded by cancelling them when it elapses, rather than by cloning the
+    // client with a matching read timeout for every call. The clone shares the dispatcher and
+    // connection pool of the configured client.
+    this.untimedClient = client.clone();
+    this.untimedClient.setReadTimeout(0, TimeUnit.MILLISECONDS);
   }
 
   @Deprecated
@@ -88,16 +113,43 @@ class HttpClient implements IncomingRequestAwareClient {
     final CompletableFuture<com.spotify.apollo.Response<ByteString>> result =
         new CompletableFuture<>();
 
-    //https://github.com/square/okhttp/wiki/Recipes#per-call-configuration
-    OkHttpClient finalClient = client;
-    if (apolloRequest.ttl().isPresent()
-        && client.getReadTimeout() != apolloRequest.ttl().get().toMillis()) {
-      finalClient = client.clone();
-      finalClient.setReadTimeout(apolloRequest.ttl().get().toMillis(), TimeUnit.MILLISECONDS);
+    final Call call;
+    if (apolloRequest.ttl().isPresent()) {
+      call = untimedClient.newCall(request);
+      scheduleTimeout(call, request, apolloRequest.ttl().get(), result);
+    } else {
+      call = client.newCall(request);
     }
 
-    finalClient.newCall(request).enqueue(TransformingCallback.create(result));
+    // callers that lose interest in the response, such as the loser of a hedged request, can
+    // cancel the future to release the connection
+    result.whenComplete((response, throwable) -> {
+      if (result.isCancelled()) {
+        call.cancel();
+      }
+    });
+    call.enqueue(TransformingCallback.create(result, maxResponseSize));
 
     return result;
   }
+
+  private static void scheduleTimeout(
+      Call call,
+      Request request,
+      Duration ttl,
+      CompletableFuture<com.spotify.apollo.Response<ByteString>> result) {
+    final long ttlMillis = ttl.toMillis();
+    final ScheduledFuture<?> timeout = ClientScheduler.INSTANCE.schedule(
+        () -> {
+          final IOException exception = new IOException(
+              MessageFormat.format("Request {0} failed", request),
+              new SocketTimeoutException("ttl of " + ttlMillis + " ms elapsed"));
+          if (result.completeExceptionally(exception)) {
+            call.cancel();
+          }
+        },
+        ttlMillis, TimeUnit.MILLISECONDS);
+
+    result.whenComplete((response, throwable) -> timeout.cancel(false));
+  }
 }
@@ -0,0 +1,84 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.multibindings.Multibinder;
+import com.spotify.apollo.environment.ClientDecorator;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+import com.spotify.apollo.module.AbstractApolloModule;
+import com.spotify.apollo.module.ApolloModule;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+
+import com.typesafe.config.Config;
+
+import java.util.List;
+
+/**
+ * Module that lets concurrent identical http GET requests share a single call. See
+ * {@link CoalescingClient}.
+ *
+ * <p>Headers that make responses differ, besides {@code Authorization}, need to be listed under
+ * {@code http.client.coalescing.headers}. Like {@link HttpMetricModule}, this module must be
+ * declared <b>AFTER</b> the {@link HttpClientModule}, and it needs a {@link SemanticMetricRegistry}
+ * to count shared requests.
+ *
+ * @see HttpClientModule
+ */
+public class HttpCoalescingModule extends AbstractApolloModule {
+
+  private HttpCoalescingModule() {}
+
+  public static ApolloModule create() {
+    return new HttpCoalescingModule();
+  }
+
+  @Override
+  public String getId() {
+    return "http-coalescing";
+  }
+
+  @Override
+  protected void configure() {
+    Multibinder.newSetBinder(binder(), ClientDecorator.class)
+        .addBinding()
+        .to(CoalescingClientDecorator.class);
+  }
+
+  static class CoalescingClientDecorator implements ClientDecorator {
+
+    private final List<String> headers;
+    private final SemanticMetricRegistry metricRegistry;
+
+    @Inject
+    CoalescingClientDecorator(Config config, SemanticMetricRegistry metricRegistry) {
+      this.headers = config.hasPath("http.client.coalescing.headers")
+                     ? config.getStringList("http.client.coalescing.headers")
+                     : ImmutableList.of();
+      this.metricRegistry = metricRegistry;
+    }
+
+    @Override
+    public IncomingRequestAwareClient apply(IncomingRequestAwareClient baseClient) {
+      return new CoalescingClient(baseClient, headers, metricRegistry, System::nanoTime);
+    }
+  }
+}
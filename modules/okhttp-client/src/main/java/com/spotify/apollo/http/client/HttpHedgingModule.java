@@ -0,0 +1,94 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.google.inject.Inject;
+import com.google.inject.multibindings.Multibinder;
+import com.spotify.apollo.environment.ClientDecorator;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+import com.spotify.apollo.module.AbstractApolloModule;
+import com.spotify.apollo.module.ApolloModule;
+
+import com.typesafe.config.Config;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static com.spotify.apollo.environment.ConfigUtil.optionalDouble;
+import static com.spotify.apollo.environment.ConfigUtil.optionalInt;
+
+/**
+ * Module that hedges http GET requests: when a request is slower than usual, a backup copy is
+ * sent and the first response to arrive is used. See {@link HedgingClient}.
+ *
+ * <p>Like {@link HttpMetricModule}, this module must be declared <b>AFTER</b> the
+ * {@link HttpClientModule}. Declaring it directly after lets the losing call be cancelled in
+ * okhttp; declaring it after the {@link HttpLoadBalancingModule} lets the backup go to another
+ * host.
+ *
+ * @see HttpClientModule
+ */
+public class HttpHedgingModule extends AbstractApolloModule {
+
+  static final double DEFAULT_PERCENTILE = 95;
+  static final double DEFAULT_BUDGET_PERCENT = 10;
+  static final int DEFAULT_MAX_HEDGES = 10;
+
+  private HttpHedgingModule() {}
+
+  public static ApolloModule create() {
+    return new HttpHedgingModule();
+  }
+
+  @Override
+  public String getId() {
+    return "http-hedging";
+  }
+
+  @Override
+  protected void configure() {
+    Multibinder.newSetBinder(binder(), ClientDecorator.class)
+        .addBinding()
+        .to(HedgingClientDecorator.class);
+  }
+
+  static class HedgingClientDecorator implements ClientDecorator {
+
+    private final RequestBudget budget;
+    private final Optional<Duration> fixedDelay;
+    private final double percentile;
+
+    @Inject
+    HedgingClientDecorator(Config config) {
+      final String prefix = "http.client.hedging.";
+      this.fixedDelay = optionalInt(config, prefix + "delayMillis").map(Duration::ofMillis);
+      this.percentile = optionalDouble(config, prefix + "percentile").orElse(DEFAULT_PERCENTILE);
+      this.budget = new RequestBudget(
+          optionalDouble(config, prefix + "budgetPercent").orElse(DEFAULT_BUDGET_PERCENT),
+          optionalInt(config, prefix + "maxHedges").orElse(DEFAULT_MAX_HEDGES));
+    }
+
+    @Override
+    public IncomingRequestAwareClient apply(IncomingRequestAwareClient baseClient) {
+      return new HedgingClient(
+          baseClient, budget, fixedDelay, percentile, ClientScheduler.INSTANCE, System::nanoTime);
+    }
+  }
+}
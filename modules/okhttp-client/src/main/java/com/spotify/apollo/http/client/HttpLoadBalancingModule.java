@@ -0,0 +1,126 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Inject;
+import com.google.inject.multibindings.Multibinder;
+import com.spotify.apollo.environment.ClientDecorator;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+import com.spotify.apollo.module.AbstractApolloModule;
+import com.spotify.apollo.module.ApolloModule;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigUtil;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.spotify.apollo.environment.ConfigUtil.optionalInt;
+
+/**
+ * Module that spreads http calls to logical service names over a configured list of hosts.
+ *
+ * <p>Hosts are listed per service name under {@code http.client.loadBalancing.services}:
+ *
+ * <pre>
+ * http.client.loadBalancing.services {
+ *   search: ["search-1.example.com:8080", "search-2.example.com:8080"]
+ * }
+ * </pre>
+ *
+ * <p>A call to {@code http://search/v1/query} then goes to one of the listed hosts, picked by
+ * {@link LoadBalancer}. Like {@link HttpMetricModule}, this module must be declared <b>AFTER</b>
+ * the {@link HttpClientModule}.
+ *
+ * @see HttpClientModule
+ */
+public class HttpLoadBalancingModule extends AbstractApolloModule {
+
+  static final int DEFAULT_FAILURES_BEFORE_EJECTION = 5;
+  static final int DEFAULT_EJECTION_TIME_MILLIS = 30_000;
+  static final int DEFAULT_DECAY_TIME_MILLIS = 10_000;
+
+  private HttpLoadBalancingModule() {}
+
+  public static ApolloModule create() {
+    return new HttpLoadBalancingModule();
+  }
+
+  @Override
+  public String getId() {
+    return "http-load-balancing";
+  }
+
+  @Override
+  protected void configure() {
+    Multibinder.newSetBinder(binder(), ClientDecorator.class)
+        .addBinding()
+        .to(LoadBalancingClientDecorator.class);
+  }
+
+  static class LoadBalancingClientDecorator implements ClientDecorator {
+
+    private final Map<String, LoadBalancer> balancers;
+
+    @Inject
+    LoadBalancingClientDecorator(Config config) {
+      this.balancers = balancers(config);
+    }
+
+    @Override
+    public IncomingRequestAwareClient apply(IncomingRequestAwareClient baseClient) {
+      return new LoadBalancingClient(baseClient, balancers, System::nanoTime);
+    }
+
+    private static Map<String, LoadBalancer> balancers(Config config) {
+      final String prefix = "http.client.loadBalancing.";
+      final int failuresBeforeEjection = optionalInt(config, prefix + "failuresBeforeEjection")
+          .orElse(DEFAULT_FAILURES_BEFORE_EJECTION);
+      final long ejectionNanos = TimeUnit.MILLISECONDS.toNanos(
+          optionalInt(config, prefix + "ejectionTimeMillis").orElse(DEFAULT_EJECTION_TIME_MILLIS));
+      final long decayNanos = TimeUnit.MILLISECONDS.toNanos(
+          optionalInt(config, prefix + "decayTimeMillis").orElse(DEFAULT_DECAY_TIME_MILLIS));
+
+      if (!config.hasPath(prefix + "services")) {
+        return ImmutableMap.of();
+      }
+
+      final ConfigObject services = config.getObject(prefix + "services");
+      final Config hosts = services.toConfig();
+      final ImmutableMap.Builder<String, LoadBalancer> balancers = ImmutableMap.builder();
+      for (String service : services.keySet()) {
+        balancers.put(
+            service.toLowerCase(Locale.ROOT),
+            new LoadBalancer(
+                hosts.getStringList(ConfigUtil.joinPath(service)),
+                failuresBeforeEjection,
+                ejectionNanos,
+                decayNanos,
+                System::nanoTime,
+                bound -> ThreadLocalRandom.current().nextInt(bound)));
+      }
+      return balancers.build();
+    }
+  }
+}
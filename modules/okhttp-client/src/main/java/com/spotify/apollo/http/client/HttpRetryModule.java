@@ -0,0 +1,106 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.multibindings.Multibinder;
+import com.spotify.apollo.environment.ClientDecorator;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+import com.spotify.apollo.module.AbstractApolloModule;
+import com.spotify.apollo.module.ApolloModule;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+
+import com.typesafe.config.Config;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.spotify.apollo.environment.ConfigUtil.optionalDouble;
+import static com.spotify.apollo.environment.ConfigUtil.optionalInt;
+
+/**
+ * Module that retries idempotent http requests that failed to connect or got a server error
+ * status, within a budget per downstream authority. See {@link RetryingClient}.
+ *
+ * <p>Like {@link HttpMetricModule}, this module must be declared <b>AFTER</b> the
+ * {@link HttpClientModule}, and it needs a {@link SemanticMetricRegistry} for its metrics.
+ * Declaring it after the {@link HttpLoadBalancingModule} lets a retry go to another host.
+ *
+ * @see HttpClientModule
+ */
+public class HttpRetryModule extends AbstractApolloModule {
+
+  static final int DEFAULT_MAX_RETRIES = 2;
+  static final List<Integer> DEFAULT_STATUSES = ImmutableList.of(502, 503, 504);
+  static final double DEFAULT_BUDGET_PERCENT = 10;
+  static final int DEFAULT_MAX_BURST = 10;
+  static final int DEFAULT_BASE_DELAY_MILLIS = 25;
+  static final int DEFAULT_MAX_DELAY_MILLIS = 1000;
+
+  private HttpRetryModule() {}
+
+  public static ApolloModule create() {
+    return new HttpRetryModule();
+  }
+
+  @Override
+  public String getId() {
+    return "http-retry";
+  }
+
+  @Override
+  protected void configure() {
+    Multibinder.newSetBinder(binder(), ClientDecorator.class)
+        .addBinding()
+        .to(RetryingClientDecorator.class);
+  }
+
+  static class RetryingClientDecorator implements ClientDecorator {
+
+    private final RetryingClient.Settings settings;
+    private final SemanticMetricRegistry metricRegistry;
+
+    @Inject
+    RetryingClientDecorator(Config config, SemanticMetricRegistry metricRegistry) {
+      final String prefix = "http.client.retry.";
+      this.settings = new RetryingClient.Settings(
+          optionalInt(config, prefix + "maxRetries").orElse(DEFAULT_MAX_RETRIES),
+          config.hasPath(prefix + "statuses")
+          ? config.getIntList(prefix + "statuses")
+          : DEFAULT_STATUSES,
+          optionalDouble(config, prefix + "budgetPercent").orElse(DEFAULT_BUDGET_PERCENT),
+          optionalInt(config, prefix + "maxBurst").orElse(DEFAULT_MAX_BURST),
+          TimeUnit.MILLISECONDS.toNanos(
+              optionalInt(config, prefix + "baseDelayMillis").orElse(DEFAULT_BASE_DELAY_MILLIS)),
+          TimeUnit.MILLISECONDS.toNanos(
+              optionalInt(config, prefix + "maxDelayMillis").orElse(DEFAULT_MAX_DELAY_MILLIS)));
+      this.metricRegistry = metricRegistry;
+    }
+
+    @Override
+    public IncomingRequestAwareClient apply(IncomingRequestAwareClient baseClient) {
+      return new RetryingClient(
+          baseClient, settings, metricRegistry, ClientScheduler.INSTANCE, System::nanoTime,
+          () -> ThreadLocalRandom.current().nextDouble());
+    }
+  }
+}
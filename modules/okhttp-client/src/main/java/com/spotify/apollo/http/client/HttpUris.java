@@ -0,0 +1,70 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import java.util.Locale;
+
+/**
+ * Helpers for looking at the authority of http uris without parsing them into {@link
+ * java.net.URI}s on every call.
+ */
+final class HttpUris {
+
+  private static final String SCHEME_SEPARATOR = "://";
+
+  private HttpUris() {
+  }
+
+  /**
+   * Whether the uri is an http or https uri with an authority, such as {@code http://host/path}.
+   * Only such uris can be passed to the other methods.
+   */
+  static boolean isHttp(String uri) {
+    return uri.startsWith("http" + SCHEME_SEPARATOR) || uri.startsWith("https" + SCHEME_SEPARATOR);
+  }
+
+  /**
+   * The index at which the authority of an http uri starts.
+   */
+  static int authorityStart(String uri) {
+    return uri.indexOf(SCHEME_SEPARATOR) + SCHEME_SEPARATOR.length();
+  }
+
+  /**
+   * The index just after the authority of an http uri that starts at {@code authorityStart}.
+   */
+  static int authorityEnd(String uri, int authorityStart) {
+    for (int i = authorityStart; i < uri.length(); i++) {
+      final char c = uri.charAt(i);
+      if (c == '/' || c == '?' || c == '#') {
+        return i;
+      }
+    }
+    return uri.length();
+  }
+
+  /**
+   * The lower case authority of an http uri, such as {@code search.example.com:8080}.
+   */
+  static String authority(String uri) {
+    final int start = authorityStart(uri);
+    return uri.substring(start, authorityEnd(uri, start)).toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,83 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the latencies of the latest requests and a percentile of them. The percentile is
+ * recomputed every so many samples rather than on every request.
+ */
+class LatencyTracker {
+
+  static final int WINDOW = 1000;
+  static final int MIN_SAMPLES = 100;
+  private static final int RECOMPUTE_INTERVAL = 100;
+
+  private final double percentile;
+  private final long[] samples = new long[WINDOW];
+
+  private volatile long percentileNanos = -1;
+
+  // guarded by this
+  private int next;
+  private int count;
+  private int sinceRecompute;
+
+  /**
+   * @param percentile the percentile to track, between 0 and 100
+   */
+  LatencyTracker(double percentile) {
+    if (percentile <= 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile must be in (0, 100]");
+    }
+    this.percentile = percentile;
+  }
+
+  /**
+   * The tracked percentile, or -1 while there are fewer than {@link #MIN_SAMPLES} samples.
+   */
+  long percentileNanos() {
+    return percentileNanos;
+  }
+
+  void record(long latencyNanos) {
+    final long[] window;
+
+    synchronized (this) {
+      samples[next] = latencyNanos;
+      next = (next + 1) % WINDOW;
+      if (count < WINDOW) {
+        count++;
+      }
+      if (count < MIN_SAMPLES
+          || (percentileNanos >= 0 && ++sinceRecompute < RECOMPUTE_INTERVAL)) {
+        return;
+      }
+      sinceRecompute = 0;
+      window = Arrays.copyOf(samples, count);
+    }
+
+    // sort outside the lock so that recording isn't held up by it
+    Arrays.sort(window);
+    final int index = (int) Math.ceil(percentile * window.length / 100) - 1;
+    percentileNanos = window[Math.max(0, index)];
+  }
+}
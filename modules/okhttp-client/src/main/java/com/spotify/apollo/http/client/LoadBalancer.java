@@ -0,0 +1,186 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Picks one of a fixed list of hosts by the power of two choices: two distinct hosts are drawn at
+ * random and the one with the lower cost is used. The cost of a host is its number of requests
+ * in flight weighted by a peak-sensitive, exponentially decaying average of its latency, so that
+ * slow hosts get fewer requests without any single host becoming a hot spot.
+ *
+ * <p>Hosts that fail a number of requests in a row are ejected for a while. If all hosts are
+ * ejected, they are used anyway rather than failing every request.
+ */
+class LoadBalancer {
+
+  private static final int MAX_DRAWS = 3;
+
+  private final Host[] hosts;
+  private final int failuresBeforeEjection;
+  private final long ejectionNanos;
+  private final double decayNanos;
+  private final LongSupplier nanoTime;
+  private final IntUnaryOperator random;
+
+  LoadBalancer(List<String> authorities,
+               int failuresBeforeEjection,
+               long ejectionNanos,
+               long decayNanos,
+               LongSupplier nanoTime,
+               IntUnaryOperator random) {
+    if (authorities.isEmpty()) {
+      throw new IllegalArgumentException("at least one host is required");
+    }
+    this.failuresBeforeEjection = failuresBeforeEjection;
+    this.ejectionNanos = ejectionNanos;
+    this.decayNanos = decayNanos;
+    this.nanoTime = nanoTime;
+    this.random = random;
+    this.hosts = new Host[authorities.size()];
+    for (int i = 0; i < hosts.length; i++) {
+      hosts[i] = new Host(authorities.get(i));
+    }
+  }
+
+  /**
+   * Picks a host and counts a request as in flight to it. The caller must report the outcome
+   * with {@link Host#complete(long, boolean)}.
+   */
+  Host pick() {
+    final long now = nanoTime.getAsLong();
+    Host picked = hosts[0];
+
+    if (hosts.length > 1) {
+      for (int draw = 0; draw < MAX_DRAWS; draw++) {
+        final int i = random.applyAsInt(hosts.length);
+        int j = random.applyAsInt(hosts.length - 1);
+        if (j >= i) {
+          j++;
+        }
+        final Host a = hosts[i];
+        final Host b = hosts[j];
+
+        final boolean aAvailable = !a.isEjected(now);
+        final boolean bAvailable = !b.isEjected(now);
+        picked = a.cost() <= b.cost() ? a : b;
+        if (aAvailable && bAvailable) {
+          break;
+        } else if (aAvailable || bAvailable) {
+          picked = aAvailable ? a : b;
+          break;
+        }
+      }
+    }
+
+    picked.inflight.incrementAndGet();
+    return picked;
+  }
+
+  Host[] hosts() {
+    return hosts;
+  }
+
+  class Host {
+
+    private final String authority;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double latencyNanos;
+    private volatile long ejectedUntilNanos;
+
+    // guarded by this
+    private long lastUpdateNanos;
+    private int consecutiveFailures;
+
+    Host(String authority) {
+      this.authority = authority;
+      this.lastUpdateNanos = nanoTime.getAsLong();
+      this.ejectedUntilNanos = lastUpdateNanos;
+    }
+
+    String authority() {
+      return authority;
+    }
+
+    int inflight() {
+      return inflight.get();
+    }
+
+    double latencyNanos() {
+      return latencyNanos;
+    }
+
+    boolean isEjected(long now) {
+      return now - ejectedUntilNanos < 0;
+    }
+
+    /**
+     * Reports the outcome of a request picked for this host that took {@code latencyNanos} to
+     * complete.
+     */
+    void complete(long latencyNanos, boolean success) {
+      inflight.decrementAndGet();
+      record(latencyNanos, success);
+    }
+
+    /**
+     * Releases a request picked for this host whose outcome is unknown, such as one that was
+     * cancelled, without affecting the latency average or failure count.
+     */
+    void release() {
+      inflight.decrementAndGet();
+    }
+
+    /**
+     * Updates the latency average and failure count of this host with the outcome of a request.
+     */
+    void record(long latencyNanos, boolean success) {
+      final long now = nanoTime.getAsLong();
+
+      synchronized (this) {
+        // latency peaks are taken as they are, so that a host that slows down is avoided right
+        // away. Otherwise the new sample is weighed by how long it has been since the last one,
+        // so that a host that has been idle for a while is judged by its latest latency.
+        if (latencyNanos > this.latencyNanos) {
+          this.latencyNanos = latencyNanos;
+        } else {
+          final double weight = Math.exp(-(now - lastUpdateNanos) / decayNanos);
+          this.latencyNanos = this.latencyNanos * weight + latencyNanos * (1 - weight);
+        }
+        lastUpdateNanos = now;
+
+        if (success) {
+          consecutiveFailures = 0;
+        } else if (++consecutiveFailures >= failuresBeforeEjection) {
+          consecutiveFailures = 0;
+          ejectedUntilNanos = now + ejectionNanos;
+        }
+      }
+    }
+
+    private double cost() {
+      return (inflight.get() + 1) * (latencyNanos + 1);
+    }
+  }
+}
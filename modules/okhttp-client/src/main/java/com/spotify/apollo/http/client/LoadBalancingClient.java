@@ -0,0 +1,103 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.StatusType;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.LongSupplier;
+
+import okio.ByteString;
+
+import static com.spotify.apollo.http.client.CompletableFutures.propagateCancellation;
+
+/**
+ * Sends requests for logical service names, such as {@code http://search/}, to one of the hosts
+ * configured for that name, chosen by a {@link LoadBalancer}. Requests for any other host are
+ * passed on unchanged.
+ */
+class LoadBalancingClient implements IncomingRequestAwareClient {
+
+  private final IncomingRequestAwareClient delegate;
+  private final Map<String, LoadBalancer> balancers;
+  private final LongSupplier nanoTime;
+
+  LoadBalancingClient(IncomingRequestAwareClient delegate,
+                      Map<String, LoadBalancer> balancers,
+                      LongSupplier nanoTime) {
+    this.delegate = delegate;
+    this.balancers = balancers;
+    this.nanoTime = nanoTime;
+  }
+
+  @Override
+  public CompletionStage<Response<ByteString>> send(Request request, Optional<Request> incoming) {
+    final String uri = request.uri();
+    if (!HttpUris.isHttp(uri)) {
+      return delegate.send(request, incoming);
+    }
+
+    final int authorityStart = HttpUris.authorityStart(uri);
+    final int authorityEnd = HttpUris.authorityEnd(uri, authorityStart);
+    final LoadBalancer balancer = balancers.get(
+        uri.substring(authorityStart, authorityEnd).toLowerCase(Locale.ROOT));
+    if (balancer == null) {
+      return delegate.send(request, incoming);
+    }
+
+    final LoadBalancer.Host host = balancer.pick();
+    final String hostUri =
+        uri.substring(0, authorityStart) + host.authority() + uri.substring(authorityEnd);
+    final long start = nanoTime.getAsLong();
+
+    final CompletionStage<Response<ByteString>> response;
+    try {
+      response = delegate.send(request.withUri(hostUri), incoming);
+    } catch (RuntimeException e) {
+      host.complete(nanoTime.getAsLong() - start, false);
+      throw e;
+    }
+
+    final CompletableFuture<Response<ByteString>> future = response.toCompletableFuture();
+    future.whenComplete((reply, throwable) -> {
+      if (throwable instanceof CancellationException) {
+        host.release();
+      } else {
+        host.complete(nanoTime.getAsLong() - start,
+                      throwable == null && !isServerError(reply));
+      }
+    });
+
+    // a caller giving up on the reply cancels the call, which releases the host
+    return propagateCancellation(future);
+  }
+
+  private static boolean isServerError(Response<ByteString> response) {
+    return response.status().family() == StatusType.Family.SERVER_ERROR;
+  }
+}
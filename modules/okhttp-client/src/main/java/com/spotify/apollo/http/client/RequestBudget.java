@@ -0,0 +1,78 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket that limits extra requests, such as hedges or retries, to a share of the
+ * requests they are sent for. Every request adds a fraction of a token and every extra request
+ * takes a whole one, so a backend that is slow or failing for all requests gets at most that
+ * share of extra load.
+ */
+class RequestBudget {
+
+  // balances are kept in thousandths of a token so that they can be updated atomically
+  private static final long TOKEN = 1000;
+
+  private final long deposit;
+  private final long maxBalance;
+  private final AtomicLong balance;
+
+  /**
+   * @param percent   extra requests allowed per 100 requests
+   * @param maxBurst  the number of extra requests that can be saved up for a burst
+   */
+  RequestBudget(double percent, int maxBurst) {
+    if (percent < 0 || maxBurst < 0) {
+      throw new IllegalArgumentException("the request budget must not be negative");
+    }
+    this.deposit = (long) (percent * TOKEN / 100);
+    this.maxBalance = maxBurst * TOKEN;
+    this.balance = new AtomicLong(maxBalance);
+  }
+
+  /**
+   * Credits the budget for a request.
+   */
+  void deposit() {
+    // avoid contending on the balance once it is full, which it is while there are no extra
+    // requests
+    if (balance.get() < maxBalance) {
+      balance.accumulateAndGet(
+          deposit, (current, amount) -> Math.min(maxBalance, current + amount));
+    }
+  }
+
+  /**
+   * Takes a token for an extra request, if there is one.
+   */
+  boolean tryWithdraw() {
+    while (true) {
+      final long current = balance.get();
+      if (current < TOKEN) {
+        return false;
+      }
+      if (balance.compareAndSet(current, current - TOKEN)) {
+        return true;
+      }
+    }
+  }
+}
@@ -0,0 +1,289 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.google.common.collect.ImmutableSet;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.StatusType;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+import com.spotify.metrics.core.MetricId;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+
+import com.codahale.metrics.Meter;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+import okio.ByteString;
+
+/**
+ * Retries idempotent http requests that could not connect or that got one of a set of server
+ * error statuses.
+ *
+ * <p>Retries are limited by a {@link RequestBudget} per authority that successful replies add to,
+ * so that a downstream that fails for everyone gets at most a share of extra load instead of a
+ * multiple of it. Retries wait for a random delay of up to an exponentially growing backoff, and
+ * are only sent if the request has time left before its ttl.
+ */
+class RetryingClient implements IncomingRequestAwareClient {
+
+  // see https://tools.ietf.org/html/rfc7231#section-4.2.2
+  private static final Set<String> IDEMPOTENT_METHODS =
+      ImmutableSet.of("GET", "HEAD", "OPTIONS", "TRACE", "PUT", "DELETE");
+
+  private final IncomingRequestAwareClient delegate;
+  private final Settings settings;
+  private final SemanticMetricRegistry metricRegistry;
+  private final ScheduledExecutorService scheduler;
+  private final LongSupplier nanoTime;
+  private final DoubleSupplier random;
+  private final ConcurrentMap<String, Downstream> downstreams = new ConcurrentHashMap<>();
+
+  /**
+   * @param random a source of random numbers between 0 and 1 for the backoff jitter
+   */
+  RetryingClient(IncomingRequestAwareClient delegate,
+                 Settings settings,
+                 SemanticMetricRegistry metricRegistry,
+                 ScheduledExecutorService scheduler,
+                 LongSupplier nanoTime,
+                 DoubleSupplier random) {
+    this.delegate = delegate;
+    this.settings = settings;
+    this.metricRegistry = metricRegistry;
+    this.scheduler = scheduler;
+    this.nanoTime = nanoTime;
+    this.random = random;
+  }
+
+  @Override
+  public CompletionStage<Response<ByteString>> send(Request request, Optional<Request> incoming) {
+    if (!HttpUris.isHttp(request.uri()) || !IDEMPOTENT_METHODS.contains(request.method())) {
+      return delegate.send(request, incoming);
+    }
+
+    final Downstream downstream = downstreams.computeIfAbsent(
+        HttpUris.authority(request.uri()), Downstream::new);
+    return new RetriedCall(request, incoming, downstream).start();
+  }
+
+  /**
+   * The state of one request that may be retried.
+   */
+  private class RetriedCall {
+
+    private final Request request;
+    private final Optional<Request> incoming;
+    private final Downstream downstream;
+    private final long start = nanoTime.getAsLong();
+    private final CompletableFuture<Response<ByteString>> result = new CompletableFuture<>();
+
+    private volatile CompletableFuture<Response<ByteString>> attempt;
+    private volatile ScheduledFuture<?> timer;
+    // only touched when an attempt completes, and attempts do not overlap
+    private int retries;
+
+    RetriedCall(Request request, Optional<Request> incoming, Downstream downstream) {
+      this.request = request;
+      this.incoming = incoming;
+      this.downstream = downstream;
+    }
+
+    CompletableFuture<Response<ByteString>> start() {
+      send(request);
+
+      // stop whatever is still going on if the caller gives up
+      result.whenComplete((reply, throwable) -> {
+        if (result.isCancelled()) {
+          final ScheduledFuture<?> timer = this.timer;
+          if (timer != null) {
+            timer.cancel(false);
+          }
+          attempt.cancel(false);
+        }
+      });
+
+      return result;
+    }
+
+    private void send(Request request) {
+      CompletableFuture<Response<ByteString>> attempt;
+      try {
+        attempt = delegate.send(request, incoming).toCompletableFuture();
+      } catch (RuntimeException e) {
+        attempt = new CompletableFuture<>();
+        attempt.completeExceptionally(e);
+      }
+
+      this.attempt = attempt;
+      attempt.whenComplete(this::onAttemptCompleted);
+      if (result.isCancelled()) {
+        attempt.cancel(false);
+      }
+    }
+
+    private void onAttemptCompleted(Response<ByteString> reply, Throwable throwable) {
+      if (result.isDone()) {
+        return;
+      }
+
+      if (!shouldRetry(reply, throwable)) {
+        if (throwable == null && !isServerError(reply)) {
+          downstream.budget.deposit();
+        }
+        complete(reply, throwable);
+        return;
+      }
+
+      if (retries >= settings.maxRetries) {
+        complete(reply, throwable);
+        return;
+      }
+
+      // full jitter, see https://aws.amazon.com/blogs/architecture/exponential-backoff-and-jitter/
+      final long backoffNanos =
+          Math.min(settings.maxDelayNanos, settings.baseDelayNanos << Math.min(retries, 30));
+      final long delayNanos = (long) (random.getAsDouble() * backoffNanos);
+
+      final Optional<Duration> remainingTtl = request.ttl()
+          .map(ttl -> ttl.minusNanos(nanoTime.getAsLong() - start + delayNanos));
+      if (remainingTtl.isPresent() && !isPositive(remainingTtl.get())) {
+        complete(reply, throwable);
+        return;
+      }
+
+      if (!downstream.budget.tryWithdraw()) {
+        downstream.exhausted.mark();
+        complete(reply, throwable);
+        return;
+      }
+
+      retries++;
+      downstream.retries.mark();
+      final Request retry = remainingTtl.map(request::withTtl).orElse(request);
+      timer = scheduler.schedule(() -> send(retry), delayNanos, TimeUnit.NANOSECONDS);
+      if (result.isCancelled()) {
+        timer.cancel(false);
+      }
+    }
+
+    private boolean shouldRetry(Response<ByteString> reply, Throwable throwable) {
+      if (throwable != null) {
+        return isConnectFailure(throwable);
+      }
+      return settings.statuses.contains(reply.status().code());
+    }
+
+    private void complete(Response<ByteString> reply, Throwable throwable) {
+      if (throwable != null) {
+        result.completeExceptionally(throwable);
+      } else {
+        result.complete(reply);
+      }
+    }
+  }
+
+  /**
+   * Whether the request failed before it could be sent, so that retrying it is always safe.
+   */
+  private static boolean isConnectFailure(Throwable throwable) {
+    final Throwable cause =
+        throwable instanceof CompletionException && throwable.getCause() != null
+        ? throwable.getCause()
+        : throwable;
+    return cause instanceof ConnectException || cause instanceof NoRouteToHostException;
+  }
+
+  private static boolean isServerError(Response<ByteString> response) {
+    return response.status().family() == StatusType.Family.SERVER_ERROR;
+  }
+
+  private static boolean isPositive(Duration duration) {
+    return !duration.isNegative() && !duration.isZero();
+  }
+
+  /**
+   * The retry budget and metrics of one downstream authority.
+   */
+  private class Downstream {
+
+    final RequestBudget budget;
+    final Meter retries;
+    final Meter exhausted;
+
+    Downstream(String authority) {
+      final MetricId id = MetricId.build()
+          .tagged("protocol", "http/https")
+          .tagged("target-host", authority)
+          .tagged("unit", "request");
+      this.budget = new RequestBudget(settings.budgetPercent, settings.maxBurst);
+      this.retries = metricRegistry.meter(id.tagged("what", "retry-rate"));
+      this.exhausted = metricRegistry.meter(id.tagged("what", "retry-budget-exhausted-rate"));
+    }
+  }
+
+  static class Settings {
+
+    final int maxRetries;
+    final Set<Integer> statuses;
+    final double budgetPercent;
+    final int maxBurst;
+    final long baseDelayNanos;
+    final long maxDelayNanos;
+
+    /**
+     * @param maxRetries      the number of retries per request
+     * @param statuses        the status codes to retry
+     * @param budgetPercent   retries allowed per 100 successful requests to an authority
+     * @param maxBurst        the number of retries that can be saved up for a burst
+     * @param baseDelayNanos  the backoff before the first retry, doubled for every retry
+     * @param maxDelayNanos   the longest backoff
+     */
+    Settings(int maxRetries,
+             Collection<Integer> statuses,
+             double budgetPercent,
+             int maxBurst,
+             long baseDelayNanos,
+             long maxDelayNanos) {
+      this.maxRetries = maxRetries;
+      this.statuses = ImmutableSet.copyOf(statuses);
+      this.budgetPercent = budgetPercent;
+      this.maxBurst = maxBurst;
+      this.baseDelayNanos = baseDelayNanos;
+      this.maxDelayNanos = maxDelayNanos;
+    }
+  }
+}
@@ -19,36 +19,45 @@
  */
 package com.spotify.apollo.http.client;
 
-import com.google.common.base.Joiner;
-
 import com.spotify.apollo.Response;
 import com.spotify.apollo.Status;
 import com.spotify.apollo.StatusType;
 import com.squareup.okhttp.Callback;
+import com.squareup.okhttp.Headers;
 import com.squareup.okhttp.Request;
+import com.squareup.okhttp.ResponseBody;
 
 import java.io.IOException;
 import java.text.MessageFormat;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
+import okio.BufferedSource;
 import okio.ByteString;
 
 class TransformingCallback implements Callback {
 
-  private static final Joiner HEADER_JOINER = Joiner.on(", ");
+  private static final String HEADER_SEPARATOR = ", ";
 
   private final CompletableFuture<Response<ByteString>> future;
+  private final long maxResponseSize;
 
-  TransformingCallback(CompletableFuture<Response<ByteString>> future) {
+  TransformingCallback(CompletableFuture<Response<ByteString>> future, long maxResponseSize) {
     this.future = future;
+    this.maxResponseSize = maxResponseSize;
   }
 
   public static TransformingCallback create(
       CompletableFuture<Response<ByteString>> future) {
-    return new TransformingCallback(future);
+    return create(future, Long.MAX_VALUE);
+  }
+
+  public static TransformingCallback create(
+      CompletableFuture<Response<ByteString>> future, long maxResponseSize) {
+    return new TransformingCallback(future, maxResponseSize);
   }
 
   @Override
@@ -59,31 +68,39 @@ class TransformingCallback implements Callback {
   }
 
   @Override
-  public void onResponse(com.squareup.okhttp.Response response) throws IOException {
-    future.complete(transformResponse(response));
+  public void onResponse(com.squareup.okhttp.Response response) {
+    try {
+      future.complete(transformResponse(response, maxResponseSize));
+    } catch (IOException e) {
+      // okhttp only logs exceptions thrown from here, which would leave the future pending
+      onFailure(response.request(), e);
+    }
   }
 
   static Response<ByteString> transformResponse(com.squareup.okhttp.Response response)
       throws IOException {
+    return transformResponse(response, Long.MAX_VALUE);
+  }
+
+  static Response<ByteString> transformResponse(com.squareup.okhttp.Response response,
+                                                long maxResponseSize)
+      throws IOException {
 
     final StatusType status =
         transformStatus(response.code(), Optional.ofNullable(response.message()));
 
-    Response<ByteString> apolloResponse =
-        Response.forStatus(status);
+    Response.Builder<ByteString> builder = Response.<ByteString>forStatus(status).toBuilder();
 
-    for (Map.Entry<String, List<String>> entry : response.headers().toMultimap().entrySet()) {
-      apolloResponse = apolloResponse.withHeader(
-          entry.getKey(),
-          HEADER_JOINER.join(entry.getValue()));
+    for (HeaderValues header : groupHeaders(response.headers()).values()) {
+      builder.header(header.name, header.value());
     }
 
-    final byte[] bytes = response.body().bytes();
-    if (bytes.length > 0) {
-      apolloResponse = apolloResponse.withPayload(ByteString.of(bytes));
+    final ByteString payload = readPayload(response.body(), maxResponseSize);
+    if (payload.size() > 0) {
+      builder = builder.payload(payload);
     }
 
-    return apolloResponse;
+    return builder.build();
   }
 
   static StatusType transformStatus(int code, Optional<String> message) {
@@ -95,4 +112,82 @@ class TransformingCallback implements Callback {
       return statusType;
     }
   }
+
+  /**
+   * Groups the headers by case-insensitive name in a single pass, keeping the order and spelling
+   * of the first occurrence of each name.
+   */
+  private static Map<String, HeaderValues> groupHeaders(Headers headers) {
+    final int size = headers.size();
+    final Map<String, HeaderValues> grouped = new LinkedHashMap<>(size * 2);
+    for (int i = 0; i < size; i++) {
+      final String name = headers.name(i);
+      final String value = headers.value(i);
+      final String key = name.toLowerCase(Locale.ROOT);
+      final HeaderValues existing = grouped.get(key);
+      if (existing == null) {
+        grouped.put(key, new HeaderValues(name, value));
+      } else {
+        existing.add(value);
+      }
+    }
+    return grouped;
+  }
+
+  /**
+   * Reads the body straight from its source into a {@link ByteString}, failing before buffering
+   * anything more than {@code maxResponseSize} bytes.
+   */
+  private static ByteString readPayload(ResponseBody body, long maxResponseSize)
+      throws IOException {
+    try {
+      final long contentLength = body.contentLength();
+      if (contentLength > maxResponseSize) {
+        throw tooLarge(contentLength + " bytes", maxResponseSize);
+      }
+
+      final BufferedSource source = body.source();
+      if (contentLength == -1 && maxResponseSize < Long.MAX_VALUE
+          && source.request(maxResponseSize + 1)) {
+        throw tooLarge("more than " + maxResponseSize + " bytes", maxResponseSize);
+      }
+
+      return source.readByteString();
+    } finally {
+      body.close();
+    }
+  }
+
+  private static IOException tooLarge(String size, long maxResponseSize) {
+    return new IOException(MessageFormat.format(
+        "Response body of {0} exceeds the limit of {1} bytes",
+        size, String.valueOf(maxResponseSize)));
+  }
+
+  /**
+   * The values of all headers with the same name. Only repeated headers pay for building a new
+   * string.
+   */
+  private static final class HeaderValues {
+
+    private final String name;
+    private final String first;
+    private StringBuilder joined;
+
+    HeaderValues(String name, String first) {
+      this.name = name;
+      this.first = first;
+    }
+
+    void add(String value) {
+      if (joined == null) {
+        joined = new StringBuilder(first);
+      }
+      joined.append(HEADER_SEPARATOR).append(value);
+    }
+
+    String value() {
+      return joined == null ? first : joined.toString();
+    }
+  }
 }
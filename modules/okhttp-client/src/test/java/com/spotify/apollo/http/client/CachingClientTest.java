@@ -0,0 +1,197 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+import com.spotify.apollo.http.ResponseWeigher;
+import com.spotify.metrics.core.MetricId;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+
+import com.codahale.metrics.Gauge;
+import com.typesafe.config.ConfigFactory;
+
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import okio.ByteString;
+
+import static java.util.Optional.empty;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+public class CachingClientTest {
+
+  private static final Request REQUEST = Request.forUri("http://metadata/album/1");
+
+  private final SemanticMetricRegistry metricRegistry = new SemanticMetricRegistry();
+
+  private final RecordingClient delegate = new RecordingClient();
+
+  private long nanoTime = 0;
+
+  private final CachingClient client =
+      new CachingClient(delegate, 10_000, metricRegistry, () -> nanoTime);
+
+  @Test
+  public void shouldServeFreshResponsesFromCache() throws Exception {
+    delegate.enqueue(ok("album", "max-age=60"));
+
+    assertThat(payload(client.send(REQUEST, empty())), is("album"));
+    assertThat(payload(client.send(REQUEST, empty())), is("album"));
+
+    assertThat(delegate.sent(), hasSize(1));
+    assertThat(cacheRequests("hit"), is(1L));
+    assertThat(cacheRequests("miss"), is(1L));
+  }
+
+  @Test
+  public void shouldRevalidateStaleResponsesWithEtag() throws Exception {
+    delegate.enqueue(ok("album", "max-age=60").withHeader("ETag", "\"v1\""));
+    delegate.enqueue(Response.forStatus(Status.NOT_MODIFIED));
+
+    client.send(REQUEST, empty());
+    nanoTime += TimeUnit.SECONDS.toNanos(61);
+
+    assertThat(payload(client.send(REQUEST, empty())), is("album"));
+    assertThat(delegate.sent().get(1).header("If-None-Match"), is(Optional.of("\"v1\"")));
+    assertThat(cacheRequests("revalidated"), is(1L));
+
+    // fresh again after revalidation
+    assertThat(payload(client.send(REQUEST, empty())), is("album"));
+    assertThat(delegate.sent(), hasSize(2));
+  }
+
+  @Test
+  public void shouldReplaceChangedResponsesOnRevalidation() throws Exception {
+    delegate.enqueue(ok("album", "no-cache").withHeader("ETag", "\"v1\""));
+    delegate.enqueue(ok("new album", "no-cache").withHeader("ETag", "\"v2\""));
+    delegate.enqueue(Response.forStatus(Status.NOT_MODIFIED));
+
+    client.send(REQUEST, empty());
+
+    assertThat(payload(client.send(REQUEST, empty())), is("new album"));
+    assertThat(payload(client.send(REQUEST, empty())), is("new album"));
+    assertThat(delegate.sent().get(2).header("If-None-Match"), is(Optional.of("\"v2\"")));
+  }
+
+  @Test
+  public void shouldNotKeepResponsesThatMayNotBeStored() throws Exception {
+    delegate.enqueue(ok("private", "private, max-age=60"));
+    delegate.enqueue(ok("secret", "no-store"));
+    delegate.enqueue(ok("uncacheable", null));
+
+    client.send(REQUEST, empty());
+    client.send(REQUEST, empty());
+    client.send(REQUEST, empty());
+
+    assertThat(delegate.sent(), hasSize(3));
+    assertThat(client.sizeBytes(), is(0L));
+  }
+
+  @Test
+  public void shouldKeepCallersApart() throws Exception {
+    delegate.enqueue(ok("for a", "max-age=60"));
+    delegate.enqueue(ok("for b", "max-age=60"));
+
+    final Request a = Request.forUri("http://caller").withHeader("Authorization", "a");
+    final Request b = Request.forUri("http://caller").withHeader("Authorization", "b");
+
+    assertThat(payload(client.send(REQUEST, Optional.of(a))), is("for a"));
+    assertThat(payload(client.send(REQUEST, Optional.of(b))), is("for b"));
+  }
+
+  @Test
+  public void shouldRespectVary() throws Exception {
+    delegate.enqueue(ok("svenska", "max-age=60").withHeader("Vary", "Accept-Language"));
+    delegate.enqueue(ok("english", "max-age=60").withHeader("Vary", "Accept-Language"));
+
+    final Request swedish = REQUEST.withHeader("Accept-Language", "sv");
+    final Request english = REQUEST.withHeader("Accept-Language", "en");
+
+    assertThat(payload(client.send(swedish, empty())), is("svenska"));
+    assertThat(payload(client.send(english, empty())), is("english"));
+    assertThat(payload(client.send(english, empty())), is("english"));
+    assertThat(delegate.sent(), hasSize(2));
+  }
+
+  @Test
+  public void shouldNotCacheOtherMethods() throws Exception {
+    delegate.enqueue(ok("created", "max-age=60"));
+    delegate.enqueue(ok("created", "max-age=60"));
+
+    client.send(Request.forUri("http://metadata/album", "POST"), empty());
+    client.send(Request.forUri("http://metadata/album", "POST"), empty());
+
+    assertThat(delegate.sent(), hasSize(2));
+  }
+
+  @Test
+  public void shouldStayWithinMemoryLimit() throws Exception {
+    for (int i = 0; i < 20; i++) {
+      delegate.enqueue(ok(new String(new char[1000]).replace('\0', 'x'), "max-age=60"));
+      client.send(Request.forUri("http://metadata/album/" + i), empty());
+    }
+
+    assertThat(client.sizeBytes() <= 10_000, is(true));
+  }
+
+  @Test
+  public void shouldReportSizeOfAllClientsOfDecorator() throws Exception {
+    final HttpCacheModule.CachingClientDecorator decorator =
+        new HttpCacheModule.CachingClientDecorator(ConfigFactory.empty(), metricRegistry);
+    final IncomingRequestAwareClient first = decorator.apply(delegate);
+    final IncomingRequestAwareClient second = decorator.apply(delegate);
+    delegate.enqueue(ok("album", "max-age=60"));
+    delegate.enqueue(ok("album", "max-age=60"));
+
+    first.send(REQUEST, empty());
+    second.send(REQUEST, empty());
+
+    final Gauge<?> size = metricRegistry.getGauges().get(
+        MetricId.build()
+            .tagged("protocol", "http/https")
+            .tagged("what", "http-cache-size")
+            .tagged("unit", "B"));
+    assertThat(size.getValue(),
+               is((Object) (2L * ResponseWeigher.weigh(ok("album", "max-age=60")))));
+  }
+
+  private static Response<ByteString> ok(String payload, String cacheControl) {
+    final Response<ByteString> response = Response.forPayload(ByteString.encodeUtf8(payload));
+    return cacheControl == null ? response : response.withHeader("Cache-Control", cacheControl);
+  }
+
+  private static String payload(
+      CompletionStage<Response<ByteString>> response) throws Exception {
+    return response.toCompletableFuture().get().payload().get().utf8();
+  }
+
+  private long cacheRequests(String result) {
+    return RecordingClient.count(
+        metricRegistry, "metadata", "http-cache-request-rate", "request", "result", result);
+  }
+}
@@ -0,0 +1,155 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import okio.ByteString;
+
+import static java.util.Optional.empty;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+public class CircuitBreakerClientTest {
+
+  private static final long MILLIS = 1_000_000;
+
+  private long now;
+  private final RecordingClient delegate = new RecordingClient().alwaysReply(Response.ok());
+
+  private final SemanticMetricRegistry metricRegistry = new SemanticMetricRegistry();
+
+  private final CircuitBreakers breakers = new CircuitBreakers(
+      new CircuitBreaker.Settings(10, 2, 50, Long.MAX_VALUE, 50, 1000 * MILLIS, 1),
+      metricRegistry,
+      () -> now);
+
+  private final CircuitBreakerClient client =
+      new CircuitBreakerClient(delegate, breakers, () -> now);
+
+  @Test
+  public void shouldRejectCallsWhileOpen() throws Exception {
+    delegate.alwaysReply(failed());
+    send("http://search/v1/query");
+    send("http://search/v1/query");
+
+    final CompletableFuture<Response<ByteString>> rejected = send("http://search/v1/query");
+
+    assertThat(delegate.sent().size(), is(2));
+    assertThat(cause(rejected), instanceOf(CircuitBreakerOpenException.class));
+    assertThat(((CircuitBreakerOpenException) cause(rejected)).authority(), is("search"));
+    assertThat(count("circuit-breaker-rejection-rate", "request"), is(1L));
+  }
+
+  @Test
+  public void shouldCountServerErrorsAsFailures() throws Exception {
+    delegate.alwaysReply(Response.forStatus(Status.SERVICE_UNAVAILABLE));
+    send("http://search/v1/query");
+    send("http://search/v1/query");
+
+    assertThat(breakers.forAuthority("search").state(), is(CircuitBreaker.State.OPEN));
+  }
+
+  @Test
+  public void shouldKeepBreakersPerAuthority() throws Exception {
+    delegate.alwaysReply(failed());
+    send("http://search/v1/query");
+    send("http://Search/v1/query");
+
+    delegate.alwaysReply(Response.ok());
+    send("http://search.example.com:8080/v1/query");
+
+    assertThat(delegate.sent().size(), is(3));
+    assertThat(breakers.forAuthority("search.example.com:8080").state(),
+               is(CircuitBreaker.State.CLOSED));
+  }
+
+  @Test
+  public void shouldProbeAndClose() throws Exception {
+    delegate.alwaysReply(failed());
+    send("http://search/v1/query");
+    send("http://search/v1/query");
+
+    now += 1000 * MILLIS;
+    delegate.alwaysReply(Response.ok());
+    assertThat(send("http://search/v1/query").get().status(), is(Status.OK));
+
+    assertThat(breakers.forAuthority("search").state(), is(CircuitBreaker.State.CLOSED));
+    assertThat(count("circuit-breaker-transition-rate", "transition", "state", "open"), is(1L));
+    assertThat(count("circuit-breaker-transition-rate", "transition", "state", "closed"),
+               is(1L));
+  }
+
+  @Test
+  public void shouldReleaseCancelledProbes() throws Exception {
+    delegate.alwaysReply(failed());
+    send("http://search/v1/query");
+    send("http://search/v1/query");
+
+    now += 1000 * MILLIS;
+    delegate.enqueue(new CompletableFuture<>());
+    send("http://search/v1/query").cancel(false);
+
+    assertThat(delegate.reply(2).isCancelled(), is(true));
+    delegate.alwaysReply(Response.ok());
+    assertThat(send("http://search/v1/query").get().status(), is(Status.OK));
+  }
+
+  @Test
+  public void shouldPassOnNonHttpRequests() throws Exception {
+    delegate.alwaysReply(failed());
+    for (int i = 0; i < 5; i++) {
+      send("hm://search/v1/query");
+    }
+
+    assertThat(delegate.sent().size(), is(5));
+    assertThat(breakers.all().isEmpty(), is(true));
+  }
+
+  private CompletableFuture<Response<ByteString>> send(String uri) {
+    return client.send(Request.forUri(uri), empty()).toCompletableFuture();
+  }
+
+  private static CompletableFuture<Response<ByteString>> failed() {
+    return RecordingClient.failed(new RuntimeException("connection refused"));
+  }
+
+  private static Throwable cause(CompletableFuture<?> future) throws InterruptedException {
+    try {
+      future.get();
+      throw new AssertionError("expected the future to fail");
+    } catch (ExecutionException e) {
+      return e.getCause();
+    }
+  }
+
+  private long count(String what, String unit, String... tags) {
+    return RecordingClient.count(metricRegistry, "search", what, unit, tags);
+  }
+}
@@ -0,0 +1,233 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.spotify.apollo.http.client.CircuitBreaker.Permit;
+import com.spotify.apollo.http.client.CircuitBreaker.State;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class CircuitBreakerTest {
+
+  private static final long MILLIS = 1_000_000;
+
+  private long now;
+  private final List<State> transitions = new ArrayList<>();
+  private int rejections;
+
+  private final CircuitBreaker breaker = new CircuitBreaker(
+      new CircuitBreaker.Settings(10, 4, 50, 100 * MILLIS, 80, 1000 * MILLIS, 2),
+      () -> now,
+      new CircuitBreaker.Listener() {
+        @Override
+        public void transition(State from, State to) {
+          transitions.add(to);
+        }
+
+        @Override
+        public void rejected() {
+          rejections++;
+        }
+      });
+
+  @Test
+  public void shouldStayClosedBelowMinimumCalls() throws Exception {
+    fail(3);
+
+    assertThat(breaker.state(), is(State.CLOSED));
+  }
+
+  @Test
+  public void shouldOpenAtFailureRate() throws Exception {
+    succeed(2);
+    fail(1);
+    assertThat(breaker.state(), is(State.CLOSED));
+
+    fail(1);
+    assertThat(breaker.state(), is(State.OPEN));
+    assertThat(breaker.tryAcquire(), is(nullValue()));
+    assertThat(rejections, is(1));
+  }
+
+  @Test
+  public void shouldOpenAtSlowCallRate() throws Exception {
+    for (int i = 0; i < 4; i++) {
+      breaker.complete(breaker.tryAcquire(), 200 * MILLIS, false);
+    }
+
+    assertThat(breaker.state(), is(State.OPEN));
+    assertThat(breaker.slowCallRatePercent(), is(100.0));
+  }
+
+  @Test
+  public void shouldForgetCallsOutsideWindow() throws Exception {
+    fail(4);
+    now += 1000 * MILLIS;
+    probe(true);
+    probe(true);
+    assertThat(breaker.state(), is(State.CLOSED));
+    assertThat(breaker.calls(), is(0));
+
+    succeed(10);
+    fail(4);
+    assertThat(breaker.failureRatePercent(), is(40.0));
+    assertThat(breaker.state(), is(State.CLOSED));
+
+    fail(1);
+    assertThat(breaker.state(), is(State.OPEN));
+  }
+
+  @Test
+  public void shouldProbeAfterOpenTime() throws Exception {
+    fail(4);
+
+    now += 999 * MILLIS;
+    assertThat(breaker.tryAcquire(), is(nullValue()));
+
+    now += MILLIS;
+    assertThat(breaker.tryAcquire().isProbe(), is(true));
+    assertThat(breaker.state(), is(State.HALF_OPEN));
+    assertThat(breaker.tryAcquire().isProbe(), is(true));
+    assertThat(breaker.tryAcquire(), is(nullValue()));
+  }
+
+  @Test
+  public void shouldCloseWhenProbesSucceed() throws Exception {
+    fail(4);
+    now += 1000 * MILLIS;
+
+    probe(true);
+    assertThat(breaker.state(), is(State.HALF_OPEN));
+    probe(true);
+
+    assertThat(breaker.state(), is(State.CLOSED));
+    assertThat(breaker.tryAcquire().isProbe(), is(false));
+    assertThat(transitions, contains(State.OPEN, State.HALF_OPEN, State.CLOSED));
+  }
+
+  @Test
+  public void shouldReopenWhenProbeFails() throws Exception {
+    fail(4);
+    now += 1000 * MILLIS;
+
+    probe(false);
+
+    assertThat(breaker.state(), is(State.OPEN));
+    assertThat(breaker.tryAcquire(), is(nullValue()));
+    assertThat(transitions, contains(State.OPEN, State.HALF_OPEN, State.OPEN));
+  }
+
+  @Test
+  public void shouldReleaseCancelledProbes() throws Exception {
+    fail(4);
+    now += 1000 * MILLIS;
+
+    breaker.release(breaker.tryAcquire());
+    breaker.release(breaker.tryAcquire());
+
+    assertThat(breaker.tryAcquire().isProbe(), is(true));
+  }
+
+  @Test
+  public void shouldIgnoreCallsCompletingWhileOpen() throws Exception {
+    final Permit late = breaker.tryAcquire();
+    fail(4);
+    now += 1000 * MILLIS;
+    final Permit probe = breaker.tryAcquire();
+
+    breaker.complete(late, 0, true);
+    assertThat(breaker.state(), is(State.HALF_OPEN));
+
+    breaker.complete(probe, 0, false);
+    probe(true);
+    assertThat(breaker.state(), is(State.CLOSED));
+  }
+
+  @Test
+  public void shouldIgnoreProbesFromEarlierHalfOpenPeriods() throws Exception {
+    fail(4);
+    now += 1000 * MILLIS;
+    final Permit stale = breaker.tryAcquire();
+    probe(false);
+    now += 1000 * MILLIS;
+
+    final Permit probe = breaker.tryAcquire();
+    breaker.complete(stale, 0, false);
+    breaker.complete(probe, 0, false);
+
+    // a single probe of this period has succeeded
+    assertThat(breaker.state(), is(State.HALF_OPEN));
+    probe(true);
+    assertThat(breaker.state(), is(State.CLOSED));
+  }
+
+  @Test
+  public void shouldIgnoreReleasedProbesFromEarlierHalfOpenPeriods() throws Exception {
+    fail(4);
+    now += 1000 * MILLIS;
+    final Permit stale = breaker.tryAcquire();
+    probe(false);
+    now += 1000 * MILLIS;
+
+    breaker.tryAcquire();
+    breaker.tryAcquire();
+    breaker.release(stale);
+
+    assertThat(breaker.tryAcquire(), is(nullValue()));
+  }
+
+  @Test
+  public void shouldIgnoreCallsFromEarlierClosedPeriods() throws Exception {
+    final Permit late = breaker.tryAcquire();
+    fail(4);
+    now += 1000 * MILLIS;
+    probe(true);
+    probe(true);
+
+    breaker.complete(late, 0, true);
+    assertThat(breaker.calls(), is(0));
+  }
+
+  private void succeed(int calls) {
+    for (int i = 0; i < calls; i++) {
+      breaker.complete(breaker.tryAcquire(), 0, false);
+    }
+  }
+
+  private void fail(int calls) {
+    for (int i = 0; i < calls; i++) {
+      breaker.complete(breaker.tryAcquire(), 0, true);
+    }
+  }
+
+  private void probe(boolean success) {
+    final Permit permit = breaker.tryAcquire();
+    assertThat(permit.isProbe(), is(true));
+    breaker.complete(permit, 0, !success);
+  }
+}
@@ -0,0 +1,143 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.google.common.collect.ImmutableList;
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+import okio.ByteString;
+
+import static com.spotify.apollo.http.client.RecordingClient.count;
+import static java.util.Optional.empty;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class CoalescingClientTest {
+
+  private final SemanticMetricRegistry metricRegistry = new SemanticMetricRegistry();
+
+  private final RecordingClient delegate = new RecordingClient();
+
+  private long nanoTime = 0;
+
+  private final CoalescingClient client = new CoalescingClient(
+      delegate, ImmutableList.of("Accept-Language"), metricRegistry, () -> nanoTime);
+
+  @Test
+  public void shouldShareConcurrentIdenticalRequests() throws Exception {
+    final CompletionStage<Response<ByteString>> first =
+        client.send(Request.forUri("http://metadata/album/1"), empty());
+    final CompletionStage<Response<ByteString>> second =
+        client.send(Request.forUri("http://metadata/album/1"), empty());
+
+    final Response<ByteString> response = Response.forPayload(ByteString.encodeUtf8("album"));
+    delegate.reply(0).complete(response);
+
+    assertThat(delegate.sent(), hasSize(1));
+    assertThat(first.toCompletableFuture().get(), is(sameInstance(response)));
+    assertThat(second.toCompletableFuture().get(), is(sameInstance(response)));
+    assertThat(count(metricRegistry, "metadata", "coalesced-request-rate", "request"), is(1L));
+  }
+
+  @Test
+  public void shouldSendAgainOnceCompleted() throws Exception {
+    client.send(Request.forUri("http://metadata/album/1"), empty());
+    delegate.reply(0).complete(Response.ok());
+
+    client.send(Request.forUri("http://metadata/album/1"), empty());
+
+    assertThat(delegate.sent(), hasSize(2));
+  }
+
+  @Test
+  public void shouldShareFailures() throws Exception {
+    final CompletionStage<Response<ByteString>> first =
+        client.send(Request.forUri("http://metadata/album/1"), empty());
+    final CompletionStage<Response<ByteString>> second =
+        client.send(Request.forUri("http://metadata/album/1"), empty());
+
+    delegate.reply(0).completeExceptionally(new RuntimeException("metadata is down"));
+
+    assertThat(first.toCompletableFuture().isCompletedExceptionally(), is(true));
+    assertThat(second.toCompletableFuture().isCompletedExceptionally(), is(true));
+  }
+
+  @Test
+  public void shouldNotShareRequestsWithDifferentSelectedHeaders() throws Exception {
+    client.send(Request.forUri("http://metadata/album/1").withHeader("Accept-Language", "sv"),
+                empty());
+    client.send(Request.forUri("http://metadata/album/1").withHeader("Accept-Language", "en"),
+                empty());
+
+    assertThat(delegate.sent(), hasSize(2));
+  }
+
+  @Test
+  public void shouldNotShareRequestsOnBehalfOfDifferentCallers() throws Exception {
+    final Request request = Request.forUri("http://metadata/album/1");
+
+    client.send(request, Optional.of(Request.forUri("http://a").withHeader("Authorization", "a")));
+    client.send(request, Optional.of(Request.forUri("http://a").withHeader("Authorization", "b")));
+
+    assertThat(delegate.sent(), hasSize(2));
+  }
+
+  @Test
+  public void shouldNotSharePosts() throws Exception {
+    client.send(Request.forUri("http://metadata/album/1", "POST"), empty());
+    client.send(Request.forUri("http://metadata/album/1", "POST"), empty());
+
+    assertThat(delegate.sent(), hasSize(2));
+  }
+
+  @Test
+  public void shouldNotJoinCallThatMayOutliveTtl() throws Exception {
+    client.send(Request.forUri("http://metadata/album/1").withTtl(Duration.ofSeconds(2)), empty());
+    client.send(Request.forUri("http://metadata/album/1").withTtl(Duration.ofSeconds(1)), empty());
+    client.send(Request.forUri("http://metadata/album/1"), empty());
+
+    assertThat(delegate.sent(), hasSize(2));
+    assertThat(count(metricRegistry, "metadata", "coalesced-request-rate", "request"), is(1L));
+  }
+
+  @Test
+  public void shouldNotCancelSharedCallWhenOneCallerCancels() throws Exception {
+    final CompletionStage<Response<ByteString>> first =
+        client.send(Request.forUri("http://metadata/album/1"), empty());
+    final CompletionStage<Response<ByteString>> second =
+        client.send(Request.forUri("http://metadata/album/1"), empty());
+
+    first.toCompletableFuture().cancel(false);
+    delegate.reply(0).complete(Response.ok());
+
+    assertThat(second.toCompletableFuture().isDone(), is(true));
+    assertThat(second.toCompletableFuture().isCancelled(), is(false));
+  }
+}
@@ -0,0 +1,204 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okio.ByteString;
+
+import static java.util.Optional.empty;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class HedgingClientTest {
+
+  private static final Duration DELAY = Duration.ofMillis(20);
+
+  private final ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1);
+
+  private final RecordingClient delegate = new RecordingClient();
+
+  @After
+  public void tearDown() throws Exception {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void shouldReplyWithoutBackupWhenFast() throws Exception {
+    delegate.alwaysReply(Response.forPayload(ByteString.encodeUtf8("first")));
+
+    final CompletableFuture<Response<ByteString>> result =
+        send(client(10), Request.forUri("http://search/q"));
+
+    assertThat(result.get(1, TimeUnit.SECONDS).payload().get().utf8(), is("first"));
+    Thread.sleep(DELAY.toMillis() * 3);
+    assertThat(delegate.sent(), hasSize(1));
+  }
+
+  @Test
+  public void shouldUseBackupWhenItRepliesFirst() throws Exception {
+    final CompletableFuture<Response<ByteString>> result =
+        send(client(10), Request.forUri("http://search/q"));
+
+    awaitSent(2);
+    delegate.reply(1).complete(Response.forPayload(ByteString.encodeUtf8("backup")));
+
+    assertThat(result.get(1, TimeUnit.SECONDS).payload().get().utf8(), is("backup"));
+    assertThat(delegate.reply(0).isCancelled(), is(true));
+  }
+
+  @Test
+  public void shouldCancelBackupWhenFirstAttemptRepliesFirst() throws Exception {
+    final CompletableFuture<Response<ByteString>> result =
+        send(client(10), Request.forUri("http://search/q"));
+
+    awaitSent(2);
+    delegate.reply(0).complete(Response.forPayload(ByteString.encodeUtf8("first")));
+
+    assertThat(result.get(1, TimeUnit.SECONDS).payload().get().utf8(), is("first"));
+    assertThat(delegate.reply(1).isCancelled(), is(true));
+  }
+
+  @Test
+  public void shouldFailOnlyWhenAllAttemptsFail() throws Exception {
+    final CompletableFuture<Response<ByteString>> result =
+        send(client(10), Request.forUri("http://search/q"));
+
+    awaitSent(2);
+    delegate.reply(0).completeExceptionally(new RuntimeException("first"));
+    assertThat(result.isDone(), is(false));
+
+    delegate.reply(1).completeExceptionally(new RuntimeException("backup"));
+    try {
+      result.get(1, TimeUnit.SECONDS);
+      fail("expected the request to fail");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause().getMessage(), is("backup"));
+    }
+  }
+
+  @Test
+  public void shouldNotHedgeRequestsOtherThanGet() throws Exception {
+    send(client(10), Request.forUri("http://search/q", "POST"));
+
+    Thread.sleep(DELAY.toMillis() * 3);
+    assertThat(delegate.sent(), hasSize(1));
+  }
+
+  @Test
+  public void shouldNotHedgeWhenTtlIsShorterThanDelay() throws Exception {
+    send(client(10), Request.forUri("http://search/q").withTtl(DELAY.dividedBy(2)));
+
+    Thread.sleep(DELAY.toMillis() * 3);
+    assertThat(delegate.sent(), hasSize(1));
+  }
+
+  @Test
+  public void shouldSendBackupWithRemainingTtl() throws Exception {
+    send(client(10), Request.forUri("http://search/q").withTtl(Duration.ofSeconds(1)));
+
+    awaitSent(2);
+    final Duration ttl = delegate.sent().get(1).ttl().get();
+    assertThat(ttl.compareTo(Duration.ofSeconds(1).minus(DELAY)) <= 0, is(true));
+  }
+
+  @Test
+  public void shouldStopHedgingWhenBudgetIsSpent() throws Exception {
+    final HedgingClient client = client(1);
+
+    send(client, Request.forUri("http://search/q"));
+    awaitSent(2);
+    send(client, Request.forUri("http://search/q"));
+
+    Thread.sleep(DELAY.toMillis() * 3);
+    assertThat(delegate.sent(), hasSize(3));
+  }
+
+  @Test
+  public void shouldLearnDelayFromLatencies() throws Exception {
+    final HedgingClient client = new HedgingClient(
+        delegate, new RequestBudget(100, 10), empty(), 50, scheduler, System::nanoTime);
+
+    for (int i = 0; i < LatencyTracker.MIN_SAMPLES; i++) {
+      send(client, Request.forUri("http://search/q"));
+      delegate.reply(i).complete(Response.ok());
+    }
+    assertThat(delegate.sent(), hasSize(LatencyTracker.MIN_SAMPLES));
+
+    send(client, Request.forUri("http://search/q"));
+    awaitSent(LatencyTracker.MIN_SAMPLES + 2);
+  }
+
+  @Test
+  public void shouldNotLearnDelayFromCancelledAttempts() throws Exception {
+    final AtomicLong clock = new AtomicLong();
+    final HedgingClient client = new HedgingClient(
+        delegate, new RequestBudget(100, 10), empty(), 50, scheduler, clock::get);
+
+    for (int i = 0; i < LatencyTracker.MIN_SAMPLES; i++) {
+      send(client, Request.forUri("http://search/q"));
+      clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+      delegate.reply(i).complete(Response.ok());
+    }
+
+    // attempts that are cancelled right away must not pull the learned delay down
+    for (int i = 0; i < 2 * LatencyTracker.MIN_SAMPLES; i++) {
+      send(client, Request.forUri("http://search/q")).cancel(false);
+    }
+
+    send(client, Request.forUri("http://search/q"));
+    Thread.sleep(DELAY.toMillis() * 3);
+    assertThat(delegate.sent(), hasSize(3 * LatencyTracker.MIN_SAMPLES + 1));
+  }
+
+  private HedgingClient client(int maxHedges) {
+    return new HedgingClient(
+        delegate, new RequestBudget(0, maxHedges), Optional.of(DELAY), 95, scheduler,
+        System::nanoTime);
+  }
+
+  private static CompletableFuture<Response<ByteString>> send(
+      HedgingClient client, Request request) {
+    return client.send(request, empty()).toCompletableFuture();
+  }
+
+  private void awaitSent(int count) throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    while (delegate.sent().size() < count && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertThat(delegate.sent(), hasSize(count));
+  }
+}
@@ -0,0 +1,108 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.sun.net.httpserver.HttpServer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Optional;
+
+import okio.ByteString;
+
+/**
+ * Measures sending requests with and without a ttl to a local server. Run with the GC profiler
+ * to see the allocation per call, which used to include a clone of the whole client for every
+ * request whose ttl differed from the configured read timeout.
+ */
+@State(Scope.Benchmark)
+public class HttpClientBenchmark {
+
+  private static final byte[] BODY = "pong".getBytes();
+
+  @Param({"none", "250"})
+  public String ttlMillis;
+
+  private HttpServer server;
+  private HttpClient client;
+  private Request request;
+
+  public static void main(String... args) throws IOException, RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(HttpClientBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .warmupIterations(5)
+        .measurementIterations(10)
+        .threads(1)
+        .forks(1)
+        .build();
+
+    new Runner(opt).run();
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/ping", exchange -> {
+      exchange.sendResponseHeaders(200, BODY.length);
+      try (OutputStream body = exchange.getResponseBody()) {
+        body.write(BODY);
+      }
+    });
+    server.start();
+
+    client = HttpClient.createUnconfigured();
+
+    final Request ping =
+        Request.forUri("http://localhost:" + server.getAddress().getPort() + "/ping");
+    request = "none".equals(ttlMillis)
+              ? ping
+              : ping.withTtl(Duration.ofMillis(Long.parseLong(ttlMillis)));
+  }
+
+  @TearDown
+  public void tearDown() {
+    server.stop(0);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  public Response<ByteString> send() throws Exception {
+    return client.send(request, Optional.empty()).toCompletableFuture().get();
+  }
+}
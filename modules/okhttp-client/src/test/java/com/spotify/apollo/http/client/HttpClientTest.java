@@ -22,6 +22,7 @@ package com.spotify.apollo.http.client;
 import com.spotify.apollo.Request;
 import com.spotify.apollo.Response;
 import com.spotify.apollo.StatusType;
+import com.squareup.okhttp.OkHttpClient;
 
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
@@ -36,6 +37,7 @@ import java.net.SocketTimeoutException;
 import java.time.Duration;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import okio.ByteString;
 
@@ -185,6 +187,30 @@ public class HttpClientTest {
           .toCompletableFuture().get();
   }
 
+  @Test
+  public void testTtlLongerThanReadTimeout() throws Exception {
+    mockServerClient.when(
+        request()
+            .withMethod("GET")
+            .withPath("/foo.php")
+    ).callback(
+        callback()
+            .withCallbackClass(SleepCallback.class.getCanonicalName())
+    );
+
+    final OkHttpClient okHttpClient = new OkHttpClient();
+    okHttpClient.setReadTimeout(200, TimeUnit.MILLISECONDS);
+
+    String uri = format("http://localhost:%d/foo.php", mockServerRule.getHttpPort());
+    Request request = Request.forUri(uri, "GET").withTtl(Duration.ofMillis(5000));
+
+    Response<ByteString> response = new HttpClient(okHttpClient)
+        .send(request, empty())
+        .toCompletableFuture().get();
+
+    assertThat(response.status(), withCode(200));
+  }
+
   @Test
   public void testAuthContextPropagation() throws Exception {
     mockServerClient.when(
@@ -0,0 +1,50 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class HttpUrisTest {
+
+  @Test
+  public void shouldAcceptHttpUrisWithAuthority() {
+    assertThat(HttpUris.isHttp("http://search/q"), is(true));
+    assertThat(HttpUris.isHttp("https://search:8443"), is(true));
+  }
+
+  @Test
+  public void shouldRejectUrisWithoutAuthority() {
+    assertThat(HttpUris.isHttp("http:search"), is(false));
+    assertThat(HttpUris.isHttp("https:/search"), is(false));
+    assertThat(HttpUris.isHttp("ftp://search"), is(false));
+  }
+
+  @Test
+  public void shouldExtractLowerCaseAuthority() {
+    assertThat(HttpUris.authority("http://Search.Example.com:8080/q?a=b"),
+               is("search.example.com:8080"));
+    assertThat(HttpUris.authority("https://search?q"), is("search"));
+    assertThat(HttpUris.authority("http://search#top"), is("search"));
+    assertThat(HttpUris.authority("http://search"), is("search"));
+  }
+}
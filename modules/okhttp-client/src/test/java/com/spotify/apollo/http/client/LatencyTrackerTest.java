@@ -0,0 +1,60 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class LatencyTrackerTest {
+
+  private final LatencyTracker tracker = new LatencyTracker(95);
+
+  @Test
+  public void shouldNotReportPercentileWithTooFewSamples() throws Exception {
+    for (int i = 1; i < LatencyTracker.MIN_SAMPLES; i++) {
+      tracker.record(i);
+    }
+
+    assertThat(tracker.percentileNanos(), is(-1L));
+  }
+
+  @Test
+  public void shouldReportPercentile() throws Exception {
+    for (int i = 1; i <= LatencyTracker.MIN_SAMPLES; i++) {
+      tracker.record(i);
+    }
+
+    assertThat(tracker.percentileNanos(), is(95L));
+  }
+
+  @Test
+  public void shouldOnlyKeepLatestSamples() throws Exception {
+    for (int i = 0; i < LatencyTracker.WINDOW; i++) {
+      tracker.record(1_000_000);
+    }
+    for (int i = 1; i <= LatencyTracker.WINDOW; i++) {
+      tracker.record(i);
+    }
+
+    assertThat(tracker.percentileNanos(), is(950L));
+  }
+}
@@ -0,0 +1,136 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.google.common.collect.ImmutableList;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class LoadBalancerTest {
+
+  private static final long MILLIS = 1_000_000;
+
+  private long now;
+  private final Deque<Integer> draws = new ArrayDeque<>();
+
+  private final LoadBalancer balancer = new LoadBalancer(
+      ImmutableList.of("a:80", "b:80", "c:80"),
+      2,
+      1000 * MILLIS,
+      100 * MILLIS,
+      () -> now,
+      bound -> draws.isEmpty() ? 0 : draws.poll());
+
+  @Test
+  public void shouldPreferHostWithFewerRequestsInFlight() throws Exception {
+    draw(0, 0);
+    final LoadBalancer.Host a = balancer.pick();
+
+    // a and b are drawn again; a now has a request in flight
+    draw(0, 0);
+    assertThat(balancer.pick().authority(), is("b:80"));
+    assertThat(a.inflight(), is(1));
+  }
+
+  @Test
+  public void shouldPreferFasterHost() throws Exception {
+    complete("a:80", 50 * MILLIS, true);
+    complete("b:80", 5 * MILLIS, true);
+
+    draw(0, 0);
+    assertThat(balancer.pick().authority(), is("b:80"));
+  }
+
+  @Test
+  public void shouldDecayLatencyTowardsRecentSamples() throws Exception {
+    complete("a:80", 50 * MILLIS, true);
+    now += 1000 * MILLIS;
+    complete("a:80", 5 * MILLIS, true);
+
+    assertThat(host("a:80").latencyNanos() < 6 * MILLIS, is(true));
+  }
+
+  @Test
+  public void shouldEjectHostAfterConsecutiveFailures() throws Exception {
+    complete("a:80", MILLIS, false);
+    complete("a:80", MILLIS, false);
+
+    assertThat(host("a:80").isEjected(now), is(true));
+
+    // a is cheaper than b, but ejected
+    complete("b:80", 50 * MILLIS, true);
+    draw(0, 0);
+    assertThat(balancer.pick().authority(), is("b:80"));
+  }
+
+  @Test
+  public void shouldResetFailuresOnSuccess() throws Exception {
+    complete("a:80", MILLIS, false);
+    complete("a:80", MILLIS, true);
+    complete("a:80", MILLIS, false);
+
+    assertThat(host("a:80").isEjected(now), is(false));
+  }
+
+  @Test
+  public void shouldReturnEjectedHostAfterEjectionTime() throws Exception {
+    complete("a:80", MILLIS, false);
+    complete("a:80", MILLIS, false);
+
+    now += 1000 * MILLIS;
+
+    assertThat(host("a:80").isEjected(now), is(false));
+  }
+
+  @Test
+  public void shouldUseEjectedHostsWhenAllAreEjected() throws Exception {
+    for (String host : Arrays.asList("a:80", "b:80", "c:80")) {
+      complete(host, MILLIS, false);
+      complete(host, MILLIS, false);
+    }
+
+    draw(2, 0, 2, 0, 2, 0);
+    assertThat(balancer.pick().authority(), is("c:80"));
+  }
+
+  private void complete(String authority, long latencyNanos, boolean success) {
+    host(authority).record(latencyNanos, success);
+  }
+
+  private LoadBalancer.Host host(String authority) {
+    for (LoadBalancer.Host host : balancer.hosts()) {
+      if (host.authority().equals(authority)) {
+        return host;
+      }
+    }
+    throw new AssertionError("no host " + authority);
+  }
+
+  private void draw(Integer... values) {
+    draws.addAll(Arrays.asList(values));
+  }
+}
@@ -0,0 +1,175 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+import com.typesafe.config.ConfigFactory;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockserver.client.server.MockServerClient;
+import org.mockserver.junit.MockServerRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import okio.ByteString;
+
+import static java.lang.String.format;
+import static java.util.Optional.empty;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+public class LoadBalancingClientTest {
+
+  @Rule
+  public final MockServerRule mockServerRule = new MockServerRule(this);
+
+  // this field gets set by the MockServerRule
+  @SuppressWarnings("unused")
+  private MockServerClient mockServerClient;
+
+  private final List<Request> sent = new ArrayList<>();
+  private CompletableFuture<Response<ByteString>> reply =
+      CompletableFuture.completedFuture(Response.ok());
+
+  private final IncomingRequestAwareClient delegate = (request, incoming) -> {
+    sent.add(request);
+    return reply;
+  };
+
+  private final LoadBalancer search = new LoadBalancer(
+      ImmutableList.of("search-1:8080"), 1, 1_000_000_000L, 1_000_000_000L,
+      System::nanoTime, bound -> 0);
+
+  private final LoadBalancingClient client = new LoadBalancingClient(
+      delegate, ImmutableMap.of("search", search), System::nanoTime);
+
+  @Test
+  public void shouldSendToConfiguredHost() throws Exception {
+    client.send(Request.forUri("http://search/v1/query?q=apollo#top"), empty());
+
+    assertThat(sent.get(0).uri(), is("http://search-1:8080/v1/query?q=apollo#top"));
+  }
+
+  @Test
+  public void shouldMatchServiceNameIgnoringCase() throws Exception {
+    client.send(Request.forUri("https://Search?q=apollo"), empty());
+
+    assertThat(sent.get(0).uri(), is("https://search-1:8080?q=apollo"));
+  }
+
+  @Test
+  public void shouldPassOnOtherHostsUnchanged() throws Exception {
+    final Request request = Request.forUri("http://search.example.com/v1/query");
+
+    client.send(request, empty());
+
+    assertThat(sent.get(0), is(request));
+  }
+
+  @Test
+  public void shouldPassOnNonHttpRequestsUnchanged() throws Exception {
+    final Request request = Request.forUri("hm://search/v1/query");
+
+    client.send(request, empty());
+
+    assertThat(sent.get(0), is(request));
+  }
+
+  @Test
+  public void shouldReleaseHostWhenCompleted() throws Exception {
+    reply = new CompletableFuture<>();
+
+    client.send(Request.forUri("http://search/v1/query"), empty());
+    assertThat(search.hosts()[0].inflight(), is(1));
+
+    reply.complete(Response.ok());
+    assertThat(search.hosts()[0].inflight(), is(0));
+  }
+
+  @Test
+  public void shouldCountServerErrorsAsFailures() throws Exception {
+    reply = CompletableFuture.completedFuture(Response.forStatus(Status.SERVICE_UNAVAILABLE));
+
+    client.send(Request.forUri("http://search/v1/query"), empty());
+
+    assertThat(search.hosts()[0].isEjected(System.nanoTime()), is(true));
+  }
+
+  @Test
+  public void shouldCountExceptionsAsFailures() throws Exception {
+    reply = new CompletableFuture<>();
+    reply.completeExceptionally(new RuntimeException("connection refused"));
+
+    client.send(Request.forUri("http://search/v1/query"), empty());
+
+    assertThat(search.hosts()[0].isEjected(System.nanoTime()), is(true));
+  }
+
+  @Test
+  public void shouldPassOnCancellationWithoutCountingFailure() throws Exception {
+    reply = new CompletableFuture<>();
+
+    client.send(Request.forUri("http://search/v1/query"), empty())
+        .toCompletableFuture()
+        .cancel(false);
+
+    assertThat(reply.isCancelled(), is(true));
+    assertThat(search.hosts()[0].inflight(), is(0));
+    assertThat(search.hosts()[0].isEjected(System.nanoTime()), is(false));
+  }
+
+  @Test
+  public void shouldSendToLocalServerThroughModuleConfiguration() throws Exception {
+    mockServerClient.when(
+        request()
+            .withMethod("GET")
+            .withPath("/v1/query")
+    ).respond(
+        response()
+            .withStatusCode(200)
+            .withBody("found")
+    );
+
+    final IncomingRequestAwareClient balanced =
+        new HttpLoadBalancingModule.LoadBalancingClientDecorator(ConfigFactory.parseString(
+            format("http.client.loadBalancing.services.search: [\"localhost:%d\"]",
+                   mockServerRule.getHttpPort())))
+            .apply(HttpClient.createUnconfigured());
+
+    final Response<ByteString> response = balanced
+        .send(Request.forUri("http://search/v1/query"), Optional.empty())
+        .toCompletableFuture().get();
+
+    assertThat(response.status().code(), is(200));
+    assertThat(response.payload(), is(Optional.of(ByteString.encodeUtf8("found"))));
+  }
+}
@@ -0,0 +1,131 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.environment.IncomingRequestAwareClient;
+import com.spotify.metrics.core.MetricId;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import okio.ByteString;
+
+/**
+ * A client to put under the decorators in tests. It records the requests sent to it and answers
+ * them with the replies queued with {@link #enqueue(Response)}, then with the one given to
+ * {@link #alwaysReply(Response)}, and otherwise with a future that the test completes
+ * through {@link #reply(int)}.
+ */
+class RecordingClient implements IncomingRequestAwareClient {
+
+  private final List<Request> sent = new CopyOnWriteArrayList<>();
+  private final List<CompletableFuture<Response<ByteString>>> replies =
+      new CopyOnWriteArrayList<>();
+  private final Deque<CompletableFuture<Response<ByteString>>> queued = new ArrayDeque<>();
+
+  private volatile CompletableFuture<Response<ByteString>> defaultReply;
+
+  @Override
+  public CompletionStage<Response<ByteString>> send(Request request, Optional<Request> incoming) {
+    CompletableFuture<Response<ByteString>> reply;
+    synchronized (queued) {
+      reply = queued.poll();
+    }
+    if (reply == null) {
+      reply = defaultReply != null ? defaultReply : new CompletableFuture<>();
+    }
+    sent.add(request);
+    replies.add(reply);
+    return reply;
+  }
+
+  /**
+   * Queues a reply for the next request that has none queued yet.
+   */
+  RecordingClient enqueue(Response<ByteString> response) {
+    return enqueue(CompletableFuture.completedFuture(response));
+  }
+
+  RecordingClient enqueue(CompletableFuture<Response<ByteString>> reply) {
+    synchronized (queued) {
+      queued.add(reply);
+    }
+    return this;
+  }
+
+  /**
+   * Answers every request that has no queued reply with the given one.
+   */
+  RecordingClient alwaysReply(Response<ByteString> response) {
+    return alwaysReply(CompletableFuture.completedFuture(response));
+  }
+
+  RecordingClient alwaysReply(CompletableFuture<Response<ByteString>> reply) {
+    this.defaultReply = reply;
+    return this;
+  }
+
+  /**
+   * The requests sent so far, in the order they were sent.
+   */
+  List<Request> sent() {
+    return sent;
+  }
+
+  /**
+   * The reply to the request that was sent {@code index}th, counting from 0.
+   */
+  CompletableFuture<Response<ByteString>> reply(int index) {
+    return replies.get(index);
+  }
+
+  static CompletableFuture<Response<ByteString>> failed(Throwable throwable) {
+    final CompletableFuture<Response<ByteString>> failed = new CompletableFuture<>();
+    failed.completeExceptionally(throwable);
+    return failed;
+  }
+
+  /**
+   * The count of a meter that the decorators keep per target host, tagged with {@code what},
+   * {@code unit} and the given extra tag pairs.
+   */
+  static long count(SemanticMetricRegistry metricRegistry,
+                    String targetHost,
+                    String what,
+                    String unit,
+                    String... tags) {
+    return metricRegistry.meter(
+        MetricId.build()
+            .tagged("protocol", "http/https")
+            .tagged("target-host", targetHost)
+            .tagged("what", what)
+            .tagged("unit", unit)
+            .tagged(tags))
+        .getCount();
+  }
+}
@@ -0,0 +1,211 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.google.common.collect.ImmutableSet;
+
+import com.spotify.apollo.Request;
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+import com.spotify.metrics.core.SemanticMetricRegistry;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import okio.ByteString;
+
+import static com.spotify.apollo.http.client.RecordingClient.count;
+import static com.spotify.apollo.http.client.RecordingClient.failed;
+import static java.util.Optional.empty;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.fail;
+
+public class RetryingClientTest {
+
+  private static final long MILLIS = 1_000_000;
+
+  private final ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1);
+  private final SemanticMetricRegistry metricRegistry = new SemanticMetricRegistry();
+
+  private final RecordingClient delegate = new RecordingClient();
+
+  @After
+  public void tearDown() throws Exception {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void shouldRetryServerErrors() throws Exception {
+    reply(Status.SERVICE_UNAVAILABLE, Status.OK);
+
+    final Response<ByteString> response = send(client(10, 10), Request.forUri("http://search/q"));
+
+    assertThat(response.status(), is(Status.OK));
+    assertThat(delegate.sent(), hasSize(2));
+    assertThat(count(metricRegistry, "search", "retry-rate", "request"), is(1L));
+  }
+
+  @Test
+  public void shouldRetryConnectFailures() throws Exception {
+    delegate.enqueue(failed(new ConnectException("connection refused")));
+    reply(Status.OK);
+
+    final Response<ByteString> response = send(client(10, 10), Request.forUri("http://search/q"));
+
+    assertThat(response.status(), is(Status.OK));
+    assertThat(delegate.sent(), hasSize(2));
+  }
+
+  @Test
+  public void shouldNotRetryOtherFailures() throws Exception {
+    delegate.enqueue(failed(new SocketTimeoutException("timeout")));
+
+    try {
+      send(client(10, 10), Request.forUri("http://search/q"));
+      fail("expected the request to fail");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause(), instanceOf(SocketTimeoutException.class));
+    }
+    assertThat(delegate.sent(), hasSize(1));
+  }
+
+  @Test
+  public void shouldNotRetryOtherStatuses() throws Exception {
+    reply(Status.INTERNAL_SERVER_ERROR);
+
+    final Response<ByteString> response = send(client(10, 10), Request.forUri("http://search/q"));
+
+    assertThat(response.status(), is(Status.INTERNAL_SERVER_ERROR));
+    assertThat(delegate.sent(), hasSize(1));
+  }
+
+  @Test
+  public void shouldNotRetryNonIdempotentRequests() throws Exception {
+    reply(Status.SERVICE_UNAVAILABLE);
+
+    final Response<ByteString> response =
+        send(client(10, 10), Request.forUri("http://search/q", "POST"));
+
+    assertThat(response.status(), is(Status.SERVICE_UNAVAILABLE));
+    assertThat(delegate.sent(), hasSize(1));
+  }
+
+  @Test
+  public void shouldGiveUpAfterMaxRetries() throws Exception {
+    reply(Status.SERVICE_UNAVAILABLE, Status.SERVICE_UNAVAILABLE, Status.SERVICE_UNAVAILABLE,
+          Status.OK);
+
+    final Response<ByteString> response = send(client(10, 10), Request.forUri("http://search/q"));
+
+    assertThat(response.status(), is(Status.SERVICE_UNAVAILABLE));
+    assertThat(delegate.sent(), hasSize(3));
+  }
+
+  @Test
+  public void shouldStopRetryingWhenBudgetIsExhausted() throws Exception {
+    final RetryingClient client = client(0, 1);
+    reply(Status.SERVICE_UNAVAILABLE, Status.OK, Status.SERVICE_UNAVAILABLE);
+
+    send(client, Request.forUri("http://search/q"));
+    final Response<ByteString> response = send(client, Request.forUri("http://search/q"));
+
+    assertThat(response.status(), is(Status.SERVICE_UNAVAILABLE));
+    assertThat(delegate.sent(), hasSize(3));
+    assertThat(count(metricRegistry, "search", "retry-budget-exhausted-rate", "request"), is(1L));
+  }
+
+  @Test
+  public void shouldRefillBudgetWithSuccessfulReplies() throws Exception {
+    final RetryingClient client = client(50, 1);
+    reply(Status.SERVICE_UNAVAILABLE, Status.OK, Status.OK, Status.SERVICE_UNAVAILABLE, Status.OK);
+
+    send(client, Request.forUri("http://search/q"));
+    send(client, Request.forUri("http://search/q"));
+    final Response<ByteString> response = send(client, Request.forUri("http://search/q"));
+
+    assertThat(response.status(), is(Status.OK));
+    assertThat(count(metricRegistry, "search", "retry-rate", "request"), is(2L));
+  }
+
+  @Test
+  public void shouldPassRemainingTtlOn() throws Exception {
+    reply(Status.SERVICE_UNAVAILABLE, Status.OK);
+
+    send(client(10, 10), Request.forUri("http://search/q").withTtl(Duration.ofSeconds(10)));
+
+    assertThat(delegate.sent().get(1).ttl().get(), lessThan(Duration.ofSeconds(10)));
+  }
+
+  @Test
+  public void shouldNotRetryPastTtl() throws Exception {
+    reply(Status.SERVICE_UNAVAILABLE, Status.OK);
+
+    final Response<ByteString> response = send(
+        client(10, 10), Request.forUri("http://search/q").withTtl(Duration.ofNanos(1)));
+
+    assertThat(response.status(), is(Status.SERVICE_UNAVAILABLE));
+    assertThat(delegate.sent(), hasSize(1));
+  }
+
+  @Test
+  public void shouldCancelRetriesWithCaller() throws Exception {
+    final CompletableFuture<Response<ByteString>> first = new CompletableFuture<>();
+    delegate.enqueue(first);
+
+    final CompletableFuture<Response<ByteString>> result =
+        client(10, 10).send(Request.forUri("http://search/q"), empty()).toCompletableFuture();
+    result.cancel(false);
+
+    assertThat(first.isCancelled(), is(true));
+    assertThat(delegate.sent(), hasSize(1));
+  }
+
+  private RetryingClient client(double budgetPercent, int maxBurst) {
+    final RetryingClient.Settings settings = new RetryingClient.Settings(
+        2, ImmutableSet.of(502, 503, 504), budgetPercent, maxBurst, MILLIS, 10 * MILLIS);
+    return new RetryingClient(
+        delegate, settings, metricRegistry, scheduler, System::nanoTime, () -> 0.5);
+  }
+
+  private void reply(Status... statuses) {
+    for (Status status : statuses) {
+      delegate.enqueue(CompletableFuture.completedFuture(Response.forStatus(status)));
+    }
+  }
+
+
+  private static Response<ByteString> send(RetryingClient client, Request request)
+      throws Exception {
+    return client.send(request, empty()).toCompletableFuture().get(1, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,137 @@
+/*-
+ * -\-\-
+ * Spotify Apollo okhttp Client Module
+ * --
+ * Copyright (C) 2013 - 2026 Spotify AB
+ * --
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * -/-/-
+ */
+package com.spotify.apollo.http.client;
+
+import com.spotify.apollo.Response;
+import com.spotify.apollo.Status;
+import com.squareup.okhttp.MediaType;
+import com.squareup.okhttp.Protocol;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.ResponseBody;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import okio.Buffer;
+import okio.ByteString;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class TransformingCallbackTest {
+
+  private static final MediaType TEXT = MediaType.parse("text/plain");
+
+  @Rule public ExpectedException thrown = ExpectedException.none();
+
+  @Test
+  public void shouldTransformStatusHeadersAndPayload() throws Exception {
+    final Response<ByteString> response = TransformingCallback.transformResponse(
+        response(ResponseBody.create(TEXT, "hello"))
+            .header("Content-Type", "text/plain")
+            .header("Vary", "Accept")
+            .build());
+
+    assertThat(response.status(), is(Status.OK));
+    assertThat(response.header("content-type"), is(Optional.of("text/plain")));
+    assertThat(response.header("Vary"), is(Optional.of("Accept")));
+    assertThat(response.payload(), is(Optional.of(ByteString.encodeUtf8("hello"))));
+  }
+
+  @Test
+  public void shouldJoinRepeatedHeaders() throws Exception {
+    final Response<ByteString> response = TransformingCallback.transformResponse(
+        response(ResponseBody.create(TEXT, ""))
+            .addHeader("Vary", "Content-Type")
+            .addHeader("Cache-Control", "no-cache")
+            .addHeader("vary", "Accept")
+            .build());
+
+    assertThat(response.headerEntries(),
+               hasItem(new SimpleEntry<>("Vary", "Content-Type, Accept")));
+    assertThat(response.headerEntries().size(), is(2));
+  }
+
+  @Test
+  public void shouldOmitEmptyPayload() throws Exception {
+    final Response<ByteString> response = TransformingCallback.transformResponse(
+        response(ResponseBody.create(TEXT, "")).build());
+
+    assertThat(response.payload(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldAcceptPayloadAtTheLimit() throws Exception {
+    final Response<ByteString> response = TransformingCallback.transformResponse(
+        response(unknownLength("hello")).build(), 5);
+
+    assertThat(response.payload(), is(Optional.of(ByteString.encodeUtf8("hello"))));
+  }
+
+  @Test
+  public void shouldRejectDeclaredContentLengthOverTheLimit() throws Exception {
+    thrown.expect(IOException.class);
+    thrown.expectMessage("exceeds the limit of 4 bytes");
+
+    TransformingCallback.transformResponse(response(ResponseBody.create(TEXT, "hello")).build(), 4);
+  }
+
+  @Test
+  public void shouldRejectUndeclaredContentLengthOverTheLimit() throws Exception {
+    thrown.expect(IOException.class);
+    thrown.expectMessage("exceeds the limit of 4 bytes");
+
+    TransformingCallback.transformResponse(response(unknownLength("hello")).build(), 4);
+  }
+
+  @Test
+  public void shouldFailFutureWhenResponseCannotBeTransformed() throws Exception {
+    final CompletableFuture<Response<ByteString>> future = new CompletableFuture<>();
+
+    TransformingCallback.create(future, 4)
+        .onResponse(response(ResponseBody.create(TEXT, "hello")).build());
+
+    thrown.expect(ExecutionException.class);
+    thrown.expectCause(instanceOf(IOException.class));
+    future.get();
+  }
+
+  private static com.squareup.okhttp.Response.Builder response(ResponseBody body) {
+    return new com.squareup.okhttp.Response.Builder()
+        .request(new Request.Builder().url("http://example.com/").build())
+        .protocol(Protocol.HTTP_1_1)
+        .code(200)
+        .message("OK")
+        .body(body);
+  }
+
+  private static ResponseBody unknownLength(String content) {
+    return ResponseBody.create(TEXT, -1, new Buffer().writeUtf8(content));
+  }
+}